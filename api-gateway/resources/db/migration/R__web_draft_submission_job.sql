@@ -0,0 +1,19 @@
+-- Draft submission jobs. Jobs are executed by the node that accepted the
+-- submission; the table stores the job status so that any node can report it.
+--
+-- Repeatable migration applied after the versioned migrations of the cli
+-- project. All statements must be idempotent
+
+CREATE TABLE IF NOT EXISTS web.draft_submission_job (
+  id            serial PRIMARY KEY,
+  key           uuid NOT NULL,
+  draft_key     uuid NOT NULL,
+  publisher_key uuid NOT NULL,
+  status        varchar(20) NOT NULL,
+  result        text,
+  created_at    timestamp with time zone NOT NULL,
+  updated_at    timestamp with time zone NOT NULL,
+  CONSTRAINT uq_draft_submission_job_key UNIQUE (key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_draft_submission_job_updated_at ON web.draft_submission_job (updated_at);
@@ -0,0 +1,27 @@
+-- Resumable upload sessions of the user file system. Received chunks are
+-- stored in the temporary directory; the table only stores session metadata.
+--
+-- Repeatable migration applied after the versioned migrations of the cli
+-- project. All statements must be idempotent
+
+CREATE TABLE IF NOT EXISTS web.file_upload_session (
+  id          serial PRIMARY KEY,
+  key         uuid NOT NULL,
+  account     integer NOT NULL,
+  path        text,
+  file_name   text NOT NULL,
+  comment     text,
+  overwrite   boolean NOT NULL,
+  size        bigint NOT NULL,
+  chunk_size  bigint NOT NULL,
+  status      varchar(20) NOT NULL,
+  created_at  timestamp with time zone NOT NULL,
+  updated_at  timestamp with time zone NOT NULL,
+  CONSTRAINT uq_file_upload_session_key UNIQUE (key),
+  CONSTRAINT fk_file_upload_session_account FOREIGN KEY (account)
+    REFERENCES web.account (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_file_upload_session_account ON web.file_upload_session (account);
+
+CREATE INDEX IF NOT EXISTS idx_file_upload_session_updated_at ON web.file_upload_session (updated_at);
@@ -0,0 +1,9 @@
+-- Session version used by the node-local session cache
+-- (opertusmundi.session.near-cache.enabled). The version is incremented
+-- whenever the session row is updated; sessions are reloaded by other nodes
+-- when the version changes.
+--
+-- Repeatable migration applied after the versioned migrations of the cli
+-- project. All statements must be idempotent
+
+ALTER TABLE web.spring_session ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
@@ -3,19 +3,122 @@ package eu.opertusmundi.web.config;
 import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.io.FileUtils;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.util.unit.DataSize;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import eu.opertusmundi.web.model.file.CachedFile;
+import eu.opertusmundi.web.security.JwtPrincipalCache;
+import eu.opertusmundi.web.security.NearCacheSessionRepository;
+import eu.opertusmundi.web.service.DefaultAnalyticsQueryCacheService;
+import eu.opertusmundi.web.service.DefaultAssetHydrationService;
+import eu.opertusmundi.web.service.DefaultContractPdfCacheService;
+import eu.opertusmundi.web.service.DefaultCatalogueSearchCacheService;
+import eu.opertusmundi.web.service.DefaultDraftSubmissionService;
+import eu.opertusmundi.web.service.DefaultJupyterUserService;
+import eu.opertusmundi.web.service.DefaultLocationResolver;
+import eu.opertusmundi.web.service.DefaultMessageContactService;
+import eu.opertusmundi.web.service.DefaultNutsGeometryPyramidService;
+import eu.opertusmundi.web.service.DefaultNutsVectorTileService;
+import eu.opertusmundi.web.service.DefaultServiceSampleService;
+import eu.opertusmundi.web.service.DefaultWmsTileCacheService;
 
 @EnableCaching
 @Configuration
 public class CacheConfiguration {
 
+    @Value("${opertusmundi.cache.jwt-principal.max-size:10000}")
+    private long jwtPrincipalMaxSize;
+
+    @Value("${opertusmundi.cache.jwt-principal.ttl-seconds:60}")
+    private long jwtPrincipalTtlSeconds;
+
+    @Value("${opertusmundi.cache.nuts-tiles.max-size:64MB}")
+    private DataSize nutsTilesMaxSize;
+
+    @Value("${opertusmundi.cache.nuts-tiles.ttl-seconds:86400}")
+    private long nutsTilesTtlSeconds;
+
+    @Value("${opertusmundi.cache.nuts-geometry-pyramid.max-coordinates:5000000}")
+    private long nutsGeometryPyramidMaxCoordinates;
+
+    @Value("${opertusmundi.cache.ip-location.max-size:50000}")
+    private long ipLocationMaxSize;
+
+    @Value("${opertusmundi.cache.ip-location.ttl-seconds:86400}")
+    private long ipLocationTtlSeconds;
+
+    @Value("${opertusmundi.cache.catalogue-search.max-size:5000}")
+    private long catalogueSearchMaxSize;
+
+    @Value("${opertusmundi.cache.catalogue-search.ttl-seconds:60}")
+    private long catalogueSearchTtlSeconds;
+
+    @Value("${opertusmundi.cache.analytics-query.max-size:5000}")
+    private long analyticsQueryMaxSize;
+
+    @Value("${opertusmundi.cache.analytics-query.ttl-seconds:300}")
+    private long analyticsQueryTtlSeconds;
+
+    @Value("${opertusmundi.cache.asset-summary.max-size:2000}")
+    private long assetSummaryMaxSize;
+
+    @Value("${opertusmundi.cache.asset-summary.ttl-seconds:300}")
+    private long assetSummaryTtlSeconds;
+
+    @Value("${opertusmundi.cache.draft-submission-job.max-size:10000}")
+    private long draftSubmissionJobMaxSize;
+
+    @Value("${opertusmundi.cache.draft-submission-job.ttl-seconds:3600}")
+    private long draftSubmissionJobTtlSeconds;
+
+    @Value("${opertusmundi.cache.message-contact.max-size:10000}")
+    private long messageContactMaxSize;
+
+    @Value("${opertusmundi.cache.message-contact.ttl-seconds:600}")
+    private long messageContactTtlSeconds;
+
+    @Value("${opertusmundi.cache.wms-tile.max-size:512MB}")
+    private DataSize wmsTileMaxSize;
+
+    @Value("${opertusmundi.cache.wms-tile.ttl-seconds:86400}")
+    private long wmsTileTtlSeconds;
+
+    @Value("${opertusmundi.cache.service-sample.max-size:64MB}")
+    private DataSize serviceSampleMaxSize;
+
+    @Value("${opertusmundi.cache.service-sample.ttl-seconds:3600}")
+    private long serviceSampleTtlSeconds;
+
+    @Value("${opertusmundi.cache.contract-pdf.max-size:256MB}")
+    private DataSize contractPdfMaxSize;
+
+    @Value("${opertusmundi.cache.contract-pdf.ttl-seconds:86400}")
+    private long contractPdfTtlSeconds;
+
+    @Value("${opertusmundi.cache.jupyter-user.max-size:10000}")
+    private long jupyterUserMaxSize;
+
+    @Value("${opertusmundi.cache.jupyter-user.ttl-seconds:5}")
+    private long jupyterUserTtlSeconds;
+
+    @Value("${opertusmundi.cache.http-session.max-size:10000}")
+    private long httpSessionMaxSize;
+
+    @Value("${opertusmundi.cache.http-session.ttl-seconds:1800}")
+    private long httpSessionTtlSeconds;
+
     @Primary
     @Bean
     public CacheManager defaultCacheManager() {
@@ -33,7 +136,136 @@ public class CacheConfiguration {
             "geodata-configuration",
             "sentinel-hub-subscription-plans"
         ));
+
+        // Caches with custom size and expiration policies. Statistics are
+        // recorded so that cache metrics are exposed by the actuator
+        cacheManager.registerCustomCache(JwtPrincipalCache.CACHE_NAME, Caffeine.newBuilder()
+            .recordStats()
+            .maximumSize(jwtPrincipalMaxSize)
+            .expireAfterWrite(jwtPrincipalTtlSeconds, TimeUnit.SECONDS)
+            .build()
+        );
+
+        // NUTS vector tiles are weighted by their encoded size in bytes
+        cacheManager.registerCustomCache(DefaultNutsVectorTileService.CACHE_NAME, Caffeine.newBuilder()
+            .recordStats()
+            .maximumWeight(nutsTilesMaxSize.toBytes())
+            .weigher((Object key, Object value) -> value instanceof byte[] ? ((byte[]) value).length : 1)
+            .expireAfterWrite(nutsTilesTtlSeconds, TimeUnit.SECONDS)
+            .build()
+        );
+
+        // Simplified NUTS geometries are weighted by their number of
+        // coordinates. Entries never expire since NUTS regions are static
+        cacheManager.registerCustomCache(DefaultNutsGeometryPyramidService.CACHE_NAME, Caffeine.newBuilder()
+            .recordStats()
+            .maximumWeight(nutsGeometryPyramidMaxCoordinates)
+            .weigher((Object key, Object value) -> value instanceof Geometry ? ((Geometry) value).getNumPoints() : 1)
+            .build()
+        );
+
+        // Client IP address locations shared by all sessions
+        cacheManager.registerCustomCache(DefaultLocationResolver.CACHE_NAME, Caffeine.newBuilder()
+            .recordStats()
+            .maximumSize(ipLocationMaxSize)
+            .expireAfterWrite(ipLocationTtlSeconds, TimeUnit.SECONDS)
+            .build()
+        );
+
+        // Deserialized HTTP sessions. Idle sessions are evicted; they are
+        // reloaded from the database on the next request
+        cacheManager.registerCustomCache(NearCacheSessionRepository.CACHE_NAME, Caffeine.newBuilder()
+            .recordStats()
+            .maximumSize(httpSessionMaxSize)
+            .expireAfterAccess(httpSessionTtlSeconds, TimeUnit.SECONDS)
+            .build()
+        );
+
+        // Catalogue search results for anonymous requests
+        cacheManager.registerCustomCache(DefaultCatalogueSearchCacheService.CACHE_NAME, Caffeine.newBuilder()
+            .recordStats()
+            .maximumSize(catalogueSearchMaxSize)
+            .expireAfterWrite(catalogueSearchTtlSeconds, TimeUnit.SECONDS)
+            .build()
+        );
+
+        // Analytics query results
+        cacheManager.registerCustomCache(DefaultAnalyticsQueryCacheService.CACHE_NAME, Caffeine.newBuilder()
+            .recordStats()
+            .maximumSize(analyticsQueryMaxSize)
+            .expireAfterWrite(analyticsQueryTtlSeconds, TimeUnit.SECONDS)
+            .build()
+        );
+
+        // Published asset summaries
+        cacheManager.registerCustomCache(DefaultAssetHydrationService.CACHE_NAME, Caffeine.newBuilder()
+            .recordStats()
+            .maximumSize(assetSummaryMaxSize)
+            .expireAfterWrite(assetSummaryTtlSeconds, TimeUnit.SECONDS)
+            .build()
+        );
+
+        // Draft submission jobs
+        cacheManager.registerCustomCache(DefaultDraftSubmissionService.CACHE_NAME, Caffeine.newBuilder()
+            .recordStats()
+            .maximumSize(draftSubmissionJobMaxSize)
+            .expireAfterWrite(draftSubmissionJobTtlSeconds, TimeUnit.SECONDS)
+            .build()
+        );
+
+        // Message senders and recipients
+        cacheManager.registerCustomCache(DefaultMessageContactService.CACHE_NAME, Caffeine.newBuilder()
+            .recordStats()
+            .maximumSize(messageContactMaxSize)
+            .expireAfterWrite(messageContactTtlSeconds, TimeUnit.SECONDS)
+            .build()
+        );
+
+        // WMS tiles are stored in the local file system
+        cacheManager.registerCustomCache(DefaultWmsTileCacheService.CACHE_NAME, this.createFileCache(wmsTileMaxSize, wmsTileTtlSeconds));
+
+        // Serialized WMS/WFS samples of draft service resources are weighted
+        // by their size in bytes
+        cacheManager.registerCustomCache(DefaultServiceSampleService.CACHE_NAME, Caffeine.newBuilder()
+            .recordStats()
+            .maximumWeight(serviceSampleMaxSize.toBytes())
+            .weigher((Object key, Object value) -> value instanceof byte[] ? ((byte[]) value).length : 1)
+            .expireAfterWrite(serviceSampleTtlSeconds, TimeUnit.SECONDS)
+            .build()
+        );
+
+        // Rendered contract PDF files are stored in the local file system
+        cacheManager.registerCustomCache(DefaultContractPdfCacheService.CACHE_NAME, this.createFileCache(contractPdfMaxSize, contractPdfTtlSeconds));
+
+        // JupyterHub user state is cached for a few seconds since clients poll
+        // the notebook server status while a server is spawning
+        cacheManager.registerCustomCache(DefaultJupyterUserService.CACHE_NAME, Caffeine.newBuilder()
+            .recordStats()
+            .maximumSize(jupyterUserMaxSize)
+            .expireAfterWrite(jupyterUserTtlSeconds, TimeUnit.SECONDS)
+            .build()
+        );
+
         return cacheManager;
     }
 
+    /**
+     * Creates an index for files stored in the local file system. Entries are
+     * weighted by their file size and the file is deleted when the entry is
+     * evicted
+     */
+    private Cache<Object, Object> createFileCache(DataSize maxSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+            .recordStats()
+            .maximumWeight(maxSize.toBytes())
+            .weigher((Object key, Object value) -> value instanceof CachedFile ? (int) Math.min(((CachedFile) value).getLength(), Integer.MAX_VALUE) : 1)
+            .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+            .removalListener((Object key, Object value, RemovalCause cause) -> {
+                if (value instanceof CachedFile && cause != RemovalCause.REPLACED) {
+                    FileUtils.deleteQuietly(((CachedFile) value).getPath().toFile());
+                }
+            })
+            .build();
+    }
+
 }
@@ -1,10 +1,56 @@
 package eu.opertusmundi.web.config;
 
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.session.config.SessionRepositoryCustomizer;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
 import org.springframework.session.jdbc.config.annotation.web.http.EnableJdbcHttpSession;
 
+import eu.opertusmundi.web.security.NearCacheSessionRepository;
+
 @Profile({ "production", "development" })
-@EnableJdbcHttpSession(tableName = "web.spring_session")
+@EnableJdbcHttpSession(tableName = HttpSessionConfiguration.TABLE_NAME)
 public class HttpSessionConfiguration {
 
+    public static final String TABLE_NAME = "web.spring_session";
+
+    /**
+     * Increment the session version whenever a session is updated. Requires a
+     * {@code VERSION} column in the session table
+     */
+    @Bean
+    @ConditionalOnProperty(name = "opertusmundi.session.near-cache.enabled", havingValue = "true")
+    public SessionRepositoryCustomizer<JdbcIndexedSessionRepository> versionedSessionRepositoryCustomizer() {
+        return repository -> repository.setUpdateSessionQuery(NearCacheSessionRepository.UPDATE_SESSION_QUERY);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "opertusmundi.session.near-cache.enabled", havingValue = "true")
+    public NearCacheSessionRepository nearCacheSessionRepository(
+        JdbcIndexedSessionRepository sessionRepository,
+        DataSource dataSource,
+        CacheManager defaultCacheManager,
+        @Value("${opertusmundi.session.near-cache.validation-interval-seconds:5}") long validationIntervalSeconds,
+        @Value("${opertusmundi.session.near-cache.touch-interval-seconds:60}") long touchIntervalSeconds
+    ) {
+        return new NearCacheSessionRepository(
+            sessionRepository,
+            new JdbcTemplate(dataSource),
+            defaultCacheManager,
+            TABLE_NAME,
+            Duration.ofSeconds(validationIntervalSeconds),
+            Duration.ofSeconds(touchIntervalSeconds)
+        );
+    }
+
 }
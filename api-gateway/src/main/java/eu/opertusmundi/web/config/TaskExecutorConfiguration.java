@@ -0,0 +1,146 @@
+package eu.opertusmundi.web.config;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+/**
+ * Bounded executors used for running request-scoped work concurrently.
+ *
+ * <p>
+ * Tasks are decorated so that the security context of the submitting request
+ * thread is available to the task.
+ *
+ * <p>
+ * Actions that block on remote services are executed asynchronously by a
+ * dedicated executor per remote service (bulkhead). Hence, a slow service
+ * can only exhaust its own executor and not the servlet container threads
+ * that serve all other requests. If a bulkhead executor is saturated, new
+ * tasks are rejected.
+ */
+@Configuration
+public class TaskExecutorConfiguration {
+
+    @Value("${opertusmundi.quotation-task-executor.core-pool-size:4}")
+    private int quotationCorePoolSize;
+
+    @Value("${opertusmundi.quotation-task-executor.max-pool-size:16}")
+    private int quotationMaxPoolSize;
+
+    @Value("${opertusmundi.quotation-task-executor.queue-capacity:100}")
+    private int quotationQueueCapacity;
+
+    @Value("${opertusmundi.catalogue-task-executor.core-pool-size:8}")
+    private int catalogueCorePoolSize;
+
+    @Value("${opertusmundi.catalogue-task-executor.max-pool-size:32}")
+    private int catalogueMaxPoolSize;
+
+    @Value("${opertusmundi.catalogue-task-executor.queue-capacity:200}")
+    private int catalogueQueueCapacity;
+
+    @Value("${opertusmundi.discovery-task-executor.core-pool-size:2}")
+    private int discoveryCorePoolSize;
+
+    @Value("${opertusmundi.discovery-task-executor.max-pool-size:8}")
+    private int discoveryMaxPoolSize;
+
+    @Value("${opertusmundi.discovery-task-executor.queue-capacity:50}")
+    private int discoveryQueueCapacity;
+
+    @Value("${opertusmundi.jupyter-task-executor.core-pool-size:2}")
+    private int jupyterCorePoolSize;
+
+    @Value("${opertusmundi.jupyter-task-executor.max-pool-size:8}")
+    private int jupyterMaxPoolSize;
+
+    @Value("${opertusmundi.jupyter-task-executor.queue-capacity:50}")
+    private int jupyterQueueCapacity;
+
+    @Value("${opertusmundi.draft-submission-task-executor.core-pool-size:2}")
+    private int draftSubmissionCorePoolSize;
+
+    @Value("${opertusmundi.draft-submission-task-executor.max-pool-size:8}")
+    private int draftSubmissionMaxPoolSize;
+
+    @Value("${opertusmundi.draft-submission-task-executor.queue-capacity:100}")
+    private int draftSubmissionQueueCapacity;
+
+    @Value("${opertusmundi.message-stream-task-executor.core-pool-size:4}")
+    private int messageStreamCorePoolSize;
+
+    @Value("${opertusmundi.message-stream-task-executor.max-pool-size:8}")
+    private int messageStreamMaxPoolSize;
+
+    @Value("${opertusmundi.message-stream-task-executor.queue-capacity:1000}")
+    private int messageStreamQueueCapacity;
+
+    @Bean
+    public ThreadPoolTaskExecutor quotationTaskExecutor() {
+        return this.createExecutor(
+            "quotation-", quotationCorePoolSize, quotationMaxPoolSize, quotationQueueCapacity,
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor catalogueTaskExecutor() {
+        return this.createExecutor(
+            "catalogue-", catalogueCorePoolSize, catalogueMaxPoolSize, catalogueQueueCapacity,
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor discoveryTaskExecutor() {
+        return this.createExecutor(
+            "discovery-", discoveryCorePoolSize, discoveryMaxPoolSize, discoveryQueueCapacity,
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor jupyterTaskExecutor() {
+        return this.createExecutor(
+            "jupyter-", jupyterCorePoolSize, jupyterMaxPoolSize, jupyterQueueCapacity,
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor draftSubmissionTaskExecutor() {
+        return this.createExecutor(
+            "draft-submission-", draftSubmissionCorePoolSize, draftSubmissionMaxPoolSize, draftSubmissionQueueCapacity,
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor messageStreamTaskExecutor() {
+        return this.createExecutor(
+            "message-stream-", messageStreamCorePoolSize, messageStreamMaxPoolSize, messageStreamQueueCapacity,
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    private ThreadPoolTaskExecutor createExecutor(
+        String threadNamePrefix, int corePoolSize, int maxPoolSize, int queueCapacity, RejectedExecutionHandler rejectedExecutionHandler
+    ) {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setRejectedExecutionHandler(rejectedExecutionHandler);
+        executor.setTaskDecorator(DelegatingSecurityContextRunnable::new);
+
+        return executor;
+    }
+
+}
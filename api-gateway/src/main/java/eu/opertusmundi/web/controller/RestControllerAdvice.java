@@ -2,6 +2,8 @@ package eu.opertusmundi.web.controller;
 
 import java.io.IOException;
 import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -197,6 +199,56 @@ public class RestControllerAdvice {
         return RestResponse.error(error);
     }
 
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    @ExceptionHandler(TimeoutException.class)
+    @ApiResponse(
+        responseCode = "504",
+        description = "Gateway Timeout",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = DebugRestResponse.class))
+    )
+    public @ResponseBody BaseResponse handleTimeoutException(TimeoutException ex, HttpServletRequest request) {
+
+        logger.error("504 - Gateway Timeout. [path={}]", request.getRequestURI());
+
+        final MessageCode      code        = BasicMessageCode.fromStatusCode(HttpStatus.GATEWAY_TIMEOUT);
+        final String           description = this.messageSource.getMessage(code.key(), null, Locale.getDefault());
+
+        final Message error = new Message(code, description, Message.EnumLevel.ERROR);
+
+        if (this.isDevelopmentProfileActive()) {
+            return new DebugRestResponse(error, "Remote operation has timed out", ex);
+        }
+
+        return RestResponse.error(error);
+    }
+
+    /**
+     * Handles tasks rejected by a saturated executor. The remote service is
+     * either too slow or unavailable and no more requests can be queued
+     */
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ApiResponse(
+        responseCode = "503",
+        description = "Service Unavailable",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = DebugRestResponse.class))
+    )
+    public @ResponseBody BaseResponse handleRejectedExecutionException(RejectedExecutionException ex, HttpServletRequest request) {
+
+        logger.error("503 - Service Unavailable. [path={}, message={}]", request.getRequestURI(), ex.getMessage());
+
+        final MessageCode      code        = BasicMessageCode.fromStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        final String           description = this.messageSource.getMessage(code.key(), null, Locale.getDefault());
+
+        final Message error = new Message(code, description, Message.EnumLevel.ERROR);
+
+        if (this.isDevelopmentProfileActive()) {
+            return new DebugRestResponse(error, ex.getMessage(), ex);
+        }
+
+        return RestResponse.error(error);
+    }
+
     private boolean isDevelopmentProfileActive() {
         for (final String profileName : this.activeProfile.split(",")) {
             if (profileName.equalsIgnoreCase(DEVELOPMENT_PROFILE)) {
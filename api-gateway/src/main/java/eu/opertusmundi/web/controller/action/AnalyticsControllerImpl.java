@@ -3,6 +3,7 @@ package eu.opertusmundi.web.controller.action;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -23,27 +24,38 @@ import eu.opertusmundi.common.model.analytics.SalesQuery;
 import eu.opertusmundi.common.model.analytics.SubscribersQuery;
 import eu.opertusmundi.common.model.analytics.VendorCountQuery;
 import eu.opertusmundi.common.model.catalogue.client.CatalogueItemDetailsDto;
-import eu.opertusmundi.common.service.CatalogueService;
 import eu.opertusmundi.common.service.DataAnalysisService;
 import eu.opertusmundi.common.service.analytics.GoogleAnalyticsService;
+import eu.opertusmundi.web.service.AnalyticsQueryCacheService;
+import eu.opertusmundi.web.service.AssetHydrationService;
 
 @RestController
 public class AnalyticsControllerImpl extends BaseController implements AnalyticsController {
 
+    // TODO: Daily rollup tables for vendor analytics. Query results are only
+    // cached for a few minutes; on a cache miss, DataAnalysisService still
+    // aggregates the raw order and asset view data, so dashboard load time
+    // grows with sales history. The rollups must be maintained incrementally
+    // by the common module, where the aggregation SQL and the analytics
+    // schema live. Time-series queries should then read daily buckets for
+    // closed days and raw data only for the current day
 
-    private final DataAnalysisService    analysisService;
-    private final CatalogueService       catalogueService;
-    private final GoogleAnalyticsService googleAnalyticsService;
+    private final DataAnalysisService        analysisService;
+    private final GoogleAnalyticsService     googleAnalyticsService;
+    private final AnalyticsQueryCacheService queryCache;
+    private final AssetHydrationService      hydrationService;
 
     @Autowired
     public AnalyticsControllerImpl(
         DataAnalysisService analysisService,
-        CatalogueService catalogueService,
-        Optional<GoogleAnalyticsService> googleAnalyticsService
+        Optional<GoogleAnalyticsService> googleAnalyticsService,
+        AnalyticsQueryCacheService queryCache,
+        AssetHydrationService hydrationService
     ) {
         this.analysisService        = analysisService;
-        this.catalogueService       = catalogueService;
         this.googleAnalyticsService = googleAnalyticsService.orElse(null);
+        this.queryCache             = queryCache;
+        this.hydrationService       = hydrationService;
     }
 
     @Override
@@ -60,7 +72,7 @@ public class AnalyticsControllerImpl extends BaseController implements Analytics
             return RestResponse.invalid(validationResult.getFieldErrors());
         }
 
-        final DataSeries<?> result = analysisService.execute(query);
+        final DataSeries<?> result = this.queryCache.execute("sales", query, () -> analysisService.execute(query));
 
         return RestResponse.result(result);
     }
@@ -79,7 +91,7 @@ public class AnalyticsControllerImpl extends BaseController implements Analytics
             return RestResponse.invalid(validationResult.getFieldErrors());
         }
 
-        final DataSeries<?> result = analysisService.execute(query);
+        final DataSeries<?> result = this.queryCache.execute("asset-views", query, () -> analysisService.execute(query));
 
         return RestResponse.result(result);
     }
@@ -90,7 +102,7 @@ public class AnalyticsControllerImpl extends BaseController implements Analytics
             return RestResponse.invalid(validationResult.getFieldErrors());
         }
 
-        final DataSeries<?> result = analysisService.executeCoverage(query);
+        final DataSeries<?> result = this.queryCache.execute("coverage", query, () -> analysisService.executeCoverage(query));
 
         return RestResponse.result(result);
     }
@@ -101,7 +113,7 @@ public class AnalyticsControllerImpl extends BaseController implements Analytics
             return RestResponse.invalid(validationResult.getFieldErrors());
         }
 
-        final DataSeries<?> result = analysisService.executeTotalAssetValue(query);
+        final DataSeries<?> result = this.queryCache.execute("total-asset-value", query, () -> analysisService.executeTotalAssetValue(query));
 
         return RestResponse.result(result);
     }
@@ -112,7 +124,7 @@ public class AnalyticsControllerImpl extends BaseController implements Analytics
             return RestResponse.invalid(validationResult.getFieldErrors());
         }
 
-        final DataSeries<?> result = analysisService.executeAssetCount(query);
+        final DataSeries<?> result = this.queryCache.execute("asset-count", query, () -> analysisService.executeAssetCount(query));
 
         return RestResponse.result(result);
     }
@@ -128,26 +140,14 @@ public class AnalyticsControllerImpl extends BaseController implements Analytics
 
         var result = this.analysisService.executePopularAssetViewsAndSearches(query, limit);
         if (includeAssets) {
-            final String[] pids = result.stream().map(c -> c.getPid()).toArray(String[]::new);
+            final List<String> pids = result.stream().map(c -> c.getPid()).toList();
+
+            if (!pids.isEmpty()) {
+                final Map<String, CatalogueItemDetailsDto> assets = this.hydrationService.findAllSummaries(pids);
 
-            if (pids.length > 0) {
-                final List<CatalogueItemDetailsDto> assets = catalogueService.findAllPublishedById(
-                    pids, false /* Ignore missing assets */, false /* exclude automated metadata */
-                );
                 result = result.stream()
-                    .peek(c -> {
-                        final var asset = assets.stream()
-                            .filter(a -> a.getId().equals(c.getPid()))
-                            .findFirst()
-                            .orElse(null);
-                        if (asset != null) {
-                            asset.setAutomatedMetadata(null);
-                            asset.resetContract();
-                            asset.setPublisher(null);
-                            c.setAsset(asset);
-                        }
-                    })
-                    .filter(c-> c.getAsset()!=null)
+                    .peek(c -> c.setAsset(assets.get(c.getPid())))
+                    .filter(c -> c.getAsset() != null)
                     .toList();
             }
         }
@@ -172,7 +172,7 @@ public class AnalyticsControllerImpl extends BaseController implements Analytics
             return RestResponse.invalid(validationResult.getFieldErrors());
         }
 
-        final DataSeries<?> result = analysisService.executeVendorCount(query);
+        final DataSeries<?> result = this.queryCache.execute("vendor-count", query, () -> analysisService.executeVendorCount(query));
 
         return RestResponse.result(result);
     }
@@ -191,7 +191,7 @@ public class AnalyticsControllerImpl extends BaseController implements Analytics
             return RestResponse.invalid(validationResult.getFieldErrors());
         }
 
-        final DataSeries<?> result = analysisService.execute(query);
+        final DataSeries<?> result = this.queryCache.execute("subscribers", query, () -> analysisService.execute(query));
 
         return RestResponse.result(result);
     }
@@ -221,7 +221,7 @@ public class AnalyticsControllerImpl extends BaseController implements Analytics
             return RestResponse.invalid(validationResult.getFieldErrors());
         }
 
-        final DataSeries<?> result = analysisService.execute(query);
+        final DataSeries<?> result = this.queryCache.execute("earnings-per-asset-type", query, () -> analysisService.execute(query));
 
         return RestResponse.result(result);
     }
@@ -1,36 +1,48 @@
 package eu.opertusmundi.web.controller.action;
 
 import java.io.File;
-import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import eu.opertusmundi.common.model.EnumRole;
 import eu.opertusmundi.common.model.RequestContext;
 import eu.opertusmundi.common.model.account.AccountDto;
 import eu.opertusmundi.common.model.location.Location;
-import eu.opertusmundi.common.service.LocationService;
 import eu.opertusmundi.web.model.Constants;
 import eu.opertusmundi.web.security.AuthenticationFacade;
+import eu.opertusmundi.web.service.LocationResolver;
+import eu.opertusmundi.web.utils.FileDownloadUtils;
+import eu.opertusmundi.web.utils.SizeLimitedInputStream;
 
 public abstract class BaseController {
 
@@ -39,11 +51,14 @@ public abstract class BaseController {
     @Value("#{environment.getActiveProfiles()[0] == 'development' ? '${opertusmundi.debug.remote-ip-address:}' : ''}")
     private String fixedRemoteIpAddress;
 
+    @Value("${spring.servlet.multipart.max-file-size:1MB}")
+    private DataSize maxUploadFileSize;
+
     @Autowired
     private AuthenticationFacade authenticationFacade;
 
-    @Autowired(required = false)
-    private LocationService locationService;
+    @Autowired
+    private LocationResolver locationResolver;
 
     protected boolean isAuthenticated() {
         return this.authenticationFacade.isAuthenticated();
@@ -105,34 +120,28 @@ public abstract class BaseController {
         return request.getSession(false);
     }
 
+    /**
+     * Get the location of the current request client. The location is
+     * resolved at most once per request and no HTTP session is required
+     *
+     * @return
+     */
     protected Location getLocation() {
         try {
-            final String      ip      = this.getRemoteIpAddress();
-            final HttpSession session = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes())
-                .getRequest()
-                .getSession(true);
-
-            Location location = (Location) session.getAttribute(Constants.SESSION_LOCATION);
-
-            // Refresh location when:
-            // (a) not already computed, or
-            // (b) the client IP has changed
-            //
-            // If the location service is not enabled, always create a new
-            // location instance using the authenticated account profile
-            if (locationService == null && (location == null || location.isEmpty())) {
-                location = Location.empty(ip, this.getAccount() == null ? null : this.getAccount().getCountry());
-            } else if (locationService != null && (location == null || location.isEmpty() || !location.getIp().equals(ip))) {
-                location = locationService.getLocation(ip);
-                if (location == null) {
-                    location = Location.empty(ip, this.getAccount() == null ? null : this.getAccount().getCountry());
-                }
-                session.setAttribute(Constants.SESSION_LOCATION, location);
+            final HttpServletRequest request = this.getRequest();
+
+            Location location = (Location) request.getAttribute(Constants.REQUEST_LOCATION);
+
+            if (location == null) {
+                final AccountDto account = this.getAccount();
+
+                location = this.locationResolver.resolve(this.getRemoteIpAddress(), account == null ? null : account.getCountry());
+                request.setAttribute(Constants.REQUEST_LOCATION, location);
             }
 
             return location;
         } catch (final Exception ex) {
-            logger.error("Failed to compute location", ex.getMessage());
+            logger.error("Failed to compute location", ex);
         }
 
         return null;
@@ -142,12 +151,113 @@ public abstract class BaseController {
         return this.createContext(false);
     }
 
+    /**
+     * Get the context of the current request. The context is computed once
+     * per request and stored as a request attribute
+     *
+     * @param ignoreLogging
+     * @return
+     */
     protected RequestContext createContext(boolean ignoreLogging) {
-        final String     ip       = this.getRemoteIpAddress();
-        final Location   location = this.getLocation();
-        final AccountDto account  = this.authenticationFacade.getCurrentAccount();
+        final HttpServletRequest request   = this.getRequest();
+        final String             attribute = ignoreLogging ? Constants.REQUEST_CONTEXT_IGNORE_LOGGING : Constants.REQUEST_CONTEXT;
+
+        RequestContext context = (RequestContext) request.getAttribute(attribute);
+
+        if (context == null) {
+            final String     ip       = this.getRemoteIpAddress();
+            final Location   location = this.getLocation();
+            final AccountDto account  = this.authenticationFacade.getCurrentAccount();
+
+            context = RequestContext.of(ip, account, location, ignoreLogging);
+            request.setAttribute(attribute, context);
+        }
 
-        return RequestContext.of(ip, account, location, ignoreLogging);
+        return context;
+    }
+
+    private HttpServletRequest getRequest() {
+        return ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
+    }
+
+    /**
+     * Executes a task using the specified executor. The servlet container
+     * thread is released while the task is running.
+     *
+     * <p>
+     * Request attributes are not available to the task; hence, any value that
+     * depends on the current request, e.g. a {@link RequestContext}, must be
+     * computed before the task is submitted.
+     *
+     * <p>
+     * If the task does not complete in time, it is cancelled. A queued task
+     * is never started and a running task is interrupted. Blocking socket
+     * reads do not respond to interrupts; hence, the read timeout of the
+     * remote service client should not exceed the task timeout, otherwise a
+     * timed out task keeps its executor thread until the read times out.
+     *
+     * @param task The task to execute
+     * @param executor The executor that runs the task
+     * @param timeoutSeconds Max execution time. If the task does not complete
+     *            in time, the returned future completes exceptionally with a
+     *            {@link TimeoutException}
+     * @return
+     * @throws RejectedExecutionException if the executor is saturated
+     */
+    protected <T> CompletableFuture<T> supplyAsync(
+        Supplier<T> task, Executor executor, long timeoutSeconds
+    ) throws RejectedExecutionException {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final FutureTask<Void>     runner = new FutureTask<>(() -> {
+            try {
+                result.complete(task.get());
+            } catch (final Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        }, null);
+
+        executor.execute(runner);
+
+        result.orTimeout(timeoutSeconds, TimeUnit.SECONDS).whenComplete((value, ex) -> {
+            if (ex instanceof TimeoutException) {
+                runner.cancel(true);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Opens a stream for reading the contents of an uploaded file.
+     *
+     * <p>
+     * Multipart data is buffered to disk by the servlet container. The
+     * returned stream reads directly from the underlying part instead of
+     * loading the file in memory. Reading fails as soon as the number of bytes
+     * exceeds the max upload file size.
+     *
+     * @param file The uploaded file
+     * @return
+     * @throws IOException
+     */
+    protected InputStream openUploadStream(MultipartFile file) throws IOException {
+        return this.openUploadStream(file, this.maxUploadFileSize.toBytes());
+    }
+
+    /**
+     * Opens a stream for reading the contents of an uploaded file. Reading
+     * fails with {@link MaxUploadSizeExceededException} as soon as the number
+     * of bytes exceeds the specified limit or the max upload file size,
+     * whichever is smaller
+     *
+     * @param file The uploaded file
+     * @param limit Max number of bytes to read, e.g. the remaining quota of
+     *            the user
+     * @return
+     * @throws IOException
+     */
+    protected InputStream openUploadStream(MultipartFile file, long limit) throws IOException {
+        return new SizeLimitedInputStream(file.getInputStream(), Math.min(limit, this.maxUploadFileSize.toBytes()));
     }
 
     protected ResponseEntity<StreamingResponseBody> createDownloadResponsePdf(
@@ -159,19 +269,49 @@ public abstract class BaseController {
     protected ResponseEntity<StreamingResponseBody> createDownloadResponse(
         HttpServletResponse response, File file, String downloadFilename, MediaType mediaType
     ) {
-        response.setHeader("Content-Disposition", String.format("attachment; filename=%s", downloadFilename));
-        response.setHeader("Content-Type", mediaType.toString());
-        if (file.length() < 1024 * 1024) {
-            response.setHeader("Content-Length", Long.toString(file.length()));
-        }
+        final HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
 
-        final StreamingResponseBody stream = out -> {
-            try (InputStream inputStream = new FileInputStream(file)) {
-                IOUtils.copyLarge(inputStream, out);
-            }
-        };
+        return FileDownloadUtils.createResponse(request, response, file, downloadFilename, mediaType);
+    }
+
+    /**
+     * Creates a download response for the specified file. The media type is
+     * detected from the file name; if detection fails,
+     * {@code application/octet-stream} is used
+     *
+     * @param response
+     * @param path
+     * @param downloadFilename
+     * @return
+     * @throws IOException
+     */
+    protected ResponseEntity<StreamingResponseBody> createDownloadResponse(
+        HttpServletResponse response, Path path, String downloadFilename
+    ) throws IOException {
+        return this.createDownloadResponse(response, path, downloadFilename, MediaType.APPLICATION_OCTET_STREAM_VALUE);
+    }
+
+    /**
+     * Creates a download response for the specified file. The media type is
+     * detected from the file name; if detection fails, the default content
+     * type is used
+     *
+     * @param response
+     * @param path
+     * @param downloadFilename
+     * @param defaultContentType
+     * @return
+     * @throws IOException
+     */
+    protected ResponseEntity<StreamingResponseBody> createDownloadResponse(
+        HttpServletResponse response, Path path, String downloadFilename, String defaultContentType
+    ) throws IOException {
+        String contentType = Files.probeContentType(path);
+        if (contentType == null) {
+            contentType = defaultContentType;
+        }
 
-        return new ResponseEntity<StreamingResponseBody>(stream, HttpStatus.OK);
+        return this.createDownloadResponse(response, path.toFile(), downloadFilename, MediaType.parseMediaType(contentType));
     }
 
 }
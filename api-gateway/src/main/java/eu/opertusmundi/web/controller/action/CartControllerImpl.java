@@ -1,17 +1,26 @@
 package eu.opertusmundi.web.controller.action;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import javax.servlet.http.HttpSession;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.util.Assert;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import eu.opertusmundi.common.model.BasicMessageCode;
 import eu.opertusmundi.common.model.RestResponse;
 import eu.opertusmundi.common.model.ServiceException;
@@ -25,9 +34,9 @@ import eu.opertusmundi.common.model.pricing.EffectivePricingModelDto;
 import eu.opertusmundi.common.model.pricing.EmptyQuotationParametersDto;
 import eu.opertusmundi.common.model.pricing.QuotationException;
 import eu.opertusmundi.common.service.CartService;
-import eu.opertusmundi.common.service.CatalogueService;
 import eu.opertusmundi.common.service.QuotationService;
 import eu.opertusmundi.common.service.mangopay.PayInService;
+import eu.opertusmundi.web.service.AssetHydrationService;
 
 @RestController
 public class CartControllerImpl extends BaseController implements CartController {
@@ -38,7 +47,7 @@ public class CartControllerImpl extends BaseController implements CartController
     private CartService cartService;
 
     @Autowired
-    private CatalogueService catalogueService;
+    private AssetHydrationService hydrationService;
 
     @Autowired
     private QuotationService quotationService;
@@ -46,6 +55,13 @@ public class CartControllerImpl extends BaseController implements CartController
     @Autowired
     private PayInService paymentService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("quotationTaskExecutor")
+    private ThreadPoolTaskExecutor quotationTaskExecutor;
+
     @Override
     public RestResponse<CartDto> getCart(HttpSession session) {
         final UUID cartId = (UUID) session.getAttribute(CartConstants.CART_SESSION_KEY);
@@ -145,28 +161,48 @@ public class CartControllerImpl extends BaseController implements CartController
             }
 
             // Inject catalogue data
-            final String[] keys = cart.getItems().stream().map(i -> i.getAssetId()).toArray(String[]::new);
+            final List<String> keys = cart.getItems().stream().map(i -> i.getAssetId()).toList();
+
+            if (!keys.isEmpty()) {
+                final Map<String, CatalogueItemDetailsDto> assets = this.hydrationService.findAllPublished(keys, true, true);
+
+                final String userName = this.currentUserEmail();
 
-            if (keys.length != 0) {
-                final List<CatalogueItemDetailsDto> result = this.catalogueService.findAllPublishedById(keys, true, true);
+                // Set product and compute quotations concurrently. Items with
+                // the same asset, pricing model and parameters share a single
+                // quotation
+                final Map<String, CompletableFuture<EffectivePricingModelDto>> quotations     = new HashMap<>();
+                final List<CompletableFuture<EffectivePricingModelDto>>        itemQuotations = new ArrayList<>();
 
-                // Set product and selected pricing model
-                cart.getItems().stream().forEach(cartItem -> {
-                    final CatalogueItemDetailsDto catalogueItem = result.stream()
-                        .filter(i -> i.getId().equals(cartItem.getAssetId()))
-                        .findFirst()
-                        .orElse(null);
+                for (final var cartItem : cart.getItems()) {
+                    final CatalogueItemDetailsDto catalogueItem = assets.get(cartItem.getAssetId());
 
                     cartItem.setAsset(catalogueItem);
-                    cartItem.getQuotationParameters().setUserName(this.currentUserEmail());
+                    cartItem.getQuotationParameters().setUserName(userName);
 
-                    final EffectivePricingModelDto pricingModel = quotationService.createQuotation(
-                        catalogueItem, cartItem.getPricingModelKey(), cartItem.getQuotationParameters(), false
+                    final String quotationKey = String.join("|",
+                        cartItem.getAssetId(),
+                        String.valueOf(cartItem.getPricingModelKey()),
+                        this.objectMapper.writeValueAsString(cartItem.getQuotationParameters())
                     );
 
-                    cartItem.setPricingModel(pricingModel);
-
-                    // Do not return metadata/ingestion information
+                    itemQuotations.add(quotations.computeIfAbsent(quotationKey, k -> CompletableFuture.supplyAsync(
+                        () -> quotationService.createQuotation(
+                            catalogueItem, cartItem.getPricingModelKey(), cartItem.getQuotationParameters(), false
+                        ),
+                        this.quotationTaskExecutor
+                    )));
+                }
+
+                // Set selected pricing model
+                int index = 0;
+                for (final var cartItem : cart.getItems()) {
+                    cartItem.setPricingModel(this.getQuotation(itemQuotations.get(index++)));
+                }
+
+                // Do not return metadata/ingestion information. Items are
+                // updated only after all quotations are completed
+                assets.values().forEach(catalogueItem -> {
                     catalogueItem.setAutomatedMetadata(null);
                     catalogueItem.setIngestionInfo(null);
                 });
@@ -180,4 +216,15 @@ public class CartControllerImpl extends BaseController implements CartController
         }
     }
 
+    private EffectivePricingModelDto getQuotation(CompletableFuture<EffectivePricingModelDto> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException ex) {
+            if (ex.getCause() instanceof final QuotationException qex) {
+                throw qex;
+            }
+            throw ex;
+        }
+    }
+
 }
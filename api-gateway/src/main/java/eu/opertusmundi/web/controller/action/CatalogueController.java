@@ -1,6 +1,10 @@
 package eu.opertusmundi.web.controller.action;
 
+import java.util.concurrent.CompletableFuture;
+
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 
 import org.springdoc.api.annotations.ParameterObject;
 import org.springframework.http.MediaType;
@@ -24,6 +28,7 @@ import eu.opertusmundi.common.model.catalogue.client.CatalogueItemDto;
 import eu.opertusmundi.common.model.catalogue.client.CatalogueJoinableItemDto;
 import eu.opertusmundi.common.model.catalogue.elastic.ElasticAssetQuery;
 import eu.opertusmundi.common.model.openapi.schema.CatalogueEndpointTypes;
+import eu.opertusmundi.web.model.openapi.schema.CatalogueSuggestionEndpointTypes;
 import eu.opertusmundi.web.model.openapi.schema.EndpointTags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -63,7 +68,7 @@ public interface CatalogueController {
         )
     )
     @GetMapping(value = "/catalogue")
-    RestResponse<?> findAll(
+    CompletableFuture<RestResponse<?>> findAll(
         @ParameterObject()
         ElasticAssetQuery query
     );
@@ -89,11 +94,52 @@ public interface CatalogueController {
         )
     )
     @GetMapping(value = "/catalogue/autocomplete")
-    RestResponse<?> findAllAutocomplete(
+    CompletableFuture<RestResponse<?>> findAllAutocomplete(
         @ParameterObject()
         ElasticAssetQuery query
     );
 
+    /**
+     * Suggest asset titles, keywords and publisher names
+     *
+     * @param text The text to complete
+     * @param limit Max number of suggestions
+     * @return An instance of {@link CatalogueSuggestionEndpointTypes.SuggestionCollectionResponse} class
+     */
+    @Operation(
+        operationId = "catalogue-08",
+        summary     = "Suggest",
+        description = "Suggest published asset titles, keywords and publisher names that contain a word starting with "
+                    + "the specified text. Suggestions are served from an in-memory index and are sorted by popularity. "
+                    + "If the index is not available, the request fails and clients should use the autocomplete endpoint."
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "successful operation",
+        content = @Content(
+            mediaType = MediaType.APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = CatalogueSuggestionEndpointTypes.SuggestionCollectionResponse.class)
+        )
+    )
+    @GetMapping(value = "/catalogue/suggest")
+    @Validated
+    RestResponse<?> suggest(
+        @Parameter(
+            in          = ParameterIn.QUERY,
+            required    = true,
+            description = "The text to complete"
+        )
+        @RequestParam(name = "text") String text,
+        @Parameter(
+            in          = ParameterIn.QUERY,
+            required    = false,
+            description = "Max number of suggestions"
+        )
+        @Min(1)
+        @Max(20)
+        @RequestParam(name = "limit", required = false, defaultValue = "10") int limit
+    );
+
     /**
      * Get a single catalogue item
      *
@@ -114,7 +160,7 @@ public interface CatalogueController {
         )
     )
     @GetMapping(value = "/catalogue/items/{id}")
-    RestResponse<CatalogueItemDetailsDto> findOne(
+    CompletableFuture<RestResponse<CatalogueItemDetailsDto>> findOne(
         @Parameter(
             in          = ParameterIn.PATH,
             required    = true,
@@ -144,7 +190,7 @@ public interface CatalogueController {
         )
     )
     @GetMapping(value = "/catalogue/history/items/{id}")
-    RestResponse<CatalogueItemDetailsDto> findOne(
+    CompletableFuture<RestResponse<CatalogueItemDetailsDto>> findOne(
         @Parameter(
             in          = ParameterIn.PATH,
             required    = true,
@@ -179,7 +225,7 @@ public interface CatalogueController {
         )
     )
     @GetMapping(value = "/catalogue/joinable-items/{id}")
-    RestResponse<CatalogueJoinableItemDto> findOneJoinable(
+    CompletableFuture<RestResponse<CatalogueJoinableItemDto>> findOneJoinable(
         @Parameter(
             in          = ParameterIn.PATH,
             required    = true,
@@ -251,7 +297,7 @@ public interface CatalogueController {
     )
     @GetMapping(value = "/catalogue/harvest")
     @Secured({"ROLE_PROVIDER"})
-    RestResponse<?> findAllHarvested(
+    CompletableFuture<RestResponse<?>> findAllHarvested(
         @Parameter(
             in = ParameterIn.QUERY,
             required = true,
@@ -336,7 +382,7 @@ public interface CatalogueController {
         )
     )
     @GetMapping(value = "/catalogue/{id}/related")
-    RestResponse<?> findAllRelatedAssets(
+    CompletableFuture<RestResponse<?>> findAllRelatedAssets(
         @Parameter(
             in          = ParameterIn.PATH,
             required    = true,
@@ -365,7 +411,7 @@ public interface CatalogueController {
         )
     )
     @GetMapping(value = "/catalogue/{id}/bundles")
-    RestResponse<?> findAllRelatedBundles(
+    CompletableFuture<RestResponse<?>> findAllRelatedBundles(
         @Parameter(
             in          = ParameterIn.PATH,
             required    = true,
@@ -1,11 +1,19 @@
 package eu.opertusmundi.web.controller.action;
 
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.RestController;
 
+import eu.opertusmundi.common.model.RequestContext;
 import eu.opertusmundi.common.model.RestResponse;
 import eu.opertusmundi.common.model.asset.AssetDraftDto;
 import eu.opertusmundi.common.model.catalogue.CatalogueResult;
@@ -20,6 +28,9 @@ import eu.opertusmundi.common.model.catalogue.elastic.ElasticAssetQuery;
 import eu.opertusmundi.common.service.AssetDraftException;
 import eu.opertusmundi.common.service.CatalogueService;
 import eu.opertusmundi.common.service.ProviderAssetService;
+import eu.opertusmundi.web.model.catalogue.CatalogueSuggestionDto;
+import eu.opertusmundi.web.service.CatalogueSearchCacheService;
+import eu.opertusmundi.web.service.CatalogueSuggestionService;
 
 @RestController
 public class CatalogueControllerImpl extends BaseController implements CatalogueController {
@@ -30,84 +41,134 @@ public class CatalogueControllerImpl extends BaseController implements Catalogue
     @Autowired
     private ProviderAssetService providerAssetService;
 
+    @Autowired
+    private CatalogueSearchCacheService searchCacheService;
+
+    @Autowired
+    private CatalogueSuggestionService suggestionService;
+
+    @Autowired
+    @Qualifier("catalogueTaskExecutor")
+    private ThreadPoolTaskExecutor catalogueTaskExecutor;
+
+    @Value("${opertusmundi.catalogue-task-executor.timeout-seconds:20}")
+    private long timeoutSeconds;
+
     @Override
-    public RestResponse<?> findAll(ElasticAssetQuery request) {
+    public CompletableFuture<RestResponse<?>> findAll(ElasticAssetQuery request) {
         return this.findAllImpl(request);
     }
 
     @Override
-    public RestResponse<?> findAllAutocomplete(ElasticAssetQuery request) {
+    public CompletableFuture<RestResponse<?>> findAllAutocomplete(ElasticAssetQuery request) {
         request.setAutocomplete(true);
         return this.findAllImpl(request);
     }
 
-    private RestResponse<?> findAllImpl(ElasticAssetQuery request) {
-        try {
-            final CatalogueResult<CatalogueItemDto> result = catalogueService.findAllElastic(this.createContext(), request);
+    private CompletableFuture<RestResponse<?>> findAllImpl(ElasticAssetQuery request) {
+        final RequestContext ctx       = this.createContext();
+        final boolean        anonymous = !this.isAuthenticated();
 
-            return CatalogueClientCollectionResponse.of(result.getResult(), result.getPublishers());
-        } catch (final CatalogueServiceException ex) {
-            return RestResponse.failure();
-        }
+        return this.supplyAsync(() -> {
+            try {
+                // Results for authenticated users may contain user specific data
+                final CatalogueResult<CatalogueItemDto> result = anonymous
+                    ? searchCacheService.findAll(request, () -> catalogueService.findAllElastic(ctx, request))
+                    : catalogueService.findAllElastic(ctx, request);
+
+                return CatalogueClientCollectionResponse.of(result.getResult(), result.getPublishers());
+            } catch (final CatalogueServiceException ex) {
+                return RestResponse.failure();
+            }
+        });
     }
 
     @Override
-    public RestResponse<?> findAllRelatedAssets(String id) {
-        try {
-            final CatalogueResult<CatalogueItemDto> result = catalogueService.findAllRelatedAssets(this.createContext(), id);
-
-            return CatalogueClientCollectionResponse.of(result.getResult(), result.getPublishers());
-        } catch (final CatalogueServiceException ex) {
+    public RestResponse<?> suggest(String text, int limit) {
+        if (!this.suggestionService.isAvailable()) {
             return RestResponse.failure();
         }
+
+        final List<CatalogueSuggestionDto> result = this.suggestionService.suggest(text, limit);
+
+        return RestResponse.result(result);
     }
 
     @Override
-    public RestResponse<?> findAllRelatedBundles(String id) {
-        try {
-            final CatalogueResult<CatalogueItemDto> result = catalogueService.findAllRelatedBundles(this.createContext(), id);
+    public CompletableFuture<RestResponse<?>> findAllRelatedAssets(String id) {
+        final RequestContext ctx = this.createContext();
 
-            return CatalogueClientCollectionResponse.of(result.getResult(), result.getPublishers());
-        } catch (final CatalogueServiceException ex) {
-            return RestResponse.failure();
-        }
+        return this.supplyAsync(() -> {
+            try {
+                final CatalogueResult<CatalogueItemDto> result = catalogueService.findAllRelatedAssets(ctx, id);
+
+                return CatalogueClientCollectionResponse.of(result.getResult(), result.getPublishers());
+            } catch (final CatalogueServiceException ex) {
+                return RestResponse.failure();
+            }
+        });
     }
 
     @Override
-    public RestResponse<CatalogueItemDetailsDto> findOne(String id) {
-        try {
-            final CatalogueItemDetailsDto item = catalogueService.findOne(
-                this.createContext(), id, this.currentUserParentKey(), this.isAuthenticated()
-            );
+    public CompletableFuture<RestResponse<?>> findAllRelatedBundles(String id) {
+        final RequestContext ctx = this.createContext();
 
-            return item == null ? RestResponse.notFound() : RestResponse.result(item);
-        } catch (final CatalogueServiceException ex) {
-            return RestResponse.failure();
-        }
+        return this.supplyAsync(() -> {
+            try {
+                final CatalogueResult<CatalogueItemDto> result = catalogueService.findAllRelatedBundles(ctx, id);
+
+                return CatalogueClientCollectionResponse.of(result.getResult(), result.getPublishers());
+            } catch (final CatalogueServiceException ex) {
+                return RestResponse.failure();
+            }
+        });
     }
 
     @Override
-    public RestResponse<CatalogueItemDetailsDto> findOne(String id, String version) {
-        try {
-            final CatalogueItemDetailsDto item = catalogueService.findOne(
-                this.createContext(), id, version, this.currentUserParentKey(), this.isAuthenticated()
-            );
-
-            return item == null ? RestResponse.notFound() : RestResponse.result(item);
-        } catch (final CatalogueServiceException ex) {
-            return RestResponse.failure();
-        }
+    public CompletableFuture<RestResponse<CatalogueItemDetailsDto>> findOne(String id) {
+        final RequestContext ctx           = this.createContext();
+        final UUID           userKey       = this.currentUserParentKey();
+        final boolean        authenticated = this.isAuthenticated();
+
+        return this.supplyAsync(() -> {
+            try {
+                final CatalogueItemDetailsDto item = catalogueService.findOne(ctx, id, userKey, authenticated);
+
+                return item == null ? RestResponse.notFound() : RestResponse.result(item);
+            } catch (final CatalogueServiceException ex) {
+                return RestResponse.failure();
+            }
+        });
     }
 
     @Override
-    public RestResponse<CatalogueJoinableItemDto> findOneJoinable(String id) {
-        try {
-            final CatalogueJoinableItemDto item = catalogueService.findOneJoinable(id);
+    public CompletableFuture<RestResponse<CatalogueItemDetailsDto>> findOne(String id, String version) {
+        final RequestContext ctx           = this.createContext();
+        final UUID           userKey       = this.currentUserParentKey();
+        final boolean        authenticated = this.isAuthenticated();
+
+        return this.supplyAsync(() -> {
+            try {
+                final CatalogueItemDetailsDto item = catalogueService.findOne(ctx, id, version, userKey, authenticated);
+
+                return item == null ? RestResponse.notFound() : RestResponse.result(item);
+            } catch (final CatalogueServiceException ex) {
+                return RestResponse.failure();
+            }
+        });
+    }
 
-            return item == null ? RestResponse.notFound() : RestResponse.result(item);
-        } catch (final CatalogueServiceException ex) {
-            return RestResponse.failure();
-        }
+    @Override
+    public CompletableFuture<RestResponse<CatalogueJoinableItemDto>> findOneJoinable(String id) {
+        return this.supplyAsync(() -> {
+            try {
+                final CatalogueJoinableItemDto item = catalogueService.findOneJoinable(id);
+
+                return item == null ? RestResponse.notFound() : RestResponse.result(item);
+            } catch (final CatalogueServiceException ex) {
+                return RestResponse.failure();
+            }
+        });
     }
 
     @Override
@@ -128,14 +189,16 @@ public class CatalogueControllerImpl extends BaseController implements Catalogue
     }
 
     @Override
-    public RestResponse<?> findAllHarvested(String url, String query, int pageIndex, int pageSize) {
-        try {
-            final CatalogueResult<CatalogueItemDto> result = this.catalogueService.findAllHarvested(url, query, pageIndex, pageSize);
-
-            return CatalogueClientCollectionResponse.of(result.getResult(), result.getPublishers());
-        } catch (final CatalogueServiceException ex) {
-            return RestResponse.failure();
-        }
+    public CompletableFuture<RestResponse<?>> findAllHarvested(String url, String query, int pageIndex, int pageSize) {
+        return this.supplyAsync(() -> {
+            try {
+                final CatalogueResult<CatalogueItemDto> result = this.catalogueService.findAllHarvested(url, query, pageIndex, pageSize);
+
+                return CatalogueClientCollectionResponse.of(result.getResult(), result.getPublishers());
+            } catch (final CatalogueServiceException ex) {
+                return RestResponse.failure();
+            }
+        });
     }
 
     @Override
@@ -153,4 +216,8 @@ public class CatalogueControllerImpl extends BaseController implements Catalogue
         }
     }
 
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        return this.supplyAsync(task, this.catalogueTaskExecutor, this.timeoutSeconds);
+    }
+
 }
@@ -1,5 +1,6 @@
 package eu.opertusmundi.web.controller.action;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -31,10 +32,12 @@ public interface ConfigurationController {
     @Operation(
         operationId = "configuration-01",
         summary     = "Get application configuration",
-        description = "Get application configuration with optional localized resources"
+        description = "Get application configuration with optional localized resources. The response includes an "
+                    + "`ETag` header with the configuration version. If the `If-None-Match` request header matches "
+                    + "the current version, an empty response with status `304` is returned"
     )
     @GetMapping(value = "/configuration/{locale}")
-    RestResponse<ClientConfiguration> getConfiguration(
+    ResponseEntity<RestResponse<ClientConfiguration>> getConfiguration(
         @Parameter(
             in          = ParameterIn.PATH,
             required    = false,
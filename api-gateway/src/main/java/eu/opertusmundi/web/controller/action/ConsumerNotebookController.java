@@ -1,11 +1,15 @@
 package eu.opertusmundi.web.controller.action;
 
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.http.MediaType;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import eu.opertusmundi.common.model.BaseResponse;
 import eu.opertusmundi.common.model.RestResponse;
@@ -49,7 +53,7 @@ public interface ConsumerNotebookController {
         )
     )
     @GetMapping(value = "")
-    RestResponse<?> getConfiguration();
+    CompletableFuture<RestResponse<?>> getConfiguration();
 
     /**
      * Start server instance
@@ -76,7 +80,7 @@ public interface ConsumerNotebookController {
         )
     )
     @PostMapping(value = "/server")
-    RestResponse<?> startServer(
+    CompletableFuture<RestResponse<?>> startServer(
         @Parameter(
             in          = ParameterIn.QUERY,
             required    = true,
@@ -106,7 +110,7 @@ public interface ConsumerNotebookController {
         )
     )
     @GetMapping(value = "/server")
-    RestResponse<?> getServerStatus();
+    CompletableFuture<RestResponse<?>> getServerStatus();
 
     /**
      * Stop server instance
@@ -129,6 +133,26 @@ public interface ConsumerNotebookController {
         )
     )
     @DeleteMapping(value = "/server")
-    RestResponse<Void> stopServer();
+    CompletableFuture<RestResponse<Void>> stopServer();
+
+    /**
+     * Stream server status
+     *
+     * @return
+     */
+    @Operation(
+        operationId = "consumer-notebooks-05",
+        summary     = "Stream server status",
+        description = "Stream the status of the notebook server as server-sent events. A single `status` event is "
+                    + "sent when the server is ready or if no server exists, and the stream is closed. "
+                    + "Required role: `ROLE_CONSUMER`, `ROLE_VENDOR_CONSUMER`"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "successful operation",
+        content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)
+    )
+    @GetMapping(value = "/server/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter streamServerStatus();
 
 }
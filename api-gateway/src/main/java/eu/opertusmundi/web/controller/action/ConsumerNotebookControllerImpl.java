@@ -1,12 +1,18 @@
 package eu.opertusmundi.web.controller.action;
 
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import eu.opertusmundi.common.feign.client.JupyterHubFeignClient;
 import eu.opertusmundi.common.model.RestResponse;
@@ -19,7 +25,7 @@ import eu.opertusmundi.common.model.jupyter.server.ServerDto;
 import eu.opertusmundi.common.model.jupyter.server.UserDto;
 import eu.opertusmundi.common.model.jupyter.server.UserServerCommandDto;
 import eu.opertusmundi.web.config.JupyterHubConfiguration;
-import eu.opertusmundi.web.utils.UrlUtils;
+import eu.opertusmundi.web.service.JupyterUserService;
 import feign.FeignException;
 
 @RestController
@@ -33,10 +39,25 @@ public class ConsumerNotebookControllerImpl extends BaseController implements Co
     @Autowired
     private ObjectProvider<JupyterHubFeignClient> jupyterClient;
 
+    @Autowired
+    private JupyterUserService jupyterUserService;
+
+    @Autowired
+    @Qualifier("jupyterTaskExecutor")
+    private ThreadPoolTaskExecutor jupyterTaskExecutor;
+
+    @Value("${opertusmundi.jupyter-task-executor.timeout-seconds:20}")
+    private long timeoutSeconds;
+
     @Override
-    public RestResponse<?> getConfiguration() {
-        final String                  userName = this.currentUserEmail();
-        final UserDto                 user     = this.jupyterClient.getObject().getUser(userName).getBody();
+    public CompletableFuture<RestResponse<?>> getConfiguration() {
+        final String userName = this.currentUserEmail();
+
+        return this.supplyAsync(() -> this.getConfiguration(userName));
+    }
+
+    private RestResponse<?> getConfiguration(String userName) {
+        final UserDto                 user     = this.jupyterUserService.getUser(userName);
 
         final JupyterConfigurationDto result   = JupyterConfigurationDto.builder()
             .profiles(this.jupyterConfiguration.getProfiles())
@@ -48,10 +69,15 @@ public class ConsumerNotebookControllerImpl extends BaseController implements Co
     }
 
     @Override
-    public RestResponse<?> startServer(String profileName) {
+    public CompletableFuture<RestResponse<?>> startServer(String profileName) {
+        final String userName = this.currentUserEmail();
+
+        return this.supplyAsync(() -> this.startServer(userName, profileName));
+    }
+
+    private RestResponse<?> startServer(String userName, String profileName) {
         try {
-            final String            userName = this.currentUserEmail();
-            final JupyterHubProfile profile  = jupyterConfiguration.getProfileByName(profileName);
+            final JupyterHubProfile profile = jupyterConfiguration.getProfileByName(profileName);
 
             // The profile must exist
             if (profile == null) {
@@ -59,7 +85,7 @@ public class ConsumerNotebookControllerImpl extends BaseController implements Co
             }
 
             // Get current user status
-            UserDto user = this.jupyterClient.getObject().getUser(userName).getBody();
+            UserDto user = this.jupyterUserService.getUser(userName);
 
             // Do not start a new server if one already exists
             if (user.getServerForDefaultName().isPresent()) {
@@ -74,6 +100,7 @@ public class ConsumerNotebookControllerImpl extends BaseController implements Co
                 groupCommand.setUsers(Arrays.asList(userName));
 
                 this.jupyterClient.getObject().addUsersToGroup(groupName, groupCommand);
+                this.jupyterUserService.invalidate(userName);
             }
 
             final UserServerCommandDto serverCommand = new UserServerCommandDto();
@@ -82,12 +109,13 @@ public class ConsumerNotebookControllerImpl extends BaseController implements Co
             this.jupyterClient.getObject().startServerForUser(userName, serverCommand);
 
             // Refresh user status
-            user = this.jupyterClient.getObject().getUser(userName).getBody();
+            this.jupyterUserService.invalidate(userName);
+            user = this.jupyterUserService.getUser(userName);
 
             final ServerDto server = user.getServerForDefaultName().orElse(null);
 
             if (server != null) {
-                final JupyterUserStatusDto result = this.getServerStatus(user, server);
+                final JupyterUserStatusDto result = this.jupyterUserService.createStatus(user, server);
                 return RestResponse.result(result);
             }
 
@@ -100,16 +128,20 @@ public class ConsumerNotebookControllerImpl extends BaseController implements Co
     }
 
     @Override
-    public RestResponse<?> getServerStatus() {
-        try {
-            final String userName = this.currentUserEmail();
+    public CompletableFuture<RestResponse<?>> getServerStatus() {
+        final String userName = this.currentUserEmail();
 
+        return this.supplyAsync(() -> this.getServerStatus(userName));
+    }
+
+    private RestResponse<?> getServerStatus(String userName) {
+        try {
             // Get current user status
-            final UserDto   user   = this.jupyterClient.getObject().getUser(userName).getBody();
+            final UserDto   user   = this.jupyterUserService.getUser(userName);
             final ServerDto server = user.getServerForDefaultName().orElse(null);
 
             if (server != null) {
-                final JupyterUserStatusDto result = this.getServerStatus(user, server);
+                final JupyterUserStatusDto result = this.jupyterUserService.createStatus(user, server);
                 return RestResponse.result(result);
             }
 
@@ -122,16 +154,21 @@ public class ConsumerNotebookControllerImpl extends BaseController implements Co
     }
 
     @Override
-    public RestResponse<Void> stopServer() {
-        try {
-            final String userName = this.currentUserEmail();
+    public CompletableFuture<RestResponse<Void>> stopServer() {
+        final String userName = this.currentUserEmail();
+
+        return this.supplyAsync(() -> this.stopServer(userName));
+    }
 
+    private RestResponse<Void> stopServer(String userName) {
+        try {
             // Get current user status
-            final UserDto   user   = this.jupyterClient.getObject().getUser(userName).getBody();
+            final UserDto   user   = this.jupyterUserService.getUser(userName);
             final ServerDto server = user.getServerForDefaultName().orElse(null);
 
             if (server != null) {
                 this.jupyterClient.getObject().stopServerForUser(userName);
+                this.jupyterUserService.invalidate(userName);
 
                 return RestResponse.success();
             }
@@ -144,17 +181,13 @@ public class ConsumerNotebookControllerImpl extends BaseController implements Co
         }
     }
 
-    private JupyterUserStatusDto getServerStatus(UserDto user, ServerDto server) {
-        final var baseUrl    = this.jupyterConfiguration.getUrl().toString();
-        final var serverPath = server.getUrlPath();
-        final var serverUrl  = UrlUtils.join(baseUrl, serverPath);
-
-        final JupyterUserStatusDto result = JupyterUserStatusDto.builder()
-            .ready(server.isReady())
-            .path(serverUrl)
-            .profile(user.getServerForDefaultName().map(ServerDto::getProfileName).get())
-            .build();
+    @Override
+    public SseEmitter streamServerStatus() {
+        return this.jupyterUserService.subscribe(this.currentUserEmail());
+    }
 
-        return result;
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        return this.supplyAsync(task, this.jupyterTaskExecutor, this.timeoutSeconds);
     }
+
 }
@@ -1,5 +1,7 @@
 package eu.opertusmundi.web.controller.action;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -43,7 +45,7 @@ public interface DiscoveryController {
         )
     )
     @GetMapping(value = "/joinable/{id}")
-    RestResponse<ClientJoinableResultDto> findJoinable(
+    CompletableFuture<RestResponse<ClientJoinableResultDto>> findJoinable(
         @Parameter(
             in          = ParameterIn.PATH,
             required    = true,
@@ -74,7 +76,7 @@ public interface DiscoveryController {
         )
     )
     @GetMapping(value = "/related/{source}")
-    RestResponse<ClientRelatedResultDto> findRelated(
+    CompletableFuture<RestResponse<ClientRelatedResultDto>> findRelated(
         @Parameter(
             in          = ParameterIn.PATH,
             required    = true,
@@ -1,7 +1,12 @@
 package eu.opertusmundi.web.controller.action;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.RestController;
 
 import eu.opertusmundi.common.model.RestResponse;
@@ -14,33 +19,45 @@ import eu.opertusmundi.common.service.DiscoveryService;
 @RestController
 public class DiscoveryControllerImpl extends BaseController implements DiscoveryController {
 
-    private final DiscoveryService discoveryService;
+    private final DiscoveryService       discoveryService;
+    private final ThreadPoolTaskExecutor discoveryTaskExecutor;
+    private final long                   timeoutSeconds;
 
     @Autowired
-    public DiscoveryControllerImpl(DiscoveryService discoveryService) {
-        this.discoveryService = discoveryService;
+    public DiscoveryControllerImpl(
+        DiscoveryService discoveryService,
+        @Qualifier("discoveryTaskExecutor") ThreadPoolTaskExecutor discoveryTaskExecutor,
+        @Value("${opertusmundi.discovery-task-executor.timeout-seconds:20}") long timeoutSeconds
+    ) {
+        this.discoveryService      = discoveryService;
+        this.discoveryTaskExecutor = discoveryTaskExecutor;
+        this.timeoutSeconds        = timeoutSeconds;
     }
 
     @Override
-    public RestResponse<ClientJoinableResultDto> findJoinable(String id) {
-        try {
-            final var result = discoveryService.findJoinable(id);
-
-            return RestResponse.result(result);
-        } catch (final CatalogueServiceException ex) {
-            return RestResponse.failure();
-        }
+    public CompletableFuture<RestResponse<ClientJoinableResultDto>> findJoinable(String id) {
+        return this.supplyAsync(() -> {
+            try {
+                final var result = discoveryService.findJoinable(id);
+
+                return RestResponse.result(result);
+            } catch (final CatalogueServiceException ex) {
+                return RestResponse.failure();
+            }
+        }, this.discoveryTaskExecutor, this.timeoutSeconds);
     }
 
     @Override
-    public RestResponse<ClientRelatedResultDto> findRelated(String source, String[] target) {
-        try {
-            final var result = discoveryService.findRelated(source, target);
-
-            return RestResponse.result(result);
-        } catch (final CatalogueServiceException ex) {
-            return RestResponse.failure();
-        }
+    public CompletableFuture<RestResponse<ClientRelatedResultDto>> findRelated(String source, String[] target) {
+        return this.supplyAsync(() -> {
+            try {
+                final var result = discoveryService.findRelated(source, target);
+
+                return RestResponse.result(result);
+            } catch (final CatalogueServiceException ex) {
+                return RestResponse.failure();
+            }
+        }, this.discoveryTaskExecutor, this.timeoutSeconds);
     }
 
 }
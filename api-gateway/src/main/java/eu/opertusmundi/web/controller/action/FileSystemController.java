@@ -1,7 +1,9 @@
 package eu.opertusmundi.web.controller.action;
 
 import java.io.IOException;
+import java.util.UUID;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
@@ -14,6 +16,7 @@ import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -23,10 +26,12 @@ import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import eu.opertusmundi.common.model.BaseResponse;
 import eu.opertusmundi.common.model.RestResponse;
 import eu.opertusmundi.common.model.file.FileMoveCommand;
 import eu.opertusmundi.common.model.file.FilePathCommand;
 import eu.opertusmundi.common.model.file.FileUploadCommand;
+import eu.opertusmundi.web.model.file.FileUploadSessionCommandDto;
 import eu.opertusmundi.web.model.openapi.schema.EndpointTags;
 import eu.opertusmundi.web.model.openapi.schema.FileSystemEndpointTypes;
 import io.swagger.v3.oas.annotations.Operation;
@@ -231,4 +236,168 @@ public interface FileSystemController {
         )
         BindingResult validationResult
     ) throws IOException;
+
+    /**
+     * Create a resumable upload session
+     *
+     * @param command Instance of {@link FileUploadSessionCommandDto} with file metadata and upload settings
+     * @return the new upload session
+     */
+    @Operation(
+        operationId = "file-system-07",
+        summary     = "Create upload session",
+        description = "Creates a resumable upload session. The file is split into chunks of `chunkSize` bytes which can be "
+                    + "uploaded in any order and in parallel. An inactive session expires after a configurable period. "
+                    + "The file size must not exceed the available space of the user, excluding the space reserved by "
+                    + "other active sessions. The number of active sessions per user is limited. "
+                    + "Required role: `ROLE_USER`, `ROLE_VENDOR_USER`",
+        security    = {
+            @SecurityRequirement(name = "cookie")
+        }
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "successful operation",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = FileSystemEndpointTypes.FileUploadSessionResponse.class))
+    )
+    @PostMapping(value = "/file-system/uploads")
+    @Validated
+    RestResponse<?> createUploadSession(
+        @Valid @RequestBody FileUploadSessionCommandDto command,
+        @Parameter(
+            hidden = true
+        )
+        BindingResult validationResult
+    );
+
+    /**
+     * Get an upload session
+     *
+     * @param sessionKey The upload session key
+     * @return the upload session including the chunks already received
+     */
+    @Operation(
+        operationId = "file-system-08",
+        summary     = "Get upload session",
+        description = "Gets an upload session. The response includes the indexes of the chunks already received and the "
+                    + "number of bytes received. Clients use this operation for resuming an interrupted upload. "
+                    + "Required role: `ROLE_USER`, `ROLE_VENDOR_USER`",
+        security    = {
+            @SecurityRequirement(name = "cookie")
+        }
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "successful operation",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = FileSystemEndpointTypes.FileUploadSessionResponse.class))
+    )
+    @GetMapping(value = "/file-system/uploads/{sessionKey}")
+    RestResponse<?> findUploadSession(
+        @Parameter(
+            in          = ParameterIn.PATH,
+            required    = true,
+            description = "Upload session key"
+        )
+        @PathVariable UUID sessionKey
+    );
+
+    /**
+     * Upload a chunk
+     *
+     * @param sessionKey The upload session key
+     * @param index Zero-based chunk index
+     * @return the updated upload session
+     */
+    @Operation(
+        operationId = "file-system-09",
+        summary     = "Upload chunk",
+        description = "Uploads a single chunk as the raw request body. All chunks except the last one must have exactly "
+                    + "`chunkSize` bytes. Uploading a chunk again replaces the existing data. "
+                    + "Required role: `ROLE_USER`, `ROLE_VENDOR_USER`",
+        security    = {
+            @SecurityRequirement(name = "cookie")
+        }
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "successful operation",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = FileSystemEndpointTypes.FileUploadSessionResponse.class))
+    )
+    @PutMapping(value = "/file-system/uploads/{sessionKey}/chunks/{index}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    RestResponse<?> uploadChunk(
+        @Parameter(
+            in          = ParameterIn.PATH,
+            required    = true,
+            description = "Upload session key"
+        )
+        @PathVariable UUID sessionKey,
+        @Parameter(
+            in          = ParameterIn.PATH,
+            required    = true,
+            description = "Zero-based chunk index"
+        )
+        @PathVariable int index,
+        @Parameter(hidden = true)
+        HttpServletRequest request
+    ) throws IOException;
+
+    /**
+     * Complete an upload session
+     *
+     * @param sessionKey The upload session key
+     * @return the updated file system
+     */
+    @Operation(
+        operationId = "file-system-10",
+        summary     = "Complete upload session",
+        description = "Assembles the received chunks and copies the file to the user's remote file system. All chunks must "
+                    + "have been uploaded. Required role: `ROLE_USER`, `ROLE_VENDOR_USER`",
+        security    = {
+            @SecurityRequirement(name = "cookie")
+        }
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "successful operation",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = FileSystemEndpointTypes.FileSystemResponse.class))
+    )
+    @PostMapping(value = "/file-system/uploads/{sessionKey}")
+    RestResponse<?> completeUploadSession(
+        @Parameter(
+            in          = ParameterIn.PATH,
+            required    = true,
+            description = "Upload session key"
+        )
+        @PathVariable UUID sessionKey
+    );
+
+    /**
+     * Delete an upload session
+     *
+     * @param sessionKey The upload session key
+     * @return
+     */
+    @Operation(
+        operationId = "file-system-11",
+        summary     = "Delete upload session",
+        description = "Deletes an upload session and all received chunks. Required role: `ROLE_USER`, `ROLE_VENDOR_USER`",
+        security    = {
+            @SecurityRequirement(name = "cookie")
+        }
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "successful operation",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = BaseResponse.class))
+    )
+    @DeleteMapping(value = "/file-system/uploads/{sessionKey}")
+    BaseResponse deleteUploadSession(
+        @Parameter(
+            in          = ParameterIn.PATH,
+            required    = true,
+            description = "Upload session key"
+        )
+        @PathVariable UUID sessionKey
+    );
+
 }
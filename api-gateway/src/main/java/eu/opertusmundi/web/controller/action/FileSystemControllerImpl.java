@@ -1,32 +1,35 @@
 package eu.opertusmundi.web.controller.action;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.UUID;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.commons.io.IOUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import eu.opertusmundi.common.model.BaseResponse;
 import eu.opertusmundi.common.model.RestResponse;
+import eu.opertusmundi.common.model.ServiceException;
 import eu.opertusmundi.common.model.file.DirectoryDto;
 import eu.opertusmundi.common.model.file.FileMoveCommand;
 import eu.opertusmundi.common.model.file.FilePathCommand;
 import eu.opertusmundi.common.model.file.FileSystemException;
 import eu.opertusmundi.common.model.file.FileSystemMessageCode;
 import eu.opertusmundi.common.model.file.FileUploadCommand;
+import eu.opertusmundi.common.model.file.QuotaDto;
 import eu.opertusmundi.common.service.UserFileManager;
+import eu.opertusmundi.web.model.file.FileUploadSessionCommandDto;
+import eu.opertusmundi.web.model.file.FileUploadSessionDto;
+import eu.opertusmundi.web.service.FileUploadSessionService;
 
 @RestController
 public class FileSystemControllerImpl extends BaseController implements FileSystemController {
@@ -34,6 +37,9 @@ public class FileSystemControllerImpl extends BaseController implements FileSyst
     @Autowired
     private UserFileManager fileManager;
 
+    @Autowired
+    private FileUploadSessionService uploadSessionService;
+
     @Override
     public RestResponse<?> browseDirectory() {
         this.ensureRegistered();
@@ -73,24 +79,7 @@ public class FileSystemControllerImpl extends BaseController implements FileSyst
             final Path path = this.fileManager.resolveFilePath(command);
             final File file = path.toFile();
 
-            String contentType = Files.probeContentType(path);
-            if (contentType == null) {
-                contentType = "application/octet-stream";
-            }
-
-            response.setHeader("Content-Disposition", String.format("attachment; filename=%s", file.getName()));
-            response.setHeader("Content-Type", contentType);
-            if (file.length() < 1024 * 1024) {
-                response.setHeader("Content-Length", Long.toString(file.length()));
-            }
-
-            final StreamingResponseBody stream = out -> {
-                try (InputStream inputStream = new FileInputStream(file)) {
-                    IOUtils.copyLarge(inputStream, out);
-                }
-            };
-
-            return new ResponseEntity<StreamingResponseBody>(stream, HttpStatus.OK);
+            return this.createDownloadResponse(response, path, file.getName());
         } catch (final FileSystemException ex) {
             throw ex;
         }
@@ -126,7 +115,12 @@ public class FileSystemControllerImpl extends BaseController implements FileSyst
             return RestResponse.invalid(validationResult.getFieldErrors());
         }
 
-        try (final InputStream input = new ByteArrayInputStream(file.getBytes())) {
+        // Bytes read beyond the remaining quota are rejected while the file is
+        // copied, regardless of the declared size
+        final QuotaDto quota     = this.fileManager.getQuota(this.currentUserEmail());
+        final long     remaining = Math.max(0, quota.getTotal() - quota.getUsed());
+
+        try (final InputStream input = this.openUploadStream(file, remaining)) {
             command.setUserName(this.currentUserEmail());
             command.setSize(file.getSize());
 
@@ -156,6 +150,78 @@ public class FileSystemControllerImpl extends BaseController implements FileSyst
         }
     }
 
+    @Override
+    public RestResponse<?> createUploadSession(FileUploadSessionCommandDto command, BindingResult validationResult) {
+        this.ensureRegistered();
+
+        if (validationResult.hasErrors()) {
+            return RestResponse.invalid(validationResult.getFieldErrors());
+        }
+
+        try {
+            command.setUserKey(this.currentUserKey());
+            command.setUserName(this.currentUserEmail());
+
+            final FileUploadSessionDto result = this.uploadSessionService.create(command);
+
+            return RestResponse.result(result);
+        } catch (final ServiceException ex) {
+            return RestResponse.error(ex.getCode(), ex.getMessage());
+        }
+    }
+
+    @Override
+    public RestResponse<?> findUploadSession(UUID sessionKey) {
+        this.ensureRegistered();
+
+        try {
+            final FileUploadSessionDto result = this.uploadSessionService.findOne(this.currentUserKey(), sessionKey);
+
+            return RestResponse.result(result);
+        } catch (final ServiceException ex) {
+            return RestResponse.error(ex.getCode(), ex.getMessage());
+        }
+    }
+
+    @Override
+    public RestResponse<?> uploadChunk(UUID sessionKey, int index, HttpServletRequest request) throws IOException {
+        this.ensureRegistered();
+
+        try (final InputStream input = request.getInputStream()) {
+            final FileUploadSessionDto result = this.uploadSessionService.uploadChunk(this.currentUserKey(), sessionKey, index, input);
+
+            return RestResponse.result(result);
+        } catch (final ServiceException ex) {
+            return RestResponse.error(ex.getCode(), ex.getMessage());
+        }
+    }
+
+    @Override
+    public RestResponse<?> completeUploadSession(UUID sessionKey) {
+        this.ensureRegistered();
+
+        try {
+            this.uploadSessionService.complete(this.currentUserKey(), this.currentUserEmail(), sessionKey);
+
+            return this.browse();
+        } catch (final ServiceException ex) {
+            return RestResponse.error(ex.getCode(), ex.getMessage());
+        }
+    }
+
+    @Override
+    public BaseResponse deleteUploadSession(UUID sessionKey) {
+        this.ensureRegistered();
+
+        try {
+            this.uploadSessionService.delete(this.currentUserKey(), sessionKey);
+
+            return RestResponse.success();
+        } catch (final ServiceException ex) {
+            return RestResponse.error(ex.getCode(), ex.getMessage());
+        }
+    }
+
     private RestResponse<?> browse() {
         try {
             final FilePathCommand command = FilePathCommand.builder()
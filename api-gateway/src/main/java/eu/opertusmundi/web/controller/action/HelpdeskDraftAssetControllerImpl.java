@@ -1,20 +1,15 @@
 package eu.opertusmundi.web.controller.action;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.UUID;
 
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
@@ -102,24 +97,7 @@ public class HelpdeskDraftAssetControllerImpl extends BaseController implements
         final Path          path         = this.providerAssetService.resolveDraftAdditionalResource(publisherKey, publisherKey, draftKey, resourceKey);
         final File          file         = path.toFile();
 
-        String contentType = Files.probeContentType(path);
-        if (contentType == null) {
-            contentType = "application/octet-stream";
-        }
-
-        response.setHeader("Content-Disposition", String.format("attachment; filename=%s", file.getName()));
-        response.setHeader("Content-Type", contentType);
-        if (file.length() < 1024 * 1024) {
-            response.setHeader("Content-Length", Long.toString(file.length()));
-        }
-
-        final StreamingResponseBody stream = out -> {
-            try (InputStream inputStream = new FileInputStream(file)) {
-                IOUtils.copyLarge(inputStream, out);
-            }
-        };
-
-        return new ResponseEntity<StreamingResponseBody>(stream, HttpStatus.OK);
+        return this.createDownloadResponse(response, path, file.getName());
     }
 
     @Override
@@ -136,24 +114,7 @@ public class HelpdeskDraftAssetControllerImpl extends BaseController implements
 
         final File file = property.getPath().toFile();
 
-        String contentType = Files.probeContentType(property.getPath());
-        if (contentType == null) {
-            contentType = property.getType().getMediaType();
-        }
-
-        response.setHeader("Content-Disposition", String.format("attachment; filename=%s", file.getName()));
-        response.setHeader("Content-Type", contentType);
-        if (file.length() < 1024 * 1024) {
-            response.setHeader("Content-Length", Long.toString(file.length()));
-        }
-
-        final StreamingResponseBody stream = out -> {
-            try (InputStream inputStream = new FileInputStream(file)) {
-                IOUtils.copyLarge(inputStream, out);
-            }
-        };
-
-        return new ResponseEntity<StreamingResponseBody>(stream, HttpStatus.OK);
+        return this.createDownloadResponse(response, property.getPath(), file.getName(), property.getType().getMediaType());
     }
 
     @Override
@@ -167,24 +128,7 @@ public class HelpdeskDraftAssetControllerImpl extends BaseController implements
         final Path path = this.providerAssetService.resolveDraftContractPath(publisherKey, publisherKey, draftKey);
         final File file = path.toFile();
 
-        String contentType = Files.probeContentType(path);
-        if (contentType == null) {
-            contentType = "application/octet-stream";
-        }
-
-        response.setHeader("Content-Disposition", String.format("attachment; filename=%s", file.getName()));
-        response.setHeader("Content-Type", contentType);
-        if (file.length() < 1024 * 1024) {
-            response.setHeader("Content-Length", Long.toString(file.length()));
-        }
-
-        final StreamingResponseBody stream = out -> {
-            try (InputStream inputStream = new FileInputStream(file)) {
-                IOUtils.copyLarge(inputStream, out);
-            }
-        };
-
-        return new ResponseEntity<StreamingResponseBody>(stream, HttpStatus.OK);
+        return this.createDownloadResponse(response, path, file.getName());
     }
 
     @Override
@@ -198,24 +142,7 @@ public class HelpdeskDraftAssetControllerImpl extends BaseController implements
         final Path path = this.providerAssetService.resolveDraftContractAnnexPath(publisherKey, publisherKey, draftKey, annexKey);
         final File file = path.toFile();
 
-        String contentType = Files.probeContentType(path);
-        if (contentType == null) {
-            contentType = "application/octet-stream";
-        }
-
-        response.setHeader("Content-Disposition", String.format("attachment; filename=%s", file.getName()));
-        response.setHeader("Content-Type", contentType);
-        if (file.length() < 1024 * 1024) {
-            response.setHeader("Content-Length", Long.toString(file.length()));
-        }
-
-        final StreamingResponseBody stream = out -> {
-            try (InputStream inputStream = new FileInputStream(file)) {
-                IOUtils.copyLarge(inputStream, out);
-            }
-        };
-
-        return new ResponseEntity<StreamingResponseBody>(stream, HttpStatus.OK);
+        return this.createDownloadResponse(response, path, file.getName());
     }
 
 }
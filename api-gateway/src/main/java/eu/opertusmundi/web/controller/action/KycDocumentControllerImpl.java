@@ -1,13 +1,10 @@
 package eu.opertusmundi.web.controller.action;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
 
 import javax.validation.Valid;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.tika.Tika;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -142,10 +139,9 @@ public class KycDocumentControllerImpl extends BaseController implements KycDocu
 
             verifyRole(command.getCustomerType());
 
-            byte[] data;
-            try (final InputStream input = new ByteArrayInputStream(file.getBytes())) {
-                data = IOUtils.toByteArray(input);
-            }
+            // The payment provider API requires the page contents in memory.
+            // Read the uploaded file only once, after all size checks
+            final byte[] data = file.getBytes();
 
             final String mimeType = this.detectMimeType(data);
 
@@ -16,6 +16,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import eu.opertusmundi.common.model.BaseResponse;
 import eu.opertusmundi.common.model.EnumSortingOrder;
@@ -210,6 +211,33 @@ public interface MessageController {
         @RequestParam(name = "order", defaultValue = "DESC") EnumSortingOrder order
     );
 
+    /**
+     * Stream new notifications, messages and unread counters
+     *
+     * @return
+     */
+    @Operation(
+        operationId = "message-07",
+        summary     = "Stream notifications and messages",
+        description = "Stream new notifications, messages and unread counters of the authenticated user as server-sent "
+                    + "events. Event `counters` contains the number of unread notifications and messages and is sent on "
+                    + "connect and whenever the unread counters change. Events `notifications` and `messages` contain the "
+                    + "unread items received since the previous event. If more items have been received than can be "
+                    + "sent in a single event, event `refresh` is sent instead with data `notifications` or `messages`; "
+                    + "clients should reload the corresponding list. If the user has too many open connections, the "
+                    + "oldest connection is closed. "
+                    + "Required role: `ROLE_USER`, `ROLE_VENDOR_USER`",
+        tags        = { EndpointTags.Message }
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "successful operation",
+        content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)
+    )
+    @GetMapping(value = "/messages/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Secured({"ROLE_USER", "ROLE_VENDOR_USER"})
+    SseEmitter stream();
+
     /**
      * Send a message to the provider with the specified key
      *
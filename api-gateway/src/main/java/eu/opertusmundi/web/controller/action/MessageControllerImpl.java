@@ -7,6 +7,7 @@ import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import eu.opertusmundi.common.domain.AccountEntity;
 import eu.opertusmundi.common.model.BaseResponse;
@@ -28,23 +29,31 @@ import eu.opertusmundi.common.model.message.client.ClientNotificationDto;
 import eu.opertusmundi.common.repository.AccountRepository;
 import eu.opertusmundi.common.service.messaging.ContactFormService;
 import eu.opertusmundi.common.service.messaging.MessageService;
+import eu.opertusmundi.web.service.MessageContactService;
+import eu.opertusmundi.web.service.MessageStreamService;
 
 @RestController
 public class MessageControllerImpl extends BaseController implements MessageController {
 
-    private final AccountRepository  accountRepository;
-    private final ContactFormService contactFormService;
-    private final MessageService     messageService;
+    private final AccountRepository     accountRepository;
+    private final ContactFormService    contactFormService;
+    private final MessageService        messageService;
+    private final MessageContactService messageContactService;
+    private final MessageStreamService  messageStreamService;
 
     @Autowired
     public MessageControllerImpl(
         AccountRepository     accountRepository,
         ContactFormService contactFormService,
-        MessageService        messageService
+        MessageService        messageService,
+        MessageContactService messageContactService,
+        MessageStreamService  messageStreamService
     ) {
-        this.accountRepository  = accountRepository;
-        this.contactFormService = contactFormService;
-        this.messageService     = messageService;
+        this.accountRepository     = accountRepository;
+        this.contactFormService    = contactFormService;
+        this.messageService        = messageService;
+        this.messageContactService = messageContactService;
+        this.messageStreamService  = messageStreamService;
     }
 
     @Override
@@ -62,7 +71,7 @@ public class MessageControllerImpl extends BaseController implements MessageCont
         final PageResultDto<ClientMessageDto> messages = this.messageService.findMessages(
             this.currentUserKey(), pageIndex, pageSize, dateFrom, dateTo, view, null
         );
-        final List<ClientContactDto>          contacts = this.messageService.findContacts(messages.getItems());
+        final List<ClientContactDto>          contacts = this.messageContactService.findContacts(messages.getItems());
         final ClientMessageCollectionResponse result   = new ClientMessageCollectionResponse(messages, contacts);
         return result;
     }
@@ -82,6 +91,11 @@ public class MessageControllerImpl extends BaseController implements MessageCont
         return RestResponse.result(notifications);
     }
 
+    @Override
+    public SseEmitter stream() {
+        return this.messageStreamService.subscribe(this.currentUserKey());
+    }
+
     @Override
     public RestResponse<?> sendToProvider(UUID providerKey, ClientMessageCommandDto clientCommand) {
         final AccountEntity provider = accountRepository.findOneByKey(providerKey).orElse(null);
@@ -92,6 +106,9 @@ public class MessageControllerImpl extends BaseController implements MessageCont
 
         final ClientMessageDto result = this.messageService.sendMessage(this.currentUserKey(), providerKey, clientCommand);
 
+        // Notify the provider immediately if connected to this node
+        this.messageStreamService.notifyNewMessage(providerKey);
+
         return RestResponse.result(result);
     }
 
@@ -112,6 +129,7 @@ public class MessageControllerImpl extends BaseController implements MessageCont
     @Override
     public BaseResponse readMessage(UUID messageKey) {
         final ClientMessageDto result = this.messageService.readMessage(this.currentUserKey(), messageKey);
+        this.messageStreamService.refreshCounters(this.currentUserKey());
 
         return RestResponse.result(result);
     }
@@ -119,9 +137,11 @@ public class MessageControllerImpl extends BaseController implements MessageCont
     @Override
     public BaseResponse readThread(UUID threadKey) {
         final ClientMessageThreadDto      thread   = this.messageService.readThread(this.currentUserKey(), threadKey);
-        final List<ClientContactDto>      contacts = this.messageService.findContacts(thread.getMessages());
+        final List<ClientContactDto>      contacts = this.messageContactService.findContacts(thread.getMessages());
         final ClientMessageThreadResponse result   = new ClientMessageThreadResponse(thread, contacts);
 
+        this.messageStreamService.refreshCounters(this.currentUserKey());
+
         return result;
     }
 
@@ -129,7 +149,7 @@ public class MessageControllerImpl extends BaseController implements MessageCont
     public RestResponse<?> getMessageThread(UUID threadKey) {
         final ClientMessageThreadDto thread = this.messageService.getMessageThread(this.currentUserKey(), threadKey);
         if (thread != null) {
-            final List<ClientContactDto>      contacts = this.messageService.findContacts(thread.getMessages());
+            final List<ClientContactDto>      contacts = this.messageContactService.findContacts(thread.getMessages());
             final ClientMessageThreadResponse result   = new ClientMessageThreadResponse(thread, contacts);
             return result;
         }
@@ -140,6 +160,7 @@ public class MessageControllerImpl extends BaseController implements MessageCont
     @Override
     public BaseResponse readNotification(UUID key) {
         this.messageService.readNotification(this.currentUserKey(), key);
+        this.messageStreamService.refreshCounters(this.currentUserKey());
 
         return RestResponse.success();
     }
@@ -147,6 +168,7 @@ public class MessageControllerImpl extends BaseController implements MessageCont
     @Override
     public BaseResponse readAllNotifications() {
         this.messageService.readAllNotifications(this.currentUserKey());
+        this.messageStreamService.refreshCounters(this.currentUserKey());
 
         return RestResponse.success();
     }
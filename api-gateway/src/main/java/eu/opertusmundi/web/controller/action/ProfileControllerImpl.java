@@ -9,6 +9,7 @@ import eu.opertusmundi.common.model.RestResponse;
 import eu.opertusmundi.common.model.account.AccountDto;
 import eu.opertusmundi.common.model.account.AccountProfileCommandDto;
 import eu.opertusmundi.web.security.UserService;
+import eu.opertusmundi.web.service.MessageContactService;
 import eu.opertusmundi.web.validation.ProfileValidator;
 
 
@@ -24,6 +25,9 @@ public class ProfileControllerImpl extends BaseController implements ProfileCont
     @Autowired
     private ProfileValidator profileValidator;
 
+    @Autowired
+    private MessageContactService messageContactService;
+
     @Override
     public RestResponse<AccountDto> getProfile() {
         if (!this.hasAnyRole(EnumRole.ROLE_USER, EnumRole.ROLE_HELPDESK, EnumRole.ROLE_VENDOR_USER)) {
@@ -54,6 +58,8 @@ public class ProfileControllerImpl extends BaseController implements ProfileCont
 
         final AccountDto account = this.userService.updateProfile(command);
 
+        this.messageContactService.invalidate(account.getKey());
+
         return RestResponse.result(account);
     }
 
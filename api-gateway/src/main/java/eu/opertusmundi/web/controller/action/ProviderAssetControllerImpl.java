@@ -1,21 +1,16 @@
 package eu.opertusmundi.web.controller.action;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Set;
 import java.util.UUID;
 
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
@@ -38,6 +33,9 @@ import eu.opertusmundi.common.model.catalogue.client.UnpublishAssetCommand;
 import eu.opertusmundi.common.model.payment.provider.ProviderAccountSubscriptionDto;
 import eu.opertusmundi.common.service.CatalogueService;
 import eu.opertusmundi.common.service.ProviderAssetService;
+import eu.opertusmundi.web.service.AssetHydrationService;
+import eu.opertusmundi.web.service.CatalogueSearchCacheService;
+import eu.opertusmundi.web.service.CatalogueSuggestionService;
 
 @RestController
 public class ProviderAssetControllerImpl extends BaseController implements ProviderAssetController {
@@ -50,6 +48,15 @@ public class ProviderAssetControllerImpl extends BaseController implements Provi
     @Autowired
     private ProviderAssetService providerAssetService;
 
+    @Autowired
+    private CatalogueSearchCacheService searchCacheService;
+
+    @Autowired
+    private CatalogueSuggestionService suggestionService;
+
+    @Autowired
+    private AssetHydrationService hydrationService;
+
     @Override
     public RestResponse<?> findAllAssets(
         String query, Set<EnumAssetType> type, int pageIndex, int pageSize, EnumCatalogueSortField orderBy, EnumSortingOrder order
@@ -97,24 +104,7 @@ public class ProviderAssetControllerImpl extends BaseController implements Provi
         final Path path = this.providerAssetService.resolveAssetAdditionalResource(pid, resourceKey);
         final File file = path.toFile();
 
-        String contentType = Files.probeContentType(path);
-        if (contentType == null) {
-            contentType = "application/octet-stream";
-        }
-
-        response.setHeader("Content-Disposition", String.format("attachment; filename=%s", file.getName()));
-        response.setHeader("Content-Type", contentType);
-        if (file.length() < 1024 * 1024) {
-            response.setHeader("Content-Length", Long.toString(file.length()));
-        }
-
-        final StreamingResponseBody stream = out -> {
-            try (InputStream inputStream = new FileInputStream(file)) {
-                IOUtils.copyLarge(inputStream, out);
-            }
-        };
-
-        return new ResponseEntity<StreamingResponseBody>(stream, HttpStatus.OK);
+        return this.createDownloadResponse(response, path, file.getName());
     }
 
     @Override
@@ -124,24 +114,7 @@ public class ProviderAssetControllerImpl extends BaseController implements Provi
         final Path path = this.providerAssetService.resolveAssetContractPath(pid);
         final File file = path.toFile();
 
-        String contentType = Files.probeContentType(path);
-        if (contentType == null) {
-            contentType = "application/octet-stream";
-        }
-
-        response.setHeader("Content-Disposition", String.format("attachment; filename=%s", file.getName()));
-        response.setHeader("Content-Type", contentType);
-        if (file.length() < 1024 * 1024) {
-            response.setHeader("Content-Length", Long.toString(file.length()));
-        }
-
-        final StreamingResponseBody stream = out -> {
-            try (InputStream inputStream = new FileInputStream(file)) {
-                IOUtils.copyLarge(inputStream, out);
-            }
-        };
-
-        return new ResponseEntity<StreamingResponseBody>(stream, HttpStatus.OK);
+        return this.createDownloadResponse(response, path, file.getName());
     }
 
     @Override
@@ -151,24 +124,7 @@ public class ProviderAssetControllerImpl extends BaseController implements Provi
         final Path path = this.providerAssetService.resolveAssetContractAnnexPath(pid, annexKey);
         final File file = path.toFile();
 
-        String contentType = Files.probeContentType(path);
-        if (contentType == null) {
-            contentType = "application/octet-stream";
-        }
-
-        response.setHeader("Content-Disposition", String.format("attachment; filename=%s", file.getName()));
-        response.setHeader("Content-Type", contentType);
-        if (file.length() < 1024 * 1024) {
-            response.setHeader("Content-Length", Long.toString(file.length()));
-        }
-
-        final StreamingResponseBody stream = out -> {
-            try (InputStream inputStream = new FileInputStream(file)) {
-                IOUtils.copyLarge(inputStream, out);
-            }
-        };
-
-        return new ResponseEntity<StreamingResponseBody>(stream, HttpStatus.OK);
+        return this.createDownloadResponse(response, path, file.getName());
     }
 
     @Override
@@ -181,24 +137,7 @@ public class ProviderAssetControllerImpl extends BaseController implements Provi
 
         final File file = property.getPath().toFile();
 
-        String contentType = Files.probeContentType(property.getPath());
-        if (contentType == null) {
-            contentType = property.getType().getMediaType();
-        }
-
-        response.setHeader("Content-Disposition", String.format("attachment; filename=%s", file.getName()));
-        response.setHeader("Content-Type", contentType);
-        if (file.length() < 1024 * 1024) {
-            response.setHeader("Content-Length", Long.toString(file.length()));
-        }
-
-        final StreamingResponseBody stream = out -> {
-            try (InputStream inputStream = new FileInputStream(file)) {
-                IOUtils.copyLarge(inputStream, out);
-            }
-        };
-
-        return new ResponseEntity<StreamingResponseBody>(stream, HttpStatus.OK);
+        return this.createDownloadResponse(response, property.getPath(), file.getName(), property.getType().getMediaType());
     }
 
     @Override
@@ -211,6 +150,9 @@ public class ProviderAssetControllerImpl extends BaseController implements Provi
                 .build();
 
             this.providerAssetService.unpublishAsset(command);
+            this.searchCacheService.invalidateAll();
+            this.suggestionService.removeAsset(id);
+            this.hydrationService.invalidate(id);
 
             return RestResponse.success();
         } catch (final CatalogueServiceException ex) {
@@ -1,5 +1,6 @@
 package eu.opertusmundi.web.controller.action;
 
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.UUID;
@@ -31,6 +32,8 @@ import eu.opertusmundi.common.model.contract.provider.ProviderTemplateContractQu
 import eu.opertusmundi.common.model.file.FileSystemException;
 import eu.opertusmundi.common.service.contract.MasterTemplateContractService;
 import eu.opertusmundi.common.service.contract.ProviderTemplateContractService;
+import eu.opertusmundi.web.model.file.CachedFile;
+import eu.opertusmundi.web.service.ContractPdfCacheService;
 import eu.opertusmundi.web.validation.ProviderTemplateContractValidator;
 
 @RestController
@@ -39,16 +42,19 @@ public class ProviderContractTemplateControllerImpl extends BaseController imple
     private final ProviderTemplateContractValidator contractValidator;
     private final MasterTemplateContractService     masterContractService;
     private final ProviderTemplateContractService   templateContractService;
+    private final ContractPdfCacheService           contractPdfCacheService;
 
     @Autowired
     public ProviderContractTemplateControllerImpl(
         ProviderTemplateContractValidator contractValidator,
         MasterTemplateContractService     masterContractService,
-        ProviderTemplateContractService   templateContractService
+        ProviderTemplateContractService   templateContractService,
+        ContractPdfCacheService           contractPdfCacheService
     ) {
         this.contractValidator       = contractValidator;
         this.masterContractService   = masterContractService;
         this.templateContractService = templateContractService;
+        this.contractPdfCacheService = contractPdfCacheService;
     }
 
     @Override
@@ -218,30 +224,53 @@ public class ProviderContractTemplateControllerImpl extends BaseController imple
                 return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
             }
 
-            // Print template
-            final ProviderContractCommand command = ProviderContractCommand.builder()
-                .providerKey(this.currentUserParentKey())
-                .contractKey(templateKey)
-                .build();
+            // Print template or get the file rendered by a previous request.
+            // The file may be evicted and deleted after the lookup. An evicted
+            // entry is removed from the cache before its file is deleted;
+            // hence, a second lookup renders the template again
+            final UUID providerKey = this.currentUserParentKey();
 
-            final byte[] result = this.templateContractService.print(command);
+            CachedFile file = this.contractPdfCacheService.printTemplate(providerKey, templateKey, template);
 
-            response.setHeader("Content-Disposition", String.format("attachment; filename=%s.pdf", template.getTitle()));
-            response.setHeader("Content-Type", MediaType.APPLICATION_PDF_VALUE);
-            if (result.length < 1024 * 1024) {
-                response.setHeader("Content-Length", Long.toString(result.length));
+            if (file != null && !Files.isRegularFile(file.getPath())) {
+                file = this.contractPdfCacheService.printTemplate(providerKey, templateKey, template);
             }
 
-            final StreamingResponseBody stream = out -> {
-                    IOUtils.write(result, out);
-            };
+            if (file == null || !Files.isRegularFile(file.getPath())) {
+                // The cache is disabled or the file is still missing
+                return this.renderTemplate(response, providerKey, templateKey, template);
+            }
 
-            return new ResponseEntity<StreamingResponseBody>(stream, HttpStatus.OK);
+            return this.createDownloadResponsePdf(response, file.getPath().toFile(), String.format("%s.pdf", template.getTitle()));
         } catch (final FileSystemException ex) {
             throw ex;
         }
     }
 
+    /**
+     * Render a template without using the PDF cache
+     */
+    private ResponseEntity<StreamingResponseBody> renderTemplate(
+        HttpServletResponse response, UUID providerKey, UUID templateKey, ProviderTemplateContractDto template
+    ) {
+        final ProviderContractCommand command = ProviderContractCommand.builder()
+            .providerKey(providerKey)
+            .contractKey(templateKey)
+            .build();
+
+        final byte[] result = this.templateContractService.print(command);
+
+        response.setHeader("Content-Disposition", String.format("attachment; filename=%s.pdf", template.getTitle()));
+        response.setHeader("Content-Type", MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader("Content-Length", Long.toString(result.length));
+
+        final StreamingResponseBody stream = out -> {
+            IOUtils.write(result, out);
+        };
+
+        return new ResponseEntity<StreamingResponseBody>(stream, HttpStatus.OK);
+    }
+
     @Override
     public RestResponse<?> deactivate(UUID key) {
         try {
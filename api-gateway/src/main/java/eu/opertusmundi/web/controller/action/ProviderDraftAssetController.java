@@ -23,6 +23,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import eu.opertusmundi.common.model.BaseResponse;
@@ -46,6 +47,8 @@ import eu.opertusmundi.common.model.catalogue.client.DraftFromAssetCommandDto;
 import eu.opertusmundi.common.model.catalogue.client.EnumAssetType;
 import eu.opertusmundi.common.model.catalogue.client.EnumSpatialDataServiceType;
 import eu.opertusmundi.common.model.openapi.schema.CatalogueEndpointTypes;
+import eu.opertusmundi.web.model.asset.DraftSubmissionJobDto;
+import eu.opertusmundi.web.model.openapi.schema.DraftEndpointTypes;
 import eu.opertusmundi.web.model.openapi.schema.EndpointTags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -317,16 +320,23 @@ public interface ProviderDraftAssetController {
         operationId = "draft-asset-05",
         summary     = "Submit existing draft",
         description = "Update draft and submit for review and publication. The lock on the record is automatically released. "
+                    + "Validation and submission are executed in the background. On success, a submission job is returned "
+                    + "with status `202`. The job status can be queried using the job key. "
                     + "Required role: `ROLE_PROVIDER`, `ROLE_VENDOR_PROVIDER`"
     )
+    @ApiResponse(
+        responseCode = "202",
+        description = "submission job created",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = DraftEndpointTypes.DraftSubmissionJobResponse.class))
+    )
     @ApiResponse(
         responseCode = "200",
-        description = "successful operation",
+        description = "request is not valid",
         content = @Content(mediaType = "application/json", schema = @Schema(implementation = BaseResponse.class))
     )
     @PutMapping(value = "/drafts/{draftKey}/submit")
     @Validated
-    BaseResponse submitDraft(
+    ResponseEntity<BaseResponse> submitDraft(
         @Parameter(
             in          = ParameterIn.PATH,
             required    = true,
@@ -347,6 +357,65 @@ public interface ProviderDraftAssetController {
         BindingResult validationResult
     );
 
+    /**
+     * Get draft submission job
+     *
+     * @param jobKey The job unique key
+     * @return
+     */
+    @Operation(
+        operationId = "draft-asset-19",
+        summary     = "Get submission job",
+        description = "Get the status of a draft submission job. When the job is completed or has failed, the job result "
+                    + "contains the response of the submit operation. "
+                    + "Required role: `ROLE_PROVIDER`, `ROLE_VENDOR_PROVIDER`"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "successful operation",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = DraftEndpointTypes.DraftSubmissionJobResponse.class))
+    )
+    @GetMapping(value = "/drafts/submissions/{jobKey}")
+    RestResponse<?> findOneSubmissionJob(
+        @Parameter(
+            in          = ParameterIn.PATH,
+            required    = true,
+            description = "Job unique key"
+        )
+        @PathVariable UUID jobKey
+    );
+
+    /**
+     * Stream draft submission job status changes
+     *
+     * @param jobKey The job unique key
+     * @return
+     */
+    @Operation(
+        operationId = "draft-asset-20",
+        summary     = "Stream submission job status",
+        description = "Stream draft submission job status changes as server-sent events. Each event has name `status` "
+                    + "and the job as data. The current status is sent immediately. The stream is closed when the job "
+                    + "is completed or has failed. If the job is executed by another server, the stream is closed after "
+                    + "the current status is sent and the event sets the reconnection time. Clients must close the stream "
+                    + "when the job is completed or has failed. "
+                    + "Required role: `ROLE_PROVIDER`, `ROLE_VENDOR_PROVIDER`"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "successful operation",
+        content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = DraftSubmissionJobDto.class))
+    )
+    @GetMapping(value = "/drafts/submissions/{jobKey}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter streamSubmissionJob(
+        @Parameter(
+            in          = ParameterIn.PATH,
+            required    = true,
+            description = "Job unique key"
+        )
+        @PathVariable UUID jobKey
+    );
+
     /**
      * Review draft
      *
@@ -1,8 +1,6 @@
 package eu.opertusmundi.web.controller.action;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
@@ -14,7 +12,6 @@ import java.util.UUID;
 
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.tika.Tika;
 import org.slf4j.Logger;
@@ -28,6 +25,7 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import eu.opertusmundi.common.model.BaseResponse;
@@ -62,6 +60,9 @@ import eu.opertusmundi.common.model.file.FileSystemMessageCode;
 import eu.opertusmundi.common.service.AssetDraftException;
 import eu.opertusmundi.common.service.ProviderAssetService;
 import eu.opertusmundi.common.service.UserFileManager;
+import eu.opertusmundi.web.model.asset.DraftSubmissionJobDto;
+import eu.opertusmundi.web.service.DraftSubmissionService;
+import eu.opertusmundi.web.service.ServiceSampleService;
 import eu.opertusmundi.web.validation.ApiDraftValidator;
 import eu.opertusmundi.web.validation.AssetFileResourceValidator;
 import eu.opertusmundi.web.validation.DraftFromAssetValidator;
@@ -99,6 +100,12 @@ public class ProviderDraftAssetControllerImpl extends BaseController implements
     @Autowired
     private ProviderAssetService providerAssetService;
 
+    @Autowired
+    private DraftSubmissionService draftSubmissionService;
+
+    @Autowired
+    private ServiceSampleService serviceSampleService;
+
     @Override
     public RestResponse<?> findAllDraft(
         Set<EnumProviderAssetDraftStatus> status, Set<EnumAssetType> type, Set<EnumSpatialDataServiceType> serviceType,
@@ -243,6 +250,9 @@ public class ProviderDraftAssetControllerImpl extends BaseController implements
 
             final AssetDraftDto result = this.providerAssetService.updateDraft(command);
 
+            // Service resources may have been replaced
+            this.serviceSampleService.invalidateDraft(draftKey);
+
             return RestResponse.result(result);
         } catch (final AssetDraftException ex) {
             return RestResponse.error(ex.getCode(), ex.getMessage());
@@ -254,31 +264,38 @@ public class ProviderDraftAssetControllerImpl extends BaseController implements
     }
 
     @Override
-    public BaseResponse submitDraft(UUID draftKey, CatalogueItemCommandDto command, BindingResult validationResult) {
+    public ResponseEntity<BaseResponse> submitDraft(UUID draftKey, CatalogueItemCommandDto command, BindingResult validationResult) {
         // Inject command properties
         this.injectCatalogueItemCommandProperties(draftKey, command, false);
         // Authorize command
         this.authorizeCommand(command);
 
-        try {
-            this.draftValidator.validate(this.getAccount(), command, validationResult, EnumValidationMode.SUBMIT, draftKey);
+        // Draft validation requires remote service calls and is executed by
+        // the submission job. Only request validation errors are returned
+        // synchronously
+        if (validationResult.hasErrors()) {
+            return ResponseEntity.ok(RestResponse.invalid(validationResult.getFieldErrors(), validationResult.getGlobalErrors()));
+        }
 
-            if (validationResult.hasErrors()) {
-                return RestResponse.invalid(validationResult.getFieldErrors(), validationResult.getGlobalErrors());
-            }
+        final DraftSubmissionJobDto job = this.draftSubmissionService.submit(this.getAccount(), command);
 
-            this.providerAssetService.submitDraft(command);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(RestResponse.result(job));
+    }
 
-            return RestResponse.success();
-        } catch (final AssetDraftException ex) {
-            logger.error("Operation has failed", ex);
+    @Override
+    public RestResponse<?> findOneSubmissionJob(UUID jobKey) {
+        try {
+            final DraftSubmissionJobDto result = this.draftSubmissionService.findOne(this.currentUserParentKey(), jobKey);
 
+            return RestResponse.result(result);
+        } catch (final ServiceException ex) {
             return RestResponse.error(ex.getCode(), ex.getMessage());
-        } catch (final Exception ex) {
-            logger.error("Operation has failed", ex);
         }
+    }
 
-        return RestResponse.failure();
+    @Override
+    public SseEmitter streamSubmissionJob(UUID jobKey) {
+        return this.draftSubmissionService.subscribe(this.currentUserParentKey(), jobKey);
     }
 
     @Override
@@ -311,6 +328,7 @@ public class ProviderDraftAssetControllerImpl extends BaseController implements
             final UUID publisherKey = this.currentUserParentKey();
 
             this.providerAssetService.deleteDraft(ownerKey, publisherKey, draftKey);
+            this.serviceSampleService.invalidateDraft(draftKey);
 
             return RestResponse.success();
         } catch (final AssetDraftException ex) {
@@ -415,7 +433,7 @@ public class ProviderDraftAssetControllerImpl extends BaseController implements
             return RestResponse.invalid(validationResult.getFieldErrors(), validationResult.getGlobalErrors());
         }
 
-        try (final InputStream input = new ByteArrayInputStream(resource.getBytes())) {
+        try (final InputStream input = this.openUploadStream(resource)) {
             this.providerAssetService.addFileResourceFromUpload(command, input);
         } catch (final ServiceException ex) {
             return RestResponse.error(ex.getCode(), ex.getMessage());
@@ -445,7 +463,7 @@ public class ProviderDraftAssetControllerImpl extends BaseController implements
             return RestResponse.invalid(validationResult.getFieldErrors());
         }
 
-        try (final InputStream input = new ByteArrayInputStream(resource.getBytes())) {
+        try (final InputStream input = this.openUploadStream(resource)) {
             command.setDraftKey(draftKey);
             command.setOwnerKey(ownerKey);
             command.setPublisherKey(publisherKey);
@@ -478,24 +496,7 @@ public class ProviderDraftAssetControllerImpl extends BaseController implements
         final Path path = this.providerAssetService.resolveDraftAdditionalResource(ownerKey, publisherKey, draftKey, resourceKey);
         final File file = path.toFile();
 
-        String contentType = Files.probeContentType(path);
-        if (contentType == null) {
-            contentType = "application/octet-stream";
-        }
-
-        response.setHeader("Content-Disposition", String.format("attachment; filename=%s", file.getName()));
-        response.setHeader("Content-Type", contentType);
-        if (file.length() < 1024 * 1024) {
-            response.setHeader("Content-Length", Long.toString(file.length()));
-        }
-
-        final StreamingResponseBody stream = out -> {
-            try (InputStream inputStream = new FileInputStream(file)) {
-                IOUtils.copyLarge(inputStream, out);
-            }
-        };
-
-        return new ResponseEntity<StreamingResponseBody>(stream, HttpStatus.OK);
+        return this.createDownloadResponse(response, path, file.getName());
     }
 
     @Override
@@ -507,8 +508,8 @@ public class ProviderDraftAssetControllerImpl extends BaseController implements
             return RestResponse.error(FileSystemMessageCode.FILE_IS_MISSING, "A file is required");
         }
 
-        try (final InputStream input = new ByteArrayInputStream(file.getBytes())) {
-            final byte[] data     = IOUtils.toByteArray(input);
+        try {
+            final byte[] data     = file.getBytes();
             final String mimeType = this.detectMimeType(data);
 
             if (mimeType == null) {
@@ -557,8 +558,8 @@ public class ProviderDraftAssetControllerImpl extends BaseController implements
             return RestResponse.invalid(validationResult.getFieldErrors());
         }
 
-        try (final InputStream input = new ByteArrayInputStream(file.getBytes())) {
-            final byte[] data     = IOUtils.toByteArray(input);
+        try {
+            final byte[] data     = file.getBytes();
             final String mimeType = this.detectMimeType(data);
 
             if (mimeType == null) {
@@ -598,24 +599,7 @@ public class ProviderDraftAssetControllerImpl extends BaseController implements
         final Path path = this.providerAssetService.resolveDraftContractPath(ownerKey, publisherKey, draftKey);
         final File file = path.toFile();
 
-        String contentType = Files.probeContentType(path);
-        if (contentType == null) {
-            contentType = "application/octet-stream";
-        }
-
-        response.setHeader("Content-Disposition", String.format("attachment; filename=%s", file.getName()));
-        response.setHeader("Content-Type", contentType);
-        if (file.length() < 1024 * 1024) {
-            response.setHeader("Content-Length", Long.toString(file.length()));
-        }
-
-        final StreamingResponseBody stream = out -> {
-            try (InputStream inputStream = new FileInputStream(file)) {
-                IOUtils.copyLarge(inputStream, out);
-            }
-        };
-
-        return new ResponseEntity<StreamingResponseBody>(stream, HttpStatus.OK);
+        return this.createDownloadResponse(response, path, file.getName());
     }
 
     @Override
@@ -628,24 +612,7 @@ public class ProviderDraftAssetControllerImpl extends BaseController implements
         final Path path = this.providerAssetService.resolveDraftContractAnnexPath(ownerKey, publisherKey, draftKey, annexKey);
         final File file = path.toFile();
 
-        String contentType = Files.probeContentType(path);
-        if (contentType == null) {
-            contentType = "application/octet-stream";
-        }
-
-        response.setHeader("Content-Disposition", String.format("attachment; filename=%s", file.getName()));
-        response.setHeader("Content-Type", contentType);
-        if (file.length() < 1024 * 1024) {
-            response.setHeader("Content-Length", Long.toString(file.length()));
-        }
-
-        final StreamingResponseBody stream = out -> {
-            try (InputStream inputStream = new FileInputStream(file)) {
-                IOUtils.copyLarge(inputStream, out);
-            }
-        };
-
-        return new ResponseEntity<StreamingResponseBody>(stream, HttpStatus.OK);
+        return this.createDownloadResponse(response, path, file.getName());
     }
 
     @Override
@@ -661,24 +628,7 @@ public class ProviderDraftAssetControllerImpl extends BaseController implements
 
         final File file = property.getPath().toFile();
 
-        String contentType = Files.probeContentType(property.getPath());
-        if (contentType == null) {
-            contentType = property.getType().getMediaType();
-        }
-
-        response.setHeader("Content-Disposition", String.format("attachment; filename=%s", file.getName()));
-        response.setHeader("Content-Type", contentType);
-        if (file.length() < 1024 * 1024) {
-            response.setHeader("Content-Length", Long.toString(file.length()));
-        }
-
-        final StreamingResponseBody stream = out -> {
-            try (InputStream inputStream = new FileInputStream(file)) {
-                IOUtils.copyLarge(inputStream, out);
-            }
-        };
-
-        return new ResponseEntity<StreamingResponseBody>(stream, HttpStatus.OK);
+        return this.createDownloadResponse(response, property.getPath(), file.getName(), property.getType().getMediaType());
     }
 
     @Override
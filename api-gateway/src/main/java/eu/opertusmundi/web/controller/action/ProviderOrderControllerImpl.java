@@ -1,6 +1,5 @@
 package eu.opertusmundi.web.controller.action;
 
-import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
@@ -139,8 +138,9 @@ public class ProviderOrderControllerImpl extends BaseController implements Provi
                 .lastUpdate(lastUpdate)
                 .build();
 
-            final InputStream inputStream = new ByteArrayInputStream(contract.getBytes());
-            this.orderFulfillmentService.uploadContractByProvider(command, inputStream, lastUpdate);
+            try (final InputStream inputStream = this.openUploadStream(contract)) {
+                this.orderFulfillmentService.uploadContractByProvider(command, inputStream, lastUpdate);
+            }
 
             return this.findOne(orderKey);
         }  catch (final ServiceException ex) {
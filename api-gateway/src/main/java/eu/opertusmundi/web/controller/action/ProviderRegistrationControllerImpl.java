@@ -19,6 +19,8 @@ import eu.opertusmundi.common.repository.CustomerRepository;
 import eu.opertusmundi.common.service.ProviderRegistrationService;
 import eu.opertusmundi.common.util.TextUtils;
 import eu.opertusmundi.common.util.ViesVatClient;
+import eu.opertusmundi.web.service.ContractPdfCacheService;
+import eu.opertusmundi.web.service.MessageContactService;
 import eu.opertusmundi.web.validation.ProviderValidator;
 
 @RestController
@@ -34,17 +36,25 @@ public class ProviderRegistrationControllerImpl extends BaseController implement
 
     private final ViesVatClient viesVatClient;
 
+    private final MessageContactService messageContactService;
+
+    private final ContractPdfCacheService contractPdfCacheService;
+
     @Autowired
     public ProviderRegistrationControllerImpl(
         CustomerRepository customerRepository,
         ProviderValidator providerValidator,
         ProviderRegistrationService providerService,
-        ViesVatClient viesVatClient
+        ViesVatClient viesVatClient,
+        MessageContactService messageContactService,
+        ContractPdfCacheService contractPdfCacheService
     ) {
-        this.customerRepository = customerRepository;
-        this.providerValidator  = providerValidator;
-        this.providerService    = providerService;
-        this.viesVatClient      = viesVatClient;
+        this.customerRepository      = customerRepository;
+        this.providerValidator       = providerValidator;
+        this.providerService         = providerService;
+        this.viesVatClient           = viesVatClient;
+        this.messageContactService   = messageContactService;
+        this.contractPdfCacheService = contractPdfCacheService;
     }
 
     @Override
@@ -100,6 +110,9 @@ public class ProviderRegistrationControllerImpl extends BaseController implement
         try {
             final AccountDto account = this.providerService.updateProfile(command);
 
+            this.messageContactService.invalidate(account.getKey());
+            this.contractPdfCacheService.invalidateProvider(account.getKey());
+
             return RestResponse.result(account.getProfile());
         } catch (final IllegalArgumentException argEx) {
             return RestResponse.error(BasicMessageCode.InternalServerError, argEx.getMessage());
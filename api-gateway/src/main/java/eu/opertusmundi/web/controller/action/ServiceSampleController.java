@@ -53,7 +53,8 @@ public interface ServiceSampleController {
         description = "Implements a pseudo WMS service for the service resources of assets with type "
                     + "`SERVICE`. Only services of type `WMS` and `WMS` are supported. The endpoint "
                     + "ignores all WMS/WFS parameters except for `BBOX` (bounding box). The CRS is "
-                    + "always assumed to be `EPSG:4326`. "
+                    + "always assumed to be `EPSG:4326`. Tiles aligned to the `EPSG:4326` tile grid are "
+                    + "cached and support conditional requests using `ETag` and `Last-Modified` headers. "
                     + "Required role: `ROLE_PROVIDER`, `ROLE_VENDOR_PROVIDER`"
     )
     @ApiResponse(
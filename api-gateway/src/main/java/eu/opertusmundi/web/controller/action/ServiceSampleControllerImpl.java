@@ -1,29 +1,28 @@
 package eu.opertusmundi.web.controller.action;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
 import java.net.URISyntaxException;
-import java.util.Arrays;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import org.locationtech.jts.geom.Coordinate;
-import org.locationtech.jts.geom.Geometry;
-import org.locationtech.jts.geom.GeometryFactory;
-import org.locationtech.jts.geom.PrecisionModel;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.RestController;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import eu.opertusmundi.common.model.catalogue.client.EnumSpatialDataServiceType;
-import eu.opertusmundi.common.model.catalogue.client.WfsLayerSample;
-import eu.opertusmundi.common.model.catalogue.client.WmsLayerSample;
 import eu.opertusmundi.common.model.geodata.EnumGeodataWorkspace;
 import eu.opertusmundi.common.model.ingest.ResourceIngestionDataDto;
 import eu.opertusmundi.common.service.AssetDraftException;
@@ -31,10 +30,20 @@ import eu.opertusmundi.common.service.ProviderAssetService;
 import eu.opertusmundi.common.service.ogc.GeoServerUtils;
 import eu.opertusmundi.common.service.ogc.OgcServiceClientException;
 import eu.opertusmundi.common.service.ogc.UserGeodataConfigurationResolver;
+import eu.opertusmundi.web.model.file.CachedFile;
+import eu.opertusmundi.web.model.file.WmsTileKey;
+import eu.opertusmundi.web.service.ServiceSampleService;
+import eu.opertusmundi.web.service.WmsTileCacheService;
+import eu.opertusmundi.web.service.WmsTileCacheService.WmsTileLoader;
 
 @RestController
 public class ServiceSampleControllerImpl extends BaseController implements ServiceSampleController {
 
+    private static final int TILE_SIZE = 256;
+
+    @Value("${opertusmundi.cache.wms-tile.max-age-seconds:3600}")
+    private long tileMaxAge;
+
     @Autowired
     private ProviderAssetService providerAssetService;
 
@@ -45,20 +54,80 @@ public class ServiceSampleControllerImpl extends BaseController implements Servi
     private GeoServerUtils client;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private ServiceSampleService serviceSampleService;
+
+    @Autowired
+    private WmsTileCacheService wmsTileCacheService;
 
     @Override
     public void wms(
         UUID draftKey, UUID resourceKey, String bbox, HttpServletRequest request, HttpServletResponse response
     ) throws IOException, OgcServiceClientException, URISyntaxException {
+        final ResourceIngestionDataDto service = this.findService(draftKey, resourceKey);
+
+        if (service == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        // Resolve GeoServer URL and user workspace
+        final var userGeodataConfig = userGeodataConfigurationResolver.resolveFromUserKey(currentUserParentKey(), EnumGeodataWorkspace.PUBLIC);
+
+        final ResourceIngestionDataDto.ServiceEndpoint endpoint = service.getEndpointByServiceType(EnumSpatialDataServiceType.WMS);
+
+        final WmsTileLoader loader = b -> this.client.getWmsMap(
+            userGeodataConfig.getUrl(), endpoint.getUri(), service.getTableName(), b, TILE_SIZE, TILE_SIZE
+        );
+
+        final WmsTileKey key = this.wmsTileCacheService.createKey(
+            userGeodataConfig.getEffectiveWorkspace(), service.getTableName(), bbox, TILE_SIZE
+        );
+
         response.addHeader(HttpHeaders.CONTENT_TYPE, MediaType.IMAGE_PNG_VALUE);
 
-        final byte[] result = this.getMap(draftKey, resourceKey, bbox);
+        if (key == null) {
+            // The bounding box is not aligned to the tile grid
+            this.writeImage(response, loader.load(bbox));
+            return;
+        }
 
-        if (result == null) {
+        final CachedFile tile = this.wmsTileCacheService.getTile(key, loader);
+
+        if (tile == null) {
             response.setStatus(HttpServletResponse.SC_NOT_FOUND);
-        } else {
-            response.getOutputStream().write(result);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.maxAge(this.tileMaxAge, TimeUnit.SECONDS).cachePrivate().getHeaderValue());
+
+        // Handle If-None-Match and If-Modified-Since. The status and the
+        // validator headers are already set to the response
+        final ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        if (webRequest.checkNotModified(tile.getEtag(), tile.getLastModified())) {
+            return;
+        }
+
+        final FileChannel channel;
+        try {
+            channel = FileChannel.open(tile.getPath(), StandardOpenOption.READ);
+        } catch (final NoSuchFileException ex) {
+            // The tile has been evicted after the lookup
+            this.writeImage(response, loader.load(key.toBbox()));
+            return;
+        }
+        try (channel) {
+            response.setContentLengthLong(tile.getLength());
+
+            final WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+
+            long position = 0;
+            while (position < tile.getLength()) {
+                final long transferred = channel.transferTo(position, tile.getLength() - position, target);
+                if (transferred <= 0) {
+                    throw new IOException(String.format("Unexpected end of file [path=%s, position=%d]", tile.getPath(), position));
+                }
+                position += transferred;
+            }
         }
     }
 
@@ -67,57 +136,28 @@ public class ServiceSampleControllerImpl extends BaseController implements Servi
         UUID draftKey, UUID resourceKey, EnumSpatialDataServiceType type, String bbox,
         HttpServletRequest request, HttpServletResponse response
     ) throws IOException, OgcServiceClientException, URISyntaxException {
-        try {
-            final List<ResourceIngestionDataDto> services = providerAssetService.getServicesFromCache(this.currentUserParentKey(), draftKey);
-
-            if (services == null) {
-                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
-                return;
-            }
+        final byte[] sample = this.serviceSampleService.getSample(this.currentUserParentKey(), draftKey, resourceKey, type, bbox);
 
-            final ResourceIngestionDataDto service = services.stream()
-                .filter(s -> s.getKey().equals(resourceKey.toString()))
-                .findFirst()
-                .orElse(null);
-
-            // Service endpoints must exist
-            if (service == null) {
-                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
-                return;
-            }
-
-            // Resolve GeoServer URL and user workspace
-            final var userGeodataConfig = userGeodataConfigurationResolver.resolveFromUserKey(currentUserParentKey(), EnumGeodataWorkspace.PUBLIC);
-
-            switch (type) {
-                case WMS :
-                    final List<WmsLayerSample> samples = this.client.getWmsSamples(userGeodataConfig.getUrl(), service, Arrays.asList(this.bboxToGeometry(bbox)));
-
-                    response.addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
-                    response.getWriter().write(objectMapper.writeValueAsString(samples.get(0)));
-                    break;
-
-                case WFS :
-                    final List<WfsLayerSample> wfsSamples = this.client.getWfsSamples(
-                        userGeodataConfig.getUrl(), userGeodataConfig.getEffectiveWorkspace(), service, Arrays.asList(this.bboxToGeometry(bbox))
-                    );
+        if (sample == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
 
-                    response.addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
-                    response.getWriter().write(objectMapper.writeValueAsString(wfsSamples.get(0)));
-                    break;
+        response.addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(sample.length);
+        response.getOutputStream().write(sample);
+    }
 
-                default :
-                    response.setStatus(HttpServletResponse.SC_NOT_FOUND);
-                    break;
-            }
-        } catch (final AssetDraftException ex) {
-            // Either the draft is not found or the data ingestion has not been
-            // completed yet
+    private void writeImage(HttpServletResponse response, byte[] image) throws IOException {
+        if (image == null) {
             response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
+        response.setContentLength(image.length);
+        response.getOutputStream().write(image);
     }
 
-    private byte[] getMap(UUID draftKey, UUID resourceKey, String bbox) throws URISyntaxException, OgcServiceClientException, MalformedURLException {
+    private ResourceIngestionDataDto findService(UUID draftKey, UUID resourceKey) {
         try {
             final List<ResourceIngestionDataDto> services = providerAssetService.getServicesFromCache(currentUserParentKey(), draftKey);
             // Ingestion data must exist
@@ -125,22 +165,11 @@ public class ServiceSampleControllerImpl extends BaseController implements Servi
                 return null;
             }
 
-            final ResourceIngestionDataDto service = services.stream()
+            // Service endpoints must exist
+            return services.stream()
                 .filter(s -> s.getKey().equals(resourceKey.toString()))
                 .findFirst()
                 .orElse(null);
-
-            // Service endpoints must exist
-            if (service == null) {
-                return null;
-            }
-
-            // Resolve GeoServer URL and user workspace
-            final var userGeodataConfig = userGeodataConfigurationResolver.resolveFromUserKey(currentUserParentKey(), EnumGeodataWorkspace.PUBLIC);
-
-            final ResourceIngestionDataDto.ServiceEndpoint endpoint = service.getEndpointByServiceType(EnumSpatialDataServiceType.WMS);
-
-            return client.getWmsMap(userGeodataConfig.getUrl(), endpoint.getUri(), service.getTableName(), bbox, 256, 256);
         } catch (final AssetDraftException ex) {
             // Either the draft is not found or the data ingestion has not been
             // completed yet
@@ -148,18 +177,4 @@ public class ServiceSampleControllerImpl extends BaseController implements Servi
         }
     }
 
-    private Geometry bboxToGeometry(String bbox) {
-        final Double[] coords = Arrays.stream(bbox.split(",")).limit(4).map(t->Double.parseDouble(t)).toArray(Double[]::new);
-        final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
-        final Geometry        geom            = geometryFactory.createPolygon(new Coordinate[] {
-            new Coordinate(coords[0],coords[1]),
-            new Coordinate(coords[2],coords[1]),
-            new Coordinate(coords[2],coords[3]),
-            new Coordinate(coords[0],coords[3]),
-            new Coordinate(coords[0],coords[1])
-        });
-
-        return geom;
-    }
-
 }
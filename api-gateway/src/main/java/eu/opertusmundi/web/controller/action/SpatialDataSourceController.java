@@ -3,8 +3,11 @@ package eu.opertusmundi.web.controller.action;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
@@ -125,6 +128,8 @@ public interface SpatialDataSourceController {
      * Get all regions by NUTS code prefix
      *
      * @param code NUTS code prefix
+     * @param maxLevel Max NUTS level
+     * @param zoom Optional zoom level used for selecting the geometry resolution
      *
      * @return An instance of {@link SpatialDataEndpointTypes#RegionCollectionResponse} class
      */
@@ -154,7 +159,15 @@ public interface SpatialDataSourceController {
             description = "The max level (inclusive) of the NUTS regions in the result.If not set, all regions are returned",
             schema = @Schema(type = "integer", minimum = "0")
         )
-        @RequestParam(name = "maxLevel", required = false) Long maxLevel
+        @RequestParam(name = "maxLevel", required = false) Long maxLevel,
+        @Parameter(
+            in = ParameterIn.QUERY,
+            required = false,
+            description = "Map zoom level. If set, geometries are simplified with a tolerance that depends on the zoom level. "
+                        + "If not set, full resolution geometries are returned",
+            schema = @Schema(type = "integer", minimum = "0")
+        )
+        @RequestParam(name = "zoom", required = false) Integer zoom
     );
 
     /**
@@ -228,6 +241,8 @@ public interface SpatialDataSourceController {
      *
      * @param level NUTS level
      * @param bbox A bounding box
+     * @param includeGeometry True if geometries must be included in the response
+     * @param zoom Optional zoom level used for selecting the geometry resolution
      */
     @Operation(
         operationId = "spatial-nuts-05",
@@ -263,10 +278,93 @@ public interface SpatialDataSourceController {
             description = "True if geometries must be included in the response"
         )
         @RequestParam(name = "includeGeometry", required = false, defaultValue = "true") boolean includeGeometry,
+        @Parameter(
+            in = ParameterIn.QUERY,
+            required = false,
+            description = "Map zoom level. If set, geometries are simplified with a tolerance that depends on the zoom level. "
+                        + "If not set, full resolution geometries are returned",
+            schema = @Schema(type = "integer", minimum = "0")
+        )
+        @RequestParam(name = "zoom", required = false) Integer zoom,
         @Parameter(hidden = true)
         HttpServletRequest request,
         @Parameter(hidden = true)
         HttpServletResponse response
     );
 
+    /**
+     * NUTS region vector tiles
+     *
+     * @param level NUTS level
+     * @param z Zoom level
+     * @param x Tile column
+     * @param y Tile row
+     * @return The tile encoded as a Mapbox Vector Tile
+     */
+    @Operation(
+        operationId = "spatial-nuts-06",
+        summary     = "Vector tiles",
+        description = "Gets a Mapbox Vector Tile (MVT) with the NUTS regions of the specified level. Tiles are addressed "
+                    + "using the XYZ scheme in `EPSG:3857`. Each tile has a single layer named after the NUTS table. "
+                    + "If no region intersects the tile, an empty response with status `204` is returned"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "successful operation",
+        content = @Content(mediaType = "application/vnd.mapbox-vector-tile")
+    )
+    @ApiResponse(
+        responseCode = "204",
+        description = "tile is empty"
+    )
+    @GetMapping(value = "/nuts/tiles/{level}/{z}/{x}/{y}.mvt", produces = "application/vnd.mapbox-vector-tile")
+    ResponseEntity<byte[]> tile(
+        @Parameter(
+            in = ParameterIn.PATH,
+            required = true,
+            description = "The NUTS level"
+        )
+        @PathVariable(name = "level") Integer level,
+        @Parameter(
+            in = ParameterIn.PATH,
+            required = true,
+            description = "The zoom level"
+        )
+        @PathVariable(name = "z") Integer z,
+        @Parameter(
+            in = ParameterIn.PATH,
+            required = true,
+            description = "The tile column"
+        )
+        @PathVariable(name = "x") Integer x,
+        @Parameter(
+            in = ParameterIn.PATH,
+            required = true,
+            description = "The tile row"
+        )
+        @PathVariable(name = "y") Integer y
+    );
+
+    /**
+     * Reload the in-memory NUTS region index
+     *
+     * @return An instance of {@link SpatialDataEndpointTypes#IndexRefreshResponse} class
+     */
+    @Operation(
+        operationId = "spatial-nuts-07",
+        summary     = "Refresh index",
+        description = "Reloads the in-memory NUTS region index from the database. The operation fails if the index is "
+                    + "not enabled. Required role: `ROLE_HELPDESK`"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "successful operation",
+        content = @Content(
+            mediaType = "application/json", schema = @Schema(implementation = SpatialDataEndpointTypes.IndexRefreshResponse.class)
+        )
+    )
+    @PostMapping(value = "/nuts/index/refresh")
+    @Secured({"ROLE_HELPDESK"})
+    RestResponse<?> refreshIndex();
+
 }
@@ -1,12 +1,19 @@
 package eu.opertusmundi.web.controller.action;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -15,18 +22,33 @@ import javax.sql.DataSource;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpStatus;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import eu.opertusmundi.common.domain.EncodingEntity;
 import eu.opertusmundi.common.domain.EpsgEntity;
 import eu.opertusmundi.common.domain.NutsRegionEntity;
+import eu.opertusmundi.common.model.BasicMessageCode;
 import eu.opertusmundi.common.model.RestResponse;
+import eu.opertusmundi.common.model.ServiceException;
 import eu.opertusmundi.common.model.spatial.EpsgDto;
 import eu.opertusmundi.common.model.spatial.FeatureCollectionDto;
 import eu.opertusmundi.common.model.spatial.NutsRegionFeatureDto;
@@ -34,6 +56,11 @@ import eu.opertusmundi.common.model.spatial.NutsRegionPropertiesDto;
 import eu.opertusmundi.common.repository.EncodingRepository;
 import eu.opertusmundi.common.repository.EpsgRepository;
 import eu.opertusmundi.common.repository.NutsRegionRepository;
+import eu.opertusmundi.web.service.NutsGeometryPyramidService;
+import eu.opertusmundi.web.service.NutsRegionIndexService;
+import eu.opertusmundi.web.service.NutsVectorTileService;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 
 @RestController
 public class SpatialDataSourceControllerImpl extends BaseController implements SpatialDataSourceController, InitializingBean {
@@ -44,6 +71,10 @@ public class SpatialDataSourceControllerImpl extends BaseController implements S
 
     private final String CONTENT_TYPE_HEADER = "Content-Type";
 
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private static final MediaType MEDIA_TYPE_MVT = MediaType.parseMediaType("application/vnd.mapbox-vector-tile");
+
     @Value("${opertusmundi.spatial.nuts.schema:spatial}")
     private String schema;
 
@@ -59,6 +90,19 @@ public class SpatialDataSourceControllerImpl extends BaseController implements S
     @Value("${opertusmundi.spatial.nuts.geometry-column-simple:geom_simple}")
     private String geometryColumnSimple;
 
+    /**
+     * Number of rows fetched from the database in a single round trip when
+     * streaming WFS features
+     */
+    @Value("${opertusmundi.spatial.nuts.wfs.fetch-size:200}")
+    private int wfsFetchSize;
+
+    @Value("${opertusmundi.spatial.nuts.wfs.gzip-enabled:true}")
+    private boolean wfsGzipEnabled;
+
+    @Value("${opertusmundi.spatial.nuts.tiles.max-age-seconds:86400}")
+    private long tileMaxAge;
+
     private final Map<String, List<String>> tableColumns = new HashMap<String, List<String>>();
 
     @Autowired
@@ -66,6 +110,16 @@ public class SpatialDataSourceControllerImpl extends BaseController implements S
 
     private JdbcTemplate jdbcTemplate;
 
+    private JdbcTemplate streamingJdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Autowired
     private EpsgRepository epsgRepository;
 
@@ -75,10 +129,25 @@ public class SpatialDataSourceControllerImpl extends BaseController implements S
     @Autowired
     private NutsRegionRepository nutsRegionRepository;
 
+    @Autowired
+    private NutsVectorTileService nutsVectorTileService;
+
+    @Autowired
+    private NutsRegionIndexService nutsRegionIndexService;
+
+    @Autowired
+    private NutsGeometryPyramidService nutsGeometryPyramidService;
+
     @Override
     public void afterPropertiesSet() throws Exception {
         jdbcTemplate = new JdbcTemplate(dataSource);
 
+        streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        streamingJdbcTemplate.setFetchSize(wfsFetchSize);
+
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+
         // Custom mappings for spatial.nuts table
         tableColumns.put("nuts", Arrays.asList(
             "nuts_id as \"code\"",
@@ -113,7 +182,11 @@ public class SpatialDataSourceControllerImpl extends BaseController implements S
             return RestResponse.success();
         }
 
-        final List<NutsRegionFeatureDto> features = nutsRegionRepository.findByCode(codes).stream()
+        final List<NutsRegionEntity> regions = this.nutsRegionIndexService.isAvailable()
+            ? this.nutsRegionIndexService.findAllByCode(codes)
+            : nutsRegionRepository.findByCode(codes);
+
+        final List<NutsRegionFeatureDto> features = regions.stream()
             .map(NutsRegionEntity::toFeature)
             .collect(Collectors.toList());
 
@@ -126,7 +199,11 @@ public class SpatialDataSourceControllerImpl extends BaseController implements S
             return RestResponse.success();
         }
 
-        final NutsRegionFeatureDto feature = nutsRegionRepository.findByCode(code).map(NutsRegionEntity::toFeature).orElse(null);
+        final Optional<NutsRegionEntity> region = this.nutsRegionIndexService.isAvailable()
+            ? this.nutsRegionIndexService.findOneByCode(code)
+            : nutsRegionRepository.findByCode(code);
+
+        final NutsRegionFeatureDto feature = region.map(NutsRegionEntity::toFeature).orElse(null);
 
         return RestResponse.result(feature);
     }
@@ -137,7 +214,11 @@ public class SpatialDataSourceControllerImpl extends BaseController implements S
             return RestResponse.result(new ArrayList<NutsRegionPropertiesDto>());
         }
 
-        final List<NutsRegionPropertiesDto> result = this.nutsRegionRepository.findAllByNameContainsAndLevel(query, level).stream()
+        final List<NutsRegionEntity> regions = this.nutsRegionIndexService.isAvailable()
+            ? this.nutsRegionIndexService.findAllByName(query, level)
+            : this.nutsRegionRepository.findAllByNameContainsAndLevel(query, level);
+
+        final List<NutsRegionPropertiesDto> result = regions.stream()
             .map(NutsRegionEntity::toProperties)
             .collect(Collectors.toList());
 
@@ -145,7 +226,7 @@ public class SpatialDataSourceControllerImpl extends BaseController implements S
     }
 
     @Override
-    public RestResponse<?> findAllByPrefix(String prefix, Long maxLevel) {
+    public RestResponse<?> findAllByPrefix(String prefix, Long maxLevel, Integer zoom) {
         if (StringUtils.isBlank(prefix) || prefix.length() < 2) {
             return RestResponse.result(new ArrayList<NutsRegionPropertiesDto>());
         }
@@ -154,21 +235,27 @@ public class SpatialDataSourceControllerImpl extends BaseController implements S
             maxLevel = null;
         }
 
-        final List<NutsRegionFeatureDto> features = this.nutsRegionRepository.findAllByCodeStartsWith(prefix, prefix, maxLevel).stream()
-            .map(NutsRegionEntity::toFeature)
+        final List<NutsRegionEntity> regions = this.nutsRegionIndexService.isAvailable()
+            ? this.nutsRegionIndexService.findAllByPrefix(prefix, maxLevel)
+            : this.nutsRegionRepository.findAllByCodeStartsWith(prefix, prefix, maxLevel);
+
+        final List<NutsRegionFeatureDto> features = regions.stream()
+            .map(r -> this.toFeature(r, zoom))
             .collect(Collectors.toList());
 
         return RestResponse.result(FeatureCollectionDto.of(features));
     }
 
     @Override
-    public void wfs(Integer level, String bbox, boolean includeGeometry, HttpServletRequest request, HttpServletResponse response) {
+    public void wfs(
+        Integer level, String bbox, boolean includeGeometry, Integer zoom, HttpServletRequest request, HttpServletResponse response
+    ) {
         try {
             loadFeatures(
                 request, response,
                 this.schema, this.tableName,
                 this.idColumn, this.geometryColumn, this.geometryColumnSimple,
-                level, includeGeometry
+                level, includeGeometry, zoom
             );
         } catch (final Exception ex) {
             logger.error(String.format("NUTS regions WFS request has failed. [message=%s]:" + ex.getMessage()), ex);
@@ -177,11 +264,78 @@ public class SpatialDataSourceControllerImpl extends BaseController implements S
         }
     }
 
+    @Override
+    public ResponseEntity<byte[]> tile(Integer level, Integer z, Integer x, Integer y) {
+        try {
+            final byte[]       tile         = this.nutsVectorTileService.getTile(level, z, x, y);
+            final CacheControl cacheControl = CacheControl.maxAge(this.tileMaxAge, TimeUnit.SECONDS).cachePublic();
+
+            if (tile.length == 0) {
+                return ResponseEntity.noContent().cacheControl(cacheControl).build();
+            }
+
+            return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .contentType(MEDIA_TYPE_MVT)
+                .body(tile);
+        } catch (final ServiceException ex) {
+            if (ex.getCode() == BasicMessageCode.BadRequest) {
+                return ResponseEntity.badRequest().build();
+            }
+            logger.error(String.format("NUTS regions tile request has failed [message=%s]", ex.getMessage()), ex);
+        } catch (final Exception ex) {
+            logger.error(String.format("NUTS regions tile request has failed [message=%s]", ex.getMessage()), ex);
+        }
+
+        return ResponseEntity.internalServerError().build();
+    }
+
+    @Override
+    public RestResponse<?> refreshIndex() {
+        if (!this.nutsRegionIndexService.isEnabled()) {
+            return RestResponse.error(BasicMessageCode.BadRequest, "NUTS region index is not enabled");
+        }
+
+        final int count = this.nutsRegionIndexService.refresh();
+
+        // Cached tiles and simplified geometries may contain stale regions
+        this.nutsVectorTileService.evictAll();
+        this.nutsGeometryPyramidService.evictAll();
+
+        return RestResponse.result(count);
+    }
+
+    private NutsRegionFeatureDto toFeature(NutsRegionEntity region, Integer zoom) {
+        final NutsRegionFeatureDto feature = region.toFeature();
+
+        if (zoom != null) {
+            feature.setGeometry(this.nutsGeometryPyramidService.getGeometry(region, zoom));
+        }
+
+        return feature;
+    }
+
+    /**
+     * Get the WFS feature properties of a region. Keys and order match the
+     * custom column mapping of the {@code nuts} table
+     */
+    private Map<String, Object> toWfsProperties(NutsRegionEntity region) {
+        final Map<String, Object> result = new LinkedHashMap<>();
+
+        result.put("code", region.getCode());
+        result.put("level", region.getLevel());
+        result.put("nameLatin", region.getNameLatin());
+        result.put("name", region.getName());
+        result.put("population", region.getPopulation());
+
+        return result;
+    }
+
     private void loadFeatures(
         HttpServletRequest request, HttpServletResponse response,
         String schema, String tableName,
         String idColumn, String geometryColumn, String geometryColumnSimple,
-        int level, boolean includeGeometry
+        int level, boolean includeGeometry, Integer zoom
     ) throws IOException {
         final Map<String, String[]> parameterMap = request.getParameterMap();
 
@@ -200,32 +354,68 @@ public class SpatialDataSourceControllerImpl extends BaseController implements S
                 boundingBoxParts = ArrayUtils.remove(boundingBoxParts, 4);
             }
 
+            // Use the in-memory index if available. Features are written in
+            // the same form as the rows of the database query. The index does
+            // not store the simplified geometry column; hence, requests for
+            // geometries without a zoom level are always served by the
+            // database
+            if (this.nutsRegionIndexService.isAvailable() && (!includeGeometry || zoom != null)) {
+                final Envelope envelope = new Envelope(
+                    Double.parseDouble(boundingBoxParts[0]),
+                    Double.parseDouble(boundingBoxParts[2]),
+                    Double.parseDouble(boundingBoxParts[1]),
+                    Double.parseDouble(boundingBoxParts[3])
+                );
+                final List<NutsRegionEntity> regions = this.nutsRegionIndexService.findAllByBbox(level, envelope);
+
+                this.writeFeatureCollection(request, response, generator -> {
+                    for (final NutsRegionEntity r : regions) {
+                        generator.writeStartObject();
+                        generator.writeStringField("type", "Feature");
+                        if (includeGeometry) {
+                            generator.writeFieldName("geometry");
+                            this.objectMapper.writeValue(generator, this.nutsGeometryPyramidService.getGeometry(r, zoom));
+                        }
+                        generator.writeFieldName("properties");
+                        this.objectMapper.writeValue(generator, this.toWfsProperties(r));
+                        generator.writeStringField("id", tableName + "::" + r.getId());
+                        generator.writeEndObject();
+                    }
+                });
+                return;
+            }
+
             // Get table schema
             final List<String> columns = getColumns(tableName, geometryColumn, geometryColumnSimple);
 
             // Create where clause
             final String where = "ST_Intersects(ST_MakeEnvelope(?, ?, ?, ?, 4326), \"%6$s\") = true and lvl_code = ? ";
 
-            // Get data as GeoJson
-            String dataQuery =
-                  "select row_to_json(fc) "
-                + "from   ( "
-                + "    select 'FeatureCollection' As type, COALESCE(array_to_json(array_agg(f)), '[]') As features "
-                + "    from   ("
-                + "               select 'Feature' As type, ";
-
-
-            if(includeGeometry) {
-                dataQuery += "            COALESCE(ST_AsGeoJSON(dt.\"%7$s\")::json, ST_AsGeoJSON(dt.\"%6$s\")::json) As geometry,";
+            // Get one row per feature. Geometries and properties are
+            // returned as GeoJSON/JSON text and written to the response as
+            // raw values
+            String dataQuery = "select ";
+
+            // If a zoom level is set, simplified geometries are read from the
+            // geometry pyramid cache and the database returns only the region
+            // codes. Zoom levels finer than the smallest tolerance get the
+            // full resolution geometry, like the pyramid does
+            final Double  tolerance = zoom == null ? null : this.nutsGeometryPyramidService.getTolerance(zoom);
+            final boolean pyramid   = includeGeometry && tolerance != null;
+
+            if (pyramid) {
+                dataQuery += "dt.nuts_id As code, ";
+            } else if (includeGeometry && zoom != null) {
+                dataQuery += "ST_AsGeoJSON(dt.\"%6$s\") As geometry, ";
+            } else if(includeGeometry) {
+                dataQuery += "COALESCE(ST_AsGeoJSON(dt.\"%7$s\"), ST_AsGeoJSON(dt.\"%6$s\")) As geometry, ";
             }
 
             dataQuery +=
-                  "                      row_to_json((select columns FROM (SELECT %3$s) As columns)) As properties, "
-                + "                      '%2$s::' || dt.\"%5$s\" as id "
-                + "               from   \"%1$s\".\"%2$s\" As dt"
-                + "               where  " + where
-                + "    ) As f "
-                + ")  As fc";
+                  "row_to_json((select columns FROM (SELECT %3$s) As columns))::text As properties, "
+                + "'%2$s::' || dt.\"%5$s\" as id "
+                + "from   \"%1$s\".\"%2$s\" As dt "
+                + "where  " + where;
 
             dataQuery = String.format(
                 dataQuery, schema, tableName, String.join(",", columns), boundingBox, idColumn, geometryColumn, geometryColumnSimple
@@ -239,16 +429,135 @@ public class SpatialDataSourceControllerImpl extends BaseController implements S
                 level
             };
 
-            final String output = jdbcTemplate.queryForObject(dataQuery, String.class, args);
-
-            response.addHeader(CONTENT_TYPE_HEADER, "application/json; charset=UTF-8");
-            response.setCharacterEncoding("UTF-8");
-            response.getWriter().write(output);
+            if (pyramid) {
+                this.writePyramidFeatures(request, response, dataQuery, args, zoom);
+            } else {
+                this.streamFeatures(request, response, dataQuery, args, includeGeometry);
+            }
+            return;
         }
 
         response.setStatus(HttpServletResponse.SC_OK);
     }
 
+    /**
+     * Writes the features returned by the specified query to the response as
+     * a GeoJSON feature collection. Rows are fetched from the database in
+     * batches using a server-side cursor and each feature is written to the
+     * response as soon as it is read; hence, memory usage does not depend on
+     * the number of features.
+     */
+    private void streamFeatures(
+        HttpServletRequest request, HttpServletResponse response, String query, Object[] args, boolean includeGeometry
+    ) throws IOException {
+        this.writeFeatureCollection(request, response, generator -> {
+            try {
+                // PostgreSQL uses a cursor for fetching rows only if
+                // auto-commit is disabled
+                this.readOnlyTransactionTemplate.executeWithoutResult(status -> {
+                    this.streamingJdbcTemplate.query(query, (RowCallbackHandler) rs -> {
+                        try {
+                            generator.writeStartObject();
+                            generator.writeStringField("type", "Feature");
+                            if (includeGeometry) {
+                                this.writeRawField(generator, "geometry", rs.getString("geometry"));
+                            }
+                            this.writeRawField(generator, "properties", rs.getString("properties"));
+                            generator.writeStringField("id", rs.getString("id"));
+                            generator.writeEndObject();
+                        } catch (final IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    }, args);
+                });
+            } catch (final UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+        });
+    }
+
+    /**
+     * Writes the features returned by the specified query to the response as
+     * a GeoJSON feature collection, using the simplified geometries of the
+     * geometry pyramid. The query returns no geometries; hence, rows are small
+     * and are read before the geometries are resolved with a single pyramid
+     * lookup.
+     */
+    private void writePyramidFeatures(
+        HttpServletRequest request, HttpServletResponse response, String query, Object[] args, int zoom
+    ) throws IOException {
+        final List<WfsRow> rows = this.jdbcTemplate.query(
+            query, (rs, index) -> new WfsRow(rs.getString("code"), rs.getString("properties"), rs.getString("id")), args
+        );
+
+        final Map<String, Geometry> geometries = this.nutsGeometryPyramidService.getGeometries(
+            rows.stream().map(WfsRow::getCode).collect(Collectors.toList()), zoom
+        );
+
+        this.writeFeatureCollection(request, response, generator -> {
+            for (final WfsRow row : rows) {
+                generator.writeStartObject();
+                generator.writeStringField("type", "Feature");
+                generator.writeFieldName("geometry");
+                this.objectMapper.writeValue(generator, geometries.get(row.getCode()));
+                this.writeRawField(generator, "properties", row.getProperties());
+                generator.writeStringField("id", row.getId());
+                generator.writeEndObject();
+            }
+        });
+    }
+
+    /**
+     * Writes a GeoJSON feature collection to the response. The response is
+     * compressed if gzip is enabled and the client accepts it
+     */
+    private void writeFeatureCollection(
+        HttpServletRequest request, HttpServletResponse response, FeatureWriter writer
+    ) throws IOException {
+        final boolean gzip = this.wfsGzipEnabled && this.acceptsGzip(request);
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.addHeader(CONTENT_TYPE_HEADER, "application/json; charset=UTF-8");
+        response.setCharacterEncoding("UTF-8");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        try (
+            final OutputStream  out       = gzip ? new GZIPOutputStream(response.getOutputStream(), GZIP_BUFFER_SIZE) : response.getOutputStream();
+            final JsonGenerator generator = this.objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        ) {
+            generator.writeStartObject();
+            generator.writeStringField("type", "FeatureCollection");
+            generator.writeArrayFieldStart("features");
+
+            writer.write(generator);
+
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeRawField(JsonGenerator generator, String name, String value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeRawValue(value);
+        }
+    }
+
+    private boolean acceptsGzip(HttpServletRequest request) {
+        final Enumeration<String> values = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (values != null && values.hasMoreElements()) {
+            if (StringUtils.containsIgnoreCase(values.nextElement(), "gzip")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private List<String> getColumns(String tableName, String geometryColumn, String geometryColumnSimple) {
         if (tableColumns.containsKey(tableName)) {
             return tableColumns.get(tableName);
@@ -272,6 +581,26 @@ public class SpatialDataSourceControllerImpl extends BaseController implements S
         }
     }
 
+    @FunctionalInterface
+    private interface FeatureWriter {
+
+        void write(JsonGenerator generator) throws IOException;
+
+    }
+
+    /**
+     * A WFS feature without geometry
+     */
+    @AllArgsConstructor
+    @Getter
+    private static final class WfsRow {
+
+        private final String code;
+        private final String properties;
+        private final String id;
+
+    }
+
     private String toLikeClause(String value) {
         if (StringUtils.isBlank(value)) {
             return null;
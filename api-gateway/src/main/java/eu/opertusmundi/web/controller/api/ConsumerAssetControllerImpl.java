@@ -1,16 +1,11 @@
 package eu.opertusmundi.web.controller.api;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.UUID;
 
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.commons.io.IOUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -111,27 +106,9 @@ public class ConsumerAssetControllerImpl extends BaseController implements Consu
 
             final FileResourceDto resource = this.consumerAssetService.resolveResourcePath(userKey, pid, resourceKey);
             final Path            path     = resource.getRelativePath();
-            final File            file     = path.toFile();
             final String          fileName = resource.getFileName();
 
-            String contentType = Files.probeContentType(path);
-            if (contentType == null) {
-                contentType = "application/octet-stream";
-            }
-
-            response.setHeader("Content-Disposition", String.format("attachment; filename=%s", fileName));
-            response.setHeader("Content-Type", contentType);
-            if (file.length() < 1024 * 1024) {
-                response.setHeader("Content-Length", Long.toString(file.length()));
-            }
-
-            final StreamingResponseBody stream = out -> {
-                try (InputStream inputStream = new FileInputStream(file)) {
-                    IOUtils.copyLarge(inputStream, out);
-                }
-            };
-
-            return new ResponseEntity<StreamingResponseBody>(stream, HttpStatus.OK);
+            return this.createDownloadResponse(response, path, fileName);
         } catch (final ServiceException ex) {
             final HttpStatus httpStatus = ex.getCode() instanceof BasicMessageCode
                 ? ((BasicMessageCode) ex.getCode()).getHttpStatus()
@@ -1,15 +1,11 @@
 package eu.opertusmundi.web.controller.api;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
 
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.commons.io.IOUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -50,24 +46,7 @@ public class FileSystemControllerImpl extends BaseController implements FileSyst
             final Path path = this.fileManager.resolveFilePath(command);
             final File file = path.toFile();
 
-            String contentType = Files.probeContentType(path);
-            if (contentType == null) {
-                contentType = "application/octet-stream";
-            }
-
-            response.setHeader("Content-Disposition", String.format("attachment; filename=%s", file.getName()));
-            response.setHeader("Content-Type", contentType);
-            if (file.length() < 1024 * 1024) {
-                response.setHeader("Content-Length", Long.toString(file.length()));
-            }
-
-            final StreamingResponseBody stream = out -> {
-                try (InputStream inputStream = new FileInputStream(file)) {
-                    IOUtils.copyLarge(inputStream, out);
-                }
-            };
-
-            return new ResponseEntity<StreamingResponseBody>(stream, HttpStatus.OK);
+            return this.createDownloadResponse(response, path, file.getName());
         } catch (final FileSystemException ex) {
             if (ex.getCode() == FileSystemMessageCode.PATH_NOT_FOUND) {
                 return new ResponseEntity<StreamingResponseBody>((StreamingResponseBody) null, HttpStatus.NOT_FOUND);
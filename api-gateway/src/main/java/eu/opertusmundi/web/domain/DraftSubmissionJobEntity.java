@@ -0,0 +1,78 @@
+package eu.opertusmundi.web.domain;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+
+import org.hibernate.annotations.NaturalId;
+
+import eu.opertusmundi.web.model.asset.DraftSubmissionJobDto;
+import eu.opertusmundi.web.model.asset.EnumDraftSubmissionStatus;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Draft submission job status. The job is executed by the node that accepted
+ * the submission; the table allows any node to report the job status
+ */
+@Entity(name = "DraftSubmissionJob")
+@Table(schema = "web", name = "`draft_submission_job`")
+@Getter
+@Setter
+public class DraftSubmissionJobEntity {
+
+    @Id
+    @Column(name = "`id`", updatable = false)
+    @SequenceGenerator(sequenceName = "web.draft_submission_job_id_seq", name = "draft_submission_job_id_seq", allocationSize = 1)
+    @GeneratedValue(generator = "draft_submission_job_id_seq", strategy = GenerationType.SEQUENCE)
+    @Setter(AccessLevel.PRIVATE)
+    private Integer id;
+
+    @NotNull
+    @NaturalId
+    @Column(name = "key", updatable = false, columnDefinition = "uuid")
+    private UUID key;
+
+    @NotNull
+    @Column(name = "draft_key", updatable = false, columnDefinition = "uuid")
+    private UUID draftKey;
+
+    @NotNull
+    @Column(name = "publisher_key", updatable = false, columnDefinition = "uuid")
+    private UUID publisherKey;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "`status`")
+    private EnumDraftSubmissionStatus status;
+
+    /**
+     * The response of the submit operation serialized as JSON
+     */
+    @Column(name = "`result`")
+    private String result;
+
+    @NotNull
+    @Column(name = "`created_at`")
+    private ZonedDateTime createdAt;
+
+    @NotNull
+    @Column(name = "`updated_at`")
+    private ZonedDateTime updatedAt;
+
+    public DraftSubmissionJobDto toDto() {
+        return DraftSubmissionJobDto.of(key, draftKey, status, createdAt, updatedAt, result);
+    }
+
+}
@@ -0,0 +1,112 @@
+package eu.opertusmundi.web.domain;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+import org.hibernate.annotations.NaturalId;
+
+import eu.opertusmundi.common.domain.AccountEntity;
+import eu.opertusmundi.web.model.file.EnumFileUploadSessionStatus;
+import eu.opertusmundi.web.model.file.FileUploadSessionDto;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Resumable upload session. Received chunks are stored in the temporary
+ * directory; the table only stores the session metadata
+ */
+@Entity(name = "FileUploadSession")
+@Table(schema = "web", name = "`file_upload_session`")
+@Getter
+@Setter
+public class FileUploadSessionEntity {
+
+    @Id
+    @Column(name = "`id`", updatable = false)
+    @SequenceGenerator(sequenceName = "web.file_upload_session_id_seq", name = "file_upload_session_id_seq", allocationSize = 1)
+    @GeneratedValue(generator = "file_upload_session_id_seq", strategy = GenerationType.SEQUENCE)
+    @Setter(AccessLevel.PRIVATE)
+    private Integer id;
+
+    @NotNull
+    @NaturalId
+    @Column(name = "key", updatable = false, columnDefinition = "uuid")
+    private UUID key = UUID.randomUUID();
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account", nullable = false)
+    private AccountEntity account;
+
+    @Column(name = "`path`")
+    private String path;
+
+    @NotBlank
+    @Column(name = "`file_name`")
+    private String fileName;
+
+    @Column(name = "`comment`")
+    private String comment;
+
+    @Column(name = "`overwrite`")
+    private boolean overwrite;
+
+    @Column(name = "`size`")
+    private long size;
+
+    @Column(name = "`chunk_size`")
+    private long chunkSize;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "`status`")
+    private EnumFileUploadSessionStatus status;
+
+    @NotNull
+    @Column(name = "`created_at`")
+    private ZonedDateTime createdAt;
+
+    @NotNull
+    @Column(name = "`updated_at`")
+    private ZonedDateTime updatedAt;
+
+    public int getChunkCount() {
+        return (int) ((this.size + this.chunkSize - 1) / this.chunkSize);
+    }
+
+    public FileUploadSessionDto toDto() {
+        final FileUploadSessionDto s = new FileUploadSessionDto();
+
+        s.setChunkCount(this.getChunkCount());
+        s.setChunkSize(chunkSize);
+        s.setComment(comment);
+        s.setCreatedAt(createdAt);
+        s.setFileName(fileName);
+        s.setId(id);
+        s.setKey(key);
+        s.setOverwrite(overwrite);
+        s.setPath(path);
+        s.setSize(size);
+        s.setStatus(status);
+        s.setUpdatedAt(updatedAt);
+
+        return s;
+    }
+
+}
@@ -4,6 +4,10 @@ public class Constants {
 
     public static final String HEADER_X_FORWARDED_FOR = "X-FORWARDED-FOR";
 
-    public static final String SESSION_LOCATION = "SESSION_LOCATION";
+    public static final String REQUEST_CONTEXT = "REQUEST_CONTEXT";
+
+    public static final String REQUEST_CONTEXT_IGNORE_LOGGING = "REQUEST_CONTEXT_IGNORE_LOGGING";
+
+    public static final String REQUEST_LOCATION = "REQUEST_LOCATION";
 
 }
@@ -0,0 +1,41 @@
+package eu.opertusmundi.web.model.asset;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import eu.opertusmundi.common.model.BaseResponse;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor(staticName = "of")
+@Getter
+public class DraftSubmissionJobDto {
+
+    @Schema(description = "Submission job unique key")
+    private final UUID key;
+
+    @Schema(description = "Draft unique key")
+    private final UUID draftKey;
+
+    @Schema(description = "Submission status")
+    private final EnumDraftSubmissionStatus status;
+
+    @Schema(description = "Job creation date")
+    private final ZonedDateTime createdAt;
+
+    @Schema(description = "Date of the most recent status change")
+    private final ZonedDateTime updatedAt;
+
+    @Schema(
+        description =
+            "The response of the submit operation. Set only when the job is completed or has failed. "
+          + "If validation has failed, the response contains the validation messages",
+        implementation = BaseResponse.class
+    )
+    @JsonRawValue
+    private final String result;
+
+}
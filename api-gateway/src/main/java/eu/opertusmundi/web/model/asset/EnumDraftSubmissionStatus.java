@@ -0,0 +1,32 @@
+package eu.opertusmundi.web.model.asset;
+
+public enum EnumDraftSubmissionStatus {
+    /**
+     * Submission is waiting for previous submissions of the same publisher
+     * or for an available worker
+     */
+    QUEUED,
+    /**
+     * Draft is being validated
+     */
+    VALIDATING,
+    /**
+     * Draft is valid. Resource ingestion is being enqueued and the publish
+     * workflow is being started
+     */
+    SUBMITTING,
+    /**
+     * Draft has been submitted successfully
+     */
+    COMPLETED,
+    /**
+     * Validation or submission has failed. The job result contains the
+     * validation errors or the error that occurred
+     */
+    FAILED,
+    ;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
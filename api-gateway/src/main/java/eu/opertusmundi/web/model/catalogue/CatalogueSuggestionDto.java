@@ -0,0 +1,27 @@
+package eu.opertusmundi.web.model.catalogue;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor(staticName = "of")
+@Getter
+public class CatalogueSuggestionDto {
+
+    @Schema(description = "Suggestion type")
+    private final EnumCatalogueSuggestionType type;
+
+    @Schema(description = "Suggested text")
+    private final String text;
+
+    @Schema(description = "Asset PID if type is `ASSET` or publisher key if type is `PUBLISHER`")
+    @JsonInclude(Include.NON_NULL)
+    private final String id;
+
+    @Schema(description = "Suggestion score. Suggestions are sorted by score in descending order")
+    private final long score;
+
+}
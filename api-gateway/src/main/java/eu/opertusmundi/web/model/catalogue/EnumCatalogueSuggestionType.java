@@ -0,0 +1,17 @@
+package eu.opertusmundi.web.model.catalogue;
+
+public enum EnumCatalogueSuggestionType {
+    /**
+     * Published asset title
+     */
+    ASSET,
+    /**
+     * Asset keyword
+     */
+    KEYWORD,
+    /**
+     * Publisher name
+     */
+    PUBLISHER,
+    ;
+}
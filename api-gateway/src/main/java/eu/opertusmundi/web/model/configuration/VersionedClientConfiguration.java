@@ -0,0 +1,18 @@
+package eu.opertusmundi.web.model.configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable snapshot of the application configuration and its version. The
+ * version is a hash of the serialized configuration
+ */
+@AllArgsConstructor(staticName = "of")
+@Getter
+public class VersionedClientConfiguration {
+
+    private final ClientConfiguration configuration;
+
+    private final String version;
+
+}
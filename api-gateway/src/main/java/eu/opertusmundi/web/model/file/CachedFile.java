@@ -0,0 +1,35 @@
+package eu.opertusmundi.web.model.file;
+
+import java.nio.file.Path;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A file stored in a node-local disk cache
+ */
+@AllArgsConstructor(staticName = "of")
+@Getter
+public class CachedFile {
+
+    /**
+     * Path of the file
+     */
+    private final Path path;
+
+    /**
+     * File size in bytes
+     */
+    private final long length;
+
+    /**
+     * Time the file was created in milliseconds since the epoch
+     */
+    private final long lastModified;
+
+    /**
+     * Strong entity tag computed from the file content
+     */
+    private final String etag;
+
+}
@@ -0,0 +1,14 @@
+package eu.opertusmundi.web.model.file;
+
+public enum EnumFileUploadSessionStatus {
+    /**
+     * Session is accepting chunks
+     */
+    UPLOADING,
+    /**
+     * All chunks have been received and the file is being copied to the
+     * user file system
+     */
+    COMPLETING,
+    ;
+}
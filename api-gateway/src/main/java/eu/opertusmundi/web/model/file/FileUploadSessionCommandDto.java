@@ -0,0 +1,47 @@
+package eu.opertusmundi.web.model.file;
+
+import java.util.UUID;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class FileUploadSessionCommandDto {
+
+    @JsonIgnore
+    private UUID userKey;
+
+    @JsonIgnore
+    private String userName;
+
+    @Schema(description = "Folder in the user's remote file system. If the path does not exist, it is created", example = "/data")
+    private String path;
+
+    @Schema(description = "File name", required = true, example = "roads.zip")
+    @NotBlank
+    private String fileName;
+
+    @Schema(description = "Optional comment")
+    private String comment;
+
+    @Schema(description = "`true` if an existing file should be replaced", defaultValue = "false")
+    private boolean overwrite;
+
+    @Schema(description = "Total file size in bytes", required = true)
+    @NotNull
+    @Min(1)
+    private Long size;
+
+    @Schema(description = "Chunk size in bytes. If not set, the server default is used. All chunks except the last one "
+                        + "must have exactly this size")
+    private Long chunkSize;
+
+}
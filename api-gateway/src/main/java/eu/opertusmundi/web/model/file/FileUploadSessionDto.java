@@ -0,0 +1,67 @@
+package eu.opertusmundi.web.model.file;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class FileUploadSessionDto {
+
+    @JsonIgnore
+    private Integer id;
+
+    @Schema(description = "Upload session unique key")
+    private UUID key;
+
+    @Schema(description = "Target folder in the user's remote file system")
+    private String path;
+
+    @Schema(description = "File name")
+    private String fileName;
+
+    @Schema(description = "Optional comment")
+    private String comment;
+
+    @Schema(description = "`true` if an existing file should be replaced")
+    private boolean overwrite;
+
+    @Schema(description = "Total file size in bytes")
+    private long size;
+
+    @Schema(description = "Chunk size in bytes")
+    private long chunkSize;
+
+    @Schema(description = "Number of chunks")
+    private int chunkCount;
+
+    @ArraySchema(
+        arraySchema = @Schema(description = "Zero-based indexes of the chunks already received"),
+        minItems = 0,
+        uniqueItems = true
+    )
+    private List<Integer> chunks;
+
+    @Schema(description = "Number of bytes already received")
+    private long offset;
+
+    @Schema(description = "Session status")
+    private EnumFileUploadSessionStatus status;
+
+    @Schema(description = "Session creation date")
+    private ZonedDateTime createdAt;
+
+    @Schema(description = "Session last update date")
+    private ZonedDateTime updatedAt;
+
+    @Schema(description = "Date after which an inactive session is deleted")
+    private ZonedDateTime expiresAt;
+
+}
@@ -0,0 +1,118 @@
+package eu.opertusmundi.web.model.file;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * A cell of a regular EPSG:4326 tile grid. At zoom level {@code z}, a grid
+ * cell spans {@code 180 / 2^z} degrees in both dimensions and cell
+ * {@code (0, 0)} has its lower left corner at {@code (-180, -90)}
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@EqualsAndHashCode
+@Getter
+public class WmsTileKey {
+
+    /**
+     * Max zoom level of the tile grid
+     */
+    public static final int MAX_ZOOM = 24;
+
+    /**
+     * Max distance, in pixels, of a bounding box edge from the corresponding
+     * grid cell edge. Tiled clients compute bounding boxes with floating
+     * point arithmetic; hence, coordinates are not exact
+     */
+    public static final double ALIGNMENT_TOLERANCE = 0.5;
+
+    private final String workspace;
+    private final String layer;
+    private final int    z;
+    private final int    x;
+    private final int    y;
+    private final int    size;
+
+    /**
+     * Creates a key from a bounding box
+     *
+     * @param workspace the GeoServer workspace
+     * @param layer the layer name
+     * @param bbox the bounding box in {@code minX,minY,maxX,maxY} format
+     * @param size the tile width and height in pixels
+     * @return the key or {@code null} if the bounding box is not aligned to
+     *         the tile grid
+     */
+    public static WmsTileKey of(String workspace, String layer, String bbox, int size) {
+        if (bbox == null || size <= 0) {
+            return null;
+        }
+        final double[] coords;
+        try {
+            final String[] tokens = bbox.split(",");
+            if (tokens.length < 4) {
+                return null;
+            }
+            coords = new double[] {
+                Double.parseDouble(tokens[0]),
+                Double.parseDouble(tokens[1]),
+                Double.parseDouble(tokens[2]),
+                Double.parseDouble(tokens[3]),
+            };
+        } catch (final NumberFormatException ex) {
+            return null;
+        }
+
+        final double width  = coords[2] - coords[0];
+        final double height = coords[3] - coords[1];
+        if (!(width > 0) || !(height > 0)) {
+            return null;
+        }
+
+        final long z = Math.round(Math.log(180 / width) / Math.log(2));
+        if (z < 0 || z > MAX_ZOOM) {
+            return null;
+        }
+        final double span      = span((int) z);
+        final double tolerance = ALIGNMENT_TOLERANCE * span / size;
+        final long   x         = Math.round((coords[0] + 180) / span);
+        final long   y         = Math.round((coords[1] + 90) / span);
+
+        if (Math.abs(width - span) > tolerance ||
+            Math.abs(height - span) > tolerance ||
+            Math.abs(coords[0] - (x * span - 180)) > tolerance ||
+            Math.abs(coords[1] - (y * span - 90)) > tolerance
+        ) {
+            return null;
+        }
+
+        return new WmsTileKey(workspace, layer, (int) z, (int) x, (int) y, size);
+    }
+
+    /**
+     * Returns the width and height of a grid cell in degrees
+     *
+     * @param z the zoom level
+     */
+    public static double span(int z) {
+        return 180.0 / (1L << z);
+    }
+
+    /**
+     * Returns the bounding box of the grid cell
+     */
+    public String toBbox() {
+        final double span = span(this.z);
+        final double minX = this.x * span - 180;
+        final double minY = this.y * span - 90;
+
+        return String.format("%s,%s,%s,%s", minX, minY, minX + span, minY + span);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s/%s/%d/%d/%d/%d", this.workspace, this.layer, this.z, this.x, this.y, this.size);
+    }
+
+}
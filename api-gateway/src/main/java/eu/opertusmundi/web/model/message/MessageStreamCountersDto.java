@@ -0,0 +1,19 @@
+package eu.opertusmundi.web.model.message;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@AllArgsConstructor(staticName = "of")
+@Getter
+@EqualsAndHashCode
+public class MessageStreamCountersDto {
+
+    @Schema(description = "Number of unread notifications")
+    private final long unreadNotifications;
+
+    @Schema(description = "Number of unread messages")
+    private final long unreadMessages;
+
+}
@@ -0,0 +1,16 @@
+package eu.opertusmundi.web.model.openapi.schema;
+
+import java.util.List;
+
+import eu.opertusmundi.common.model.RestResponse;
+import eu.opertusmundi.web.model.catalogue.CatalogueSuggestionDto;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class CatalogueSuggestionEndpointTypes {
+
+    @Schema(description = "Catalogue suggestion collection response")
+    public static class SuggestionCollectionResponse extends RestResponse<List<CatalogueSuggestionDto>> {
+
+    }
+
+}
@@ -0,0 +1,12 @@
+package eu.opertusmundi.web.model.openapi.schema;
+
+import eu.opertusmundi.common.model.RestResponse;
+import eu.opertusmundi.web.model.asset.DraftSubmissionJobDto;
+
+public class DraftEndpointTypes {
+
+    public static class DraftSubmissionJobResponse extends RestResponse<DraftSubmissionJobDto> {
+
+    }
+
+}
@@ -2,6 +2,7 @@ package eu.opertusmundi.web.model.openapi.schema;
 
 import eu.opertusmundi.common.model.RestResponse;
 import eu.opertusmundi.common.model.file.DirectoryDto;
+import eu.opertusmundi.web.model.file.FileUploadSessionDto;
 
 public class FileSystemEndpointTypes {
 
@@ -9,4 +10,8 @@ public class FileSystemEndpointTypes {
 
     }
 
+    public static class FileUploadSessionResponse extends RestResponse<FileUploadSessionDto> {
+
+    }
+
 }
@@ -41,4 +41,9 @@ public class SpatialDataEndpointTypes {
 
     }
 
+    @Schema(description = "NUTS region index refresh response. The result is the number of indexed regions")
+    public static class IndexRefreshResponse extends RestResponse<Integer> {
+
+    }
+
 }
@@ -0,0 +1,62 @@
+package eu.opertusmundi.web.repository;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import eu.opertusmundi.web.domain.DraftSubmissionJobEntity;
+import eu.opertusmundi.web.model.asset.DraftSubmissionJobDto;
+import eu.opertusmundi.web.model.asset.EnumDraftSubmissionStatus;
+
+@Repository
+@Transactional(readOnly = true)
+public interface DraftSubmissionJobRepository extends JpaRepository<DraftSubmissionJobEntity, Integer> {
+
+    @Query("""
+        SELECT  j
+        FROM    DraftSubmissionJob j
+        WHERE   (j.publisherKey = :publisherKey) and (j.key = :jobKey)
+    """)
+    Optional<DraftSubmissionJobEntity> findOneByKey(UUID publisherKey, UUID jobKey);
+
+    @Transactional(readOnly = false)
+    @Modifying
+    @Query("""
+        UPDATE  DraftSubmissionJob j
+        SET     j.status = :status, j.result = :result, j.updatedAt = :date
+        WHERE   j.key = :jobKey
+    """)
+    int setStatus(UUID jobKey, EnumDraftSubmissionStatus status, String result, ZonedDateTime date);
+
+    @Transactional(readOnly = false)
+    @Modifying
+    @Query("DELETE FROM DraftSubmissionJob j WHERE j.key = :jobKey")
+    int deleteByKey(UUID jobKey);
+
+    @Transactional(readOnly = false)
+    @Modifying
+    @Query("DELETE FROM DraftSubmissionJob j WHERE j.updatedAt < :date")
+    int deleteAllUpdatedBefore(ZonedDateTime date);
+
+    @Transactional(readOnly = false)
+    default void create(DraftSubmissionJobDto job, UUID publisherKey) {
+        final DraftSubmissionJobEntity e = new DraftSubmissionJobEntity();
+
+        e.setCreatedAt(job.getCreatedAt());
+        e.setDraftKey(job.getDraftKey());
+        e.setKey(job.getKey());
+        e.setPublisherKey(publisherKey);
+        e.setResult(job.getResult());
+        e.setStatus(job.getStatus());
+        e.setUpdatedAt(job.getUpdatedAt());
+
+        this.saveAndFlush(e);
+    }
+
+}
@@ -0,0 +1,104 @@
+package eu.opertusmundi.web.repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import eu.opertusmundi.common.domain.AccountEntity;
+import eu.opertusmundi.web.domain.FileUploadSessionEntity;
+import eu.opertusmundi.web.model.file.EnumFileUploadSessionStatus;
+import eu.opertusmundi.web.model.file.FileUploadSessionCommandDto;
+import eu.opertusmundi.web.model.file.FileUploadSessionDto;
+
+@Repository
+@Transactional(readOnly = true)
+public interface FileUploadSessionRepository extends JpaRepository<FileUploadSessionEntity, Integer> {
+
+    @Query("SELECT a FROM Account a WHERE a.key = :key")
+    Optional<AccountEntity> findAccountByKey(UUID key);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.key = :key")
+    Optional<AccountEntity> findAccountByKeyForUpdate(UUID key);
+
+    @Query("SELECT count(s) FROM FileUploadSession s WHERE s.account.key = :ownerKey and s.updatedAt >= :expiredBefore")
+    long countActive(UUID ownerKey, ZonedDateTime expiredBefore);
+
+    @Query("""
+        SELECT  coalesce(sum(s.size), 0)
+        FROM    FileUploadSession s
+        WHERE   s.account.key = :ownerKey and s.updatedAt >= :expiredBefore
+    """)
+    long sumActiveSize(UUID ownerKey, ZonedDateTime expiredBefore);
+
+    @Query("""
+        SELECT  s
+        FROM    FileUploadSession s
+        WHERE   (s.account.key = :ownerKey) and (s.key = :sessionKey)
+    """)
+    Optional<FileUploadSessionEntity> findOneByKey(UUID ownerKey, UUID sessionKey);
+
+    @Query("SELECT s FROM FileUploadSession s WHERE s.updatedAt < :date")
+    List<FileUploadSessionEntity> findAllUpdatedBefore(ZonedDateTime date);
+
+    @Transactional(readOnly = false)
+    @Modifying
+    @Query("UPDATE FileUploadSession s SET s.updatedAt = :date WHERE s.key = :sessionKey")
+    int touch(UUID sessionKey, ZonedDateTime date);
+
+    /**
+     * Changes the status of a session only if the current status matches the
+     * expected one. Used for preventing a session from being completed more
+     * than once
+     *
+     * @return the number of updated records
+     */
+    @Transactional(readOnly = false)
+    @Modifying
+    @Query("""
+        UPDATE  FileUploadSession s
+        SET     s.status = :newStatus, s.updatedAt = :date
+        WHERE   s.key = :sessionKey and s.status = :expectedStatus
+    """)
+    int setStatus(
+        UUID sessionKey, EnumFileUploadSessionStatus expectedStatus, EnumFileUploadSessionStatus newStatus, ZonedDateTime date
+    );
+
+    @Transactional(readOnly = false)
+    @Modifying
+    @Query("DELETE FROM FileUploadSession s WHERE s.key = :sessionKey")
+    int deleteByKey(UUID sessionKey);
+
+    @Transactional(readOnly = false)
+    default FileUploadSessionDto create(FileUploadSessionCommandDto command, long chunkSize) {
+        final var owner   = this.findAccountByKey(command.getUserKey()).get();
+        final var now     = ZonedDateTime.now();
+        final var session = new FileUploadSessionEntity();
+
+        session.setAccount(owner);
+        session.setChunkSize(chunkSize);
+        session.setComment(command.getComment());
+        session.setCreatedAt(now);
+        session.setFileName(command.getFileName());
+        session.setOverwrite(command.isOverwrite());
+        session.setPath(command.getPath());
+        session.setSize(command.getSize());
+        session.setStatus(EnumFileUploadSessionStatus.UPLOADING);
+        session.setUpdatedAt(now);
+
+        this.saveAndFlush(session);
+
+        return session.toDto();
+    }
+
+}
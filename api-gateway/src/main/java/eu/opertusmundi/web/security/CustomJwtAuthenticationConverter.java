@@ -16,23 +16,31 @@ import eu.opertusmundi.web.model.security.User;
 public class CustomJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
 
     private final CustomUserDetailsService userDetailsService;
+    private final JwtPrincipalCache        principalCache;
 
     @Autowired
-    public CustomJwtAuthenticationConverter(CustomUserDetailsService userDetailsService) {
+    public CustomJwtAuthenticationConverter(CustomUserDetailsService userDetailsService, JwtPrincipalCache principalCache) {
         this.userDetailsService = userDetailsService;
+        this.principalCache     = principalCache;
     }
 
     @Override
     public AbstractAuthenticationToken convert(Jwt jwt) {
         final String email       = jwt.getClaim("email");
-        final User   userDetails = (User) userDetailsService.loadUserByUsername(email);
-
-        // Override roles for JWT authentication
-        userDetails.getAccount().setRoles(Set.of(EnumRole.ROLE_API));
+        final User   userDetails = principalCache.get(jwt, () -> this.loadUser(email));
 
         final JwtAuthenticationToken authentication = new CustomJwtAuthenticationToken(jwt, userDetails.getAuthorities(), email, userDetails);
 
         return authentication;
     }
 
+    private User loadUser(String email) {
+        final User userDetails = (User) userDetailsService.loadUserByUsername(email);
+
+        // Override roles for JWT authentication
+        userDetails.getAccount().setRoles(Set.of(EnumRole.ROLE_API));
+
+        return userDetails;
+    }
+
 }
@@ -106,6 +106,7 @@ public class DefaultUserService implements UserService {
     private final UserFileManager                         fileManager;
     private final HelpdeskAccountRepository               helpdeskAccountRepository;
     private final ImageUtils                              imageUtils;
+    private final JwtPrincipalCache                       jwtPrincipalCache;
     private final ObjectProvider<EmailServiceFeignClient> mailClient;
     private final MailMessageHelper                       messageHelper;
     private final AccountRecentSearchRepository           recentSearchRepository;
@@ -120,6 +121,7 @@ public class DefaultUserService implements UserService {
         UserFileManager                         fileManager,
         HelpdeskAccountRepository               helpdeskAccountRepository,
         ImageUtils                              imageUtils,
+        JwtPrincipalCache                       jwtPrincipalCache,
         ObjectProvider<EmailServiceFeignClient> mailClient,
         MailMessageHelper                       messageHelper,
         AccountRecentSearchRepository           recentSearchRepository,
@@ -132,6 +134,7 @@ public class DefaultUserService implements UserService {
         this.fileManager               = fileManager;
         this.helpdeskAccountRepository = helpdeskAccountRepository;
         this.imageUtils                = imageUtils;
+        this.jwtPrincipalCache         = jwtPrincipalCache;
         this.mailClient                = mailClient;
         this.messageHelper             = messageHelper;
         this.recentSearchRepository    = recentSearchRepository;
@@ -340,6 +343,7 @@ public class DefaultUserService implements UserService {
         if (elasticSearchService != null) {
             elasticSearchService.addProfile(ProfileRecord.from(account));
         }
+        this.jwtPrincipalCache.evict(account.getEmail());
 
         return ServiceResponse.result(account);
     }
@@ -530,6 +534,7 @@ public class DefaultUserService implements UserService {
         accountEntity.setEmailVerifiedAt(now);
 
         this.accountRepository.saveAndFlush(accountEntity);
+        this.jwtPrincipalCache.evict(accountEntity.getEmail());
 
         if (sendMessage) {
             this.sendTokenToProcessInstance(accountEntity.getKey(), token);
@@ -571,6 +576,7 @@ public class DefaultUserService implements UserService {
         }
 
         account = this.accountRepository.setVendorAccountActive(vendorKey, accountKey, true);
+        this.jwtPrincipalCache.evict(account.getEmail());
 
         return ServiceResponse.result(account);
     }
@@ -599,6 +605,7 @@ public class DefaultUserService implements UserService {
         }
 
         account = this.accountRepository.setVendorAccountActive(vendorKey, accountKey, false);
+        this.jwtPrincipalCache.evict(account.getEmail());
 
         return ServiceResponse.result(account);
     }
@@ -671,6 +678,7 @@ public class DefaultUserService implements UserService {
         }
 
         this.accountRepository.saveAndFlush(accountEntity);
+        this.jwtPrincipalCache.evict(accountEntity.getEmail());
 
         if (sendMessage) {
             this.sendTokenToProcessInstance(accountEntity.getKey(), token);
@@ -699,6 +707,7 @@ public class DefaultUserService implements UserService {
         if (elasticSearchService != null) {
             elasticSearchService.addProfile(ProfileRecord.from(account));
         }
+        this.jwtPrincipalCache.evict(account.getEmail());
 
         return account;
     }
@@ -722,6 +731,7 @@ public class DefaultUserService implements UserService {
         }
 
         this.accountRepository.saveAndFlush(accountEntity.get());
+        this.jwtPrincipalCache.evict(accountEntity.get().getEmail());
     }
 
     @Override
@@ -740,6 +750,7 @@ public class DefaultUserService implements UserService {
         }
 
         this.accountRepository.saveAndFlush(accountEntity.get());
+        this.jwtPrincipalCache.evict(accountEntity.get().getEmail());
     }
 
     @Override
@@ -763,6 +774,7 @@ public class DefaultUserService implements UserService {
 
         account.setPassword(encoder.encode(newPassword));
         this.accountRepository.saveAndFlush(account);
+        this.jwtPrincipalCache.evict(account.getEmail());
 
         // TODO: Send mail
 
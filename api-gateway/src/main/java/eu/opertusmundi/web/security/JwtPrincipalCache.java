@@ -0,0 +1,94 @@
+package eu.opertusmundi.web.security;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import eu.opertusmundi.web.model.security.User;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Bounded, time-based cache of principals resolved from JWT bearer tokens.
+ *
+ * <p>
+ * Entries are keyed by the token {@code email} claim, the token issue time and
+ * the token identifier, hence a principal is never shared across different
+ * tokens. All entries of a user are evicted when the account or profile is
+ * updated.
+ */
+@Service
+public class JwtPrincipalCache {
+
+    public static final String CACHE_NAME = "jwt-principal";
+
+    private final Cache<Object, Object> cache;
+
+    @SuppressWarnings("unchecked")
+    @Autowired
+    public JwtPrincipalCache(CacheManager defaultCacheManager) {
+        final CaffeineCache cache = (CaffeineCache) defaultCacheManager.getCache(CACHE_NAME);
+        Assert.notNull(cache, String.format("Cache was not found [name=%s]", CACHE_NAME));
+
+        this.cache = (Cache<Object, Object>) cache.getNativeCache();
+    }
+
+    /**
+     * Get the principal for the specified token. If no entry exists, the
+     * principal is resolved using the given supplier and the result is cached
+     *
+     * @param jwt The bearer token
+     * @param loader The function used for resolving the principal
+     * @return
+     */
+    public User get(Jwt jwt, Supplier<User> loader) {
+        final String email = jwt.getClaimAsString("email");
+
+        if (StringUtils.isBlank(email)) {
+            return loader.get();
+        }
+
+        final PrincipalKey key = new PrincipalKey(email, jwt.getIssuedAt(), jwt.getId());
+
+        return (User) this.cache.get(key, k -> loader.get());
+    }
+
+    /**
+     * Remove all cached principals of the specified user
+     *
+     * @param email The user email
+     */
+    public void evict(String email) {
+        if (StringUtils.isBlank(email)) {
+            return;
+        }
+        this.cache.asMap().keySet().removeIf(k -> k instanceof PrincipalKey && ((PrincipalKey) k).email.equalsIgnoreCase(email));
+    }
+
+    /**
+     * Remove all cached principals
+     */
+    public void evictAll() {
+        this.cache.invalidateAll();
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class PrincipalKey {
+
+        private final String  email;
+        private final Instant issuedAt;
+        private final String  id;
+
+    }
+
+}
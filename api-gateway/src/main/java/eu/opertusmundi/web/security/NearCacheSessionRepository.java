@@ -0,0 +1,417 @@
+package eu.opertusmundi.web.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * Session repository that keeps a node-local cache of sessions in front of a
+ * {@link JdbcIndexedSessionRepository}.
+ *
+ * <p>
+ * Attribute values are cached in serialized form and every request gets its
+ * own deserialized copy. Hence, an attribute modified in place by a request,
+ * e.g. the security context on logout, never affects concurrent requests for
+ * the same session.
+ *
+ * <p>
+ * Every session row has a version that is incremented whenever the session is
+ * updated. Before a cached session is used, only the session version is read
+ * and the session is reloaded if the version has changed. Anonymous sessions
+ * are used without querying the database for {@code validationInterval};
+ * hence, updates of anonymous sessions from other nodes are observed after at
+ * most {@code validationInterval}. Sessions with a security context are
+ * validated on every request, so that a logout, an invalidation or a session
+ * identifier change on another node takes effect immediately.
+ *
+ * <p>
+ * All modifications during a request are buffered and written when the
+ * session is saved at the end of the request. Attributes set to a value equal
+ * to the existing one are not written. If only the last access time has
+ * changed, the session row is updated at most once per {@code touchInterval}
+ * and the version is not incremented.
+ */
+public class NearCacheSessionRepository implements FindByIndexNameSessionRepository<NearCacheSessionRepository.CachedSession> {
+
+    public static final String CACHE_NAME = "http-session";
+
+    /**
+     * Attribute value types that cannot be modified in place
+     */
+    private static final Set<Class<?>> IMMUTABLE_TYPES = Set.of(
+        String.class, UUID.class, Boolean.class, Integer.class, Long.class, Double.class, Instant.class
+    );
+
+    private static final String SELECT_VERSION_QUERY =
+        "SELECT VERSION FROM %TABLE_NAME% WHERE SESSION_ID = ?";
+
+    private static final String UPDATE_LAST_ACCESS_TIME_QUERY =
+        "UPDATE %TABLE_NAME% SET LAST_ACCESS_TIME = ?, EXPIRY_TIME = ? WHERE SESSION_ID = ?";
+
+    /**
+     * Session update query that also increments the session version
+     *
+     * @see JdbcIndexedSessionRepository#setUpdateSessionQuery(String)
+     */
+    public static final String UPDATE_SESSION_QUERY =
+        "UPDATE %TABLE_NAME% "
+      + "SET SESSION_ID = ?, LAST_ACCESS_TIME = ?, MAX_INACTIVE_INTERVAL = ?, EXPIRY_TIME = ?, PRINCIPAL_NAME = ?, VERSION = VERSION + 1 "
+      + "WHERE PRIMARY_ID = ?";
+
+    private final FindByIndexNameSessionRepository<Session> delegate;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Cache<String, CacheEntry> cache;
+
+    private final String selectVersionQuery;
+
+    private final String updateLastAccessTimeQuery;
+
+    private final Duration validationInterval;
+
+    private final Duration touchInterval;
+
+    private final SerializingConverter serializer = new SerializingConverter();
+
+    private final DeserializingConverter deserializer = new DeserializingConverter(NearCacheSessionRepository.class.getClassLoader());
+
+    @SuppressWarnings("unchecked")
+    public NearCacheSessionRepository(
+        FindByIndexNameSessionRepository<? extends Session> delegate,
+        JdbcTemplate jdbcTemplate,
+        CacheManager cacheManager,
+        String tableName,
+        Duration validationInterval,
+        Duration touchInterval
+    ) {
+        final CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CACHE_NAME);
+        Assert.notNull(cache, String.format("Cache was not found [name=%s]", CACHE_NAME));
+
+        // JdbcIndexedSessionRepository sessions are of a non-public type. Only
+        // sessions returned by the delegate are passed back to it
+        this.delegate                  = (FindByIndexNameSessionRepository<Session>) (FindByIndexNameSessionRepository<?>) delegate;
+        this.jdbcTemplate              = jdbcTemplate;
+        this.cache                     = (Cache<String, CacheEntry>) (Cache<?, ?>) cache.getNativeCache();
+        this.selectVersionQuery        = SELECT_VERSION_QUERY.replace("%TABLE_NAME%", tableName);
+        this.updateLastAccessTimeQuery = UPDATE_LAST_ACCESS_TIME_QUERY.replace("%TABLE_NAME%", tableName);
+        this.validationInterval        = validationInterval;
+        this.touchInterval             = touchInterval;
+    }
+
+    @Override
+    public CachedSession createSession() {
+        return new CachedSession(this.delegate.createSession(), true);
+    }
+
+    @Override
+    public CachedSession findById(String id) {
+        final CacheEntry entry = this.cache.getIfPresent(id);
+        final Instant    now   = Instant.now();
+
+        if (entry != null && !entry.session.isExpired()) {
+            if (!entry.authenticated && entry.validatedAt.plus(this.validationInterval).isAfter(now)) {
+                return new CachedSession(this.restore(entry));
+            }
+            final Long version = this.findVersion(id);
+            if (version == null) {
+                this.cache.invalidate(id);
+                return null;
+            }
+            if (version.equals(entry.version)) {
+                entry.validatedAt = now;
+                return new CachedSession(this.restore(entry));
+            }
+        }
+
+        return this.load(id);
+    }
+
+    @Override
+    public void save(CachedSession session) {
+        if (session.isNew) {
+            session.flush();
+            this.delegate.save(session.persistentSession);
+            return;
+        }
+        if (session.isModified()) {
+            final Session persistentSession = session.getPersistentSession();
+            if (persistentSession != null) {
+                session.flush();
+                this.delegate.save(persistentSession);
+            }
+            // The new version will be read on the next request
+            this.cache.invalidate(session.originalId);
+            this.cache.invalidate(session.getId());
+            return;
+        }
+
+        final CacheEntry entry            = this.cache.getIfPresent(session.getId());
+        final Instant    lastAccessedTime = session.getLastAccessedTime();
+
+        if (entry == null || entry.persistedLastAccessedTime.plus(this.touchInterval).isBefore(lastAccessedTime)) {
+            final Instant expiryTime = lastAccessedTime.plus(session.getMaxInactiveInterval());
+
+            this.jdbcTemplate.update(
+                this.updateLastAccessTimeQuery, lastAccessedTime.toEpochMilli(), expiryTime.toEpochMilli(), session.getId()
+            );
+            if (entry != null) {
+                entry.persistedLastAccessedTime = lastAccessedTime;
+            }
+        }
+        if (entry != null && entry.session.getLastAccessedTime().isBefore(lastAccessedTime)) {
+            entry.session.setLastAccessedTime(lastAccessedTime);
+        }
+    }
+
+    @Override
+    public void deleteById(String id) {
+        this.cache.invalidate(id);
+        this.delegate.deleteById(id);
+    }
+
+    @Override
+    public Map<String, CachedSession> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+        return this.delegate.findByIndexNameAndIndexValue(indexName, indexValue).entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, e -> new CachedSession(e.getValue(), false)));
+    }
+
+    private CachedSession load(String id) {
+        this.cache.invalidate(id);
+
+        // The version is read before the session. If the session is updated
+        // in between, the next validation fails and the session is reloaded
+        final Long version = this.findVersion(id);
+        if (version == null) {
+            return null;
+        }
+        final Session persistentSession = this.delegate.findById(id);
+        if (persistentSession == null) {
+            return null;
+        }
+
+        // Attributes are serialized before the request can modify them
+        this.cache.put(id, this.createEntry(persistentSession, version));
+
+        return new CachedSession(persistentSession, false);
+    }
+
+    private CacheEntry createEntry(Session session, Long version) {
+        final MapSession          state      = new MapSession(session);
+        final Map<String, byte[]> attributes = new HashMap<>();
+
+        for (final String name : session.getAttributeNames()) {
+            final Object value = session.getAttribute(name);
+            if (value != null) {
+                attributes.put(name, this.serializer.convert(value));
+            }
+            state.removeAttribute(name);
+        }
+
+        return new CacheEntry(state, attributes, isAuthenticated(session), version, Instant.now());
+    }
+
+    private MapSession restore(CacheEntry entry) {
+        final MapSession result = new MapSession(entry.session);
+
+        entry.attributes.forEach((name, value) -> result.setAttribute(name, this.deserializer.convert(value)));
+
+        return result;
+    }
+
+    private Long findVersion(String id) {
+        return this.jdbcTemplate.query(this.selectVersionQuery, rs -> rs.next() ? rs.getLong(1) : null, id);
+    }
+
+    private static final class CacheEntry {
+
+        /**
+         * Session without attributes
+         */
+        private final MapSession          session;
+        private final Map<String, byte[]> attributes;
+        private final boolean             authenticated;
+        private final Long                version;
+        private volatile Instant          validatedAt;
+        private volatile Instant          persistedLastAccessedTime;
+
+        private CacheEntry(MapSession session, Map<String, byte[]> attributes, boolean authenticated, Long version, Instant validatedAt) {
+            this.session                   = session;
+            this.attributes                = attributes;
+            this.authenticated             = authenticated;
+            this.version                   = version;
+            this.validatedAt               = validatedAt;
+            this.persistedLastAccessedTime = session.getLastAccessedTime();
+        }
+
+    }
+
+    /**
+     * Session that buffers all modifications until it is saved.
+     *
+     * <p>
+     * A session created from a cache entry has no persistent counterpart. The
+     * persistent session is loaded only if the session must be written.
+     */
+    public final class CachedSession implements Session {
+
+        private final MapSession state;
+
+        private final boolean isNew;
+
+        private final String originalId;
+
+        private final Set<String> modifiedAttributes = new HashSet<>();
+
+        private boolean maxInactiveIntervalModified;
+
+        private Session persistentSession;
+
+        private CachedSession(MapSession state) {
+            this.state      = state;
+            this.isNew      = false;
+            this.originalId = state.getId();
+        }
+
+        private CachedSession(Session persistentSession, boolean isNew) {
+            this.state             = new MapSession(persistentSession);
+            this.isNew             = isNew;
+            this.originalId        = persistentSession.getId();
+            this.persistentSession = persistentSession;
+        }
+
+        @Override
+        public String getId() {
+            return this.state.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            // The persistent session generates the new identifier
+            final Session persistentSession = this.getPersistentSession();
+            final String  newId             = persistentSession == null
+                ? UUID.randomUUID().toString()
+                : persistentSession.changeSessionId();
+
+            this.state.setId(newId);
+
+            return newId;
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return this.state.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return this.state.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            final Object current = this.state.getAttribute(attributeName);
+
+            this.state.setAttribute(attributeName, attributeValue);
+
+            // The same instance may have been modified in place
+            if (current == attributeValue && !isImmutable(attributeValue)) {
+                this.modifiedAttributes.add(attributeName);
+            } else if (!Objects.equals(current, attributeValue)) {
+                this.modifiedAttributes.add(attributeName);
+            }
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            this.setAttribute(attributeName, null);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return this.state.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            this.state.setLastAccessedTime(lastAccessedTime);
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return this.state.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            if (!interval.equals(this.state.getMaxInactiveInterval())) {
+                this.maxInactiveIntervalModified = true;
+            }
+            this.state.setMaxInactiveInterval(interval);
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return this.state.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return this.state.isExpired();
+        }
+
+        private boolean isModified() {
+            return !this.modifiedAttributes.isEmpty() || this.maxInactiveIntervalModified || !this.originalId.equals(this.getId());
+        }
+
+        private Session getPersistentSession() {
+            if (this.persistentSession == null) {
+                this.persistentSession = NearCacheSessionRepository.this.delegate.findById(this.originalId);
+            }
+            return this.persistentSession;
+        }
+
+        /**
+         * Apply buffered modifications to the persistent session
+         */
+        private void flush() {
+            final Set<String> attributeNames = this.isNew ? this.state.getAttributeNames() : this.modifiedAttributes;
+
+            for (final String name : attributeNames) {
+                this.persistentSession.setAttribute(name, this.state.getAttribute(name));
+            }
+            this.persistentSession.setMaxInactiveInterval(this.state.getMaxInactiveInterval());
+            this.persistentSession.setLastAccessedTime(this.state.getLastAccessedTime());
+        }
+
+    }
+
+    private static boolean isAuthenticated(Session session) {
+        return session.getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY) != null;
+    }
+
+    private static boolean isImmutable(Object value) {
+        return value == null || value instanceof Enum<?> || IMMUTABLE_TYPES.contains(value.getClass());
+    }
+
+}
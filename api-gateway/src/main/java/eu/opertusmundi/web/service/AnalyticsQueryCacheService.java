@@ -0,0 +1,38 @@
+package eu.opertusmundi.web.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of analytics query results.
+ *
+ * <p>
+ * Results are keyed by the operation and the normalized query. Queries for
+ * vendor analytics always include the publisher key; hence, results are
+ * never shared across vendors. Concurrent requests for the same uncached
+ * query are served by a single execution.
+ *
+ * <p>
+ * The cache only absorbs repeated dashboard loads. A cache miss still
+ * executes the full aggregation over the raw data.
+ */
+public interface AnalyticsQueryCacheService {
+
+    /**
+     * Get the result of the specified query
+     *
+     * @param operation The name of the operation that executes the query.
+     *            Different operations may accept the same query type
+     * @param query The query
+     * @param loader The function that executes the query if no cached result
+     *            exists. If the cache is disabled, the function is always
+     *            invoked
+     * @return
+     */
+    <T> T execute(String operation, Object query, Supplier<T> loader);
+
+    /**
+     * Remove all cached results
+     */
+    void invalidateAll();
+
+}
@@ -0,0 +1,29 @@
+package eu.opertusmundi.web.service;
+
+import java.util.Optional;
+
+import eu.opertusmundi.common.domain.AssetFileTypeEntity;
+import eu.opertusmundi.common.model.catalogue.client.EnumAssetType;
+
+/**
+ * In-memory registry of asset file types.
+ *
+ * <p>
+ * File types are reference data that rarely change. The registry is loaded
+ * with a single query and reloaded when it expires; hence, validating a draft
+ * with any number of resources requires no file type queries. File types are
+ * managed by other services, so changes are observed after at most the
+ * registry expiration interval.
+ */
+public interface AssetFileTypeRegistry {
+
+    /**
+     * Find a file type by category and format
+     *
+     * @param category
+     * @param format
+     * @return
+     */
+    Optional<AssetFileTypeEntity> findOneByCategoryAndFormat(EnumAssetType category, String format);
+
+}
@@ -0,0 +1,51 @@
+package eu.opertusmundi.web.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+import eu.opertusmundi.common.model.catalogue.client.CatalogueItemDetailsDto;
+
+/**
+ * Resolves published asset identifiers to catalogue items with a single
+ * catalogue request per batch.
+ */
+public interface AssetHydrationService {
+
+    /**
+     * Find published assets by identifier. Results are not cached and may be
+     * modified by the caller
+     *
+     * @param pids The asset identifiers
+     * @param failOnMissing If {@code true}, an exception is thrown if any of
+     *            the assets is not found; otherwise missing assets are ignored
+     * @param includeAutomatedMetadata If {@code true}, automated metadata is
+     *            included
+     * @return A map of assets indexed by identifier
+     */
+    Map<String, CatalogueItemDetailsDto> findAllPublished(
+        Collection<String> pids, boolean failOnMissing, boolean includeAutomatedMetadata
+    );
+
+    /**
+     * Find summaries of published assets by identifier.
+     *
+     * <p>
+     * Summaries exclude automated metadata, ingestion information, contract
+     * and publisher details. Summaries are cached for a short period and are
+     * shared by all callers; hence, they must not be modified
+     *
+     * @param pids The asset identifiers
+     * @return A map of asset summaries indexed by identifier. Missing assets
+     *         are ignored
+     */
+    Map<String, CatalogueItemDetailsDto> findAllSummaries(Collection<String> pids);
+
+    /**
+     * Remove the summary of the specified asset from the cache. Invoked when
+     * an asset is unpublished
+     *
+     * @param pid
+     */
+    void invalidate(String pid);
+
+}
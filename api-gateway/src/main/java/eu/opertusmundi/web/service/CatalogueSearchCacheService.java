@@ -0,0 +1,41 @@
+package eu.opertusmundi.web.service;
+
+import java.util.function.Supplier;
+
+import eu.opertusmundi.common.model.catalogue.CatalogueResult;
+import eu.opertusmundi.common.model.catalogue.client.CatalogueItemDto;
+import eu.opertusmundi.common.model.catalogue.elastic.ElasticAssetQuery;
+
+/**
+ * Short-lived cache of catalogue search results.
+ *
+ * <p>
+ * Results are keyed by the normalized query and must not contain any user
+ * specific data; hence, the cache must only be used for anonymous requests.
+ * Concurrent requests for the same uncached query are served by a single
+ * catalogue request.
+ *
+ * <p>
+ * Searches are recorded by the catalogue service when they are executed;
+ * hence, a search served from the cache is not recorded and each node records
+ * at most one search per query and TTL.
+ */
+public interface CatalogueSearchCacheService {
+
+    /**
+     * Get the result of the specified query
+     *
+     * @param query The search query
+     * @param loader The function that executes and records the query if no
+     *            cached result exists. If the cache is disabled, the function
+     *            is always invoked
+     * @return
+     */
+    CatalogueResult<CatalogueItemDto> findAll(ElasticAssetQuery query, Supplier<CatalogueResult<CatalogueItemDto>> loader);
+
+    /**
+     * Remove all cached results. Invoked when the published assets change
+     */
+    void invalidateAll();
+
+}
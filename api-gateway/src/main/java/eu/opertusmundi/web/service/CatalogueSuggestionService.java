@@ -0,0 +1,57 @@
+package eu.opertusmundi.web.service;
+
+import java.util.List;
+
+import eu.opertusmundi.web.model.catalogue.CatalogueSuggestionDto;
+
+/**
+ * In-memory prefix index of published asset titles, keywords and publisher
+ * names used for autocomplete.
+ *
+ * <p>
+ * The index is built from the catalogue when the application starts and is
+ * periodically rebuilt. Suggestions are ranked by the number of searches for
+ * matching terms and by the number of assets they refer to.
+ */
+public interface CatalogueSuggestionService {
+
+    /**
+     * Returns {@code true} if the index is enabled
+     *
+     * @return
+     */
+    boolean isEnabled();
+
+    /**
+     * Returns {@code true} if the index has been created
+     *
+     * @return
+     */
+    boolean isAvailable();
+
+    /**
+     * Rebuild the index
+     *
+     * @return The number of indexed suggestions
+     */
+    int refresh();
+
+    /**
+     * Find suggestions for the specified text. The text is matched against
+     * the beginning of any word of the indexed values
+     *
+     * @param text The text to search
+     * @param limit Max number of suggestions
+     * @return
+     */
+    List<CatalogueSuggestionDto> suggest(String text, int limit);
+
+    /**
+     * Exclude an asset from the suggestions until an index created after the
+     * removal replaces the current one
+     *
+     * @param pid The asset PID
+     */
+    void removeAsset(String pid);
+
+}
@@ -0,0 +1,30 @@
+package eu.opertusmundi.web.service;
+
+import eu.opertusmundi.web.model.configuration.VersionedClientConfiguration;
+
+/**
+ * Provides the application configuration returned to the web client.
+ *
+ * <p>
+ * The configuration is computed once and cached. The cached configuration is
+ * rebuilt when the marketplace settings change or when it expires, so that
+ * changes to reference data are eventually picked up.
+ */
+public interface ClientConfigurationService {
+
+    /**
+     * Get the current configuration
+     *
+     * @param includeDisabledAnnouncement If {@code true}, the marketplace
+     *            announcement is included even if it is disabled
+     * @return
+     */
+    VersionedClientConfiguration getConfiguration(boolean includeDisabledAnnouncement);
+
+    /**
+     * Discard the cached configuration. The configuration is rebuilt on the
+     * next request
+     */
+    void invalidate();
+
+}
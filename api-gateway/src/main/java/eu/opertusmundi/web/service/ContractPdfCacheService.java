@@ -0,0 +1,41 @@
+package eu.opertusmundi.web.service;
+
+import java.util.UUID;
+
+import eu.opertusmundi.common.model.ServiceException;
+import eu.opertusmundi.common.model.contract.provider.ProviderTemplateContractDto;
+import eu.opertusmundi.web.model.file.CachedFile;
+
+/**
+ * Node-local disk cache for rendered contract PDF files.
+ *
+ * <p>
+ * Files are keyed by provider, template key and a hash of the template
+ * content; hence, a file is never served after the template is modified.
+ * Files that include provider profile data are removed when the profile is
+ * updated.
+ */
+public interface ContractPdfCacheService {
+
+    /**
+     * Get the PDF file of a provider contract template. If the file is not
+     * cached, the template is rendered and the file is written to the cache.
+     * Concurrent requests for the same template render the file once
+     *
+     * @param providerKey
+     * @param templateKey
+     * @param template the template. Used for computing the cache key
+     * @return the cached file or {@code null} if the cache is disabled
+     * @throws ServiceException if the file cannot be written to the cache
+     */
+    CachedFile printTemplate(UUID providerKey, UUID templateKey, ProviderTemplateContractDto template) throws ServiceException;
+
+    /**
+     * Remove all files of the specified provider from the cache. Invoked
+     * when a provider profile is updated
+     *
+     * @param providerKey
+     */
+    void invalidateProvider(UUID providerKey);
+
+}
@@ -0,0 +1,56 @@
+package eu.opertusmundi.web.service;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import eu.opertusmundi.web.utils.QueryKeyGenerator;
+
+@Service
+public class DefaultAnalyticsQueryCacheService implements AnalyticsQueryCacheService {
+
+    public static final String CACHE_NAME = "analytics-query";
+
+    @Value("${opertusmundi.cache.analytics-query.enabled:true}")
+    private boolean enabled;
+
+    private final Cache<Object, Object> cache;
+
+    private final QueryKeyGenerator keyGenerator;
+
+    @SuppressWarnings("unchecked")
+    @Autowired
+    public DefaultAnalyticsQueryCacheService(ObjectMapper objectMapper, CacheManager defaultCacheManager) {
+        final CaffeineCache cache = (CaffeineCache) defaultCacheManager.getCache(CACHE_NAME);
+        Assert.notNull(cache, String.format("Cache was not found [name=%s]", CACHE_NAME));
+
+        this.cache        = (Cache<Object, Object>) cache.getNativeCache();
+        this.keyGenerator = new QueryKeyGenerator(objectMapper);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T execute(String operation, Object query, Supplier<T> loader) {
+        if (!this.enabled) {
+            return loader.get();
+        }
+
+        final String key = operation + ":" + this.keyGenerator.generate(query);
+
+        return (T) this.cache.get(key, k -> loader.get());
+    }
+
+    @Override
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+}
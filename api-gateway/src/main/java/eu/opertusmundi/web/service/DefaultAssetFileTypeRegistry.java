@@ -0,0 +1,85 @@
+package eu.opertusmundi.web.service;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import eu.opertusmundi.common.domain.AssetFileTypeEntity;
+import eu.opertusmundi.common.model.catalogue.client.EnumAssetType;
+import eu.opertusmundi.common.repository.AssetFileTypeRepository;
+
+@Service
+public class DefaultAssetFileTypeRegistry implements AssetFileTypeRegistry {
+
+    /**
+     * Max age of the loaded file types in seconds
+     */
+    @Value("${opertusmundi.asset-file-type.registry.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final AssetFileTypeRepository fileTypeRepository;
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public DefaultAssetFileTypeRegistry(AssetFileTypeRepository fileTypeRepository) {
+        this.fileTypeRepository = fileTypeRepository;
+    }
+
+    @Override
+    public Optional<AssetFileTypeEntity> findOneByCategoryAndFormat(EnumAssetType category, String format) {
+        if (category == null || format == null) {
+            return Optional.empty();
+        }
+
+        Snapshot current = this.snapshot;
+        if (current == null || current.isExpired(this.ttlSeconds)) {
+            current = this.reload(current);
+        }
+
+        return Optional.ofNullable(current.fileTypes.getOrDefault(category, Collections.emptyMap()).get(format));
+    }
+
+    private synchronized Snapshot reload(Snapshot expired) {
+        // Another thread may have already reloaded the file types
+        final Snapshot current = this.snapshot;
+        if (current != null && current != expired) {
+            return current;
+        }
+
+        final Map<EnumAssetType, Map<String, AssetFileTypeEntity>> fileTypes = new EnumMap<>(EnumAssetType.class);
+
+        for (final AssetFileTypeEntity t : this.fileTypeRepository.findAll()) {
+            fileTypes.computeIfAbsent(t.getCategory(), k -> new HashMap<>()).put(t.getFormat(), t);
+        }
+
+        final Snapshot result = new Snapshot(System.currentTimeMillis(), fileTypes);
+
+        this.snapshot = result;
+
+        return result;
+    }
+
+    private static final class Snapshot {
+
+        private final long                                                 createdAt;
+        private final Map<EnumAssetType, Map<String, AssetFileTypeEntity>> fileTypes;
+
+        private Snapshot(long createdAt, Map<EnumAssetType, Map<String, AssetFileTypeEntity>> fileTypes) {
+            this.createdAt = createdAt;
+            this.fileTypes = fileTypes;
+        }
+
+        private boolean isExpired(long ttlSeconds) {
+            return System.currentTimeMillis() - this.createdAt > ttlSeconds * 1000;
+        }
+
+    }
+
+}
@@ -0,0 +1,96 @@
+package eu.opertusmundi.web.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import eu.opertusmundi.common.model.catalogue.client.CatalogueItemDetailsDto;
+import eu.opertusmundi.common.service.CatalogueService;
+
+@Service
+public class DefaultAssetHydrationService implements AssetHydrationService {
+
+    public static final String CACHE_NAME = "asset-summary";
+
+    @Value("${opertusmundi.cache.asset-summary.enabled:true}")
+    private boolean enabled;
+
+    private final CatalogueService catalogueService;
+
+    private final Cache<String, CatalogueItemDetailsDto> cache;
+
+    @SuppressWarnings("unchecked")
+    @Autowired
+    public DefaultAssetHydrationService(CatalogueService catalogueService, CacheManager defaultCacheManager) {
+        final CaffeineCache cache = (CaffeineCache) defaultCacheManager.getCache(CACHE_NAME);
+        Assert.notNull(cache, String.format("Cache was not found [name=%s]", CACHE_NAME));
+
+        this.catalogueService = catalogueService;
+        this.cache            = (Cache<String, CatalogueItemDetailsDto>) (Cache<?, ?>) cache.getNativeCache();
+    }
+
+    @Override
+    public Map<String, CatalogueItemDetailsDto> findAllPublished(
+        Collection<String> pids, boolean failOnMissing, boolean includeAutomatedMetadata
+    ) {
+        if (pids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final String[] keys = pids.stream().distinct().toArray(String[]::new);
+
+        return this.catalogueService.findAllPublishedById(keys, failOnMissing, includeAutomatedMetadata).stream()
+            .collect(Collectors.toMap(CatalogueItemDetailsDto::getId, Function.identity(), (a, b) -> a));
+    }
+
+    @Override
+    public Map<String, CatalogueItemDetailsDto> findAllSummaries(Collection<String> pids) {
+        if (pids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        if (!this.enabled) {
+            return this.loadSummaries(pids);
+        }
+
+        // Only missing keys are requested from the catalogue with a single
+        // request. Assets that are not found are not cached
+        return this.cache.getAll(pids, this::loadSummaries);
+    }
+
+    @Override
+    public void invalidate(String pid) {
+        this.cache.invalidate(pid);
+    }
+
+    private Map<String, CatalogueItemDetailsDto> loadSummaries(Iterable<? extends String> pids) {
+        final List<String> keys = new ArrayList<>();
+        pids.forEach(keys::add);
+
+        final Map<String, CatalogueItemDetailsDto> result = new HashMap<>(this.findAllPublished(
+            keys, false /* Ignore missing assets */, false /* Exclude automated metadata */
+        ));
+
+        result.values().forEach(asset -> {
+            asset.setAutomatedMetadata(null);
+            asset.setIngestionInfo(null);
+            asset.resetContract();
+            asset.setPublisher(null);
+        });
+
+        return result;
+    }
+
+}
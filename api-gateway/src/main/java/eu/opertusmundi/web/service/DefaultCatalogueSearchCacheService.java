@@ -0,0 +1,61 @@
+package eu.opertusmundi.web.service;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import eu.opertusmundi.common.model.catalogue.CatalogueResult;
+import eu.opertusmundi.common.model.catalogue.client.CatalogueItemDto;
+import eu.opertusmundi.common.model.catalogue.elastic.ElasticAssetQuery;
+import eu.opertusmundi.web.utils.QueryKeyGenerator;
+
+@Service
+public class DefaultCatalogueSearchCacheService implements CatalogueSearchCacheService {
+
+    public static final String CACHE_NAME = "catalogue-search";
+
+    @Value("${opertusmundi.cache.catalogue-search.enabled:true}")
+    private boolean enabled;
+
+    private final Cache<Object, Object> cache;
+
+    private final QueryKeyGenerator keyGenerator;
+
+    @SuppressWarnings("unchecked")
+    @Autowired
+    public DefaultCatalogueSearchCacheService(ObjectMapper objectMapper, CacheManager defaultCacheManager) {
+        final CaffeineCache cache = (CaffeineCache) defaultCacheManager.getCache(CACHE_NAME);
+        Assert.notNull(cache, String.format("Cache was not found [name=%s]", CACHE_NAME));
+
+        this.cache        = (Cache<Object, Object>) cache.getNativeCache();
+        this.keyGenerator = new QueryKeyGenerator(objectMapper);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public CatalogueResult<CatalogueItemDto> findAll(
+        ElasticAssetQuery query, Supplier<CatalogueResult<CatalogueItemDto>> loader
+    ) {
+        if (!this.enabled) {
+            return loader.get();
+        }
+
+        // Concurrent invocations for the same key wait for the first one to
+        // complete. Failures are not cached
+        return (CatalogueResult<CatalogueItemDto>) this.cache.get(this.keyGenerator.generate(query), k -> loader.get());
+    }
+
+    @Override
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+}
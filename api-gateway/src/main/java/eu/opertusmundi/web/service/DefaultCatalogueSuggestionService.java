@@ -0,0 +1,391 @@
+package eu.opertusmundi.web.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import eu.opertusmundi.common.model.RequestContext;
+import eu.opertusmundi.common.model.account.ProviderDto;
+import eu.opertusmundi.common.model.analytics.BaseQuery;
+import eu.opertusmundi.common.model.catalogue.CatalogueResult;
+import eu.opertusmundi.common.model.catalogue.client.CatalogueAssetQuery;
+import eu.opertusmundi.common.model.catalogue.client.CatalogueItemDto;
+import eu.opertusmundi.common.service.CatalogueService;
+import eu.opertusmundi.common.service.DataAnalysisService;
+import eu.opertusmundi.web.model.catalogue.CatalogueSuggestionDto;
+import eu.opertusmundi.web.model.catalogue.EnumCatalogueSuggestionType;
+
+@Service
+public class DefaultCatalogueSuggestionService implements CatalogueSuggestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefaultCatalogueSuggestionService.class);
+
+    /**
+     * Interval in milliseconds for rebuilding the index
+     */
+    private static final long REFRESH_INTERVAL = 15 * 60 * 1000L;
+
+    /**
+     * Page size used for reading published assets from the catalogue
+     */
+    private static final int PAGE_SIZE = 100;
+
+    /**
+     * Min prefix length. Shorter prefixes match most of the index
+     */
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    /**
+     * Max number of index positions examined per lookup
+     */
+    private static final int MAX_SCAN = 20000;
+
+    /**
+     * Weight of a search for a term relative to an asset that refers to it
+     */
+    private static final long POPULARITY_WEIGHT = 10;
+
+    @Value("${opertusmundi.catalogue.suggest.enabled:false}")
+    private boolean enabled;
+
+    private final CatalogueService    catalogueService;
+    private final DataAnalysisService analysisService;
+
+    /**
+     * The current index. The index is immutable and is replaced atomically
+     * on refresh
+     */
+    private volatile Index index;
+
+    /**
+     * Assets removed since the creation of the current index started
+     */
+    private final Set<String> removedAssets = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public DefaultCatalogueSuggestionService(CatalogueService catalogueService, DataAnalysisService analysisService) {
+        this.catalogueService = catalogueService;
+        this.analysisService  = analysisService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!this.enabled) {
+            return;
+        }
+        try {
+            this.refresh();
+        } catch (final Exception ex) {
+            logger.error("Failed to create catalogue suggestion index", ex);
+        }
+    }
+
+    @Scheduled(fixedRate = REFRESH_INTERVAL, initialDelay = REFRESH_INTERVAL)
+    public void scheduledRefresh() {
+        if (!this.enabled) {
+            return;
+        }
+        try {
+            this.refresh();
+        } catch (final Exception ex) {
+            logger.warn("Failed to refresh catalogue suggestion index. The existing index is retained", ex);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return this.enabled && this.index != null;
+    }
+
+    @Override
+    public synchronized int refresh() {
+        final long start = System.currentTimeMillis();
+
+        // Assets removed before this point are not returned by the catalogue.
+        // Removals during the rebuild may not be reflected in the new index
+        // and must be retained
+        final Set<String> removedBeforeRefresh = Set.copyOf(this.removedAssets);
+
+        final Map<String, Integer>   popularity = this.findPopularTerms();
+        final Map<String, Candidate> keywords   = new HashMap<>();
+        final Map<String, Candidate> publishers = new HashMap<>();
+        final List<Candidate>        assets     = new ArrayList<>();
+
+        // Reading published assets does not depend on the current request
+        final RequestContext ctx = RequestContext.of(null, null, null, true);
+
+        int pageIndex = 0;
+        while (true) {
+            final CatalogueAssetQuery query = CatalogueAssetQuery.builder()
+                .page(pageIndex)
+                .size(PAGE_SIZE)
+                .build();
+
+            final CatalogueResult<CatalogueItemDto> result = this.catalogueService.findAll(ctx, query);
+            final List<CatalogueItemDto>            items  = result.getResult().getItems();
+
+            for (final CatalogueItemDto item : items) {
+                if (!StringUtils.isBlank(item.getTitle())) {
+                    assets.add(new Candidate(EnumCatalogueSuggestionType.ASSET, item.getTitle(), item.getId()));
+                }
+                if (item.getKeywords() != null) {
+                    item.getKeywords().stream()
+                        .map(k -> k.getKeyword())
+                        .filter(StringUtils::isNotBlank)
+                        .forEach(k -> keywords.computeIfAbsent(
+                            normalize(k), key -> new Candidate(EnumCatalogueSuggestionType.KEYWORD, k.trim(), null)
+                        ).frequency++);
+                }
+            }
+            if (result.getPublishers() != null) {
+                for (final ProviderDto p : result.getPublishers().values()) {
+                    if (!StringUtils.isBlank(p.getName())) {
+                        publishers.putIfAbsent(
+                            p.getKey().toString(), new Candidate(EnumCatalogueSuggestionType.PUBLISHER, p.getName(), p.getKey().toString())
+                        );
+                    }
+                }
+            }
+
+            pageIndex++;
+            if (items.size() < PAGE_SIZE || (long) pageIndex * PAGE_SIZE >= result.getResult().getCount()) {
+                break;
+            }
+        }
+
+        final List<Candidate> candidates = new ArrayList<>(assets.size() + keywords.size() + publishers.size());
+        candidates.addAll(assets);
+        candidates.addAll(keywords.values());
+        candidates.addAll(publishers.values());
+
+        final Index newIndex = new Index(candidates, popularity);
+
+        this.index = newIndex;
+        this.removedAssets.removeAll(removedBeforeRefresh);
+
+        logger.info(
+            "Catalogue suggestion index created [assets={}, keywords={}, publishers={}, time={}ms]",
+            assets.size(), keywords.size(), publishers.size(), System.currentTimeMillis() - start
+        );
+
+        return newIndex.size();
+    }
+
+    @Override
+    public List<CatalogueSuggestionDto> suggest(String text, int limit) {
+        final Index  current = this.index;
+        final String prefix  = normalize(text);
+
+        if (current == null || prefix.length() < MIN_PREFIX_LENGTH || limit < 1) {
+            return Collections.emptyList();
+        }
+
+        return current.find(prefix, limit, this.removedAssets);
+    }
+
+    @Override
+    public void removeAsset(String pid) {
+        if (!StringUtils.isBlank(pid)) {
+            this.removedAssets.add(pid);
+        }
+    }
+
+    private Map<String, Integer> findPopularTerms() {
+        try {
+            final List<ImmutablePair<String, Integer>> terms = this.analysisService.executePopularTerms(new BaseQuery());
+
+            return terms.stream().collect(Collectors.toMap(p -> normalize(p.getLeft()), ImmutablePair::getRight, Integer::sum));
+        } catch (final Exception ex) {
+            logger.warn("Failed to load popular terms. Suggestions are ranked by frequency only", ex);
+
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Converts text to lower case, removes accents and collapses whitespace
+     *
+     * @param text
+     * @return
+     */
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return StringUtils.normalizeSpace(StringUtils.stripAccents(text)).toLowerCase();
+    }
+
+    private static final class Candidate {
+
+        private final EnumCatalogueSuggestionType type;
+        private final String                      text;
+        private final String                      id;
+        private int                               frequency = 1;
+
+        private Candidate(EnumCatalogueSuggestionType type, String text, String id) {
+            this.type = type;
+            this.text = text;
+            this.id   = id;
+        }
+
+    }
+
+    /**
+     * Sorted array of word positions. Every indexed value is added once for
+     * each word it contains, hence a prefix matches the beginning of any word.
+     * Positions are stored as pairs of integers (value index, offset) instead
+     * of substrings to keep the index compact
+     */
+    private static final class Index {
+
+        private final CatalogueSuggestionDto[] values;
+        private final String[]                 keys;
+        private final int[]                    positionValues;
+        private final int[]                    positionOffsets;
+
+        private Index(List<Candidate> candidates, Map<String, Integer> popularity) {
+            final int size = candidates.size();
+
+            this.values = new CatalogueSuggestionDto[size];
+            this.keys   = new String[size];
+
+            final List<int[]> positions = new ArrayList<>();
+
+            for (int i = 0; i < size; i++) {
+                final Candidate c   = candidates.get(i);
+                final String    key = normalize(c.text);
+
+                this.keys[i]   = key;
+                this.values[i] = CatalogueSuggestionDto.of(c.type, c.text, c.id, this.score(c, key, popularity));
+
+                for (int offset = 0; offset < key.length(); offset++) {
+                    if (offset == 0 || key.charAt(offset - 1) == ' ') {
+                        positions.add(new int[] {i, offset});
+                    }
+                }
+            }
+
+            positions.sort((a, b) -> compare(this.keys[a[0]], a[1], this.keys[b[0]], b[1]));
+
+            this.positionValues  = positions.stream().mapToInt(p -> p[0]).toArray();
+            this.positionOffsets = positions.stream().mapToInt(p -> p[1]).toArray();
+        }
+
+        private int size() {
+            return this.values.length;
+        }
+
+        /**
+         * Score is the number of assets that refer to the value plus the
+         * weighted number of searches for the value or any of its words
+         */
+        private long score(Candidate c, String key, Map<String, Integer> popularity) {
+            long searches = popularity.getOrDefault(key, 0);
+            if (c.type == EnumCatalogueSuggestionType.ASSET) {
+                for (final String word : StringUtils.split(key, ' ')) {
+                    if (!word.equals(key)) {
+                        searches += popularity.getOrDefault(word, 0);
+                    }
+                }
+            }
+            return c.frequency + POPULARITY_WEIGHT * searches;
+        }
+
+        private List<CatalogueSuggestionDto> find(String prefix, int limit, Set<String> removedAssets) {
+            final Comparator<Integer>    byScore = Comparator.comparingLong(i -> this.values[i].getScore());
+            final PriorityQueue<Integer> top     = new PriorityQueue<>(limit + 1, byScore);
+            final Set<Integer>           seen    = new HashSet<>();
+
+            final int start = this.lowerBound(prefix);
+            final int end   = Math.min(this.positionValues.length, start + MAX_SCAN);
+
+            for (int p = start; p < end; p++) {
+                final int value = this.positionValues[p];
+
+                if (!this.keys[value].startsWith(prefix, this.positionOffsets[p])) {
+                    break;
+                }
+                if (!seen.add(value)) {
+                    continue;
+                }
+                final CatalogueSuggestionDto s = this.values[value];
+                if (s.getType() == EnumCatalogueSuggestionType.ASSET && removedAssets.contains(s.getId())) {
+                    continue;
+                }
+                top.add(value);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            final List<CatalogueSuggestionDto> result = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                result.add(this.values[top.poll()]);
+            }
+            Collections.reverse(result);
+
+            return result;
+        }
+
+        /**
+         * Returns the first position whose suffix is not less than the prefix
+         */
+        private int lowerBound(String prefix) {
+            int low  = 0;
+            int high = this.positionValues.length;
+
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                final int v   = this.positionValues[mid];
+
+                if (compare(this.keys[v], this.positionOffsets[mid], prefix, 0) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static int compare(String a, int offsetA, String b, int offsetB) {
+            final int lengthA = a.length() - offsetA;
+            final int lengthB = b.length() - offsetB;
+            final int length  = Math.min(lengthA, lengthB);
+
+            for (int i = 0; i < length; i++) {
+                final char ca = a.charAt(offsetA + i);
+                final char cb = b.charAt(offsetB + i);
+                if (ca != cb) {
+                    return ca - cb;
+                }
+            }
+            return lengthA - lengthB;
+        }
+
+    }
+
+}
@@ -0,0 +1,284 @@
+package eu.opertusmundi.web.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.opertusmundi.common.domain.AssetDomainRestrictionEntity;
+import eu.opertusmundi.common.domain.AssetFileTypeEntity;
+import eu.opertusmundi.common.domain.CountryEntity;
+import eu.opertusmundi.common.domain.CountryEuropeEntity;
+import eu.opertusmundi.common.domain.LanguageEuropeEntity;
+import eu.opertusmundi.common.model.BasicMessageCode;
+import eu.opertusmundi.common.model.EnumAuthProvider;
+import eu.opertusmundi.common.model.EnumService;
+import eu.opertusmundi.common.model.EnumSetting;
+import eu.opertusmundi.common.model.RestResponse;
+import eu.opertusmundi.common.model.ServiceException;
+import eu.opertusmundi.common.model.SettingDto;
+import eu.opertusmundi.common.model.pricing.PerCallPricingModelCommandDto;
+import eu.opertusmundi.common.repository.AssetDomainRestrictionRepository;
+import eu.opertusmundi.common.repository.AssetFileTypeRepository;
+import eu.opertusmundi.common.repository.CountryRepository;
+import eu.opertusmundi.common.repository.SettingRepository;
+import eu.opertusmundi.web.model.configuration.ClientConfiguration;
+import eu.opertusmundi.web.model.configuration.VersionedClientConfiguration;
+
+@Service
+public class DefaultClientConfigurationService implements ClientConfigurationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefaultClientConfigurationService.class);
+
+    /**
+     * Interval in milliseconds for checking the marketplace settings for
+     * changes
+     */
+    private static final long CHANGE_DETECTION_INTERVAL = 30 * 1000L;
+
+    @Value("${opertus-mundi.authentication-providers:forms}")
+    private String authProviders;
+
+    @Value("${opertus-mundi.wordpress.endpoint:}")
+    private String wordPressEndpoint;
+
+    @Value("${git.commit.id.abbrev:}")
+    private String commitId;
+
+    @Value("${git.commit.message.short:}")
+    private String commitComment;
+
+    @Value("${git.commit.id.describe:}")
+    private String commitIdDescription;
+
+    @Value("${git.build.time:}")
+    private String buildTimestamp;
+
+    /**
+     * Max age of the cached configuration in seconds. Reference data such as
+     * countries and file types are reloaded when the configuration expires
+     */
+    @Value("${opertusmundi.configuration.cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    private final ObjectMapper                     objectMapper;
+    private final CountryRepository                countryRepository;
+    private final AssetFileTypeRepository          fileTypeRepository;
+    private final AssetDomainRestrictionRepository domainRestrictionRepository;
+    private final SettingRepository                settingRepository;
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public DefaultClientConfigurationService(
+        ObjectMapper                     objectMapper,
+        CountryRepository                countryRepository,
+        AssetFileTypeRepository          fileTypeRepository,
+        AssetDomainRestrictionRepository domainRestrictionRepository,
+        SettingRepository                settingRepository
+    ) {
+        this.objectMapper                = objectMapper;
+        this.countryRepository           = countryRepository;
+        this.fileTypeRepository          = fileTypeRepository;
+        this.domainRestrictionRepository = domainRestrictionRepository;
+        this.settingRepository           = settingRepository;
+    }
+
+    @Override
+    public VersionedClientConfiguration getConfiguration(boolean includeDisabledAnnouncement) {
+        Snapshot current = this.snapshot;
+
+        if (current == null || current.isExpired(this.ttlSeconds)) {
+            current = this.rebuild(current);
+        }
+
+        return includeDisabledAnnouncement ? current.privileged : current.anonymous;
+    }
+
+    @Override
+    public void invalidate() {
+        this.snapshot = null;
+    }
+
+    /**
+     * Invalidates the cached configuration if any of the settings has been
+     * modified. Settings are updated by other services; hence, changes must
+     * be detected by polling
+     */
+    @Scheduled(fixedRate = CHANGE_DETECTION_INTERVAL, initialDelay = CHANGE_DETECTION_INTERVAL)
+    public void detectChanges() {
+        final Snapshot current = this.snapshot;
+        if (current == null) {
+            return;
+        }
+
+        try {
+            final String settingsVersion = this.getSettingsVersion(this.findSettings());
+
+            if (!settingsVersion.equals(current.settingsVersion)) {
+                logger.info("Settings have been modified. Client configuration is invalidated");
+
+                this.invalidate();
+            }
+        } catch (final Exception ex) {
+            logger.warn("Failed to check settings for changes", ex);
+        }
+    }
+
+    private synchronized Snapshot rebuild(Snapshot expired) {
+        // Another thread may have already rebuilt the configuration
+        final Snapshot current = this.snapshot;
+        if (current != null && current != expired) {
+            return current;
+        }
+
+        final List<SettingDto>    settings   = this.findSettings();
+        final ClientConfiguration anonymous  = this.createConfiguration(settings, false);
+        final ClientConfiguration privileged = this.createConfiguration(settings, true);
+
+        final Snapshot result = new Snapshot(
+            System.currentTimeMillis(),
+            this.getSettingsVersion(settings),
+            VersionedClientConfiguration.of(anonymous, this.computeVersion(anonymous)),
+            VersionedClientConfiguration.of(privileged, this.computeVersion(privileged))
+        );
+
+        this.snapshot = result;
+
+        return result;
+    }
+
+    private List<SettingDto> findSettings() {
+        return settingRepository.findAllByServiceAsObjects(EnumService.API_GATEWAY);
+    }
+
+    private String getSettingsVersion(List<SettingDto> settings) {
+        final String value = settings.stream()
+            .sorted(Comparator.comparing(SettingDto::getKey))
+            .map(s -> String.format("%s=%s@%s", s.getKey(), s.getValue(), s.getUpdatedOn()))
+            .collect(Collectors.joining("\n"))
+            + "\n" + settingRepository.findOne(EnumSetting.USER_SERVICE_PRICE_PER_CALL).getValue();
+
+        return DigestUtils.md5DigestAsHex(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String computeVersion(ClientConfiguration config) {
+        try {
+            final byte[] content = this.objectMapper.writeValueAsBytes(RestResponse.result(config));
+
+            return DigestUtils.md5DigestAsHex(content);
+        } catch (final JsonProcessingException ex) {
+            throw new ServiceException(BasicMessageCode.SerializationError, "Failed to serialize client configuration", ex);
+        }
+    }
+
+    private ClientConfiguration createConfiguration(List<SettingDto> settings, boolean includeDisabledAnnouncement) {
+        final ClientConfiguration config = new ClientConfiguration();
+
+        this.countryRepository.getCountries().stream()
+            .map(CountryEntity::toDto)
+            .forEach(c -> config.getCountries().add(c));
+
+        this.countryRepository.getEuropeCountries().stream()
+            .map(CountryEuropeEntity::toDto)
+            .forEach(c -> config.getEuropeCountries().add(c));
+
+        this.countryRepository.getEuropeLanguages().stream()
+            .map(LanguageEuropeEntity::toDto)
+            .forEach(l -> config.getEuropeLanguages().add(l));
+
+        Arrays.stream(this.authProviders.split(","))
+            .map(String::trim)
+            .map(EnumAuthProvider::fromString)
+            .filter(s -> s != null)
+            .forEach(config.getAuthProviders()::add);
+
+        this.fileTypeRepository.findAllEnabled().stream()
+            .map(AssetFileTypeEntity::toDto)
+            .forEach(config.getAsset().getFileTypes()::add);
+
+        this.domainRestrictionRepository.findAllActive().stream()
+            .map(AssetDomainRestrictionEntity::getName)
+            .forEach(config.getAsset().getDomains()::add);
+
+        config.getWordPress().setEndpoint(wordPressEndpoint);
+
+        config.getBuildInfo().setBuildTimestamp(buildTimestamp);
+        config.getBuildInfo().setCommitComment(commitComment);
+        config.getBuildInfo().setCommitId(commitId);
+        config.getBuildInfo().setCommitIdDescription(commitIdDescription);
+
+        setAnnouncement(config, settings, includeDisabledAnnouncement);
+        setPrivateServicePricingModel(config);
+
+        return config;
+    }
+
+    private void setAnnouncement(ClientConfiguration config, List<SettingDto> settings, boolean includeDisabled) {
+        final SettingDto content = settings.stream()
+            .filter(s -> s.getKey().equals(EnumSetting.MARKETPLACE_BANNER_TEXT.getKey()))
+            .findFirst()
+            .orElse(null);
+        final SettingDto enabled = settings.stream()
+            .filter(s -> s.getKey().equals(EnumSetting.MARKETPLACE_BANNER_ENABLED.getKey()))
+            .findFirst()
+            .orElse(null);
+
+        if (content == null || enabled == null || StringUtils.isBlank(content.getValue())) {
+            return;
+        }
+
+        if (enabled.asBoolean() || includeDisabled) {
+            config.setAnnouncement(ClientConfiguration.Announcement.of(content.getValue(), content.getUpdatedOn()));
+        }
+    }
+
+    private void setPrivateServicePricingModel(ClientConfiguration config) {
+        try {
+            final var setting      = settingRepository.findOne(EnumSetting.USER_SERVICE_PRICE_PER_CALL);
+            final var pricingModel = objectMapper.readValue(setting.getValue(), new TypeReference<PerCallPricingModelCommandDto>() { });
+
+            config.getAsset().setPrivateServicePricingModel(pricingModel);
+        } catch (final JsonProcessingException ex) {
+            throw new ServiceException(BasicMessageCode.SerializationError, "Failed to parse the pricing model for private services ", ex);
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final long                         createdAt;
+        private final String                       settingsVersion;
+        private final VersionedClientConfiguration anonymous;
+        private final VersionedClientConfiguration privileged;
+
+        private Snapshot(
+            long createdAt, String settingsVersion,
+            VersionedClientConfiguration anonymous, VersionedClientConfiguration privileged
+        ) {
+            this.createdAt       = createdAt;
+            this.settingsVersion = settingsVersion;
+            this.anonymous       = anonymous;
+            this.privileged      = privileged;
+        }
+
+        private boolean isExpired(long ttlSeconds) {
+            return System.currentTimeMillis() - this.createdAt > ttlSeconds * 1000;
+        }
+
+    }
+
+}
@@ -0,0 +1,142 @@
+package eu.opertusmundi.web.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import eu.opertusmundi.common.model.BasicMessageCode;
+import eu.opertusmundi.common.model.ServiceException;
+import eu.opertusmundi.common.model.contract.provider.ProviderContractCommand;
+import eu.opertusmundi.common.model.contract.provider.ProviderTemplateContractDto;
+import eu.opertusmundi.common.service.contract.ProviderTemplateContractService;
+import eu.opertusmundi.web.model.file.CachedFile;
+import eu.opertusmundi.web.utils.FileCacheUtils;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+@Service
+public class DefaultContractPdfCacheService implements ContractPdfCacheService, InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefaultContractPdfCacheService.class);
+
+    public static final String CACHE_NAME = "contract-pdf";
+
+    private static final String CONTRACT_DIR = "contract-pdf";
+
+    private static final String FILE_SUFFIX = ".pdf";
+
+    @Value("${opertusmundi.cache.contract-pdf.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Parent of the cache directory. The directory must not be shared with
+     * other nodes
+     */
+    @Value("${opertusmundi.cache.contract-pdf.dir:${java.io.tmpdir}/opertusmundi}")
+    private String baseDir;
+
+    private final ProviderTemplateContractService templateContractService;
+    private final ObjectMapper                    objectMapper;
+    private final Cache<PdfKey, CachedFile>       cache;
+
+    private Path contractDir;
+
+    @SuppressWarnings("unchecked")
+    @Autowired
+    public DefaultContractPdfCacheService(
+        ProviderTemplateContractService templateContractService,
+        ObjectMapper objectMapper,
+        CacheManager defaultCacheManager
+    ) {
+        final CaffeineCache cache = (CaffeineCache) defaultCacheManager.getCache(CACHE_NAME);
+        Assert.notNull(cache, String.format("Cache was not found [name=%s]", CACHE_NAME));
+
+        this.templateContractService = templateContractService;
+        this.objectMapper            = objectMapper;
+        this.cache                   = (Cache<PdfKey, CachedFile>) (Cache<?, ?>) cache.getNativeCache();
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (!this.enabled) {
+            return;
+        }
+        this.contractDir = Paths.get(this.baseDir, CONTRACT_DIR).toAbsolutePath();
+
+        FileCacheUtils.reset(this.contractDir);
+
+        logger.info("Contract PDF cache directory created [path={}]", this.contractDir);
+    }
+
+    @Override
+    public CachedFile printTemplate(UUID providerKey, UUID templateKey, ProviderTemplateContractDto template) throws ServiceException {
+        if (!this.enabled) {
+            return null;
+        }
+        try {
+            // The hash of the serialized template changes whenever any
+            // template property or section is modified
+            final String hash = DigestUtils.md5DigestAsHex(this.objectMapper.writeValueAsBytes(template));
+            final PdfKey key  = new PdfKey(providerKey, templateKey, hash);
+
+            return this.cache.get(key, k -> {
+                final ProviderContractCommand command = ProviderContractCommand.builder()
+                    .providerKey(providerKey)
+                    .contractKey(templateKey)
+                    .build();
+
+                final byte[] data = this.templateContractService.print(command);
+
+                try {
+                    return FileCacheUtils.write(this.contractDir, k.toString(), FILE_SUFFIX, data);
+                } catch (final IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (final IOException | UncheckedIOException ex) {
+            throw new ServiceException(BasicMessageCode.InternalServerError, String.format(
+                "Failed to cache contract file [providerKey=%s, templateKey=%s]", providerKey, templateKey
+            ), ex);
+        }
+    }
+
+    @Override
+    public void invalidateProvider(UUID providerKey) {
+        if (providerKey != null) {
+            // Removed files are deleted by the cache removal listener
+            this.cache.asMap().keySet().removeIf(k -> k.providerKey.equals(providerKey));
+        }
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class PdfKey {
+
+        private final UUID   providerKey;
+        private final UUID   templateKey;
+        private final String hash;
+
+        @Override
+        public String toString() {
+            return String.format("%s/%s/%s", this.providerKey, this.templateKey, this.hash);
+        }
+
+    }
+
+}
@@ -0,0 +1,451 @@
+package eu.opertusmundi.web.service;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import eu.opertusmundi.common.model.BaseResponse;
+import eu.opertusmundi.common.model.BasicMessageCode;
+import eu.opertusmundi.common.model.RestResponse;
+import eu.opertusmundi.common.model.ServiceException;
+import eu.opertusmundi.common.model.account.AccountDto;
+import eu.opertusmundi.common.model.catalogue.client.CatalogueItemCommandDto;
+import eu.opertusmundi.common.service.AssetDraftException;
+import eu.opertusmundi.common.service.ProviderAssetService;
+import eu.opertusmundi.web.model.asset.DraftSubmissionJobDto;
+import eu.opertusmundi.web.model.asset.EnumDraftSubmissionStatus;
+import eu.opertusmundi.web.repository.DraftSubmissionJobRepository;
+import eu.opertusmundi.web.validation.DraftValidator;
+import eu.opertusmundi.web.validation.DraftValidator.EnumValidationMode;
+
+@Service
+public class DefaultDraftSubmissionService implements DraftSubmissionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefaultDraftSubmissionService.class);
+
+    public static final String CACHE_NAME = "draft-submission-job";
+
+    private static final String EVENT_NAME = "status";
+
+    /**
+     * Interval in milliseconds for deleting expired jobs
+     */
+    private static final long CLEANUP_INTERVAL = 15 * 60 * 1000L;
+
+    /**
+     * Reconnection time in milliseconds of status event streams for jobs
+     * executed by another node
+     */
+    private static final long REMOTE_RECONNECT_TIME = 2000L;
+
+    /**
+     * Max number of queued or running jobs per publisher
+     */
+    @Value("${opertusmundi.draft-submission.max-pending-per-publisher:10}")
+    private int maxPendingPerPublisher;
+
+    /**
+     * Max duration of a status event stream
+     */
+    @Value("${opertusmundi.draft-submission.event-stream-timeout-seconds:300}")
+    private long eventStreamTimeoutSeconds;
+
+    /**
+     * Max age of a job since its most recent status change
+     */
+    @Value("${opertusmundi.cache.draft-submission-job.ttl-seconds:3600}")
+    private long jobTtlSeconds;
+
+    private final DraftValidator               draftValidator;
+    private final ProviderAssetService         providerAssetService;
+    private final ThreadPoolTaskExecutor       executor;
+    private final DraftSubmissionJobRepository jobRepository;
+    private final ObjectMapper                 objectMapper;
+    private final Cache<UUID, Job>             jobs;
+
+    /**
+     * Jobs that are queued or running grouped by publisher. Guarded by
+     * {@code this}
+     */
+    private final Map<UUID, PublisherQueue> queues = new HashMap<>();
+
+    @SuppressWarnings("unchecked")
+    @Autowired
+    public DefaultDraftSubmissionService(
+        DraftValidator draftValidator,
+        ProviderAssetService providerAssetService,
+        @Qualifier("draftSubmissionTaskExecutor") ThreadPoolTaskExecutor executor,
+        DraftSubmissionJobRepository jobRepository,
+        ObjectMapper objectMapper,
+        CacheManager defaultCacheManager
+    ) {
+        final CaffeineCache cache = (CaffeineCache) defaultCacheManager.getCache(CACHE_NAME);
+        Assert.notNull(cache, String.format("Cache was not found [name=%s]", CACHE_NAME));
+
+        this.draftValidator       = draftValidator;
+        this.providerAssetService = providerAssetService;
+        this.executor             = executor;
+        this.jobRepository        = jobRepository;
+        this.objectMapper         = objectMapper;
+        this.jobs                 = (Cache<UUID, Job>) (Cache<?, ?>) cache.getNativeCache();
+    }
+
+    @Override
+    public DraftSubmissionJobDto submit(AccountDto account, CatalogueItemCommandDto command) throws RejectedExecutionException {
+        final Job  job          = new Job(account, command, SecurityContextHolder.getContext());
+        final UUID publisherKey = command.getPublisherKey();
+
+        // Duplicate submissions and submissions that exceed the publisher
+        // queue are rejected before the job is stored
+        synchronized (this) {
+            final PublisherQueue queue    = this.queues.computeIfAbsent(publisherKey, k -> new PublisherQueue());
+            final Job            existing = queue.find(command.getDraftKey());
+
+            if (existing != null) {
+                return existing.toDto();
+            }
+            if (queue.size() >= this.maxPendingPerPublisher) {
+                throw new RejectedExecutionException(String.format(
+                    "Too many pending draft submissions [publisherKey=%s]", publisherKey
+                ));
+            }
+            queue.storing.add(job);
+        }
+
+        // The job is stored before it is dispatched, so that the status
+        // updates of the worker always find it
+        try {
+            this.jobRepository.create(job.toDto(), publisherKey);
+        } catch (final RuntimeException ex) {
+            synchronized (this) {
+                final PublisherQueue queue = this.queues.get(publisherKey);
+
+                queue.storing.remove(job);
+                if (queue.size() == 0) {
+                    this.queues.remove(publisherKey);
+                }
+            }
+            throw ex;
+        }
+
+        final List<Job> rejected;
+
+        synchronized (this) {
+            final PublisherQueue queue = this.queues.get(publisherKey);
+
+            queue.storing.remove(job);
+            queue.pending.add(job);
+            this.jobs.put(job.key, job);
+
+            rejected = queue.running == null ? this.dispatchNext(publisherKey, queue) : Collections.emptyList();
+        }
+
+        rejected.stream().filter(r -> r != job).forEach(this::fail);
+
+        // The job is rejected only if it was dispatched immediately and the
+        // executor is saturated. The key of the job has not been returned to
+        // any client; hence, the job is removed without updating its status
+        if (job.rejected) {
+            this.jobs.invalidate(job.key);
+            this.jobRepository.deleteByKey(job.key);
+
+            throw new RejectedExecutionException("Draft submission executor is saturated");
+        }
+
+        return job.toDto();
+    }
+
+    @Override
+    public DraftSubmissionJobDto findOne(UUID publisherKey, UUID jobKey) throws ServiceException {
+        final Job job = this.findLocalJob(publisherKey, jobKey);
+
+        return job == null ? this.findStoredJob(publisherKey, jobKey) : job.toDto();
+    }
+
+    @Override
+    public SseEmitter subscribe(UUID publisherKey, UUID jobKey) throws ServiceException {
+        final Job        job     = this.findLocalJob(publisherKey, jobKey);
+        final SseEmitter emitter = new SseEmitter(this.eventStreamTimeoutSeconds * 1000);
+
+        if (job == null) {
+            // The job is executed by another node. The stored status is sent
+            // and the stream is closed; the client reconnects after the
+            // reconnection time and receives the next stored status
+            final DraftSubmissionJobDto dto = this.findStoredJob(publisherKey, jobKey);
+            try {
+                emitter.send(SseEmitter.event().name(EVENT_NAME).reconnectTime(REMOTE_RECONNECT_TIME).data(dto));
+                emitter.complete();
+            } catch (final IOException | IllegalStateException ex) {
+                emitter.completeWithError(ex);
+            }
+            return emitter;
+        }
+
+        emitter.onCompletion(() -> job.removeEmitter(emitter));
+        emitter.onTimeout(() -> job.removeEmitter(emitter));
+        emitter.onError(ex -> job.removeEmitter(emitter));
+
+        job.addEmitter(emitter);
+
+        return emitter;
+    }
+
+    @Scheduled(fixedRate = CLEANUP_INTERVAL, initialDelay = CLEANUP_INTERVAL)
+    public void deleteExpiredJobs() {
+        try {
+            this.jobRepository.deleteAllUpdatedBefore(ZonedDateTime.now().minusSeconds(this.jobTtlSeconds));
+        } catch (final Exception ex) {
+            logger.warn("Failed to delete expired draft submission jobs", ex);
+        }
+    }
+
+    /**
+     * Find a job executed by this node
+     */
+    private Job findLocalJob(UUID publisherKey, UUID jobKey) {
+        final Job job = this.jobs.getIfPresent(jobKey);
+
+        return job == null || !job.publisherKey.equals(publisherKey) ? null : job;
+    }
+
+    private DraftSubmissionJobDto findStoredJob(UUID publisherKey, UUID jobKey) throws ServiceException {
+        return this.jobRepository.findOneByKey(publisherKey, jobKey)
+            .map(e -> e.toDto())
+            .orElseThrow(() -> new ServiceException(
+                BasicMessageCode.RecordNotFound, String.format("Submission job was not found [key=%s]", jobKey)
+            ));
+    }
+
+    /**
+     * Update the job status and notify subscribers. The status is stored so
+     * that other nodes can report it; a storage failure does not affect the
+     * execution of the job
+     */
+    private void update(Job job, EnumDraftSubmissionStatus status, BaseResponse result) {
+        String json = null;
+        try {
+            json = result == null ? null : this.objectMapper.writeValueAsString(result);
+        } catch (final JsonProcessingException ex) {
+            logger.warn(String.format("Failed to serialize draft submission result [jobKey=%s]", job.key), ex);
+        }
+
+        job.update(status, json);
+
+        try {
+            this.jobRepository.setStatus(job.key, status, json, ZonedDateTime.now());
+        } catch (final Exception ex) {
+            logger.warn(String.format("Failed to store draft submission job status [jobKey=%s]", job.key), ex);
+        }
+    }
+
+    private void fail(Job job) {
+        this.update(job, EnumDraftSubmissionStatus.FAILED, RestResponse.failure());
+    }
+
+    /**
+     * Submit the next queued job of a publisher to the executor. Must be
+     * invoked while holding the lock on {@code this}. Returns the jobs
+     * rejected by the executor; the caller must update their status after
+     * releasing the lock
+     */
+    private List<Job> dispatchNext(UUID publisherKey, PublisherQueue queue) {
+        final List<Job> rejected = new ArrayList<>();
+
+        Job next;
+        while ((next = queue.pending.poll()) != null) {
+            final Job job = next;
+            try {
+                queue.running = job;
+                // Jobs are dispatched by the request thread or by the worker
+                // that completed the previous job of the publisher. In either
+                // case, the task must run with the security context of the
+                // user who submitted the draft
+                this.executor.execute(new DelegatingSecurityContextRunnable(() -> this.run(job), job.securityContext));
+                return rejected;
+            } catch (final RejectedExecutionException ex) {
+                logger.warn("Draft submission was rejected [publisherKey={}, draftKey={}]", publisherKey, job.draftKey);
+
+                queue.running = null;
+                job.rejected  = true;
+                rejected.add(job);
+            }
+        }
+        // Jobs that are being stored are dispatched by the request thread
+        if (queue.size() == 0) {
+            this.queues.remove(publisherKey);
+        }
+        return rejected;
+    }
+
+    private void run(Job job) {
+        try {
+            this.update(job, EnumDraftSubmissionStatus.VALIDATING, null);
+
+            final BindingResult validationResult = new BeanPropertyBindingResult(job.command, "catalogueItemCommandDto");
+
+            this.draftValidator.validate(job.account, job.command, validationResult, EnumValidationMode.SUBMIT, job.draftKey);
+
+            if (validationResult.hasErrors()) {
+                this.update(
+                    job,
+                    EnumDraftSubmissionStatus.FAILED,
+                    RestResponse.invalid(validationResult.getFieldErrors(), validationResult.getGlobalErrors())
+                );
+                return;
+            }
+
+            this.update(job, EnumDraftSubmissionStatus.SUBMITTING, null);
+
+            this.providerAssetService.submitDraft(job.command);
+
+            this.update(job, EnumDraftSubmissionStatus.COMPLETED, RestResponse.success());
+        } catch (final AssetDraftException ex) {
+            logger.error("Operation has failed", ex);
+
+            this.update(job, EnumDraftSubmissionStatus.FAILED, RestResponse.error(ex.getCode(), ex.getMessage()));
+        } catch (final Exception ex) {
+            logger.error("Operation has failed", ex);
+
+            this.update(job, EnumDraftSubmissionStatus.FAILED, RestResponse.failure());
+        } finally {
+            final List<Job> rejected;
+
+            synchronized (this) {
+                final PublisherQueue queue = this.queues.get(job.publisherKey);
+                if (queue != null && queue.running == job) {
+                    queue.running = null;
+                    rejected      = this.dispatchNext(job.publisherKey, queue);
+                } else {
+                    rejected = Collections.emptyList();
+                }
+            }
+
+            rejected.forEach(this::fail);
+        }
+    }
+
+    private static final class PublisherQueue {
+
+        /**
+         * Accepted jobs that are being stored by the request thread
+         */
+        private final List<Job> storing = new ArrayList<>();
+
+        private final Deque<Job> pending = new ArrayDeque<>();
+
+        private Job running;
+
+        private int size() {
+            return this.storing.size() + this.pending.size() + (this.running == null ? 0 : 1);
+        }
+
+        private Job find(UUID draftKey) {
+            if (this.running != null && this.running.draftKey.equals(draftKey)) {
+                return this.running;
+            }
+            return Stream.concat(this.storing.stream(), this.pending.stream())
+                .filter(j -> j.draftKey.equals(draftKey))
+                .findFirst()
+                .orElse(null);
+        }
+
+    }
+
+    private static final class Job {
+
+        private final UUID                    key = UUID.randomUUID();
+        private final UUID                    draftKey;
+        private final UUID                    publisherKey;
+        private final AccountDto              account;
+        private final CatalogueItemCommandDto command;
+        private final SecurityContext         securityContext;
+        private final ZonedDateTime           createdAt = ZonedDateTime.now();
+        private final List<SseEmitter>        emitters  = new ArrayList<>();
+
+        private EnumDraftSubmissionStatus status    = EnumDraftSubmissionStatus.QUEUED;
+        private ZonedDateTime             updatedAt = this.createdAt;
+        private String                    result;
+        private boolean                   rejected;
+
+        private Job(AccountDto account, CatalogueItemCommandDto command, SecurityContext securityContext) {
+            this.draftKey        = command.getDraftKey();
+            this.publisherKey    = command.getPublisherKey();
+            this.account         = account;
+            this.command         = command;
+            this.securityContext = securityContext;
+        }
+
+        private synchronized DraftSubmissionJobDto toDto() {
+            return DraftSubmissionJobDto.of(this.key, this.draftKey, this.status, this.createdAt, this.updatedAt, this.result);
+        }
+
+        private synchronized void update(EnumDraftSubmissionStatus status, String result) {
+            this.status    = status;
+            this.result    = result;
+            this.updatedAt = ZonedDateTime.now();
+
+            final DraftSubmissionJobDto dto = this.toDto();
+
+            for (final SseEmitter emitter : new ArrayList<>(this.emitters)) {
+                this.send(emitter, dto);
+            }
+        }
+
+        private synchronized void addEmitter(SseEmitter emitter) {
+            this.emitters.add(emitter);
+            this.send(emitter, this.toDto());
+        }
+
+        private synchronized void removeEmitter(SseEmitter emitter) {
+            this.emitters.remove(emitter);
+        }
+
+        private void send(SseEmitter emitter, DraftSubmissionJobDto dto) {
+            try {
+                emitter.send(SseEmitter.event().name(EVENT_NAME).data(dto));
+
+                if (dto.getStatus().isTerminal()) {
+                    this.emitters.remove(emitter);
+                    emitter.complete();
+                }
+            } catch (final IOException | IllegalStateException ex) {
+                // Client has disconnected
+                this.emitters.remove(emitter);
+                emitter.completeWithError(ex);
+            }
+        }
+
+    }
+
+}
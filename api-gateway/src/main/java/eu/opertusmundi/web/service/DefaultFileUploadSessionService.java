@@ -0,0 +1,326 @@
+package eu.opertusmundi.web.service;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import eu.opertusmundi.common.model.BasicMessageCode;
+import eu.opertusmundi.common.model.ServiceException;
+import eu.opertusmundi.common.model.file.FileSystemMessageCode;
+import eu.opertusmundi.common.model.file.FileUploadCommand;
+import eu.opertusmundi.common.model.file.QuotaDto;
+import eu.opertusmundi.common.service.UserFileManager;
+import eu.opertusmundi.web.domain.FileUploadSessionEntity;
+import eu.opertusmundi.web.model.file.EnumFileUploadSessionStatus;
+import eu.opertusmundi.web.model.file.FileUploadSessionCommandDto;
+import eu.opertusmundi.web.model.file.FileUploadSessionDto;
+import eu.opertusmundi.web.repository.FileUploadSessionRepository;
+import eu.opertusmundi.web.utils.SizeLimitedInputStream;
+
+@Service
+public class DefaultFileUploadSessionService implements FileUploadSessionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefaultFileUploadSessionService.class);
+
+    private static final String UPLOAD_DIR = "uploads";
+
+    private static final String CHUNK_SUFFIX = ".part";
+
+    /**
+     * Expired session cleanup interval in milliseconds
+     */
+    private static final long CLEANUP_INTERVAL = 15 * 60 * 1000;
+
+    @Value("${opertusmundi.file-system.temp-dir}")
+    private String tempDir;
+
+    @Value("${opertusmundi.file-system.resumable-upload.default-chunk-size:8MB}")
+    private DataSize defaultChunkSize;
+
+    @Value("${opertusmundi.file-system.resumable-upload.min-chunk-size:1MB}")
+    private DataSize minChunkSize;
+
+    @Value("${opertusmundi.file-system.resumable-upload.max-chunk-size:64MB}")
+    private DataSize maxChunkSize;
+
+    @Value("${opertusmundi.file-system.resumable-upload.session-expiration-hours:24}")
+    private int sessionExpiration;
+
+    @Value("${opertusmundi.file-system.resumable-upload.max-sessions-per-user:5}")
+    private int maxSessionsPerUser;
+
+    private final UserFileManager             fileManager;
+    private final FileUploadSessionRepository sessionRepository;
+
+    @Autowired
+    public DefaultFileUploadSessionService(UserFileManager fileManager, FileUploadSessionRepository sessionRepository) {
+        this.fileManager       = fileManager;
+        this.sessionRepository = sessionRepository;
+    }
+
+    @Override
+    @Transactional
+    public FileUploadSessionDto create(FileUploadSessionCommandDto command) throws ServiceException {
+        final long chunkSize = command.getChunkSize() == null ? defaultChunkSize.toBytes() : command.getChunkSize();
+
+        if (chunkSize < minChunkSize.toBytes() || chunkSize > maxChunkSize.toBytes()) {
+            throw new ServiceException(BasicMessageCode.BadRequest, String.format(
+                "Chunk size must be between %d and %d bytes [chunkSize=%d]",
+                minChunkSize.toBytes(), maxChunkSize.toBytes(), chunkSize
+            ));
+        }
+
+        // Lock the account so that concurrent requests of the same user are
+        // checked against the same active sessions
+        this.sessionRepository.findAccountByKeyForUpdate(command.getUserKey());
+
+        final ZonedDateTime expiredBefore  = ZonedDateTime.now().minusHours(sessionExpiration);
+        final long          activeSessions = this.sessionRepository.countActive(command.getUserKey(), expiredBefore);
+
+        if (activeSessions >= maxSessionsPerUser) {
+            throw new ServiceException(BasicMessageCode.BadRequest, String.format(
+                "Too many active upload sessions [max=%d]", maxSessionsPerUser
+            ));
+        }
+
+        // The declared size of active sessions is reserved until the
+        // sessions are completed or deleted
+        final QuotaDto quota     = this.fileManager.getQuota(command.getUserName());
+        final long     reserved  = this.sessionRepository.sumActiveSize(command.getUserKey(), expiredBefore);
+        final long     available = quota.getTotal() - quota.getUsed() - reserved;
+
+        if (command.getSize() > available) {
+            throw new ServiceException(BasicMessageCode.BadRequest, String.format(
+                "File size exceeds the available space [size=%d, available=%d]", command.getSize(), Math.max(0, available)
+            ));
+        }
+
+        final FileUploadSessionDto session = this.sessionRepository.create(command, chunkSize);
+
+        try {
+            Files.createDirectories(this.getSessionDir(session.getKey()));
+        } catch (final IOException ex) {
+            this.sessionRepository.deleteByKey(session.getKey());
+
+            throw new ServiceException(BasicMessageCode.InternalServerError, "Failed to create upload session", ex);
+        }
+
+        return this.populateChunks(session);
+    }
+
+    @Override
+    public FileUploadSessionDto findOne(UUID userKey, UUID sessionKey) throws ServiceException {
+        final FileUploadSessionEntity session = this.findSession(userKey, sessionKey);
+
+        return this.populateChunks(session.toDto());
+    }
+
+    @Override
+    public FileUploadSessionDto uploadChunk(UUID userKey, UUID sessionKey, int index, InputStream input) throws ServiceException {
+        final FileUploadSessionEntity session = this.findSession(userKey, sessionKey);
+
+        if (session.getStatus() != EnumFileUploadSessionStatus.UPLOADING) {
+            throw new ServiceException(BasicMessageCode.BadRequest, "Upload session is already completed");
+        }
+        if (index < 0 || index >= session.getChunkCount()) {
+            throw new ServiceException(BasicMessageCode.BadRequest, String.format(
+                "Chunk index is out of range [index=%d, chunkCount=%d]", index, session.getChunkCount()
+            ));
+        }
+
+        final long expectedSize = Math.min(session.getChunkSize(), session.getSize() - index * session.getChunkSize());
+        final Path sessionDir   = this.getSessionDir(sessionKey);
+        final Path chunkPath    = sessionDir.resolve(Integer.toString(index) + CHUNK_SUFFIX);
+        final Path tempPath     = sessionDir.resolve(String.format("%d%s.%s", index, CHUNK_SUFFIX, UUID.randomUUID()));
+
+        try {
+            // Write to a temporary file first so that a partially received
+            // chunk is never reported as completed. Concurrent uploads of
+            // different chunks do not share any file
+            final long size;
+            try (final InputStream limitedInput = new SizeLimitedInputStream(input, expectedSize)) {
+                size = Files.copy(limitedInput, tempPath);
+            }
+            if (size != expectedSize) {
+                throw new ServiceException(BasicMessageCode.BadRequest, String.format(
+                    "Invalid chunk size [index=%d, expected=%d, found=%d]", index, expectedSize, size
+                ));
+            }
+            Files.move(tempPath, chunkPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException ex) {
+            throw new ServiceException(BasicMessageCode.InternalServerError, "Failed to store chunk", ex);
+        } finally {
+            FileUtils.deleteQuietly(tempPath.toFile());
+        }
+
+        this.sessionRepository.touch(sessionKey, ZonedDateTime.now());
+
+        return this.populateChunks(session.toDto());
+    }
+
+    @Override
+    public void complete(UUID userKey, String userName, UUID sessionKey) throws ServiceException {
+        final FileUploadSessionEntity session = this.findSession(userKey, sessionKey);
+        final FileUploadSessionDto    dto     = this.populateChunks(session.toDto());
+
+        if (dto.getChunks().size() != dto.getChunkCount()) {
+            throw new ServiceException(FileSystemMessageCode.FILE_IS_MISSING, String.format(
+                "Upload is not completed [received=%d, chunkCount=%d]", dto.getChunks().size(), dto.getChunkCount()
+            ));
+        }
+
+        // Acquire the session. Only one request may complete a session
+        final int updated = this.sessionRepository.setStatus(
+            sessionKey, EnumFileUploadSessionStatus.UPLOADING, EnumFileUploadSessionStatus.COMPLETING, ZonedDateTime.now()
+        );
+        if (updated == 0) {
+            throw new ServiceException(BasicMessageCode.BadRequest, "Upload session is already completed");
+        }
+
+        final FileUploadCommand command = new FileUploadCommand();
+        command.setComment(dto.getComment());
+        command.setFileName(dto.getFileName());
+        command.setOverwrite(dto.isOverwrite());
+        command.setPath(dto.getPath());
+        command.setSize(dto.getSize());
+        command.setUserName(userName);
+
+        // Stream chunks in order to the user file system. Chunk files are
+        // opened one at a time
+        try (final InputStream input = new SequenceInputStream(new ChunkEnumeration(this.getSessionDir(sessionKey), dto.getChunkCount()))) {
+            this.fileManager.uploadFile(input, command);
+        } catch (final Exception ex) {
+            // Release the session so that the client can retry
+            this.sessionRepository.setStatus(
+                sessionKey, EnumFileUploadSessionStatus.COMPLETING, EnumFileUploadSessionStatus.UPLOADING, ZonedDateTime.now()
+            );
+            if (ex instanceof ServiceException) {
+                throw (ServiceException) ex;
+            }
+            throw new ServiceException(BasicMessageCode.InternalServerError, "Failed to complete upload session", ex);
+        }
+
+        this.deleteSession(sessionKey);
+    }
+
+    @Override
+    public void delete(UUID userKey, UUID sessionKey) throws ServiceException {
+        this.findSession(userKey, sessionKey);
+
+        this.deleteSession(sessionKey);
+    }
+
+    @Scheduled(fixedRate = CLEANUP_INTERVAL, initialDelay = 60000L)
+    public void deleteExpiredSessions() {
+        final ZonedDateTime date = ZonedDateTime.now().minusHours(sessionExpiration);
+
+        for (final FileUploadSessionEntity session : this.sessionRepository.findAllUpdatedBefore(date)) {
+            try {
+                this.deleteSession(session.getKey());
+            } catch (final Exception ex) {
+                logger.error(String.format("Failed to delete expired upload session [key=%s]", session.getKey()), ex);
+            }
+        }
+    }
+
+    private FileUploadSessionEntity findSession(UUID userKey, UUID sessionKey) throws ServiceException {
+        return this.sessionRepository.findOneByKey(userKey, sessionKey).orElseThrow(() -> new ServiceException(
+            BasicMessageCode.RecordNotFound, String.format("Upload session was not found [key=%s]", sessionKey)
+        ));
+    }
+
+    private void deleteSession(UUID sessionKey) {
+        this.sessionRepository.deleteByKey(sessionKey);
+
+        FileUtils.deleteQuietly(this.getSessionDir(sessionKey).toFile());
+    }
+
+    private Path getSessionDir(UUID sessionKey) {
+        return Paths.get(tempDir, UPLOAD_DIR, sessionKey.toString());
+    }
+
+    private FileUploadSessionDto populateChunks(FileUploadSessionDto session) {
+        final List<Integer> chunks = new ArrayList<>();
+        long                offset = 0;
+
+        try (final Stream<Path> files = Files.list(this.getSessionDir(session.getKey()))) {
+            for (final Path p : (Iterable<Path>) files::iterator) {
+                final String name = p.getFileName().toString();
+                if (!name.endsWith(CHUNK_SUFFIX)) {
+                    continue;
+                }
+                chunks.add(Integer.parseInt(name.substring(0, name.length() - CHUNK_SUFFIX.length())));
+                offset += Files.size(p);
+            }
+        } catch (final IOException ex) {
+            logger.warn(String.format("Failed to list upload session chunks [key=%s]", session.getKey()), ex);
+        }
+        chunks.sort(Integer::compareTo);
+
+        session.setChunks(chunks);
+        session.setOffset(offset);
+        session.setExpiresAt(session.getUpdatedAt().plusHours(sessionExpiration));
+
+        return session;
+    }
+
+    /**
+     * Lazily opens chunk files in index order
+     */
+    private static class ChunkEnumeration implements Enumeration<InputStream> {
+
+        private final Path dir;
+        private final int  count;
+
+        private int index = 0;
+
+        public ChunkEnumeration(Path dir, int count) {
+            this.dir   = dir;
+            this.count = count;
+        }
+
+        @Override
+        public boolean hasMoreElements() {
+            return this.index < this.count;
+        }
+
+        @Override
+        public InputStream nextElement() {
+            if (!this.hasMoreElements()) {
+                throw new NoSuchElementException();
+            }
+            final Path chunkPath = this.dir.resolve(Integer.toString(this.index++) + CHUNK_SUFFIX);
+            try {
+                return new FileInputStream(chunkPath.toFile());
+            } catch (final FileNotFoundException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,217 @@
+package eu.opertusmundi.web.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import eu.opertusmundi.common.feign.client.JupyterHubFeignClient;
+import eu.opertusmundi.common.model.jupyter.client.JupyterUserStatusDto;
+import eu.opertusmundi.common.model.jupyter.server.ServerDto;
+import eu.opertusmundi.common.model.jupyter.server.UserDto;
+import eu.opertusmundi.web.config.JupyterHubConfiguration;
+import eu.opertusmundi.web.utils.UrlUtils;
+import feign.FeignException;
+
+@Service
+public class DefaultJupyterUserService implements JupyterUserService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefaultJupyterUserService.class);
+
+    public static final String CACHE_NAME = "jupyter-user";
+
+    /**
+     * Interval in milliseconds for checking the status of spawning servers
+     */
+    private static final long POLL_INTERVAL = 2 * 1000L;
+
+    private static final String EVENT_NAME = "status";
+
+    @Value("${opertusmundi.jupyterhub.status-stream.timeout-seconds:300}")
+    private long timeoutSeconds;
+
+    private final JupyterHubConfiguration               jupyterConfiguration;
+    private final ObjectProvider<JupyterHubFeignClient> jupyterClient;
+    private final ThreadPoolTaskExecutor                executor;
+    private final Cache<String, UserDto>                cache;
+
+    /**
+     * Users with at least one status subscriber
+     */
+    private final Map<String, Watcher> watchers = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    @Autowired
+    public DefaultJupyterUserService(
+        JupyterHubConfiguration jupyterConfiguration,
+        ObjectProvider<JupyterHubFeignClient> jupyterClient,
+        @Qualifier("jupyterTaskExecutor") ThreadPoolTaskExecutor executor,
+        CacheManager defaultCacheManager
+    ) {
+        final CaffeineCache cache = (CaffeineCache) defaultCacheManager.getCache(CACHE_NAME);
+        Assert.notNull(cache, String.format("Cache was not found [name=%s]", CACHE_NAME));
+
+        this.jupyterConfiguration = jupyterConfiguration;
+        this.jupyterClient        = jupyterClient;
+        this.executor             = executor;
+        this.cache                = (Cache<String, UserDto>) (Cache<?, ?>) cache.getNativeCache();
+    }
+
+    @Override
+    public UserDto getUser(String userName) throws FeignException {
+        return this.cache.get(userName, k -> this.jupyterClient.getObject().getUser(k).getBody());
+    }
+
+    @Override
+    public void invalidate(String userName) {
+        this.cache.invalidate(userName);
+    }
+
+    @Override
+    public JupyterUserStatusDto createStatus(UserDto user, ServerDto server) {
+        final var baseUrl    = this.jupyterConfiguration.getUrl().toString();
+        final var serverPath = server.getUrlPath();
+        final var serverUrl  = UrlUtils.join(baseUrl, serverPath);
+
+        final JupyterUserStatusDto result = JupyterUserStatusDto.builder()
+            .ready(server.isReady())
+            .path(serverUrl)
+            .profile(user.getServerForDefaultName().map(ServerDto::getProfileName).get())
+            .build();
+
+        return result;
+    }
+
+    @Override
+    public SseEmitter subscribe(String userName) {
+        final SseEmitter emitter = new SseEmitter(this.timeoutSeconds * 1000);
+
+        emitter.onCompletion(() -> this.remove(userName, emitter));
+        emitter.onTimeout(() -> this.remove(userName, emitter));
+        emitter.onError(ex -> this.remove(userName, emitter));
+
+        final boolean[] created = new boolean[1];
+        final Watcher   watcher = this.watchers.compute(userName, (key, current) -> {
+            final Watcher result = current == null ? new Watcher(key) : current;
+
+            created[0] = current == null;
+            result.emitters.add(emitter);
+
+            return result;
+        });
+
+        // Check the status immediately instead of waiting for the next poll,
+        // since the server may already be running
+        if (created[0]) {
+            this.dispatch(watcher);
+        }
+
+        return emitter;
+    }
+
+    @Scheduled(fixedRate = POLL_INTERVAL, initialDelay = POLL_INTERVAL)
+    public void poll() {
+        for (final Watcher watcher : this.watchers.values()) {
+            this.dispatch(watcher);
+        }
+    }
+
+    /**
+     * Check the status of a user server on the JupyterHub task executor. A
+     * check is skipped if the previous one is still running
+     */
+    private void dispatch(Watcher watcher) {
+        if (!watcher.running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            this.executor.execute(() -> {
+                try {
+                    this.check(watcher);
+                } finally {
+                    watcher.running.set(false);
+                }
+            });
+        } catch (final RejectedExecutionException ex) {
+            // The check is repeated on the next poll
+            watcher.running.set(false);
+        }
+    }
+
+    private void check(Watcher watcher) {
+        try {
+            // The poller always reads the current state. The response also
+            // refreshes the cache used by status requests
+            this.cache.invalidate(watcher.userName);
+
+            final UserDto   user   = this.getUser(watcher.userName);
+            final ServerDto server = user.getServerForDefaultName().orElse(null);
+
+            if (server == null) {
+                this.complete(watcher, JupyterUserStatusDto.empty());
+            } else if (server.isReady()) {
+                this.complete(watcher, this.createStatus(user, server));
+            }
+        } catch (final Exception ex) {
+            // The check is repeated on the next poll
+            logger.warn(String.format("Failed to query notebook server status [userName=%s]", watcher.userName), ex);
+        }
+    }
+
+    /**
+     * Send the final status to all subscribers and close the streams
+     */
+    private void complete(Watcher watcher, JupyterUserStatusDto status) {
+        this.watchers.remove(watcher.userName, watcher);
+
+        for (final SseEmitter emitter : watcher.emitters) {
+            try {
+                emitter.send(SseEmitter.event().name(EVENT_NAME).data(status));
+                emitter.complete();
+            } catch (final IOException | IllegalStateException ex) {
+                // Client has disconnected
+                emitter.completeWithError(ex);
+            }
+        }
+    }
+
+    private void remove(String userName, SseEmitter emitter) {
+        this.watchers.computeIfPresent(userName, (key, current) -> {
+            current.emitters.remove(emitter);
+
+            return current.emitters.isEmpty() ? null : current;
+        });
+    }
+
+    private static final class Watcher {
+
+        private final String           userName;
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean    running  = new AtomicBoolean();
+
+        private Watcher(String userName) {
+            this.userName = userName;
+        }
+
+    }
+
+}
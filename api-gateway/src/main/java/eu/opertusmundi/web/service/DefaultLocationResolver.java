@@ -0,0 +1,51 @@
+package eu.opertusmundi.web.service;
+
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import eu.opertusmundi.common.model.location.Location;
+import eu.opertusmundi.common.service.LocationService;
+
+@Service
+public class DefaultLocationResolver implements LocationResolver {
+
+    public static final String CACHE_NAME = "ip-location";
+
+    private final Optional<LocationService> locationService;
+
+    private final Cache<Object, Object> cache;
+
+    @SuppressWarnings("unchecked")
+    @Autowired
+    public DefaultLocationResolver(Optional<LocationService> locationService, CacheManager defaultCacheManager) {
+        final CaffeineCache cache = (CaffeineCache) defaultCacheManager.getCache(CACHE_NAME);
+        Assert.notNull(cache, String.format("Cache was not found [name=%s]", CACHE_NAME));
+
+        this.locationService = locationService;
+        this.cache           = (Cache<Object, Object>) cache.getNativeCache();
+    }
+
+    @Override
+    public Location resolve(String ip, String defaultCountry) {
+        if (this.locationService.isEmpty() || StringUtils.isBlank(ip)) {
+            return Location.empty(ip, defaultCountry);
+        }
+
+        // Unknown addresses are also cached to avoid repeated lookups
+        @SuppressWarnings("unchecked")
+        final Optional<Location> location = (Optional<Location>) this.cache.get(
+            ip, k -> Optional.ofNullable(this.locationService.get().getLocation(ip))
+        );
+
+        return location.orElseGet(() -> Location.empty(ip, defaultCountry));
+    }
+
+}
@@ -0,0 +1,108 @@
+package eu.opertusmundi.web.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import eu.opertusmundi.common.model.message.client.ClientContactDto;
+import eu.opertusmundi.common.model.message.client.ClientMessageDto;
+import eu.opertusmundi.common.service.messaging.MessageService;
+
+@Service
+public class DefaultMessageContactService implements MessageContactService {
+
+    public static final String CACHE_NAME = "message-contact";
+
+    @Value("${opertusmundi.cache.message-contact.enabled:true}")
+    private boolean enabled;
+
+    private final MessageService messageService;
+
+    private final Cache<UUID, ClientContactDto> cache;
+
+    @SuppressWarnings("unchecked")
+    @Autowired
+    public DefaultMessageContactService(MessageService messageService, CacheManager defaultCacheManager) {
+        final CaffeineCache cache = (CaffeineCache) defaultCacheManager.getCache(CACHE_NAME);
+        Assert.notNull(cache, String.format("Cache was not found [name=%s]", CACHE_NAME));
+
+        this.messageService = messageService;
+        this.cache          = (Cache<UUID, ClientContactDto>) (Cache<?, ?>) cache.getNativeCache();
+    }
+
+    @Override
+    public List<ClientContactDto> findContacts(List<ClientMessageDto> messages) {
+        if (messages.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (!this.enabled) {
+            return this.messageService.findContacts(messages);
+        }
+
+        final Set<UUID>                   keys   = this.getContactKeys(messages);
+        final Map<UUID, ClientContactDto> cached = this.cache.getAllPresent(keys);
+
+        if (cached.size() == keys.size()) {
+            return new ArrayList<>(cached.values());
+        }
+
+        // Resolve all missing contacts with a single request. Only the
+        // messages that refer to a missing contact are required
+        final List<ClientMessageDto> pending = messages.stream()
+            .filter(m -> isMissing(m.getSenderId(), cached) || isMissing(m.getRecipientId(), cached))
+            .collect(Collectors.toList());
+
+        final List<ClientContactDto> resolved = this.messageService.findContacts(pending);
+        final List<ClientContactDto> result   = new ArrayList<>(cached.values());
+
+        for (final ClientContactDto contact : resolved) {
+            if (!cached.containsKey(contact.getId())) {
+                this.cache.put(contact.getId(), contact);
+                result.add(contact);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public void invalidate(UUID accountKey) {
+        if (accountKey != null) {
+            this.cache.invalidate(accountKey);
+        }
+    }
+
+    private Set<UUID> getContactKeys(List<ClientMessageDto> messages) {
+        final Set<UUID> keys = new LinkedHashSet<>();
+
+        for (final ClientMessageDto m : messages) {
+            if (m.getSenderId() != null) {
+                keys.add(m.getSenderId());
+            }
+            if (m.getRecipientId() != null) {
+                keys.add(m.getRecipientId());
+            }
+        }
+
+        return keys;
+    }
+
+    private static boolean isMissing(UUID key, Map<UUID, ClientContactDto> cached) {
+        return key != null && !cached.containsKey(key);
+    }
+
+}
@@ -0,0 +1,383 @@
+package eu.opertusmundi.web.service;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import eu.opertusmundi.common.model.EnumSortingOrder;
+import eu.opertusmundi.common.model.PageResultDto;
+import eu.opertusmundi.common.model.message.EnumMessageView;
+import eu.opertusmundi.common.model.message.EnumNotificationSortField;
+import eu.opertusmundi.common.model.message.client.ClientContactDto;
+import eu.opertusmundi.common.model.message.client.ClientMessageCollectionResponse;
+import eu.opertusmundi.common.model.message.client.ClientMessageDto;
+import eu.opertusmundi.common.model.message.client.ClientNotificationDto;
+import eu.opertusmundi.common.service.messaging.MessageService;
+import eu.opertusmundi.web.model.message.MessageStreamCountersDto;
+
+@Service
+public class DefaultMessageStreamService implements MessageStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefaultMessageStreamService.class);
+
+    /**
+     * Interval in milliseconds for selecting the subscribers whose fallback
+     * check is due. The scheduler thread only submits checks to the message
+     * stream executor and never calls the messaging service
+     */
+    private static final long POLL_INTERVAL = 15 * 1000L;
+
+    /**
+     * Interval in milliseconds for sending heartbeat comments. Heartbeats keep
+     * idle connections open through proxies and detect closed connections
+     */
+    private static final long HEARTBEAT_INTERVAL = 20 * 1000L;
+
+    /**
+     * Max number of new items per user and poll. If more items may exist, a
+     * refresh event is sent instead
+     */
+    private static final int PAGE_SIZE = 50;
+
+    private static final String EVENT_COUNTERS      = "counters";
+    private static final String EVENT_MESSAGES      = "messages";
+    private static final String EVENT_NOTIFICATIONS = "notifications";
+    private static final String EVENT_REFRESH       = "refresh";
+
+    @Value("${opertusmundi.message-stream.max-connections:1000}")
+    private int maxConnections;
+
+    @Value("${opertusmundi.message-stream.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${opertusmundi.message-stream.timeout-seconds:1800}")
+    private long timeoutSeconds;
+
+    /**
+     * Interval in seconds between two fallback checks of the same subscriber.
+     * Fallback checks detect items created by other nodes or services
+     */
+    @Value("${opertusmundi.message-stream.poll-interval-seconds:60}")
+    private long pollIntervalSeconds;
+
+    /**
+     * Max interval in seconds between two fallback checks of the same
+     * subscriber. The interval of a subscriber is doubled whenever no changes
+     * are found, up to this value, and is reset when changes are found or the
+     * user is active
+     */
+    @Value("${opertusmundi.message-stream.max-poll-interval-seconds:300}")
+    private long maxPollIntervalSeconds;
+
+    private final MessageService        messageService;
+    private final MessageContactService messageContactService;
+    private final TaskExecutor          taskExecutor;
+
+    private final Map<UUID, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    @Autowired
+    public DefaultMessageStreamService(
+        MessageService messageService,
+        MessageContactService messageContactService,
+        @Qualifier("messageStreamTaskExecutor") TaskExecutor taskExecutor
+    ) {
+        this.messageService        = messageService;
+        this.messageContactService = messageContactService;
+        this.taskExecutor          = taskExecutor;
+    }
+
+    @Override
+    public SseEmitter subscribe(UUID userKey) throws RejectedExecutionException {
+        if (this.connections.incrementAndGet() > this.maxConnections) {
+            this.connections.decrementAndGet();
+
+            throw new RejectedExecutionException("Max number of message stream connections has been reached");
+        }
+
+        final SseEmitter emitter = new SseEmitter(this.timeoutSeconds * 1000);
+
+        emitter.onCompletion(() -> this.remove(userKey, emitter));
+        emitter.onTimeout(() -> this.remove(userKey, emitter));
+        emitter.onError(ex -> this.remove(userKey, emitter));
+
+        final SseEmitter[] evicted    = new SseEmitter[1];
+        final Subscriber   subscriber = this.subscribers.compute(userKey, (key, current) -> {
+            final Subscriber result = current == null ? new Subscriber(key) : current;
+
+            result.emitters.add(emitter);
+            if (result.emitters.size() > this.maxConnectionsPerUser) {
+                evicted[0] = result.emitters.get(0);
+            }
+            return result;
+        });
+
+        // Completing an emitter invokes the completion callback that updates
+        // the registry; hence, the oldest connection is closed after the
+        // registry has been updated
+        if (evicted[0] != null) {
+            evicted[0].complete();
+            this.remove(userKey, evicted[0]);
+        }
+
+        this.resetPollInterval(subscriber);
+
+        try {
+            this.sendCounters(subscriber, emitter);
+        } catch (final Exception ex) {
+            // Counters are sent again when they change
+            logger.warn(String.format("Failed to send message counters [userKey=%s]", userKey), ex);
+        }
+
+        return emitter;
+    }
+
+    @Override
+    public void refreshCounters(UUID userKey) {
+        this.checkNow(userKey);
+    }
+
+    @Override
+    public void notifyNewMessage(UUID recipientKey) {
+        this.checkNow(recipientKey);
+    }
+
+    /**
+     * Submit a fallback check for every subscriber whose poll interval has
+     * elapsed, or whose previous check could not be submitted
+     */
+    @Scheduled(fixedRate = POLL_INTERVAL, initialDelay = POLL_INTERVAL)
+    public void poll() {
+        final long now = System.currentTimeMillis();
+
+        for (final Subscriber subscriber : this.subscribers.values()) {
+            if (subscriber.nextPollAt <= now || subscriber.pending.get()) {
+                this.submit(subscriber);
+            }
+        }
+    }
+
+    @Scheduled(fixedRate = HEARTBEAT_INTERVAL, initialDelay = HEARTBEAT_INTERVAL)
+    public void heartbeat() {
+        for (final Subscriber subscriber : this.subscribers.values()) {
+            this.send(subscriber, null, () -> SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    /**
+     * Check a connected user for changes after an action handled by this node
+     */
+    private void checkNow(UUID userKey) {
+        final Subscriber subscriber = this.subscribers.get(userKey);
+
+        if (subscriber != null) {
+            this.resetPollInterval(subscriber);
+            this.submit(subscriber);
+        }
+    }
+
+    /**
+     * Submit a check of the subscriber to the message stream executor. At most
+     * one check per subscriber is queued or running; a request that arrives
+     * while a check is running is served by a single additional check
+     */
+    private void submit(Subscriber subscriber) {
+        subscriber.pending.set(true);
+
+        if (!subscriber.running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            this.taskExecutor.execute(() -> this.run(subscriber));
+        } catch (final RejectedExecutionException ex) {
+            // The subscriber remains pending and is submitted again by the
+            // next scheduled poll
+            subscriber.running.set(false);
+
+            logger.warn("Message stream executor is saturated [userKey={}]", subscriber.userKey);
+        }
+    }
+
+    private void run(Subscriber subscriber) {
+        try {
+            while (subscriber.pending.getAndSet(false)) {
+                try {
+                    this.poll(subscriber);
+                } catch (final Exception ex) {
+                    logger.warn(String.format("Failed to check for new messages [userKey=%s]", subscriber.userKey), ex);
+                }
+            }
+        } finally {
+            subscriber.running.set(false);
+        }
+        // A request may have arrived after the last check and before the
+        // running flag was cleared
+        if (subscriber.pending.get()) {
+            this.submit(subscriber);
+        }
+    }
+
+    private void resetPollInterval(Subscriber subscriber) {
+        subscriber.pollInterval = this.pollIntervalSeconds * 1000;
+        subscriber.nextPollAt   = System.currentTimeMillis() + subscriber.pollInterval;
+    }
+
+    private void increasePollInterval(Subscriber subscriber) {
+        subscriber.pollInterval = Math.min(subscriber.pollInterval * 2, this.maxPollIntervalSeconds * 1000);
+        subscriber.nextPollAt   = System.currentTimeMillis() + subscriber.pollInterval;
+    }
+
+    /**
+     * Check a subscriber for changes. The messaging service is queried for
+     * unread notifications and unread messages, newest first; each response
+     * provides both the new items and the unread counter. Hence, every check
+     * requires two requests, regardless of the number of connections of the
+     * user
+     */
+    private void poll(Subscriber subscriber) {
+        final ZonedDateTime now   = ZonedDateTime.now();
+        final ZonedDateTime since = subscriber.lastCheckedAt;
+
+        final PageResultDto<ClientNotificationDto> notifications = this.findUnreadNotifications(subscriber.userKey, PAGE_SIZE);
+        final PageResultDto<ClientMessageDto>      messages      = this.findUnreadMessages(subscriber.userKey, PAGE_SIZE);
+
+        subscriber.lastCheckedAt = now;
+
+        final List<ClientNotificationDto> newNotifications = notifications.getItems().stream()
+            .filter(n -> n.getCreatedAt() != null && n.getCreatedAt().isAfter(since))
+            .toList();
+        final List<ClientMessageDto> newMessages = messages.getItems().stream()
+            .filter(m -> m.getCreatedAt() != null && m.getCreatedAt().isAfter(since))
+            .toList();
+
+        if (isTruncated(notifications, newNotifications)) {
+            this.send(subscriber, null, () -> SseEmitter.event().name(EVENT_REFRESH).data(EVENT_NOTIFICATIONS));
+        } else if (!newNotifications.isEmpty()) {
+            this.send(subscriber, null, () -> SseEmitter.event().name(EVENT_NOTIFICATIONS).data(newNotifications));
+        }
+
+        if (isTruncated(messages, newMessages)) {
+            this.send(subscriber, null, () -> SseEmitter.event().name(EVENT_REFRESH).data(EVENT_MESSAGES));
+        } else if (!newMessages.isEmpty()) {
+            final List<ClientContactDto>          contacts = this.messageContactService.findContacts(newMessages);
+            final ClientMessageCollectionResponse result   = new ClientMessageCollectionResponse(
+                PageResultDto.of(0, PAGE_SIZE, newMessages, (long) newMessages.size()), contacts
+            );
+
+            this.send(subscriber, null, () -> SseEmitter.event().name(EVENT_MESSAGES).data(result));
+        }
+
+        final MessageStreamCountersDto counters = MessageStreamCountersDto.of(notifications.getCount(), messages.getCount());
+        final boolean                  changed  = !counters.equals(subscriber.counters);
+
+        if (changed) {
+            subscriber.counters = counters;
+            this.send(subscriber, null, () -> SseEmitter.event().name(EVENT_COUNTERS).data(counters));
+        }
+
+        // Back off while the user has no activity
+        if (changed || !newNotifications.isEmpty() || !newMessages.isEmpty()) {
+            this.resetPollInterval(subscriber);
+        } else {
+            this.increasePollInterval(subscriber);
+        }
+    }
+
+    /**
+     * Send unread counters to a single connection or, if {@code emitter} is
+     * {@code null}, to all connections of the subscriber
+     */
+    private void sendCounters(Subscriber subscriber, SseEmitter emitter) {
+        final long unreadNotifications = this.findUnreadNotifications(subscriber.userKey, 1).getCount();
+        final long unreadMessages      = this.findUnreadMessages(subscriber.userKey, 1).getCount();
+
+        final MessageStreamCountersDto counters = MessageStreamCountersDto.of(unreadNotifications, unreadMessages);
+
+        subscriber.counters = counters;
+
+        this.send(subscriber, emitter, () -> SseEmitter.event().name(EVENT_COUNTERS).data(counters));
+    }
+
+    private PageResultDto<ClientNotificationDto> findUnreadNotifications(UUID userKey, int pageSize) {
+        return this.messageService.findNotifications(
+            userKey, 0, pageSize, null, null, false, EnumNotificationSortField.SEND_AT, EnumSortingOrder.DESC
+        );
+    }
+
+    private PageResultDto<ClientMessageDto> findUnreadMessages(UUID userKey, int pageSize) {
+        return this.messageService.findMessages(userKey, 0, pageSize, null, null, EnumMessageView.UNREAD, null);
+    }
+
+    /**
+     * Returns {@code true} if all items of the page are new and more unread
+     * items exist; hence, new items may be missing from the page
+     */
+    private static boolean isTruncated(PageResultDto<?> page, List<?> newItems) {
+        return !newItems.isEmpty() && newItems.size() == page.getItems().size() && page.getCount() > newItems.size();
+    }
+
+    /**
+     * Send an event. Event builders cannot be reused; hence, a new builder is
+     * created for every connection
+     */
+    private void send(Subscriber subscriber, SseEmitter emitter, Supplier<SseEventBuilder> event) {
+        final List<SseEmitter> targets = emitter == null ? subscriber.emitters : List.of(emitter);
+
+        for (final SseEmitter target : targets) {
+            try {
+                target.send(event.get());
+            } catch (final IOException | IllegalStateException ex) {
+                // Client has disconnected or the connection is completed
+                target.completeWithError(ex);
+                this.remove(subscriber.userKey, target);
+            }
+        }
+    }
+
+    private void remove(UUID userKey, SseEmitter emitter) {
+        this.subscribers.computeIfPresent(userKey, (key, current) -> {
+            if (current.emitters.remove(emitter)) {
+                this.connections.decrementAndGet();
+            }
+            return current.emitters.isEmpty() ? null : current;
+        });
+    }
+
+    private static final class Subscriber {
+
+        private final UUID                        userKey;
+        private final List<SseEmitter>            emitters      = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean               pending       = new AtomicBoolean();
+        private final AtomicBoolean               running       = new AtomicBoolean();
+        private volatile ZonedDateTime            lastCheckedAt = ZonedDateTime.now();
+        private volatile MessageStreamCountersDto counters;
+        private volatile long                     pollInterval;
+        private volatile long                     nextPollAt;
+
+        private Subscriber(UUID userKey) {
+            this.userKey = userKey;
+        }
+
+    }
+
+}
@@ -0,0 +1,144 @@
+package eu.opertusmundi.web.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import eu.opertusmundi.common.domain.NutsRegionEntity;
+import eu.opertusmundi.common.repository.NutsRegionRepository;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+@Service
+public class DefaultNutsGeometryPyramidService implements NutsGeometryPyramidService {
+
+    public static final String CACHE_NAME = "nuts-geometry-pyramid";
+
+    /**
+     * Tile size in pixels used for computing the pixel size at a zoom level
+     */
+    private static final int TILE_SIZE = 256;
+
+    private final NutsRegionRepository nutsRegionRepository;
+
+    private final Cache<Object, Object> cache;
+
+    /**
+     * Simplification tolerances in degrees sorted in descending order
+     */
+    private final double[] tolerances;
+
+    @SuppressWarnings("unchecked")
+    @Autowired
+    public DefaultNutsGeometryPyramidService(
+        NutsRegionRepository nutsRegionRepository,
+        CacheManager defaultCacheManager,
+        @Value("${opertusmundi.spatial.nuts.pyramid.tolerances:0.1,0.02,0.005,0.001}") double[] tolerances
+    ) {
+        final CaffeineCache cache = (CaffeineCache) defaultCacheManager.getCache(CACHE_NAME);
+        Assert.notNull(cache, String.format("Cache was not found [name=%s]", CACHE_NAME));
+
+        this.nutsRegionRepository = nutsRegionRepository;
+        this.cache                = (Cache<Object, Object>) cache.getNativeCache();
+        this.tolerances           = Arrays.stream(tolerances)
+            .filter(t -> t > 0)
+            .boxed()
+            .sorted(Comparator.reverseOrder())
+            .mapToDouble(Double::doubleValue)
+            .toArray();
+    }
+
+    @Override
+    public Double getTolerance(int zoom) {
+        final double pixelSize = 360.0 / (TILE_SIZE * Math.pow(2, Math.max(zoom, 0)));
+
+        for (final double tolerance : this.tolerances) {
+            if (tolerance <= pixelSize) {
+                return tolerance;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Geometry getGeometry(NutsRegionEntity region, int zoom) {
+        final Double   tolerance = this.getTolerance(zoom);
+        final Geometry geometry  = region.getGeometry();
+
+        if (tolerance == null || geometry == null) {
+            return geometry;
+        }
+
+        final PyramidKey key = new PyramidKey(region.getCode(), tolerance);
+
+        return (Geometry) this.cache.get(key, k -> TopologyPreservingSimplifier.simplify(geometry, tolerance));
+    }
+
+    @Override
+    public Map<String, Geometry> getGeometries(Collection<String> codes, int zoom) {
+        final Double tolerance = this.getTolerance(zoom);
+        Assert.notNull(tolerance, String.format("No pyramid level exists [zoom=%d]", zoom));
+
+        final List<PyramidKey> keys = codes.stream()
+            .distinct()
+            .map(c -> new PyramidKey(c, tolerance))
+            .collect(Collectors.toList());
+
+        final Map<String, Geometry> result = new HashMap<>();
+
+        this.cache.getAll(keys, missing -> this.load(missing, tolerance))
+            .forEach((k, v) -> result.put(((PyramidKey) k).code, (Geometry) v));
+
+        return result;
+    }
+
+    @Override
+    public void evictAll() {
+        this.cache.invalidateAll();
+    }
+
+    private Map<Object, Object> load(Iterable<? extends Object> keys, double tolerance) {
+        final String[] codes = StreamSupport.stream(keys.spliterator(), false)
+            .map(k -> ((PyramidKey) k).code)
+            .toArray(String[]::new);
+
+        final Map<Object, Object> result = new HashMap<>();
+
+        for (final NutsRegionEntity region : this.nutsRegionRepository.findByCode(codes)) {
+            if (region.getGeometry() != null) {
+                result.put(
+                    new PyramidKey(region.getCode(), tolerance),
+                    TopologyPreservingSimplifier.simplify(region.getGeometry(), tolerance)
+                );
+            }
+        }
+
+        return result;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class PyramidKey {
+
+        private final String code;
+        private final double tolerance;
+
+    }
+
+}
@@ -0,0 +1,213 @@
+package eu.opertusmundi.web.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import eu.opertusmundi.common.domain.NutsRegionEntity;
+import eu.opertusmundi.common.repository.NutsRegionRepository;
+
+@Service
+public class DefaultNutsRegionIndexService implements NutsRegionIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefaultNutsRegionIndexService.class);
+
+    /**
+     * Size of the n-grams used for indexing region names
+     */
+    private static final int NGRAM_SIZE = 3;
+
+    private static final Comparator<NutsRegionEntity> CODE_COMPARATOR = Comparator.comparing(NutsRegionEntity::getCode);
+
+    @Value("${opertusmundi.spatial.nuts.index.enabled:false}")
+    private boolean enabled;
+
+    private final NutsRegionRepository nutsRegionRepository;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+
+    /**
+     * The current index. The index is immutable and is replaced atomically
+     * on refresh
+     */
+    private volatile Index index;
+
+    @Autowired
+    public DefaultNutsRegionIndexService(NutsRegionRepository nutsRegionRepository) {
+        this.nutsRegionRepository = nutsRegionRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!this.enabled) {
+            return;
+        }
+        try {
+            this.refresh();
+        } catch (final Exception ex) {
+            logger.error("Failed to create NUTS region index. Queries will be forwarded to the database", ex);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return this.enabled && this.index != null;
+    }
+
+    @Override
+    public synchronized int refresh() {
+        final long                   startedAt = System.currentTimeMillis();
+        final List<NutsRegionEntity> regions   = this.nutsRegionRepository.findAll();
+
+        this.index = new Index(regions);
+
+        logger.info("NUTS region index created [regions={}, elapsed={}ms]", regions.size(), System.currentTimeMillis() - startedAt);
+
+        return regions.size();
+    }
+
+    @Override
+    public List<NutsRegionEntity> findAllByCode(String[] codes) {
+        final Index current = this.index;
+
+        return Arrays.stream(codes)
+            .distinct()
+            .map(current.byCode::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<NutsRegionEntity> findOneByCode(String code) {
+        return Optional.ofNullable(this.index.byCode.get(code));
+    }
+
+    @Override
+    public List<NutsRegionEntity> findAllByPrefix(String prefix, Long maxLevel) {
+        // Codes are kept sorted; hence, all codes that start with the prefix
+        // form a contiguous range
+        return this.index.byCode.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values().stream()
+            .filter(r -> maxLevel == null || r.getLevel() <= maxLevel)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<NutsRegionEntity> findAllByName(String query, Long level) {
+        final Index  current    = this.index;
+        final String normalized = normalize(query);
+
+        // Candidates must contain all the n-grams of the query. Queries that
+        // are shorter than an n-gram are resolved using a full scan
+        List<NutsRegionEntity> candidates = null;
+        for (final String gram : ngrams(normalized)) {
+            final List<NutsRegionEntity> postings = current.byNameGram.getOrDefault(gram, Collections.emptyList());
+            if (candidates == null || postings.size() < candidates.size()) {
+                candidates = postings;
+            }
+        }
+        if (candidates == null) {
+            candidates = new ArrayList<>(current.byCode.values());
+        }
+
+        return candidates.stream()
+            .filter(r -> level == null || Objects.equals(r.getLevel(), level))
+            .filter(r -> normalize(r.getName()).contains(normalized) || normalize(r.getNameLatin()).contains(normalized))
+            .sorted(CODE_COMPARATOR)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<NutsRegionEntity> findAllByBbox(long level, Envelope bbox) {
+        final STRtree tree = this.index.byLevel.get(level);
+        if (tree == null) {
+            return Collections.emptyList();
+        }
+
+        // The tree returns all regions whose envelope intersects the bounding
+        // box. Candidates are filtered using the actual geometries
+        final PreparedGeometry filter = PreparedGeometryFactory.prepare(this.geometryFactory.toGeometry(bbox));
+
+        @SuppressWarnings("unchecked")
+        final List<NutsRegionEntity> candidates = tree.query(bbox);
+
+        return candidates.stream()
+            .filter(r -> filter.intersects(r.getGeometry()))
+            .sorted(CODE_COMPARATOR)
+            .collect(Collectors.toList());
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : StringUtils.stripAccents(value).toLowerCase();
+    }
+
+    private static Set<String> ngrams(String value) {
+        final Set<String> result = new HashSet<>();
+        for (int i = 0; i + NGRAM_SIZE <= value.length(); i++) {
+            result.add(value.substring(i, i + NGRAM_SIZE));
+        }
+        return result;
+    }
+
+    private static final class Index {
+
+        private final NavigableMap<String, NutsRegionEntity> byCode = new TreeMap<>();
+
+        private final Map<Long, STRtree> byLevel = new HashMap<>();
+
+        private final Map<String, List<NutsRegionEntity>> byNameGram = new HashMap<>();
+
+        private Index(List<NutsRegionEntity> regions) {
+            for (final NutsRegionEntity r : regions) {
+                this.byCode.put(r.getCode(), r);
+
+                final Geometry geometry = r.getGeometry();
+                if (geometry != null && r.getLevel() != null) {
+                    this.byLevel.computeIfAbsent(r.getLevel(), k -> new STRtree()).insert(geometry.getEnvelopeInternal(), r);
+                }
+
+                final Set<String> grams = ngrams(normalize(r.getName()));
+                grams.addAll(ngrams(normalize(r.getNameLatin())));
+                for (final String gram : grams) {
+                    this.byNameGram.computeIfAbsent(gram, k -> new ArrayList<>()).add(r);
+                }
+            }
+
+            // Build trees eagerly. STRtree is thread-safe for queries only
+            // after it has been built
+            this.byLevel.values().forEach(STRtree::build);
+        }
+
+    }
+
+}
@@ -0,0 +1,144 @@
+package eu.opertusmundi.web.service;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import eu.opertusmundi.common.model.BasicMessageCode;
+import eu.opertusmundi.common.model.ServiceException;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+@Service
+public class DefaultNutsVectorTileService implements NutsVectorTileService {
+
+    public static final String CACHE_NAME = "nuts-tiles";
+
+    private static final int MAX_NUTS_LEVEL = 3;
+
+    /**
+     * Tile coordinate space size. See
+     * https://github.com/mapbox/vector-tile-spec/tree/master/2.1#43-geometry-encoding
+     */
+    private static final int TILE_EXTENT = 4096;
+
+    /**
+     * Buffer around the tile in tile coordinate space units. Geometries are
+     * clipped to the buffered tile in order to avoid rendering artifacts at
+     * tile boundaries
+     */
+    private static final int TILE_BUFFER = 256;
+
+    @Value("${opertusmundi.spatial.nuts.schema:spatial}")
+    private String schema;
+
+    @Value("${opertusmundi.spatial.nuts.table-name:nuts}")
+    private String tableName;
+
+    @Value("${opertusmundi.spatial.nuts.geometry-column:geom}")
+    private String geometryColumn;
+
+    @Value("${opertusmundi.spatial.nuts.geometry-column-simple:geom_simple}")
+    private String geometryColumnSimple;
+
+    @Value("${opertusmundi.spatial.nuts.tiles.max-zoom:16}")
+    private int maxZoom;
+
+    /**
+     * Max zoom level (inclusive) for which simplified geometries are used
+     */
+    @Value("${opertusmundi.spatial.nuts.tiles.simple-geometry-max-zoom:6}")
+    private int simpleGeometryMaxZoom;
+
+    private final JdbcTemplate          jdbcTemplate;
+    private final Cache<Object, Object> cache;
+
+    @SuppressWarnings("unchecked")
+    @Autowired
+    public DefaultNutsVectorTileService(DataSource dataSource, CacheManager defaultCacheManager) {
+        final CaffeineCache cache = (CaffeineCache) defaultCacheManager.getCache(CACHE_NAME);
+        Assert.notNull(cache, String.format("Cache was not found [name=%s]", CACHE_NAME));
+
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.cache        = (Cache<Object, Object>) cache.getNativeCache();
+    }
+
+    @Override
+    public byte[] getTile(int level, int z, int x, int y) throws ServiceException {
+        if (level < 0 || level > MAX_NUTS_LEVEL) {
+            throw new ServiceException(BasicMessageCode.BadRequest, String.format(
+                "NUTS level must be between 0 and %d [level=%d]", MAX_NUTS_LEVEL, level
+            ));
+        }
+        if (z < 0 || z > this.maxZoom) {
+            throw new ServiceException(BasicMessageCode.BadRequest, String.format(
+                "Zoom level must be between 0 and %d [z=%d]", this.maxZoom, z
+            ));
+        }
+        final int size = 1 << z;
+        if (x < 0 || x >= size || y < 0 || y >= size) {
+            throw new ServiceException(BasicMessageCode.BadRequest, String.format(
+                "Tile coordinates are out of range [z=%d, x=%d, y=%d]", z, x, y
+            ));
+        }
+
+        final TileKey key = new TileKey(level, z, x, y);
+
+        return (byte[]) this.cache.get(key, k -> this.renderTile(level, z, x, y));
+    }
+
+    @Override
+    public void evictAll() {
+        this.cache.invalidateAll();
+    }
+
+    private byte[] renderTile(int level, int z, int x, int y) {
+        // Simplified geometries are used at low zoom levels. If a simplified
+        // geometry does not exist, the full resolution geometry is returned
+        final String geometry = z <= this.simpleGeometryMaxZoom
+            ? String.format("COALESCE(dt.\"%s\", dt.\"%s\")", this.geometryColumnSimple, this.geometryColumn)
+            : String.format("dt.\"%s\"", this.geometryColumn);
+
+        final String query = String.format(
+              "with bounds as ( "
+            + "    select ST_TileEnvelope(?, ?, ?) as env "
+            + ") "
+            + "select ST_AsMVT(t, '%2$s', %5$d, 'geom') "
+            + "from   ( "
+            + "    select ST_AsMVTGeom(ST_Transform(%4$s, 3857), bounds.env, %5$d, %6$d, true) as geom, "
+            + "           dt.nuts_id as \"code\", "
+            + "           dt.lvl_code as \"level\", "
+            + "           dt.name_latin as \"nameLatin\", "
+            + "           dt.nuts_name as \"name\", "
+            + "           dt.population "
+            + "    from   \"%1$s\".\"%2$s\" as dt, bounds "
+            + "    where  dt.\"%3$s\" && ST_Transform(bounds.env, 4326) and dt.lvl_code = ? "
+            + ") as t",
+            this.schema, this.tableName, this.geometryColumn, geometry, TILE_EXTENT, TILE_BUFFER
+        );
+
+        final byte[] result = this.jdbcTemplate.queryForObject(query, byte[].class, z, x, y, level);
+
+        return result == null ? new byte[0] : result;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class TileKey {
+
+        private final int level;
+        private final int z;
+        private final int x;
+        private final int y;
+
+    }
+
+}
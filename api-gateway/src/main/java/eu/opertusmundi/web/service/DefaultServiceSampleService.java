@@ -0,0 +1,198 @@
+package eu.opertusmundi.web.service;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import eu.opertusmundi.common.model.catalogue.client.EnumSpatialDataServiceType;
+import eu.opertusmundi.common.model.catalogue.client.WfsLayerSample;
+import eu.opertusmundi.common.model.catalogue.client.WmsLayerSample;
+import eu.opertusmundi.common.model.geodata.EnumGeodataWorkspace;
+import eu.opertusmundi.common.model.ingest.ResourceIngestionDataDto;
+import eu.opertusmundi.common.service.AssetDraftException;
+import eu.opertusmundi.common.service.ProviderAssetService;
+import eu.opertusmundi.common.service.ogc.GeoServerUtils;
+import eu.opertusmundi.common.service.ogc.OgcServiceClientException;
+import eu.opertusmundi.common.service.ogc.UserGeodataConfigurationResolver;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+@Service
+public class DefaultServiceSampleService implements ServiceSampleService {
+
+    public static final String CACHE_NAME = "service-sample";
+
+    @Value("${opertusmundi.cache.service-sample.enabled:true}")
+    private boolean enabled;
+
+    private final ProviderAssetService             providerAssetService;
+    private final UserGeodataConfigurationResolver userGeodataConfigurationResolver;
+    private final GeoServerUtils                   client;
+    private final ObjectMapper                     objectMapper;
+    private final Cache<SampleKey, byte[]>         cache;
+
+    @SuppressWarnings("unchecked")
+    @Autowired
+    public DefaultServiceSampleService(
+        ProviderAssetService providerAssetService,
+        UserGeodataConfigurationResolver userGeodataConfigurationResolver,
+        GeoServerUtils client,
+        ObjectMapper objectMapper,
+        CacheManager defaultCacheManager
+    ) {
+        final CaffeineCache cache = (CaffeineCache) defaultCacheManager.getCache(CACHE_NAME);
+        Assert.notNull(cache, String.format("Cache was not found [name=%s]", CACHE_NAME));
+
+        this.providerAssetService             = providerAssetService;
+        this.userGeodataConfigurationResolver = userGeodataConfigurationResolver;
+        this.client                           = client;
+        this.objectMapper                     = objectMapper;
+        this.cache                            = (Cache<SampleKey, byte[]>) (Cache<?, ?>) cache.getNativeCache();
+    }
+
+    @Override
+    public byte[] getSample(
+        UUID publisherKey, UUID draftKey, UUID resourceKey, EnumSpatialDataServiceType type, String bbox
+    ) throws IOException, OgcServiceClientException, URISyntaxException {
+        if (type != EnumSpatialDataServiceType.WMS && type != EnumSpatialDataServiceType.WFS) {
+            return null;
+        }
+
+        // The draft services are always read, even if the sample is cached,
+        // since the lookup also authorizes the request
+        final ResourceIngestionDataDto service = this.findService(publisherKey, draftKey, resourceKey);
+        if (service == null) {
+            return null;
+        }
+
+        // Resolve GeoServer URL and user workspace
+        final var userGeodataConfig = userGeodataConfigurationResolver.resolveFromUserKey(publisherKey, EnumGeodataWorkspace.PUBLIC);
+
+        final double[] coords = Arrays.stream(bbox.split(",")).limit(4).mapToDouble(Double::parseDouble).toArray();
+
+        if (!this.enabled) {
+            return this.createSample(userGeodataConfig.getUrl(), userGeodataConfig.getEffectiveWorkspace(), service, type, coords);
+        }
+
+        final SampleKey key = new SampleKey(
+            draftKey, resourceKey, type, userGeodataConfig.getEffectiveWorkspace(), service.getTableName(), Arrays.toString(coords)
+        );
+
+        try {
+            return this.cache.get(key, k -> {
+                try {
+                    return this.createSample(userGeodataConfig.getUrl(), userGeodataConfig.getEffectiveWorkspace(), service, type, coords);
+                } catch (final OgcServiceClientException | URISyntaxException | IOException ex) {
+                    throw new SampleLoadException(ex);
+                }
+            });
+        } catch (final SampleLoadException ex) {
+            if (ex.getCause() instanceof OgcServiceClientException) {
+                throw (OgcServiceClientException) ex.getCause();
+            }
+            if (ex.getCause() instanceof URISyntaxException) {
+                throw (URISyntaxException) ex.getCause();
+            }
+            throw (IOException) ex.getCause();
+        }
+    }
+
+    @Override
+    public void invalidateDraft(UUID draftKey) {
+        this.cache.asMap().keySet().removeIf(k -> k.draftKey.equals(draftKey));
+    }
+
+    private ResourceIngestionDataDto findService(UUID publisherKey, UUID draftKey, UUID resourceKey) {
+        try {
+            final List<ResourceIngestionDataDto> services = providerAssetService.getServicesFromCache(publisherKey, draftKey);
+            // Ingestion data must exist
+            if (services == null) {
+                return null;
+            }
+
+            // Service endpoints must exist
+            return services.stream()
+                .filter(s -> s.getKey().equals(resourceKey.toString()))
+                .findFirst()
+                .orElse(null);
+        } catch (final AssetDraftException ex) {
+            // Either the draft is not found or the data ingestion has not been
+            // completed yet
+            return null;
+        }
+    }
+
+    private byte[] createSample(
+        String url, String workspace, ResourceIngestionDataDto service, EnumSpatialDataServiceType type, double[] coords
+    ) throws OgcServiceClientException, URISyntaxException, IOException {
+        final List<Geometry> boundaries = Arrays.asList(this.bboxToGeometry(coords));
+
+        switch (type) {
+            case WMS :
+                final List<WmsLayerSample> samples = this.client.getWmsSamples(url, service, boundaries);
+
+                return objectMapper.writeValueAsBytes(samples.get(0));
+
+            case WFS :
+                final List<WfsLayerSample> wfsSamples = this.client.getWfsSamples(url, workspace, service, boundaries);
+
+                return objectMapper.writeValueAsBytes(wfsSamples.get(0));
+
+            default :
+                return null;
+        }
+    }
+
+    private Geometry bboxToGeometry(double[] coords) {
+        final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+        final Geometry        geom            = geometryFactory.createPolygon(new Coordinate[] {
+            new Coordinate(coords[0],coords[1]),
+            new Coordinate(coords[2],coords[1]),
+            new Coordinate(coords[2],coords[3]),
+            new Coordinate(coords[0],coords[3]),
+            new Coordinate(coords[0],coords[1])
+        });
+
+        return geom;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class SampleKey {
+
+        private final UUID                       draftKey;
+        private final UUID                       resourceKey;
+        private final EnumSpatialDataServiceType type;
+        private final String                     workspace;
+        private final String                     tableName;
+        private final String                     bbox;
+
+    }
+
+    private static final class SampleLoadException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private SampleLoadException(Exception cause) {
+            super(cause);
+        }
+
+    }
+
+}
@@ -0,0 +1,127 @@
+package eu.opertusmundi.web.service;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import eu.opertusmundi.common.service.ogc.OgcServiceClientException;
+import eu.opertusmundi.web.model.file.CachedFile;
+import eu.opertusmundi.web.model.file.WmsTileKey;
+import eu.opertusmundi.web.utils.FileCacheUtils;
+
+@Service
+public class DefaultWmsTileCacheService implements WmsTileCacheService, InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefaultWmsTileCacheService.class);
+
+    public static final String CACHE_NAME = "wms-tile";
+
+    private static final String TILE_DIR = "wms-tiles";
+
+    private static final String FILE_SUFFIX = ".png";
+
+    @Value("${opertusmundi.cache.wms-tile.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Parent of the cache directory. The directory must not be shared with
+     * other nodes
+     */
+    @Value("${opertusmundi.cache.wms-tile.dir:${java.io.tmpdir}/opertusmundi}")
+    private String baseDir;
+
+    private final Cache<WmsTileKey, CachedFile> cache;
+
+    private Path tileDir;
+
+    @SuppressWarnings("unchecked")
+    @Autowired
+    public DefaultWmsTileCacheService(CacheManager defaultCacheManager) {
+        final CaffeineCache cache = (CaffeineCache) defaultCacheManager.getCache(CACHE_NAME);
+        Assert.notNull(cache, String.format("Cache was not found [name=%s]", CACHE_NAME));
+
+        this.cache = (Cache<WmsTileKey, CachedFile>) (Cache<?, ?>) cache.getNativeCache();
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (!this.enabled) {
+            return;
+        }
+        this.tileDir = Paths.get(this.baseDir, TILE_DIR).toAbsolutePath();
+
+        FileCacheUtils.reset(this.tileDir);
+
+        logger.info("WMS tile cache directory created [path={}]", this.tileDir);
+    }
+
+    @Override
+    public WmsTileKey createKey(String workspace, String layer, String bbox, int size) {
+        if (!this.enabled) {
+            return null;
+        }
+        return WmsTileKey.of(workspace, layer, bbox, size);
+    }
+
+    @Override
+    public CachedFile getTile(
+        WmsTileKey key, WmsTileLoader loader
+    ) throws IOException, OgcServiceClientException, URISyntaxException {
+        Assert.isTrue(this.enabled, "Expected WMS tile cache to be enabled");
+        Assert.notNull(key, "Expected a non-null tile key");
+
+        try {
+            return this.cache.get(key, k -> this.load(k, loader));
+        } catch (final TileLoadException ex) {
+            if (ex.getCause() instanceof OgcServiceClientException) {
+                throw (OgcServiceClientException) ex.getCause();
+            }
+            if (ex.getCause() instanceof URISyntaxException) {
+                throw (URISyntaxException) ex.getCause();
+            }
+            throw (IOException) ex.getCause();
+        }
+    }
+
+    private CachedFile load(WmsTileKey key, WmsTileLoader loader) {
+        final byte[] data;
+        try {
+            data = loader.load(key.toBbox());
+        } catch (final OgcServiceClientException | URISyntaxException | IOException ex) {
+            throw new TileLoadException(ex);
+        }
+        if (data == null) {
+            return null;
+        }
+
+        try {
+            return FileCacheUtils.write(this.tileDir, key.toString(), FILE_SUFFIX, data);
+        } catch (final IOException ex) {
+            throw new TileLoadException(ex);
+        }
+    }
+
+    private static final class TileLoadException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private TileLoadException(Exception cause) {
+            super(cause);
+        }
+
+    }
+
+}
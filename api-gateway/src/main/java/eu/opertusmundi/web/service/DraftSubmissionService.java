@@ -0,0 +1,68 @@
+package eu.opertusmundi.web.service;
+
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import eu.opertusmundi.common.model.ServiceException;
+import eu.opertusmundi.common.model.account.AccountDto;
+import eu.opertusmundi.common.model.catalogue.client.CatalogueItemCommandDto;
+import eu.opertusmundi.web.model.asset.DraftSubmissionJobDto;
+
+/**
+ * Background draft submission.
+ *
+ * <p>
+ * A submission job validates the draft, enqueues resource ingestion and
+ * starts the publish workflow. Jobs of the same publisher are executed one at
+ * a time in submission order; hence, a publisher that submits many drafts
+ * does not delay the submissions of other publishers.
+ *
+ * <p>
+ * Jobs are executed by the node that accepted the submission. The job status
+ * is also stored in the database, hence any node can report it. Jobs are
+ * removed after a configurable interval since their most recent status
+ * change.
+ */
+public interface DraftSubmissionService {
+
+    /**
+     * Create a submission job. If a job for the same draft is already queued
+     * or running, the existing job is returned
+     *
+     * @param account The account that submits the draft
+     * @param command The draft update command
+     * @return
+     * @throws RejectedExecutionException if the publisher has too many queued
+     *             submissions or no worker is available
+     */
+    DraftSubmissionJobDto submit(AccountDto account, CatalogueItemCommandDto command) throws RejectedExecutionException;
+
+    /**
+     * Find a submission job
+     *
+     * @param publisherKey
+     * @param jobKey
+     * @return
+     * @throws ServiceException if the job does not exist or belongs to
+     *             another publisher
+     */
+    DraftSubmissionJobDto findOne(UUID publisherKey, UUID jobKey) throws ServiceException;
+
+    /**
+     * Subscribe to job status changes. The current status is sent
+     * immediately. The emitter is completed when the job is completed or
+     * has failed. If the job is executed by another node, the emitter is
+     * completed after the current status is sent and the event sets the
+     * time after which the client reconnects
+     *
+     * @param publisherKey
+     * @param jobKey
+     * @return
+     * @throws ServiceException if the job does not exist or belongs to
+     *             another publisher
+     */
+    SseEmitter subscribe(UUID publisherKey, UUID jobKey) throws ServiceException;
+
+}
@@ -0,0 +1,74 @@
+package eu.opertusmundi.web.service;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+import eu.opertusmundi.common.model.ServiceException;
+import eu.opertusmundi.web.model.file.FileUploadSessionCommandDto;
+import eu.opertusmundi.web.model.file.FileUploadSessionDto;
+
+/**
+ * Resumable, chunked uploads to the user file system.
+ *
+ * <p>
+ * A client creates an upload session, uploads numbered chunks in any order
+ * (optionally in parallel), queries the session for the chunks already
+ * received and finally completes the session. On completion, the chunks are
+ * streamed in order to the user file system.
+ */
+public interface FileUploadSessionService {
+
+    /**
+     * Create a new upload session
+     *
+     * @param command
+     * @return
+     * @throws ServiceException
+     */
+    FileUploadSessionDto create(FileUploadSessionCommandDto command) throws ServiceException;
+
+    /**
+     * Find an upload session. The result includes the chunks already received
+     *
+     * @param userKey
+     * @param sessionKey
+     * @return
+     * @throws ServiceException if the session does not exist
+     */
+    FileUploadSessionDto findOne(UUID userKey, UUID sessionKey) throws ServiceException;
+
+    /**
+     * Store a chunk. Uploading the same chunk more than once replaces the
+     * existing data
+     *
+     * @param userKey
+     * @param sessionKey
+     * @param index Zero-based chunk index
+     * @param input Chunk data
+     * @return
+     * @throws ServiceException if the session does not exist, the index is out
+     * of range or the data size does not match the expected chunk size
+     */
+    FileUploadSessionDto uploadChunk(UUID userKey, UUID sessionKey, int index, InputStream input) throws ServiceException;
+
+    /**
+     * Complete an upload session and copy the file to the user file system
+     *
+     * @param userKey
+     * @param userName
+     * @param sessionKey
+     * @throws ServiceException if any chunk is missing or the file cannot be
+     * copied to the user file system
+     */
+    void complete(UUID userKey, String userName, UUID sessionKey) throws ServiceException;
+
+    /**
+     * Delete an upload session and all received chunks
+     *
+     * @param userKey
+     * @param sessionKey
+     * @throws ServiceException if the session does not exist
+     */
+    void delete(UUID userKey, UUID sessionKey) throws ServiceException;
+
+}
@@ -0,0 +1,57 @@
+package eu.opertusmundi.web.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import eu.opertusmundi.common.model.jupyter.client.JupyterUserStatusDto;
+import eu.opertusmundi.common.model.jupyter.server.ServerDto;
+import eu.opertusmundi.common.model.jupyter.server.UserDto;
+import feign.FeignException;
+
+/**
+ * Caches JupyterHub user state and pushes server readiness to clients.
+ *
+ * <p>
+ * User state is cached for a short interval. Concurrent requests for the
+ * state of the same user execute a single JupyterHub request.
+ */
+public interface JupyterUserService {
+
+    /**
+     * Get the JupyterHub state of a user
+     *
+     * @param userName
+     * @return
+     * @throws FeignException if the JupyterHub request fails
+     */
+    UserDto getUser(String userName) throws FeignException;
+
+    /**
+     * Remove the cached state of a user. Must be invoked after any operation
+     * that modifies the user or the user servers
+     *
+     * @param userName
+     */
+    void invalidate(String userName);
+
+    /**
+     * Create the status of a user server
+     *
+     * @param user
+     * @param server
+     * @return
+     */
+    JupyterUserStatusDto createStatus(UserDto user, ServerDto server);
+
+    /**
+     * Subscribe to the status of the default server of a user. A single
+     * {@code status} event is sent once the server is ready or if no server
+     * exists, and the stream is completed. The server status is checked by a
+     * single background poller per user, regardless of the number of
+     * subscribers
+     *
+     * @param userName
+     * @return
+     */
+    SseEmitter subscribe(String userName);
+
+}
@@ -0,0 +1,26 @@
+package eu.opertusmundi.web.service;
+
+import eu.opertusmundi.common.model.location.Location;
+
+/**
+ * Resolves the location of a client IP address.
+ *
+ * <p>
+ * Results are kept in a bounded, process-wide cache shared by all requests;
+ * hence, the location service is queried at most once per IP address until
+ * the cache entry is evicted.
+ */
+public interface LocationResolver {
+
+    /**
+     * Resolve the location of the specified IP address
+     *
+     * @param ip The IP address
+     * @param defaultCountry The country used if the location cannot be
+     *            resolved
+     * @return The location. If the location service is not enabled or the IP
+     *         address is unknown, an empty location is returned
+     */
+    Location resolve(String ip, String defaultCountry);
+
+}
@@ -0,0 +1,35 @@
+package eu.opertusmundi.web.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import eu.opertusmundi.common.model.message.client.ClientContactDto;
+import eu.opertusmundi.common.model.message.client.ClientMessageDto;
+
+/**
+ * Resolves the senders and recipients of messages.
+ *
+ * <p>
+ * Contacts are cached by account key. Contacts that are not cached are
+ * resolved with a single request per invocation.
+ */
+public interface MessageContactService {
+
+    /**
+     * Find the contacts of the senders and recipients of the specified
+     * messages
+     *
+     * @param messages
+     * @return
+     */
+    List<ClientContactDto> findContacts(List<ClientMessageDto> messages);
+
+    /**
+     * Remove the contact of the specified account from the cache. Invoked
+     * when an account profile is updated
+     *
+     * @param accountKey
+     */
+    void invalidate(UUID accountKey);
+
+}
@@ -0,0 +1,53 @@
+package eu.opertusmundi.web.service;
+
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes new notifications, messages and unread counters to connected
+ * clients as server-sent events.
+ *
+ * <p>
+ * Connections are registered per user. The messaging service only supports
+ * queries per recipient; hence, a user is checked for new items with two
+ * requests, regardless of the number of connections the user has. Checks are
+ * executed on a dedicated executor. A user is checked immediately when this
+ * node handles an action that changes the notifications or messages of the
+ * user. Actions handled by other nodes or services are detected by a slow
+ * fallback check of every connected user. Users without activity are checked
+ * less frequently.
+ */
+public interface MessageStreamService {
+
+    /**
+     * Register a new connection for the specified user. If the user already
+     * has the max number of connections, the oldest connection is closed
+     *
+     * @param userKey
+     * @return
+     * @throws RejectedExecutionException if the max number of connections for
+     *             this node has been reached
+     */
+    SseEmitter subscribe(UUID userKey) throws RejectedExecutionException;
+
+    /**
+     * Send the current unread counters to all connections of the specified
+     * user. Invoked when the user reads one or more notifications or
+     * messages. The counters are sent asynchronously
+     *
+     * @param userKey
+     */
+    void refreshCounters(UUID userKey);
+
+    /**
+     * Send new messages and the current unread counters to all connections of
+     * the specified user. Invoked when a message is sent to the user. The
+     * check is executed asynchronously
+     *
+     * @param recipientKey
+     */
+    void notifyNewMessage(UUID recipientKey);
+
+}
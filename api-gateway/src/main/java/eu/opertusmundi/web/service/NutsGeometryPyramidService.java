@@ -0,0 +1,61 @@
+package eu.opertusmundi.web.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.locationtech.jts.geom.Geometry;
+
+import eu.opertusmundi.common.domain.NutsRegionEntity;
+
+/**
+ * Multi-resolution pyramid of NUTS region geometries.
+ *
+ * <p>
+ * Each level of the pyramid is created by simplifying the full resolution
+ * geometries with a configured tolerance, preserving the topology of the
+ * simplified geometry. For a given zoom level, the pyramid level with the
+ * largest tolerance that does not exceed the size of a pixel is selected.
+ * Simplified geometries are created on first access and cached. The cache
+ * does not depend on the in-memory NUTS region index; regions that are not
+ * cached are loaded from the database.
+ */
+public interface NutsGeometryPyramidService {
+
+    /**
+     * Get the simplification tolerance in degrees for the specified zoom level
+     *
+     * @param zoom The zoom level
+     * @return The tolerance or {@code null} if full resolution geometries
+     *         should be used
+     */
+    Double getTolerance(int zoom);
+
+    /**
+     * Get the geometry of a region simplified for the specified zoom level
+     *
+     * @param region The region
+     * @param zoom The zoom level
+     * @return The simplified geometry or the full resolution geometry if no
+     *         pyramid level exists for the zoom level
+     */
+    Geometry getGeometry(NutsRegionEntity region, int zoom);
+
+    /**
+     * Get the geometries of the specified regions simplified for the
+     * specified zoom level. The full resolution geometries of all regions
+     * missing from the cache are loaded from the database with a single query
+     *
+     * @param codes The region codes
+     * @param zoom The zoom level. A pyramid level must exist for the zoom
+     *            level; see {@link #getTolerance(int)}
+     * @return A map of simplified geometries keyed by region code. Regions
+     *         that are not found are not included
+     */
+    Map<String, Geometry> getGeometries(Collection<String> codes, int zoom);
+
+    /**
+     * Remove all cached geometries
+     */
+    void evictAll();
+
+}
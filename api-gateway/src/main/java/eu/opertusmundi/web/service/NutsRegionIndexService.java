@@ -0,0 +1,92 @@
+package eu.opertusmundi.web.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.locationtech.jts.geom.Envelope;
+
+import eu.opertusmundi.common.domain.NutsRegionEntity;
+
+/**
+ * In-memory index of the NUTS regions.
+ *
+ * <p>
+ * NUTS regions are static reference data. When the index is enabled, all
+ * regions are loaded at startup and lookups by code, code prefix, name and
+ * bounding box are served from memory without accessing the database. The
+ * index can be reloaded on demand using {@link #refresh()}.
+ *
+ * <p>
+ * Callers must check {@link #isAvailable()} before using any of the query
+ * methods and fall back to the database if the index is not available.
+ */
+public interface NutsRegionIndexService {
+
+    /**
+     * Check if the index is enabled by configuration
+     *
+     * @return
+     */
+    boolean isEnabled();
+
+    /**
+     * Check if the index is enabled and loaded
+     *
+     * @return
+     */
+    boolean isAvailable();
+
+    /**
+     * Reload all NUTS regions from the database. The existing index is
+     * replaced only after the new index is successfully created
+     *
+     * @return The number of indexed regions
+     */
+    int refresh();
+
+    /**
+     * Find regions by code
+     *
+     * @param codes
+     * @return
+     */
+    List<NutsRegionEntity> findAllByCode(String[] codes);
+
+    /**
+     * Find a region by code
+     *
+     * @param code
+     * @return
+     */
+    Optional<NutsRegionEntity> findOneByCode(String code);
+
+    /**
+     * Find all regions with a code that starts with the specified prefix
+     *
+     * @param prefix The code prefix
+     * @param maxLevel Optional max level (inclusive)
+     * @return
+     */
+    List<NutsRegionEntity> findAllByPrefix(String prefix, Long maxLevel);
+
+    /**
+     * Find all regions of the specified level whose local or latin name
+     * contains the given query. Matching is case and accent insensitive
+     *
+     * @param query
+     * @param level
+     * @return
+     */
+    List<NutsRegionEntity> findAllByName(String query, Long level);
+
+    /**
+     * Find all regions of the specified level that intersect the given
+     * bounding box in EPSG:4326
+     *
+     * @param level
+     * @param bbox
+     * @return
+     */
+    List<NutsRegionEntity> findAllByBbox(long level, Envelope bbox);
+
+}
@@ -0,0 +1,33 @@
+package eu.opertusmundi.web.service;
+
+import eu.opertusmundi.common.model.ServiceException;
+
+/**
+ * Mapbox Vector Tiles (MVT) for the NUTS regions.
+ *
+ * <p>
+ * Tiles are addressed using the XYZ scheme in Web Mercator (EPSG:3857) and
+ * are cached by NUTS level and tile coordinates.
+ */
+public interface NutsVectorTileService {
+
+    /**
+     * Get a vector tile for the specified NUTS level
+     *
+     * @param level The NUTS level
+     * @param z The zoom level
+     * @param x The tile column
+     * @param y The tile row
+     * @return The encoded tile. If no region intersects the tile, an empty
+     *         array is returned
+     * @throws ServiceException if the level or the tile coordinates are not
+     *         valid
+     */
+    byte[] getTile(int level, int z, int x, int y) throws ServiceException;
+
+    /**
+     * Remove all cached tiles
+     */
+    void evictAll();
+
+}
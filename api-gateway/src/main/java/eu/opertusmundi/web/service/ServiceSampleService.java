@@ -0,0 +1,49 @@
+package eu.opertusmundi.web.service;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.UUID;
+
+import eu.opertusmundi.common.model.catalogue.client.EnumSpatialDataServiceType;
+import eu.opertusmundi.common.service.ogc.OgcServiceClientException;
+
+/**
+ * Creates samples for the service resources of draft assets.
+ *
+ * <p>
+ * Samples are cached as serialized JSON per draft, resource, service type and
+ * bounding box. Cache keys also include the ingestion table and workspace of
+ * the resource; hence, a sample is never served after the resource is
+ * ingested again.
+ */
+public interface ServiceSampleService {
+
+    /**
+     * Get a service sample serialized as JSON. Concurrent requests for the
+     * same sample create the sample once
+     *
+     * @param publisherKey the publisher of the draft
+     * @param draftKey
+     * @param resourceKey
+     * @param type the service type. Only {@code WMS} and {@code WFS} are
+     *            supported
+     * @param bbox the bounding box in EPSG:4326
+     * @return the sample or {@code null} if the draft, the resource or the
+     *         ingestion data is not found, or the service type is not
+     *         supported
+     * @throws IOException if the sample cannot be serialized
+     * @throws OgcServiceClientException if the service request fails
+     * @throws URISyntaxException if the service endpoint is malformed
+     */
+    byte[] getSample(
+        UUID publisherKey, UUID draftKey, UUID resourceKey, EnumSpatialDataServiceType type, String bbox
+    ) throws IOException, OgcServiceClientException, URISyntaxException;
+
+    /**
+     * Remove all samples of a draft from the cache
+     *
+     * @param draftKey
+     */
+    void invalidateDraft(UUID draftKey);
+
+}
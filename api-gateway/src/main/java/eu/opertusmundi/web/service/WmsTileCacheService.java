@@ -0,0 +1,66 @@
+package eu.opertusmundi.web.service;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+
+import eu.opertusmundi.common.service.ogc.OgcServiceClientException;
+import eu.opertusmundi.web.model.file.CachedFile;
+import eu.opertusmundi.web.model.file.WmsTileKey;
+
+/**
+ * Node-local disk cache for WMS map images of draft service resources.
+ *
+ * <p>
+ * Images are cached only if the requested bounding box is aligned to a
+ * regular EPSG:4326 tile grid, which is the case for tiled map clients.
+ * Requests for any other bounding box must be forwarded to the WMS service.
+ */
+public interface WmsTileCacheService {
+
+    /**
+     * Loads a map image from the WMS service
+     */
+    @FunctionalInterface
+    interface WmsTileLoader {
+
+        /**
+         * Execute a GetMap request
+         *
+         * @param bbox the bounding box of the tile grid cell
+         * @return the image or {@code null} if no image is returned
+         */
+        byte[] load(String bbox) throws OgcServiceClientException, URISyntaxException, MalformedURLException;
+
+    }
+
+    /**
+     * Creates the cache key of a tile
+     *
+     * @param workspace the GeoServer workspace
+     * @param layer the layer name
+     * @param bbox the requested bounding box
+     * @param size the tile width and height in pixels
+     * @return the key or {@code null} if the cache is disabled or the
+     *         bounding box is not aligned to the tile grid
+     */
+    WmsTileKey createKey(String workspace, String layer, String bbox, int size);
+
+    /**
+     * Find a tile. If the tile is not cached, it is loaded using the
+     * specified loader and it is written to the cache. Concurrent requests
+     * for the same tile execute a single request to the WMS service
+     *
+     * @param key the tile key created by {@link #createKey}
+     * @param loader
+     * @return the cached tile or {@code null} if the WMS service returned no
+     *         image. Missing images are not cached
+     * @throws IOException if the tile cannot be written to the cache
+     * @throws OgcServiceClientException if the GetMap request fails
+     * @throws URISyntaxException if the service endpoint is malformed
+     */
+    CachedFile getTile(
+        WmsTileKey key, WmsTileLoader loader
+    ) throws IOException, OgcServiceClientException, URISyntaxException;
+
+}
@@ -0,0 +1,76 @@
+package eu.opertusmundi.web.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+import org.apache.commons.io.FileUtils;
+import org.springframework.util.DigestUtils;
+
+import eu.opertusmundi.web.model.file.CachedFile;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Writes files to node-local disk caches
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class FileCacheUtils {
+
+    /**
+     * Deletes and creates again a cache directory. Cache indexes are not
+     * persisted; hence, files from a previous run are never served and would
+     * never be evicted
+     *
+     * @param dir
+     * @throws IOException
+     */
+    public static void reset(Path dir) throws IOException {
+        FileUtils.deleteQuietly(dir.toFile());
+        Files.createDirectories(dir);
+    }
+
+    /**
+     * Writes a file to a cache directory.
+     *
+     * <p>
+     * Files are addressed by the hash of the cache key and are grouped in
+     * directories by the first two hash characters. Every invocation creates a
+     * new file; hence, deleting the file of an evicted entry never affects an
+     * entry that has been created again for the same key. The file is written
+     * to a temporary file first so that a partially written file is never
+     * visible.
+     *
+     * @param dir the cache directory
+     * @param key the cache key
+     * @param suffix the file name suffix
+     * @param data the file content
+     * @return the cached file
+     * @throws IOException if the file cannot be written
+     */
+    public static CachedFile write(Path dir, String key, String suffix, byte[] data) throws IOException {
+        final String hash     = DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8));
+        final String version  = UUID.randomUUID().toString();
+        final Path   hashDir  = dir.resolve(hash.substring(0, 2));
+        final Path   path     = hashDir.resolve(String.format("%s-%s%s", hash, version, suffix));
+        final Path   tempPath = hashDir.resolve(String.format("%s-%s.tmp", hash, version));
+
+        try {
+            Files.createDirectories(hashDir);
+            Files.write(tempPath, data);
+            Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException ex) {
+            FileUtils.deleteQuietly(tempPath.toFile());
+
+            throw ex;
+        }
+
+        final String etag = String.format("\"%s\"", DigestUtils.md5DigestAsHex(data));
+
+        return CachedFile.of(path, data.length, System.currentTimeMillis(), etag);
+    }
+
+}
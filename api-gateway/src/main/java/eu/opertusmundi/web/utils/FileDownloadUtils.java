@@ -0,0 +1,280 @@
+package eu.opertusmundi.web.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+/**
+ * Creates download responses for files stored in the local file system.
+ *
+ * <p>
+ * All responses include the {@code Content-Length}, {@code ETag} and
+ * {@code Last-Modified} headers. Conditional requests are answered with status
+ * 304 (Not Modified) or 412 (Precondition Failed). Single and multiple byte
+ * ranges are supported; a multi-range response uses the
+ * {@code multipart/byteranges} media type.
+ *
+ * <p>
+ * When the servlet container supports it (Tomcat NIO connector), full and
+ * single-range responses are transferred using the container sendfile support
+ * and the file data never enters user space. Otherwise, the data is copied
+ * using {@link FileChannel#transferTo(long, long, WritableByteChannel)}.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class FileDownloadUtils {
+
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR  = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR     = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR       = "org.apache.tomcat.sendfile.end";
+
+    private static final String CRLF = "\r\n";
+
+    public static ResponseEntity<StreamingResponseBody> createResponse(
+        HttpServletRequest request, HttpServletResponse response, File file, String downloadFilename, MediaType mediaType
+    ) {
+        final long   length       = file.length();
+        final long   lastModified = file.lastModified();
+        final String etag         = String.format("\"%x-%x\"", length, lastModified);
+
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, String.format("attachment; filename=%s", downloadFilename));
+
+        // Handle If-None-Match, If-Modified-Since and If-Unmodified-Since. The
+        // ETag and Last-Modified headers are set to the servlet response for
+        // every GET and HEAD request, and the status (304 or 412) if the
+        // request is conditional. The headers must not be set to the entity
+        // too; otherwise, the response contains them twice
+        final ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return ResponseEntity.status(response.getStatus()).build();
+        }
+
+        final boolean      head    = HttpMethod.HEAD.matches(request.getMethod());
+        final List<Region> regions = parseRanges(request, length, etag, lastModified);
+
+        if (regions == null) {
+            // Range not satisfiable
+            headers.set(HttpHeaders.CONTENT_RANGE, String.format("bytes */%d", length));
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+        }
+
+        if (regions.isEmpty()) {
+            headers.setContentType(mediaType);
+            headers.setContentLength(length);
+
+            return createSingleResponse(request, HttpStatus.OK, headers, file, 0, length, head);
+        }
+
+        if (regions.size() == 1) {
+            final Region region = regions.get(0);
+
+            headers.setContentType(mediaType);
+            headers.setContentLength(region.count);
+            headers.set(HttpHeaders.CONTENT_RANGE, region.contentRange(length));
+
+            return createSingleResponse(request, HttpStatus.PARTIAL_CONTENT, headers, file, region.start, region.count, head);
+        }
+
+        return createMultipartResponse(headers, file, regions, mediaType, head);
+    }
+
+    /**
+     * Parses the {@code Range} header
+     *
+     * @return an empty list if the whole file must be returned, {@code null} if
+     *         the range is not satisfiable, or the requested ranges
+     */
+    private static List<Region> parseRanges(HttpServletRequest request, long length, String etag, long lastModified) {
+        final String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (StringUtils.isBlank(rangeHeader)) {
+            return List.of();
+        }
+
+        // If the representation has changed, ignore the range and send the
+        // full file
+        final String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (!StringUtils.isBlank(ifRange)) {
+            if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+                if (!ifRange.equals(etag)) {
+                    return List.of();
+                }
+            } else {
+                try {
+                    final long ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
+                    if (ifRangeDate == -1 || lastModified / 1000 > ifRangeDate / 1000) {
+                        return List.of();
+                    }
+                } catch (final IllegalArgumentException ex) {
+                    return List.of();
+                }
+            }
+        }
+
+        try {
+            final List<HttpRange> ranges  = HttpRange.parseRanges(rangeHeader);
+            final List<Region>    regions = new ArrayList<>(ranges.size());
+
+            // Validate ranges. Reject ranges that start after the end of the
+            // file and multiple ranges that in total exceed the file size
+            long total = 0;
+            for (final HttpRange range : ranges) {
+                final Region region = Region.of(range, length);
+                if (region == null) {
+                    return null;
+                }
+                regions.add(region);
+                total += region.count;
+            }
+            if (regions.size() > 1 && total > length) {
+                return null;
+            }
+
+            return regions;
+        } catch (final IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static ResponseEntity<StreamingResponseBody> createSingleResponse(
+        HttpServletRequest request, HttpStatus status, HttpHeaders headers, File file, long start, long count, boolean head
+    ) {
+        if (head || count == 0) {
+            return ResponseEntity.status(status).headers(headers).build();
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            // The container will write the file once the response is committed
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.getAbsolutePath());
+            request.setAttribute(SENDFILE_START_ATTR, Long.valueOf(start));
+            request.setAttribute(SENDFILE_END_ATTR, Long.valueOf(start + count));
+
+            return ResponseEntity.status(status).headers(headers).build();
+        }
+
+        final StreamingResponseBody stream = out -> {
+            try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                transfer(channel, start, count, out);
+            }
+        };
+
+        return ResponseEntity.status(status).headers(headers).body(stream);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> createMultipartResponse(
+        HttpHeaders headers, File file, List<Region> regions, MediaType mediaType, boolean head
+    ) {
+        final long         length   = file.length();
+        final String       boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        final List<byte[]> parts    = new ArrayList<>();
+        long               total    = 0;
+
+        for (final Region region : regions) {
+            final byte[] part = (CRLF + "--" + boundary + CRLF +
+                HttpHeaders.CONTENT_TYPE + ": " + mediaType.toString() + CRLF +
+                HttpHeaders.CONTENT_RANGE + ": " + region.contentRange(length) + CRLF +
+                CRLF
+            ).getBytes(StandardCharsets.US_ASCII);
+
+            parts.add(part);
+            total += part.length + region.count;
+        }
+        final byte[] end = (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII);
+        total += end.length;
+
+        headers.setContentType(MediaType.parseMediaType("multipart/byteranges; boundary=" + boundary));
+        headers.setContentLength(total);
+
+        if (head) {
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers).build();
+        }
+
+        final StreamingResponseBody stream = out -> {
+            try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                for (int i = 0; i < regions.size(); i++) {
+                    out.write(parts.get(i));
+                    transfer(channel, regions.get(i).start, regions.get(i).count, out);
+                }
+                out.write(end);
+            }
+        };
+
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers).body(stream);
+    }
+
+    private static void transfer(FileChannel channel, long start, long count, OutputStream out) throws IOException {
+        final WritableByteChannel target = Channels.newChannel(out);
+
+        long position  = start;
+        long remaining = count;
+        while (remaining > 0) {
+            final long transferred = channel.transferTo(position, remaining, target);
+            if (transferred <= 0) {
+                throw new IOException(String.format("Unexpected end of file [position=%d, remaining=%d]", position, remaining));
+            }
+            position  += transferred;
+            remaining -= transferred;
+        }
+        out.flush();
+    }
+
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    private static class Region {
+
+        private final long start;
+        private final long count;
+
+        /**
+         * Creates a region from a range
+         *
+         * @return the region or {@code null} if the range is not satisfiable,
+         *         i.e. it starts at or after the end of the file or the file
+         *         is empty
+         */
+        public static Region of(HttpRange range, long length) {
+            // HttpRange does not validate the first position against the
+            // file length
+            final long start = range.getRangeStart(length);
+            final long end   = range.getRangeEnd(length);
+            final long count = end - start + 1;
+
+            if (start < 0 || start >= length || count <= 0) {
+                return null;
+            }
+
+            return new Region(start, count);
+        }
+
+        public String contentRange(long length) {
+            return String.format("bytes %d-%d/%d", this.start, this.start + this.count - 1, length);
+        }
+
+    }
+
+}
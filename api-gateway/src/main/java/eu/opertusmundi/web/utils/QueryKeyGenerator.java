@@ -0,0 +1,78 @@
+package eu.opertusmundi.web.utils;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+/**
+ * Creates cache keys from query objects.
+ *
+ * <p>
+ * A query is serialized to JSON with sorted properties. Empty values are
+ * removed and whitespace in text values is normalized, so that queries that
+ * differ only in insignificant whitespace or in unset properties share the
+ * same key.
+ */
+public class QueryKeyGenerator {
+
+    private final ObjectMapper objectMapper;
+
+    public QueryKeyGenerator(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper.copy()
+            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    }
+
+    public String generate(Object query) {
+        final JsonNode node = this.objectMapper.valueToTree(query);
+
+        return this.normalize(node).toString();
+    }
+
+    private JsonNode normalize(JsonNode node) {
+        if (node.isTextual()) {
+            return TextNode.valueOf(StringUtils.normalizeSpace(node.asText()));
+        }
+        if (node.isArray()) {
+            final ArrayNode array = (ArrayNode) node;
+            for (int i = 0; i < array.size(); i++) {
+                array.set(i, this.normalize(array.get(i)));
+            }
+            return array;
+        }
+        if (node.isObject()) {
+            final ObjectNode                            object = (ObjectNode) node;
+            final Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+
+            while (fields.hasNext()) {
+                final Map.Entry<String, JsonNode> field = fields.next();
+                final JsonNode                    value = this.normalize(field.getValue());
+
+                if (this.isEmpty(value)) {
+                    fields.remove();
+                } else {
+                    field.setValue(value);
+                }
+            }
+            return object;
+        }
+        return node;
+    }
+
+    private boolean isEmpty(JsonNode node) {
+        return node.isNull() ||
+               node.isMissingNode() ||
+               (node.isTextual() && node.asText().isEmpty()) ||
+               (node.isContainerNode() && node.isEmpty());
+    }
+
+}
@@ -0,0 +1,87 @@
+package eu.opertusmundi.web.utils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+/**
+ * Input stream decorator that counts the bytes read from the underlying stream
+ * and fails as soon as the count exceeds the specified limit.
+ *
+ * <p>
+ * Used for enforcing upload size limits incrementally while data is streamed
+ * to its destination, instead of buffering the whole request in memory.
+ */
+public class SizeLimitedInputStream extends FilterInputStream {
+
+    private final long limit;
+
+    private long count;
+
+    private long mark = -1;
+
+    public SizeLimitedInputStream(InputStream in, long limit) {
+        super(in);
+
+        this.limit = limit;
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int result = super.read();
+        if (result != -1) {
+            this.increment(1);
+        }
+        return result;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int result = super.read(b, off, len);
+        if (result > 0) {
+            this.increment(result);
+        }
+        return result;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        final long result = super.skip(n);
+        if (result > 0) {
+            this.increment(result);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        super.mark(readlimit);
+        this.mark = this.count;
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        if (!this.in.markSupported()) {
+            throw new IOException("Mark not supported");
+        }
+        if (this.mark == -1) {
+            throw new IOException("Mark not set");
+        }
+        super.reset();
+        this.count = this.mark;
+    }
+
+    private void increment(long value) {
+        this.count += value;
+        if (this.count > this.limit) {
+            throw new MaxUploadSizeExceededException(this.limit);
+        }
+    }
+
+}
@@ -13,14 +13,14 @@ import eu.opertusmundi.common.model.catalogue.client.DraftApiFromFileCommandDto;
 import eu.opertusmundi.common.model.catalogue.client.EnumAssetType;
 import eu.opertusmundi.common.model.file.FilePathCommand;
 import eu.opertusmundi.common.model.file.FileSystemException;
-import eu.opertusmundi.common.repository.AssetFileTypeRepository;
 import eu.opertusmundi.common.service.UserFileManager;
+import eu.opertusmundi.web.service.AssetFileTypeRegistry;
 
 @Component
 public class ApiDraftValidator implements Validator {
 
     @Autowired
-    private AssetFileTypeRepository assetFileTypeRepository;
+    private AssetFileTypeRegistry assetFileTypeRegistry;
 
     @Autowired
     private UserFileManager userFileManager;
@@ -83,7 +83,7 @@ public class ApiDraftValidator implements Validator {
             return;
         }
 
-        final AssetFileTypeEntity format = this.assetFileTypeRepository
+        final AssetFileTypeEntity format = this.assetFileTypeRegistry
             .findOneByCategoryAndFormat(EnumAssetType.VECTOR, command.getFormat())
             .orElse(null);
 
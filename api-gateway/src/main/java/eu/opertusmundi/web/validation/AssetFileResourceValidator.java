@@ -25,8 +25,8 @@ import eu.opertusmundi.common.model.asset.FileResourceCommandDto;
 import eu.opertusmundi.common.model.asset.ResourceCommandDto;
 import eu.opertusmundi.common.model.asset.UserFileResourceCommandDto;
 import eu.opertusmundi.common.model.catalogue.client.EnumAssetType;
-import eu.opertusmundi.common.repository.AssetFileTypeRepository;
 import eu.opertusmundi.common.repository.DraftRepository;
+import eu.opertusmundi.web.service.AssetFileTypeRegistry;
 
 @Component
 public class AssetFileResourceValidator implements Validator {
@@ -38,17 +38,17 @@ public class AssetFileResourceValidator implements Validator {
     @Value("${opertusmundi.asset.allow-not-secure-url:false}")
     private boolean allowNotSecureUrl;
 
-    private final AssetFileTypeRepository assetFileTypeRepository;
-    private final DraftRepository         draftRepository;
-    private final MimeTypes               mimeTypes;
+    private final AssetFileTypeRegistry assetFileTypeRegistry;
+    private final DraftRepository       draftRepository;
+    private final MimeTypes             mimeTypes;
 
     @Autowired
     public AssetFileResourceValidator(
-        AssetFileTypeRepository assetFileTypeRepository,
-        DraftRepository         draftRepository
+        AssetFileTypeRegistry assetFileTypeRegistry,
+        DraftRepository       draftRepository
     ) {
-        this.assetFileTypeRepository = assetFileTypeRepository;
-        this.draftRepository         = draftRepository;
+        this.assetFileTypeRegistry = assetFileTypeRegistry;
+        this.draftRepository       = draftRepository;
 
         this.tika      = new Tika();
         this.mimeTypes = MimeTypes.getDefaultMimeTypes();
@@ -100,7 +100,7 @@ public class AssetFileResourceValidator implements Validator {
         }
 
         final String              extension = FilenameUtils.getExtension(fileName);
-        final AssetFileTypeEntity fileType  = this.assetFileTypeRepository.findOneByCategoryAndFormat(draft.getType(), format).orElse(null);
+        final AssetFileTypeEntity fileType  = this.assetFileTypeRegistry.findOneByCategoryAndFormat(draft.getType(), format).orElse(null);
 
         if (fileType == null) {
             e.rejectValue("format", EnumValidatorError.OptionNotFound.name());
@@ -1,8 +1,11 @@
 package eu.opertusmundi.web.validation;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.apache.commons.io.FilenameUtils;
@@ -45,7 +48,6 @@ import eu.opertusmundi.common.model.pricing.EnumPricingModel;
 import eu.opertusmundi.common.model.pricing.QuotationException;
 import eu.opertusmundi.common.repository.AssetAdditionalResourceRepository;
 import eu.opertusmundi.common.repository.AssetContractAnnexRepository;
-import eu.opertusmundi.common.repository.AssetFileTypeRepository;
 import eu.opertusmundi.common.repository.AssetResourceRepository;
 import eu.opertusmundi.common.repository.DraftRepository;
 import eu.opertusmundi.common.repository.contract.ProviderTemplateContractRepository;
@@ -53,6 +55,7 @@ import eu.opertusmundi.common.service.AssetDraftException;
 import eu.opertusmundi.common.service.CatalogueService;
 import eu.opertusmundi.common.service.ProviderAssetService;
 import eu.opertusmundi.common.service.integration.DataProviderManager;
+import eu.opertusmundi.web.service.AssetFileTypeRegistry;
 
 @Component
 public class DraftValidator implements Validator {
@@ -73,7 +76,7 @@ public class DraftValidator implements Validator {
 
     private final AssetAdditionalResourceRepository  assetAdditionalResourceRepository;
     private final AssetContractAnnexRepository       assetContractAnnexRepository;
-    private final AssetFileTypeRepository            assetFileTypeRepository;
+    private final AssetFileTypeRegistry              assetFileTypeRegistry;
     private final AssetResourceRepository            assetResourceRepository;
     private final CatalogueService                   catalogueService;
     private final DataProviderManager                dataProviderManager;
@@ -85,7 +88,7 @@ public class DraftValidator implements Validator {
     public DraftValidator(
          AssetAdditionalResourceRepository  assetAdditionalResourceRepository,
          AssetContractAnnexRepository       assetContractAnnexRepository,
-         AssetFileTypeRepository            assetFileTypeRepository,
+         AssetFileTypeRegistry              assetFileTypeRegistry,
          AssetResourceRepository            assetResourceRepository,
          CatalogueService                   catalogueService,
          DataProviderManager                dataProviderManager,
@@ -95,7 +98,7 @@ public class DraftValidator implements Validator {
     ) {
         this.assetAdditionalResourceRepository = assetAdditionalResourceRepository;
         this.assetContractAnnexRepository      = assetContractAnnexRepository;
-        this.assetFileTypeRepository           = assetFileTypeRepository;
+        this.assetFileTypeRegistry             = assetFileTypeRegistry;
         this.assetResourceRepository           = assetResourceRepository;
         this.catalogueService                  = catalogueService;
         this.dataProviderManager               = dataProviderManager;
@@ -217,7 +220,7 @@ public class DraftValidator implements Validator {
         final List<AssetContractAnnexEntity> annexes = this.assetContractAnnexRepository
             .findAllAnnexesByDraftKey(c.getDraftKey());
 
-        final List<String> keys = annexes.stream().map(r -> r.getKey()).collect(Collectors.toList());
+        final Set<String> keys = annexes.stream().map(r -> r.getKey()).collect(Collectors.toSet());
 
         // All contract annex keys must exist
         for (int i = 0; i < c.getContractAnnexes().size(); i++) {
@@ -245,7 +248,7 @@ public class DraftValidator implements Validator {
         }
 
         final EnumAssetType       category = c.getType() == EnumAssetType.SERVICE ? EnumAssetType.VECTOR : c.getType();
-        final AssetFileTypeEntity format   = this.assetFileTypeRepository.findOneByCategoryAndFormat(category, c.getFormat()).orElse(null);
+        final AssetFileTypeEntity format   = this.assetFileTypeRegistry.findOneByCategoryAndFormat(category, c.getFormat()).orElse(null);
 
         if (format == null) {
             e.rejectValue("format", EnumValidatorError.OptionNotFound.name());
@@ -255,14 +258,15 @@ public class DraftValidator implements Validator {
     }
 
     private void validateResources(CatalogueItemCommandDto c, Errors e, EnumValidationMode mode) {
-        final boolean                   resourceRequired = c.getType().isResourceRequired();
-        final List<AssetResourceEntity> serverResources  = this.assetResourceRepository.findAllResourcesByDraftKey(c.getDraftKey());
-        final List<String>              serverKeys       = serverResources.stream().map(r -> r.getKey()).collect(Collectors.toList());
-        final List<String>              fileKeys         = c.getResources().stream()
+        final boolean                          resourceRequired     = c.getType().isResourceRequired();
+        final List<AssetResourceEntity>        serverResources      = this.assetResourceRepository.findAllResourcesByDraftKey(c.getDraftKey());
+        final Map<String, AssetResourceEntity> serverResourcesByKey = serverResources.stream()
+            .collect(Collectors.toMap(AssetResourceEntity::getKey, Function.identity(), (a, b) -> a));
+        final List<String>                     fileKeys             = c.getResources().stream()
             .filter(r -> r.getType() == EnumResourceType.FILE)
             .map(r -> r.getId())
             .collect(Collectors.toList());
-        final List<String>              assetKeys       = c.getResources().stream()
+        final List<String>                     assetKeys            = c.getResources().stream()
             .filter(r -> r.getType() == EnumResourceType.ASSET)
             .map(r -> r.getId())
             .collect(Collectors.toList());
@@ -279,7 +283,7 @@ public class DraftValidator implements Validator {
 
         // All request resource keys must exist at the server
         for (int i = 0; i < fileKeys.size(); i++) {
-            if (!serverKeys.contains(fileKeys.get(i))) {
+            if (!serverResourcesByKey.containsKey(fileKeys.get(i))) {
                 e.rejectValue(String.format("resources[%d]", i), EnumValidatorError.ResourceNotFound.name());
             }
         }
@@ -299,13 +303,15 @@ public class DraftValidator implements Validator {
             }
             // Query catalogue service only if no errors have already found
             if (!e.hasErrors() &&  mode == EnumValidationMode.SUBMIT && !assetKeys.isEmpty()) {
-                final List<CatalogueItemDetailsDto> assets = this.catalogueService
-                    .findAllPublishedById(assetKeys.toArray(new String[assetKeys.size()]), false, false);
+                final Map<String, CatalogueItemDetailsDto> assets = this.catalogueService
+                    .findAllPublishedById(assetKeys.toArray(new String[assetKeys.size()]), false, false)
+                    .stream()
+                    .collect(Collectors.toMap(CatalogueItemDetailsDto::getId, Function.identity(), (a, b) -> a));
 
                 for (int i = 0; i < c.getResources().size(); i++) {
                     final ResourceDto             r  = c.getResources().get(i);
                     final BundleAssetResourceDto  br = (BundleAssetResourceDto) r;
-                    final CatalogueItemDetailsDto ca = assets.stream().filter(a -> a.getId().equals(br.getId())).findFirst().orElse(null);
+                    final CatalogueItemDetailsDto ca = assets.get(br.getId());
                     if (ca == null) {
                         e.rejectValue(String.format("resources[%d].id", i), EnumValidatorError.ReferenceNotFound.name());
                     } else if (!ca.getPublisherId().equals(c.getPublisherKey())) {
@@ -325,9 +331,7 @@ public class DraftValidator implements Validator {
             }
             final FileResourceDto fileRequestResource = (FileResourceDto) requestResource;
 
-            final AssetResourceEntity serverResource = serverResources.stream()
-                .filter(r -> r.getKey().equals(requestResource.getId()))
-                .findFirst().get();
+            final AssetResourceEntity serverResource = serverResourcesByKey.get(requestResource.getId());
 
             if (!serverResource.getFileName().equals(fileRequestResource.getFileName())) {
                 e.rejectValue(String.format("resources[%d].fileName", i), EnumValidatorError.NotUpdatable.name());
@@ -341,12 +345,12 @@ public class DraftValidator implements Validator {
         }
 
         // Check registered resources format
+        final EnumAssetType category = c.getType() == EnumAssetType.SERVICE ? EnumAssetType.VECTOR : c.getType();
+
         for (int i = 0; i < fileKeys.size(); i++) {
-            final String              key       = fileKeys.get(i);
-            final AssetResourceEntity resource  = serverResources.stream().filter(r -> r.getKey().equals(key)).findFirst().orElse(null);
+            final AssetResourceEntity resource  = serverResourcesByKey.get(fileKeys.get(i));
             final String              extension = FilenameUtils.getExtension(resource.getFileName());
-            final EnumAssetType       category  = c.getType() == EnumAssetType.SERVICE ? EnumAssetType.VECTOR : c.getType();
-            final AssetFileTypeEntity format    = this.assetFileTypeRepository.findOneByCategoryAndFormat(category, resource.getFormat()).orElse(null);
+            final AssetFileTypeEntity format    = this.assetFileTypeRegistry.findOneByCategoryAndFormat(category, resource.getFormat()).orElse(null);
 
             if (format == null) {
                 e.rejectValue(String.format("resources[%d].format", i), EnumValidatorError.OptionNotFound.name());
@@ -383,7 +387,7 @@ public class DraftValidator implements Validator {
         final List<AssetAdditionalResourceEntity> resources = this.assetAdditionalResourceRepository
             .findAllResourcesByDraftKey(c.getDraftKey());
 
-        final List<String> keys = resources.stream().map(r -> r.getKey()).collect(Collectors.toList());
+        final Set<String> keys = resources.stream().map(r -> r.getKey()).collect(Collectors.toSet());
 
         // All file additional resource keys must exist
         for (int i = 0; i < c.getAdditionalResources().size(); i++) {
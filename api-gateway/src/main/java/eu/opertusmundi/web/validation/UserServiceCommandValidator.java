@@ -12,20 +12,20 @@ import eu.opertusmundi.common.model.asset.service.UserServiceCommandDto;
 import eu.opertusmundi.common.model.catalogue.client.EnumAssetType;
 import eu.opertusmundi.common.model.file.FilePathCommand;
 import eu.opertusmundi.common.model.file.FileSystemException;
-import eu.opertusmundi.common.repository.AssetFileTypeRepository;
 import eu.opertusmundi.common.service.UserFileManager;
+import eu.opertusmundi.web.service.AssetFileTypeRegistry;
 
 @Component
 public class UserServiceCommandValidator implements Validator {
 
-    private final AssetFileTypeRepository assetFileTypeRepository;
+    private final AssetFileTypeRegistry assetFileTypeRegistry;
 
     private final UserFileManager userFileManager;
 
     @Autowired
-    public UserServiceCommandValidator(AssetFileTypeRepository assetFileTypeRepository, UserFileManager userFileManager) {
-        this.assetFileTypeRepository = assetFileTypeRepository;
-        this.userFileManager         = userFileManager;
+    public UserServiceCommandValidator(AssetFileTypeRegistry assetFileTypeRegistry, UserFileManager userFileManager) {
+        this.assetFileTypeRegistry = assetFileTypeRegistry;
+        this.userFileManager       = userFileManager;
     }
 
     @Override
@@ -58,7 +58,7 @@ public class UserServiceCommandValidator implements Validator {
             return;
         }
 
-        final AssetFileTypeEntity format = this.assetFileTypeRepository
+        final AssetFileTypeEntity format = this.assetFileTypeRegistry
             .findOneByCategoryAndFormat(EnumAssetType.VECTOR, command.getFormat())
             .orElse(null);
 
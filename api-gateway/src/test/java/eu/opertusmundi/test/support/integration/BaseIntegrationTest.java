@@ -79,7 +79,10 @@ public class BaseIntegrationTest {
         registry.add("spring.flyway.enabled", () -> true);
         registry.add("spring.flyway.baseline-version", () -> "0_0_0");
         registry.add("spring.flyway.baseline-on-migrate", () -> true);
-        registry.add("spring.flyway.locations", () -> "filesystem:${application.parent.project.base-dir}/cli/src/main/resources/db/migration");
+        registry.add("spring.flyway.locations", () -> String.join(",",
+            "filesystem:${application.parent.project.base-dir}/cli/src/main/resources/db/migration",
+            "filesystem:${application.parent.project.base-dir}/api-gateway/resources/db/migration"
+        ));
         registry.add("spring.flyway.schemas", () -> "public,web");
         registry.add("spring.flyway.table", () -> "db_version");
 
@@ -6,9 +6,11 @@ import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.io.IOException;
@@ -168,7 +170,11 @@ public class CatalogueControllerITCase extends AbstractIntegrationTest {
     @DisplayName(value = "When searching with any valid query, returns data")
     @Disabled(value = "Requires Elasticsearch integration")
     void whenSearchWithValidQuery_returnData() throws Exception {
-        final MvcResult mvcResult = this.mockMvc.perform(get("/action/catalogue?page=0&size=10&query=test"))
+        final MvcResult asyncResult = this.mockMvc.perform(get("/action/catalogue?page=0&size=10&query=test"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        final MvcResult mvcResult = this.mockMvc.perform(asyncDispatch(asyncResult))
             .andExpect(content().contentType(MediaType.APPLICATION_JSON))
             .andExpect(status().isOk())
             .andReturn();
@@ -197,7 +203,11 @@ public class CatalogueControllerITCase extends AbstractIntegrationTest {
     @DisplayName(value = "When query selects no items, returns empty result")
     @Disabled(value = "Requires Elasticsearch integration")
     void whenQueryThatSelectsNoItems_returnError() throws Exception {
-        final MvcResult mvcResult = this.mockMvc.perform(get("/action/catalogue?page=0&size=10&query=nothing"))
+        final MvcResult asyncResult = this.mockMvc.perform(get("/action/catalogue?page=0&size=10&query=nothing"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        final MvcResult mvcResult = this.mockMvc.perform(asyncDispatch(asyncResult))
             .andExpect(content().contentType(MediaType.APPLICATION_JSON))
             .andExpect(status().isOk())
             .andReturn();
@@ -227,8 +237,12 @@ public class CatalogueControllerITCase extends AbstractIntegrationTest {
     @Tag(value = "Controller")
     @DisplayName(value = "When searching for existing item, returns data")
     void whenSearchForItem_returnData() throws Exception {
-        final MvcResult mvcResult = this.mockMvc.perform(get("/action/catalogue/items/{id}", UUID.randomUUID())
+        final MvcResult asyncResult = this.mockMvc.perform(get("/action/catalogue/items/{id}", UUID.randomUUID())
             .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        final MvcResult mvcResult = this.mockMvc.perform(asyncDispatch(asyncResult))
             .andExpect(content().contentType(MediaType.APPLICATION_JSON))
             .andExpect(status().isOk())
             .andReturn();
@@ -247,8 +261,12 @@ public class CatalogueControllerITCase extends AbstractIntegrationTest {
     @Tag(value = "Controller")
     @DisplayName(value = "When searching for item that does not exist, returns error")
     void whenSearchForItemThatDoesNotExist_returnError() throws Exception {
-        this.mockMvc.perform(get("/action/catalogue/items/{id}", CatalogueControllerITCase.notFoundAssetId)
+        final MvcResult asyncResult = this.mockMvc.perform(get("/action/catalogue/items/{id}", CatalogueControllerITCase.notFoundAssetId)
             .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(asyncResult))
             .andExpect(content().contentType(MediaType.APPLICATION_JSON))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.success").isBoolean())
@@ -3,6 +3,7 @@ package eu.opertusmundi.web.integration.controller.action;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -10,10 +11,12 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.datasource.init.ScriptUtils;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.web.servlet.MvcResult;
 
 import eu.opertusmundi.common.model.EnumAuthProvider;
 import eu.opertusmundi.test.support.integration.AbstractIntegrationTest;
@@ -44,4 +47,21 @@ public class ConfigurationControllerITCase extends AbstractIntegrationTest {
             .andExpect(jsonPath("$.result.authProviders[?(@ == '" + EnumAuthProvider.Forms.toString() + "')]").exists());
     }
 
+    @Test
+    @Tag(value = "Controller")
+    @DisplayName(value = "When ETag matches, return not modified")
+    void whenETagMatches_returnNotModified() throws Exception {
+        final MvcResult result = this.mockMvc.perform(get("/action/configuration/{locale}", "el"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn();
+
+        final String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+
+        this.mockMvc.perform(get("/action/configuration/{locale}", "el")
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
 }
@@ -2,8 +2,10 @@ package eu.opertusmundi.web.integration.controller.action;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.io.IOException;
@@ -87,7 +89,11 @@ public class DiscoveryControllerITCase extends AbstractIntegrationTest {
     @Tag(value = "Controller")
     @DisplayName(value = "When searching joinable, returns data")
     void whenSearchJoinable_returnData() throws Exception {
-        final MvcResult mvcResult = this.mockMvc.perform(get("/action/discovery/joinable/1"))
+        final MvcResult asyncResult = this.mockMvc.perform(get("/action/discovery/joinable/1"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        final MvcResult mvcResult = this.mockMvc.perform(asyncDispatch(asyncResult))
             .andExpect(content().contentType(MediaType.APPLICATION_JSON))
             .andExpect(status().isOk())
             .andReturn();
@@ -133,7 +139,11 @@ public class DiscoveryControllerITCase extends AbstractIntegrationTest {
     @Tag(value = "Controller")
     @DisplayName(value = "When searching related, returns data")
     void whenSearchRelated_returnData() throws Exception {
-        final MvcResult mvcResult = this.mockMvc.perform(get("/action/discovery/related/1?target=2&target=3"))
+        final MvcResult asyncResult = this.mockMvc.perform(get("/action/discovery/related/1?target=2&target=3"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        final MvcResult mvcResult = this.mockMvc.perform(asyncDispatch(asyncResult))
             .andExpect(content().contentType(MediaType.APPLICATION_JSON))
             .andExpect(status().isOk())
             .andReturn();
@@ -0,0 +1,131 @@
+package eu.opertusmundi.web.unit.model.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import eu.opertusmundi.web.model.file.WmsTileKey;
+
+public class WmsTileKeyTests {
+
+    private static final String WORKSPACE = "workspace";
+
+    private static final String LAYER = "layer";
+
+    private static final int SIZE = 256;
+
+    private static Stream<Arguments> createAlignedParameters() {
+        return Stream.of(
+            Arguments.of("-180,-90,0,90", 0, 0, 0),
+            Arguments.of("0,-90,180,90", 0, 1, 0),
+            Arguments.of("-90,0,0,90", 1, 1, 1),
+            Arguments.of("22.5,33.75,28.125,39.375", 5, 36, 22),
+            Arguments.of("23.7249755859375,37.98248291015625,23.72772216796875,37.9852294921875", 16, 74174, 46597)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("createAlignedParameters")
+    void testAligned(String bbox, int z, int x, int y) throws Exception {
+        final WmsTileKey key = WmsTileKey.of(WORKSPACE, LAYER, bbox, SIZE);
+
+        assertThat(key).isNotNull();
+        assertThat(key.getZ()).isEqualTo(z);
+        assertThat(key.getX()).isEqualTo(x);
+        assertThat(key.getY()).isEqualTo(y);
+        assertThat(key.getSize()).isEqualTo(SIZE);
+    }
+
+    @Test
+    void testWithinTolerance() throws Exception {
+        // At zoom level 5, a pixel spans 5.625 / 256 degrees
+        final double pixel = WmsTileKey.span(5) / SIZE;
+        final double delta = 0.4 * pixel;
+        final String bbox  = String.format("%s,%s,%s,%s", 22.5 + delta, 33.75 - delta, 28.125 + delta, 39.375 - delta);
+
+        final WmsTileKey key = WmsTileKey.of(WORKSPACE, LAYER, bbox, SIZE);
+
+        assertThat(key).isEqualTo(WmsTileKey.of(WORKSPACE, LAYER, "22.5,33.75,28.125,39.375", SIZE));
+    }
+
+    @Test
+    void testBeyondTolerance() throws Exception {
+        final double pixel = WmsTileKey.span(5) / SIZE;
+        final double delta = 0.6 * pixel;
+
+        // Shifted grid cell
+        assertThat(WmsTileKey.of(
+            WORKSPACE, LAYER, String.format("%s,%s,%s,%s", 22.5 + delta, 33.75, 28.125 + delta, 39.375), SIZE
+        )).isNull();
+        assertThat(WmsTileKey.of(
+            WORKSPACE, LAYER, String.format("%s,%s,%s,%s", 22.5, 33.75 + delta, 28.125, 39.375 + delta), SIZE
+        )).isNull();
+        // Scaled grid cell
+        assertThat(WmsTileKey.of(
+            WORKSPACE, LAYER, String.format("%s,%s,%s,%s", 22.5, 33.75, 28.125 + delta, 39.375), SIZE
+        )).isNull();
+    }
+
+    @Test
+    void testToleranceDependsOnSize() throws Exception {
+        final double delta = 0.4 * WmsTileKey.span(5) / SIZE;
+        final String bbox  = String.format("%s,%s,%s,%s", 22.5 + delta, 33.75, 28.125 + delta, 39.375);
+
+        assertThat(WmsTileKey.of(WORKSPACE, LAYER, bbox, SIZE)).isNotNull();
+        assertThat(WmsTileKey.of(WORKSPACE, LAYER, bbox, SIZE * 2)).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        // Not square
+        "22.5,33.75,28.125,45",
+        // Half a cell off the grid
+        "25.3125,33.75,30.9375,39.375",
+        // Not a power of two
+        "0,0,50,50",
+        // Larger than zoom level 0
+        "-180,-90,180,270",
+        // Smaller than the max zoom level
+        "0,0,0.000001,0.000001",
+        // Empty or inverted
+        "0,0,0,0",
+        "28.125,39.375,22.5,33.75",
+        // Malformed
+        "",
+        "22.5,33.75,28.125",
+        "a,b,c,d",
+    })
+    void testNotAligned(String bbox) throws Exception {
+        assertThat(WmsTileKey.of(WORKSPACE, LAYER, bbox, SIZE)).isNull();
+    }
+
+    @Test
+    void testInvalidArguments() throws Exception {
+        assertThat(WmsTileKey.of(WORKSPACE, LAYER, null, SIZE)).isNull();
+        assertThat(WmsTileKey.of(WORKSPACE, LAYER, "22.5,33.75,28.125,39.375", 0)).isNull();
+    }
+
+    @ParameterizedTest
+    @MethodSource("createAlignedParameters")
+    void testToBbox(String bbox, int z, int x, int y) throws Exception {
+        final WmsTileKey key = WmsTileKey.of(WORKSPACE, LAYER, bbox, SIZE);
+
+        assertThat(WmsTileKey.of(WORKSPACE, LAYER, key.toBbox(), SIZE)).isEqualTo(key);
+    }
+
+    @Test
+    void testEquality() throws Exception {
+        final String bbox = "22.5,33.75,28.125,39.375";
+
+        assertThat(WmsTileKey.of(WORKSPACE, LAYER, bbox, SIZE)).isEqualTo(WmsTileKey.of(WORKSPACE, LAYER, bbox, SIZE));
+        assertThat(WmsTileKey.of(WORKSPACE, LAYER, bbox, SIZE)).isNotEqualTo(WmsTileKey.of(WORKSPACE, "other", bbox, SIZE));
+        assertThat(WmsTileKey.of(WORKSPACE, LAYER, bbox, SIZE)).isNotEqualTo(WmsTileKey.of(WORKSPACE, LAYER, bbox, SIZE * 2));
+    }
+
+}
@@ -0,0 +1,394 @@
+package eu.opertusmundi.web.unit.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import eu.opertusmundi.web.security.NearCacheSessionRepository;
+import eu.opertusmundi.web.security.NearCacheSessionRepository.CachedSession;
+
+public class NearCacheSessionRepositoryTests {
+
+    private static final Duration LONG_INTERVAL = Duration.ofHours(1);
+
+    private InMemorySessionRepository delegate;
+
+    private VersionJdbcTemplate jdbcTemplate;
+
+    private CaffeineCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        this.delegate     = new InMemorySessionRepository();
+        this.jdbcTemplate = new VersionJdbcTemplate(this.delegate);
+        this.cacheManager = new CaffeineCacheManager();
+
+        this.cacheManager.registerCustomCache(NearCacheSessionRepository.CACHE_NAME, Caffeine.newBuilder().build());
+    }
+
+    @Test
+    void testCachedSessionIsUsedWithinValidationInterval() throws Exception {
+        final NearCacheSessionRepository repository = this.createRepository(LONG_INTERVAL, LONG_INTERVAL);
+        final String                     id         = this.createSession(repository, false);
+
+        assertThat(repository.findById(id)).isNotNull();
+        assertThat(repository.findById(id)).isNotNull();
+
+        assertThat(this.delegate.loads).isEqualTo(1);
+        assertThat(this.jdbcTemplate.versionQueries).isEqualTo(1);
+    }
+
+    @Test
+    void testCachedSessionIsUsedIfVersionIsUnchanged() throws Exception {
+        final NearCacheSessionRepository repository = this.createRepository(Duration.ZERO, LONG_INTERVAL);
+        final String                     id         = this.createSession(repository, false);
+
+        assertThat(repository.findById(id)).isNotNull();
+        assertThat(repository.findById(id)).isNotNull();
+
+        assertThat(this.delegate.loads).isEqualTo(1);
+        assertThat(this.jdbcTemplate.versionQueries).isEqualTo(2);
+    }
+
+    @Test
+    void testSessionIsReloadedOnVersionConflict() throws Exception {
+        final NearCacheSessionRepository repository = this.createRepository(Duration.ZERO, LONG_INTERVAL);
+        final String                     id         = this.createSession(repository, false);
+
+        assertThat(repository.findById(id).<String>getAttribute("locale")).isNull();
+
+        // Another node updates the session
+        this.delegate.update(id, "locale", "el");
+
+        assertThat(repository.findById(id).<String>getAttribute("locale")).isEqualTo("el");
+        assertThat(this.delegate.loads).isEqualTo(2);
+    }
+
+    @Test
+    void testAnonymousSessionUpdateIsObservedAfterValidationInterval() throws Exception {
+        final NearCacheSessionRepository repository = this.createRepository(LONG_INTERVAL, LONG_INTERVAL);
+        final String                     id         = this.createSession(repository, false);
+
+        assertThat(repository.findById(id)).isNotNull();
+
+        this.delegate.update(id, "locale", "el");
+
+        assertThat(repository.findById(id).<String>getAttribute("locale")).isNull();
+    }
+
+    @Test
+    void testAuthenticatedSessionIsValidatedOnEveryRequest() throws Exception {
+        final NearCacheSessionRepository repository = this.createRepository(LONG_INTERVAL, LONG_INTERVAL);
+        final String                     id         = this.createSession(repository, true);
+
+        assertThat(repository.findById(id)).isNotNull();
+        assertThat(repository.findById(id)).isNotNull();
+        assertThat(this.jdbcTemplate.versionQueries).isEqualTo(2);
+
+        // Another node updates the session
+        this.delegate.update(id, "locale", "el");
+
+        assertThat(repository.findById(id).<String>getAttribute("locale")).isEqualTo("el");
+    }
+
+    @Test
+    void testAuthenticatedSessionDeletedByOtherNodeIsNotFound() throws Exception {
+        final NearCacheSessionRepository repository = this.createRepository(LONG_INTERVAL, LONG_INTERVAL);
+        final String                     id         = this.createSession(repository, true);
+
+        assertThat(repository.findById(id)).isNotNull();
+
+        // Logout on another node
+        this.delegate.deleteById(id);
+
+        assertThat(repository.findById(id)).isNull();
+    }
+
+    @Test
+    void testAuthenticatedSessionIdChangedByOtherNodeIsNotFound() throws Exception {
+        final NearCacheSessionRepository repository = this.createRepository(LONG_INTERVAL, LONG_INTERVAL);
+        final String                     id         = this.createSession(repository, true);
+
+        assertThat(repository.findById(id)).isNotNull();
+
+        // Session fixation protection on another node
+        final String newId = this.delegate.changeSessionId(id);
+
+        assertThat(repository.findById(id)).isNull();
+        assertThat(repository.findById(newId)).isNotNull();
+    }
+
+    @Test
+    void testSessionIdChange() throws Exception {
+        final NearCacheSessionRepository repository = this.createRepository(LONG_INTERVAL, LONG_INTERVAL);
+        final String                     id         = this.createSession(repository, false);
+
+        final CachedSession session = repository.findById(id);
+        final String        newId   = session.changeSessionId();
+
+        repository.save(session);
+
+        assertThat(newId).isNotEqualTo(id);
+        assertThat(repository.findById(id)).isNull();
+        assertThat(repository.findById(newId)).isNotNull();
+        assertThat(this.delegate.sessions).containsOnlyKeys(newId);
+    }
+
+    @Test
+    void testDeletedSessionIsNotFound() throws Exception {
+        final NearCacheSessionRepository repository = this.createRepository(LONG_INTERVAL, LONG_INTERVAL);
+        final String                     id         = this.createSession(repository, false);
+
+        assertThat(repository.findById(id)).isNotNull();
+
+        repository.deleteById(id);
+
+        assertThat(repository.findById(id)).isNull();
+        assertThat(this.delegate.sessions).isEmpty();
+    }
+
+    @Test
+    void testExpiredSessionIsNotFound() throws Exception {
+        final NearCacheSessionRepository repository = this.createRepository(LONG_INTERVAL, LONG_INTERVAL);
+        final CachedSession              session    = repository.createSession();
+
+        session.setMaxInactiveInterval(Duration.ofSeconds(1));
+        repository.save(session);
+
+        assertThat(repository.findById(session.getId())).isNotNull();
+
+        Thread.sleep(1100);
+
+        assertThat(repository.findById(session.getId())).isNull();
+    }
+
+    @Test
+    void testModifiedAttributeIsSaved() throws Exception {
+        final NearCacheSessionRepository repository = this.createRepository(LONG_INTERVAL, LONG_INTERVAL);
+        final String                     id         = this.createSession(repository, false);
+        final long                       version    = this.delegate.versions.get(id);
+
+        final CachedSession session = repository.findById(id);
+        session.setAttribute("locale", "el");
+        repository.save(session);
+
+        assertThat(this.delegate.sessions.get(id).<String>getAttribute("locale")).isEqualTo("el");
+        assertThat(this.delegate.versions.get(id)).isEqualTo(version + 1);
+        assertThat(repository.findById(id).<String>getAttribute("locale")).isEqualTo("el");
+    }
+
+    @Test
+    void testAttributeModifiedInPlaceDoesNotAffectCachedSession() throws Exception {
+        final NearCacheSessionRepository repository = this.createRepository(LONG_INTERVAL, LONG_INTERVAL);
+        final CachedSession              created    = repository.createSession();
+
+        created.setAttribute("cart", new ArrayList<>(List.of("asset-1")));
+        repository.save(created);
+
+        final String id = created.getId();
+
+        // Loaded from the delegate
+        repository.findById(id).<List<String>>getAttribute("cart").add("asset-2");
+        // Found in the cache
+        repository.findById(id).<List<String>>getAttribute("cart").add("asset-3");
+
+        assertThat(repository.findById(id).<List<String>>getAttribute("cart")).containsExactly("asset-1");
+        assertThat(this.delegate.loads).isEqualTo(1);
+    }
+
+    @Test
+    void testSecurityContextModifiedInPlaceDoesNotAffectCachedSession() throws Exception {
+        final NearCacheSessionRepository repository = this.createRepository(LONG_INTERVAL, LONG_INTERVAL);
+        final String                     id         = this.createSession(repository, true);
+
+        repository.findById(id);
+
+        // Logout clears the authentication of the shared security context
+        final SecurityContext context = repository.findById(id).getAttribute(
+            HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY
+        );
+        context.setAuthentication(null);
+
+        final SecurityContext cached = repository.findById(id).getAttribute(
+            HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY
+        );
+        assertThat(cached).isNotSameAs(context);
+        assertThat(cached.getAuthentication()).isNotNull();
+        assertThat(this.delegate.loads).isEqualTo(1);
+    }
+
+    @Test
+    void testUnmodifiedSessionIsNotSaved() throws Exception {
+        final NearCacheSessionRepository repository = this.createRepository(LONG_INTERVAL, LONG_INTERVAL);
+        final String                     id         = this.createSession(repository, false);
+        final long                       version    = this.delegate.versions.get(id);
+
+        final CachedSession session = repository.findById(id);
+        session.setAttribute("locale", null);
+        session.setLastAccessedTime(Instant.now());
+        repository.save(session);
+
+        assertThat(this.delegate.versions.get(id)).isEqualTo(version);
+        assertThat(this.jdbcTemplate.updates).isZero();
+    }
+
+    @Test
+    void testLastAccessTimeIsWrittenAfterTouchInterval() throws Exception {
+        final NearCacheSessionRepository repository = this.createRepository(LONG_INTERVAL, Duration.ZERO);
+        final String                     id         = this.createSession(repository, false);
+        final long                       version    = this.delegate.versions.get(id);
+
+        final CachedSession session = repository.findById(id);
+        session.setLastAccessedTime(session.getLastAccessedTime().plusSeconds(1));
+        repository.save(session);
+
+        assertThat(this.delegate.versions.get(id)).isEqualTo(version);
+        assertThat(this.jdbcTemplate.updates).isEqualTo(1);
+    }
+
+    private NearCacheSessionRepository createRepository(Duration validationInterval, Duration touchInterval) {
+        return new NearCacheSessionRepository(
+            this.delegate, this.jdbcTemplate, this.cacheManager, "web.spring_session", validationInterval, touchInterval
+        );
+    }
+
+    private String createSession(NearCacheSessionRepository repository, boolean authenticated) {
+        final CachedSession session = repository.createSession();
+
+        if (authenticated) {
+            session.setAttribute(
+                HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+                new SecurityContextImpl(new TestingAuthenticationToken("user", null, "ROLE_USER"))
+            );
+        }
+        repository.save(session);
+
+        return session.getId();
+    }
+
+    /**
+     * Session repository that, like the JDBC session repository, increments
+     * the session version whenever a session is updated
+     */
+    private static class InMemorySessionRepository implements FindByIndexNameSessionRepository<MapSession> {
+
+        private final Map<String, MapSession> sessions = new HashMap<>();
+
+        private final Map<String, Long> versions = new HashMap<>();
+
+        private int loads;
+
+        @Override
+        public MapSession createSession() {
+            return new MapSession();
+        }
+
+        @Override
+        public void save(MapSession session) {
+            final String originalId = session.getOriginalId();
+
+            if (!originalId.equals(session.getId())) {
+                this.sessions.remove(originalId);
+                this.versions.put(session.getId(), this.versions.remove(originalId));
+            }
+            // The copy has the current identifier as its original identifier
+            this.sessions.put(session.getId(), new MapSession(session));
+            this.versions.merge(session.getId(), 0L, (current, value) -> current + 1);
+        }
+
+        @Override
+        public MapSession findById(String id) {
+            this.loads++;
+
+            final MapSession session = this.sessions.get(id);
+            if (session == null) {
+                return null;
+            }
+            if (session.isExpired()) {
+                this.deleteById(id);
+                return null;
+            }
+            return new MapSession(session);
+        }
+
+        @Override
+        public void deleteById(String id) {
+            this.sessions.remove(id);
+            this.versions.remove(id);
+        }
+
+        @Override
+        public Map<String, MapSession> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+            return Map.of();
+        }
+
+        private void update(String id, String attributeName, Object attributeValue) {
+            final MapSession session = new MapSession(this.sessions.get(id));
+
+            session.setAttribute(attributeName, attributeValue);
+            this.save(session);
+        }
+
+        private String changeSessionId(String id) {
+            final MapSession session = new MapSession(this.sessions.get(id));
+            final String     newId   = session.changeSessionId();
+
+            this.save(session);
+
+            return newId;
+        }
+
+    }
+
+    /**
+     * Answers the session version query and counts last access time updates
+     */
+    private static class VersionJdbcTemplate extends JdbcTemplate {
+
+        private final InMemorySessionRepository repository;
+
+        private int versionQueries;
+
+        private int updates;
+
+        private VersionJdbcTemplate(InMemorySessionRepository repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T query(String sql, ResultSetExtractor<T> rse, Object... args) {
+            this.versionQueries++;
+
+            return (T) this.repository.versions.get((String) args[0]);
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            this.updates++;
+
+            return 1;
+        }
+
+    }
+
+}
@@ -0,0 +1,205 @@
+package eu.opertusmundi.web.unit.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import eu.opertusmundi.common.model.PageResultDto;
+import eu.opertusmundi.common.model.catalogue.CatalogueResult;
+import eu.opertusmundi.common.model.catalogue.client.CatalogueItemDto;
+import eu.opertusmundi.common.service.CatalogueService;
+import eu.opertusmundi.common.service.DataAnalysisService;
+import eu.opertusmundi.web.model.catalogue.CatalogueSuggestionDto;
+import eu.opertusmundi.web.model.catalogue.EnumCatalogueSuggestionType;
+import eu.opertusmundi.web.service.DefaultCatalogueSuggestionService;
+
+public class DefaultCatalogueSuggestionServiceTests {
+
+    private CatalogueService catalogueService;
+
+    private DataAnalysisService analysisService;
+
+    private DefaultCatalogueSuggestionService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.catalogueService = mock(CatalogueService.class);
+        this.analysisService  = mock(DataAnalysisService.class);
+        this.service          = new DefaultCatalogueSuggestionService(this.catalogueService, this.analysisService);
+
+        ReflectionTestUtils.setField(this.service, "enabled", true);
+
+        when(this.analysisService.executePopularTerms(any())).thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    void testSuggestionsAreNotAvailableBeforeRefresh() throws Exception {
+        assertThat(this.service.isAvailable()).isFalse();
+        assertThat(this.service.suggest("road", 10)).isEmpty();
+    }
+
+    @Test
+    void testPrefixMatchesBeginningOfAnyWord() throws Exception {
+        this.setAssets(item("1", "Land cover of Greece"), item("2", "Road network"), item("3", "Greek islands"));
+
+        assertThat(this.service.refresh()).isEqualTo(3);
+        assertThat(this.service.isAvailable()).isTrue();
+
+        assertThat(texts(this.service.suggest("gree", 10))).containsExactlyInAnyOrder("Land cover of Greece", "Greek islands");
+        assertThat(texts(this.service.suggest("cover", 10))).containsExactly("Land cover of Greece");
+        assertThat(texts(this.service.suggest("over", 10))).isEmpty();
+    }
+
+    @Test
+    void testPrefixIsNormalized() throws Exception {
+        this.setAssets(item("1", "Café   locations"));
+        this.service.refresh();
+
+        assertThat(texts(this.service.suggest("  CAFE  LOC", 10))).containsExactly("Café   locations");
+    }
+
+    @Test
+    void testShortPrefixIsIgnored() throws Exception {
+        this.setAssets(item("1", "Road network"));
+        this.service.refresh();
+
+        assertThat(this.service.suggest("r", 10)).isEmpty();
+        assertThat(this.service.suggest("ro", 0)).isEmpty();
+    }
+
+    @Test
+    void testLowerBoundAtIndexBoundaries() throws Exception {
+        this.setAssets(item("1", "Road network"), item("2", "Rivers"), item("3", "Buildings"));
+        this.service.refresh();
+
+        // Prefixes before the first and after the last position
+        assertThat(this.service.suggest("aa", 10)).isEmpty();
+        assertThat(this.service.suggest("zz", 10)).isEmpty();
+
+        // First and last position
+        assertThat(texts(this.service.suggest("bu", 10))).containsExactly("Buildings");
+        assertThat(texts(this.service.suggest("road", 10))).containsExactly("Road network");
+
+        // Prefix equal to and longer than an indexed value
+        assertThat(texts(this.service.suggest("road network", 10))).containsExactly("Road network");
+        assertThat(this.service.suggest("road networks", 10)).isEmpty();
+    }
+
+    @Test
+    void testEachValueIsSuggestedOnce() throws Exception {
+        this.setAssets(item("1", "Road roads roadmap"));
+        this.service.refresh();
+
+        assertThat(texts(this.service.suggest("road", 10))).containsExactly("Road roads roadmap");
+    }
+
+    @Test
+    void testSuggestionsAreRankedByPopularity() throws Exception {
+        when(this.analysisService.executePopularTerms(any())).thenReturn(List.of(ImmutablePair.of("Roads", 5)));
+
+        this.setAssets(item("1", "Roadmap 2030"), item("2", "Roads of Athens"));
+        this.service.refresh();
+
+        final List<CatalogueSuggestionDto> result = this.service.suggest("road", 10);
+
+        assertThat(texts(result)).containsExactly("Roads of Athens", "Roadmap 2030");
+        assertThat(result.get(0).getScore()).isGreaterThan(result.get(1).getScore());
+        assertThat(result.get(0).getType()).isEqualTo(EnumCatalogueSuggestionType.ASSET);
+        assertThat(result.get(0).getId()).isEqualTo("2");
+    }
+
+    @Test
+    void testLimitKeepsHighestScores() throws Exception {
+        when(this.analysisService.executePopularTerms(any())).thenReturn(List.of(
+            ImmutablePair.of("dataset 3", 3), ImmutablePair.of("dataset 7", 7), ImmutablePair.of("dataset 5", 5)
+        ));
+
+        final CatalogueItemDto[] items = new CatalogueItemDto[10];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = item(Integer.toString(i), "Dataset " + i);
+        }
+        this.setAssets(items);
+        this.service.refresh();
+
+        assertThat(texts(this.service.suggest("data", 2))).containsExactly("Dataset 7", "Dataset 5");
+        assertThat(texts(this.service.suggest("data", 3))).containsExactly("Dataset 7", "Dataset 5", "Dataset 3");
+        assertThat(this.service.suggest("data", 20)).hasSize(10);
+    }
+
+    @Test
+    void testRemovedAssetIsExcluded() throws Exception {
+        this.setAssets(item("1", "Road network"), item("2", "Road works"));
+        this.service.refresh();
+
+        this.service.removeAsset("1");
+
+        assertThat(texts(this.service.suggest("road", 10))).containsExactly("Road works");
+    }
+
+    @Test
+    void testRemovalBeforeRefreshIsCleared() throws Exception {
+        this.setAssets(item("1", "Road network"));
+        this.service.refresh();
+        this.service.removeAsset("1");
+
+        // The asset has been published again
+        this.service.refresh();
+
+        assertThat(texts(this.service.suggest("road", 10))).containsExactly("Road network");
+    }
+
+    @Test
+    void testRemovalDuringRefreshIsRetained() throws Exception {
+        final CatalogueResult<CatalogueItemDto> result = this.createResult(item("1", "Road network"), item("2", "Road works"));
+
+        when(this.catalogueService.findAll(any(), any())).thenAnswer(invocation -> {
+            // The asset is unpublished after the catalogue page is read
+            this.service.removeAsset("1");
+            return result;
+        });
+        this.service.refresh();
+
+        assertThat(texts(this.service.suggest("road", 10))).containsExactly("Road works");
+    }
+
+    private void setAssets(CatalogueItemDto... items) throws Exception {
+        final CatalogueResult<CatalogueItemDto> result = this.createResult(items);
+
+        when(this.catalogueService.findAll(any(), any())).thenReturn(result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CatalogueResult<CatalogueItemDto> createResult(CatalogueItemDto... items) {
+        final PageResultDto<CatalogueItemDto>   page   = mock(PageResultDto.class);
+        final CatalogueResult<CatalogueItemDto> result = mock(CatalogueResult.class);
+
+        when(page.getItems()).thenReturn(Arrays.asList(items));
+        when(result.getResult()).thenReturn(page);
+
+        return result;
+    }
+
+    private static CatalogueItemDto item(String id, String title) {
+        final CatalogueItemDto item = mock(CatalogueItemDto.class);
+
+        when(item.getId()).thenReturn(id);
+        when(item.getTitle()).thenReturn(title);
+
+        return item;
+    }
+
+    private static List<String> texts(List<CatalogueSuggestionDto> suggestions) {
+        return suggestions.stream().map(CatalogueSuggestionDto::getText).toList();
+    }
+
+}
@@ -0,0 +1,360 @@
+package eu.opertusmundi.web.unit.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.validation.Errors;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import eu.opertusmundi.common.model.BasicMessageCode;
+import eu.opertusmundi.common.model.ServiceException;
+import eu.opertusmundi.common.model.account.AccountDto;
+import eu.opertusmundi.common.model.catalogue.client.CatalogueItemCommandDto;
+import eu.opertusmundi.common.service.ProviderAssetService;
+import eu.opertusmundi.web.domain.DraftSubmissionJobEntity;
+import eu.opertusmundi.web.model.asset.DraftSubmissionJobDto;
+import eu.opertusmundi.web.model.asset.EnumDraftSubmissionStatus;
+import eu.opertusmundi.web.repository.DraftSubmissionJobRepository;
+import eu.opertusmundi.web.service.DefaultDraftSubmissionService;
+import eu.opertusmundi.web.validation.DraftValidator;
+
+public class DefaultDraftSubmissionServiceTests {
+
+    private static final UUID PUBLISHER_A = UUID.randomUUID();
+
+    private static final UUID PUBLISHER_B = UUID.randomUUID();
+
+    private DraftValidator draftValidator;
+
+    private ProviderAssetService providerAssetService;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private DraftSubmissionJobRepository jobRepository;
+
+    private AccountDto account;
+
+    /**
+     * Tasks submitted to the executor. Tasks are executed by the tests
+     */
+    private Deque<Runnable> tasks;
+
+    private DefaultDraftSubmissionService service;
+
+    @BeforeEach
+    void setUp() {
+        this.draftValidator       = mock(DraftValidator.class);
+        this.providerAssetService = mock(ProviderAssetService.class);
+        this.executor             = mock(ThreadPoolTaskExecutor.class);
+        this.jobRepository        = mock(DraftSubmissionJobRepository.class);
+        this.account              = mock(AccountDto.class);
+        this.tasks                = new ArrayDeque<>();
+
+        doAnswer(invocation -> this.tasks.add(invocation.getArgument(0))).when(this.executor).execute(any(Runnable.class));
+
+        final CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(DefaultDraftSubmissionService.CACHE_NAME, Caffeine.newBuilder().build());
+
+        this.service = new DefaultDraftSubmissionService(
+            this.draftValidator, this.providerAssetService, this.executor, this.jobRepository, new ObjectMapper().findAndRegisterModules(), cacheManager
+        );
+
+        ReflectionTestUtils.setField(this.service, "maxPendingPerPublisher", 2);
+        ReflectionTestUtils.setField(this.service, "eventStreamTimeoutSeconds", 60L);
+        ReflectionTestUtils.setField(this.service, "jobTtlSeconds", 3600L);
+    }
+
+    @Test
+    void testJobsOfPublisherAreExecutedInSubmissionOrder() throws Exception {
+        final CatalogueItemCommandDto a1 = command(PUBLISHER_A);
+        final CatalogueItemCommandDto a2 = command(PUBLISHER_A);
+        final CatalogueItemCommandDto b1 = command(PUBLISHER_B);
+
+        final DraftSubmissionJobDto jobA1 = this.service.submit(this.account, a1);
+        final DraftSubmissionJobDto jobA2 = this.service.submit(this.account, a2);
+        final DraftSubmissionJobDto jobB1 = this.service.submit(this.account, b1);
+
+        // The second job of publisher A waits for the first one
+        assertThat(this.tasks).hasSize(2);
+        assertThat(jobA2.getStatus()).isEqualTo(EnumDraftSubmissionStatus.QUEUED);
+
+        this.tasks.poll().run();
+
+        assertThat(this.service.findOne(PUBLISHER_A, jobA1.getKey()).getStatus()).isEqualTo(EnumDraftSubmissionStatus.COMPLETED);
+        assertThat(this.service.findOne(PUBLISHER_A, jobA2.getKey()).getStatus()).isEqualTo(EnumDraftSubmissionStatus.QUEUED);
+        assertThat(this.tasks).hasSize(2);
+
+        this.runAll();
+
+        assertThat(this.service.findOne(PUBLISHER_A, jobA2.getKey()).getStatus()).isEqualTo(EnumDraftSubmissionStatus.COMPLETED);
+        assertThat(this.service.findOne(PUBLISHER_B, jobB1.getKey()).getStatus()).isEqualTo(EnumDraftSubmissionStatus.COMPLETED);
+
+        final InOrder order = inOrder(this.providerAssetService);
+        order.verify(this.providerAssetService).submitDraft(a1);
+        order.verify(this.providerAssetService).submitDraft(b1);
+        order.verify(this.providerAssetService).submitDraft(a2);
+    }
+
+    @Test
+    void testSubmissionOfPendingDraftReturnsExistingJob() throws Exception {
+        final CatalogueItemCommandDto command = command(PUBLISHER_A);
+
+        final DraftSubmissionJobDto first  = this.service.submit(this.account, command);
+        final DraftSubmissionJobDto second = this.service.submit(this.account, command);
+
+        assertThat(second.getKey()).isEqualTo(first.getKey());
+        assertThat(this.tasks).hasSize(1);
+        verify(this.jobRepository, times(1)).create(any(), eq(PUBLISHER_A));
+        verify(this.jobRepository, never()).deleteByKey(any());
+    }
+
+    @Test
+    void testSubmissionIsRejectedIfPublisherQueueIsFull() throws Exception {
+        this.service.submit(this.account, command(PUBLISHER_A));
+        this.service.submit(this.account, command(PUBLISHER_A));
+
+        assertThatThrownBy(() -> this.service.submit(this.account, command(PUBLISHER_A)))
+            .isInstanceOf(RejectedExecutionException.class);
+
+        verify(this.jobRepository, times(2)).create(any(), eq(PUBLISHER_A));
+        verify(this.jobRepository, never()).deleteByKey(any());
+
+        // Other publishers are not affected
+        this.service.submit(this.account, command(PUBLISHER_B));
+        assertThat(this.tasks).hasSize(2);
+
+        // Completed jobs release the queue
+        this.runAll();
+        this.service.submit(this.account, command(PUBLISHER_A));
+        assertThat(this.tasks).hasSize(1);
+    }
+
+    @Test
+    void testSubmissionIsRejectedIfExecutorIsSaturated() throws Exception {
+        doThrow(new RejectedExecutionException()).when(this.executor).execute(any(Runnable.class));
+
+        assertThatThrownBy(() -> this.service.submit(this.account, command(PUBLISHER_A)))
+            .isInstanceOf(RejectedExecutionException.class);
+
+        verify(this.jobRepository, never()).setStatus(any(), any(), any(), any());
+        verify(this.jobRepository).deleteByKey(any());
+
+        // The rejected job does not block the publisher queue
+        doAnswer(invocation -> this.tasks.add(invocation.getArgument(0))).when(this.executor).execute(any(Runnable.class));
+
+        final DraftSubmissionJobDto job = this.service.submit(this.account, command(PUBLISHER_A));
+
+        assertThat(job.getStatus()).isEqualTo(EnumDraftSubmissionStatus.QUEUED);
+        assertThat(this.tasks).hasSize(1);
+    }
+
+    @Test
+    void testQueuedJobRejectedByExecutorIsFailedOutsideLock() throws Exception {
+        final DraftSubmissionJobDto first  = this.service.submit(this.account, command(PUBLISHER_A));
+        final DraftSubmissionJobDto second = this.service.submit(this.account, command(PUBLISHER_A));
+
+        final boolean[] locked = {true};
+
+        doThrow(new RejectedExecutionException()).when(this.executor).execute(any(Runnable.class));
+        doAnswer(invocation -> {
+            locked[0] = Thread.holdsLock(this.service);
+            return null;
+        }).when(this.jobRepository).setStatus(eq(second.getKey()), eq(EnumDraftSubmissionStatus.FAILED), notNull(), any());
+
+        this.tasks.poll().run();
+
+        assertThat(this.service.findOne(PUBLISHER_A, first.getKey()).getStatus()).isEqualTo(EnumDraftSubmissionStatus.COMPLETED);
+        assertThat(this.service.findOne(PUBLISHER_A, second.getKey()).getStatus()).isEqualTo(EnumDraftSubmissionStatus.FAILED);
+        assertThat(locked[0]).isFalse();
+        verify(this.jobRepository, never()).deleteByKey(any());
+    }
+
+    @Test
+    void testStorageFailureReleasesQueue() throws Exception {
+        doThrow(new IllegalStateException()).when(this.jobRepository).create(any(), any());
+
+        assertThatThrownBy(() -> this.service.submit(this.account, command(PUBLISHER_A)))
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(this.tasks).isEmpty();
+
+        doAnswer(invocation -> null).when(this.jobRepository).create(any(), any());
+
+        this.service.submit(this.account, command(PUBLISHER_A));
+        this.service.submit(this.account, command(PUBLISHER_A));
+
+        assertThat(this.tasks).hasSize(1);
+    }
+
+    @Test
+    void testJobStatusIsStored() throws Exception {
+        final DraftSubmissionJobDto job = this.service.submit(this.account, command(PUBLISHER_A));
+
+        this.runAll();
+
+        final InOrder order = inOrder(this.jobRepository);
+        order.verify(this.jobRepository).create(any(), eq(PUBLISHER_A));
+        order.verify(this.jobRepository).setStatus(eq(job.getKey()), eq(EnumDraftSubmissionStatus.VALIDATING), isNull(), any());
+        order.verify(this.jobRepository).setStatus(eq(job.getKey()), eq(EnumDraftSubmissionStatus.SUBMITTING), isNull(), any());
+        order.verify(this.jobRepository).setStatus(eq(job.getKey()), eq(EnumDraftSubmissionStatus.COMPLETED), notNull(), any());
+    }
+
+    @Test
+    void testValidationFailure() throws Exception {
+        doAnswer(invocation -> {
+            final Errors errors = invocation.getArgument(2);
+            errors.reject("invalid");
+            return null;
+        }).when(this.draftValidator).validate(any(), any(), any(), any(), any());
+
+        final DraftSubmissionJobDto job = this.service.submit(this.account, command(PUBLISHER_A));
+
+        this.runAll();
+
+        final DraftSubmissionJobDto result = this.service.findOne(PUBLISHER_A, job.getKey());
+
+        assertThat(result.getStatus()).isEqualTo(EnumDraftSubmissionStatus.FAILED);
+        assertThat(result.getResult()).isNotNull();
+        verify(this.providerAssetService, never()).submitDraft(any());
+    }
+
+    @Test
+    void testSubmissionFailureReleasesQueue() throws Exception {
+        doThrow(new RuntimeException()).when(this.providerAssetService).submitDraft(any());
+
+        final DraftSubmissionJobDto first  = this.service.submit(this.account, command(PUBLISHER_A));
+        final DraftSubmissionJobDto second = this.service.submit(this.account, command(PUBLISHER_A));
+
+        this.runAll();
+
+        assertThat(this.service.findOne(PUBLISHER_A, first.getKey()).getStatus()).isEqualTo(EnumDraftSubmissionStatus.FAILED);
+        assertThat(this.service.findOne(PUBLISHER_A, second.getKey()).getStatus()).isEqualTo(EnumDraftSubmissionStatus.FAILED);
+    }
+
+    @Test
+    void testJobOfOtherPublisherIsNotFound() throws Exception {
+        final DraftSubmissionJobDto job = this.service.submit(this.account, command(PUBLISHER_A));
+
+        assertThatThrownBy(() -> this.service.findOne(PUBLISHER_B, job.getKey()))
+            .isInstanceOf(ServiceException.class)
+            .extracting("code")
+            .isEqualTo(BasicMessageCode.RecordNotFound);
+        assertThatThrownBy(() -> this.service.subscribe(PUBLISHER_B, job.getKey()))
+            .isInstanceOf(ServiceException.class);
+    }
+
+    @Test
+    void testJobOfOtherNodeIsFound() throws Exception {
+        final DraftSubmissionJobEntity entity = storedJob(EnumDraftSubmissionStatus.VALIDATING);
+
+        when(this.jobRepository.findOneByKey(PUBLISHER_A, entity.getKey())).thenReturn(Optional.of(entity));
+
+        final DraftSubmissionJobDto job = this.service.findOne(PUBLISHER_A, entity.getKey());
+
+        assertThat(job.getKey()).isEqualTo(entity.getKey());
+        assertThat(job.getStatus()).isEqualTo(EnumDraftSubmissionStatus.VALIDATING);
+    }
+
+    @Test
+    void testSubscriberIsCompletedWhenJobIsCompleted() throws Exception {
+        final DraftSubmissionJobDto job     = this.service.submit(this.account, command(PUBLISHER_A));
+        final SseEmitter            emitter = this.service.subscribe(PUBLISHER_A, job.getKey());
+
+        assertThat(isComplete(emitter)).isFalse();
+
+        this.runAll();
+
+        assertThat(isComplete(emitter)).isTrue();
+    }
+
+    @Test
+    void testSubscriberOfCompletedJobIsCompletedImmediately() throws Exception {
+        final DraftSubmissionJobDto job = this.service.submit(this.account, command(PUBLISHER_A));
+
+        this.runAll();
+
+        assertThat(isComplete(this.service.subscribe(PUBLISHER_A, job.getKey()))).isTrue();
+    }
+
+    @Test
+    void testSubscriberOfJobOfOtherNodeIsCompletedImmediately() throws Exception {
+        final DraftSubmissionJobEntity entity = storedJob(EnumDraftSubmissionStatus.QUEUED);
+
+        when(this.jobRepository.findOneByKey(PUBLISHER_A, entity.getKey())).thenReturn(Optional.of(entity));
+
+        assertThat(isComplete(this.service.subscribe(PUBLISHER_A, entity.getKey()))).isTrue();
+    }
+
+    @Test
+    void testExpiredJobsAreDeleted() throws Exception {
+        this.service.deleteExpiredJobs();
+
+        verify(this.jobRepository).deleteAllUpdatedBefore(any());
+    }
+
+    private void runAll() {
+        Runnable task;
+        while ((task = this.tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static CatalogueItemCommandDto command(UUID publisherKey) {
+        final CatalogueItemCommandDto command = mock(CatalogueItemCommandDto.class);
+        final UUID                    draftKey = UUID.randomUUID();
+
+        when(command.getDraftKey()).thenReturn(draftKey);
+        when(command.getPublisherKey()).thenReturn(publisherKey);
+
+        return command;
+    }
+
+    private static DraftSubmissionJobEntity storedJob(EnumDraftSubmissionStatus status) {
+        final DraftSubmissionJobEntity e = new DraftSubmissionJobEntity();
+
+        e.setCreatedAt(ZonedDateTime.now());
+        e.setDraftKey(UUID.randomUUID());
+        e.setKey(UUID.randomUUID());
+        e.setPublisherKey(PUBLISHER_A);
+        e.setStatus(status);
+        e.setUpdatedAt(e.getCreatedAt());
+
+        return e;
+    }
+
+    /**
+     * Emitters are not attached to a response; hence, completion is only
+     * recorded by the emitter
+     */
+    private static boolean isComplete(SseEmitter emitter) {
+        return (boolean) ReflectionTestUtils.getField(emitter, "complete");
+    }
+
+}
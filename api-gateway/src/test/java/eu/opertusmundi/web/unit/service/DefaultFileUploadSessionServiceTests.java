@@ -0,0 +1,353 @@
+package eu.opertusmundi.web.unit.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import eu.opertusmundi.common.model.BasicMessageCode;
+import eu.opertusmundi.common.model.ServiceException;
+import eu.opertusmundi.common.model.file.FileSystemMessageCode;
+import eu.opertusmundi.common.model.file.FileUploadCommand;
+import eu.opertusmundi.common.model.file.QuotaDto;
+import eu.opertusmundi.common.service.UserFileManager;
+import eu.opertusmundi.web.domain.FileUploadSessionEntity;
+import eu.opertusmundi.web.model.file.EnumFileUploadSessionStatus;
+import eu.opertusmundi.web.model.file.FileUploadSessionCommandDto;
+import eu.opertusmundi.web.model.file.FileUploadSessionDto;
+import eu.opertusmundi.web.repository.FileUploadSessionRepository;
+import eu.opertusmundi.web.service.DefaultFileUploadSessionService;
+
+public class DefaultFileUploadSessionServiceTests {
+
+    private static final UUID USER_KEY = UUID.randomUUID();
+
+    private static final String USER_NAME = "user@opertusmundi.eu";
+
+    private static final int CHUNK_SIZE = 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private UserFileManager fileManager;
+
+    private FileUploadSessionRepository sessionRepository;
+
+    private DefaultFileUploadSessionService service;
+
+    @BeforeEach
+    void setUp() {
+        this.fileManager       = mock(UserFileManager.class);
+        this.sessionRepository = mock(FileUploadSessionRepository.class);
+        this.service           = new DefaultFileUploadSessionService(this.fileManager, this.sessionRepository);
+
+        ReflectionTestUtils.setField(this.service, "tempDir", this.tempDir.toString());
+        ReflectionTestUtils.setField(this.service, "defaultChunkSize", DataSize.ofBytes(CHUNK_SIZE));
+        ReflectionTestUtils.setField(this.service, "minChunkSize", DataSize.ofBytes(CHUNK_SIZE));
+        ReflectionTestUtils.setField(this.service, "maxChunkSize", DataSize.ofBytes(4 * CHUNK_SIZE));
+        ReflectionTestUtils.setField(this.service, "sessionExpiration", 24);
+        ReflectionTestUtils.setField(this.service, "maxSessionsPerUser", 2);
+
+        final QuotaDto quota = mock(QuotaDto.class);
+        when(quota.getTotal()).thenReturn(10L * CHUNK_SIZE);
+        when(quota.getUsed()).thenReturn(2L * CHUNK_SIZE);
+        when(this.fileManager.getQuota(USER_NAME)).thenReturn(quota);
+    }
+
+    @Test
+    void testCreate() throws Exception {
+        final FileUploadSessionEntity session = this.createSession(3 * CHUNK_SIZE - 1);
+        final FileUploadSessionCommandDto command = this.createCommand(session.getSize(), null);
+
+        when(this.sessionRepository.create(command, CHUNK_SIZE)).thenReturn(session.toDto());
+
+        final FileUploadSessionDto result = this.service.create(command);
+
+        assertThat(result.getChunkCount()).isEqualTo(3);
+        assertThat(result.getChunks()).isEmpty();
+        assertThat(result.getOffset()).isZero();
+        assertThat(Files.isDirectory(this.getSessionDir(session))).isTrue();
+        verify(this.sessionRepository).findAccountByKeyForUpdate(USER_KEY);
+    }
+
+    @Test
+    void testCreateRejectsInvalidChunkSize() throws Exception {
+        final FileUploadSessionCommandDto command = this.createCommand(CHUNK_SIZE, 8L * CHUNK_SIZE);
+
+        assertThatThrownBy(() -> this.service.create(command))
+            .isInstanceOf(ServiceException.class)
+            .extracting("code").isEqualTo(BasicMessageCode.BadRequest);
+
+        verify(this.sessionRepository, never()).create(any(), anyLong());
+    }
+
+    @Test
+    void testCreateRejectsTooManySessions() throws Exception {
+        final FileUploadSessionCommandDto command = this.createCommand(CHUNK_SIZE, null);
+
+        when(this.sessionRepository.countActive(eq(USER_KEY), any())).thenReturn(2L);
+
+        assertThatThrownBy(() -> this.service.create(command))
+            .isInstanceOf(ServiceException.class)
+            .extracting("code").isEqualTo(BasicMessageCode.BadRequest);
+
+        verify(this.sessionRepository, never()).create(any(), anyLong());
+    }
+
+    @Test
+    void testCreateRejectsSizeExceedingQuota() throws Exception {
+        // 8 chunks are available and 3 are reserved by active sessions
+        final FileUploadSessionCommandDto command = this.createCommand(5L * CHUNK_SIZE + 1, null);
+
+        when(this.sessionRepository.sumActiveSize(eq(USER_KEY), any())).thenReturn(3L * CHUNK_SIZE);
+
+        assertThatThrownBy(() -> this.service.create(command))
+            .isInstanceOf(ServiceException.class)
+            .extracting("code").isEqualTo(BasicMessageCode.BadRequest);
+
+        verify(this.sessionRepository, never()).create(any(), anyLong());
+    }
+
+    @Test
+    void testUploadChunk() throws Exception {
+        final FileUploadSessionEntity session = this.createStoredSession(2 * CHUNK_SIZE + 10);
+
+        this.service.uploadChunk(USER_KEY, session.getKey(), 2, this.createInput(10, 'c'));
+        final FileUploadSessionDto result = this.service.uploadChunk(USER_KEY, session.getKey(), 0, this.createInput(CHUNK_SIZE, 'a'));
+
+        assertThat(result.getChunks()).containsExactly(0, 2);
+        assertThat(result.getOffset()).isEqualTo(CHUNK_SIZE + 10);
+        verify(this.sessionRepository, times(2)).touch(eq(session.getKey()), any());
+    }
+
+    @Test
+    void testUploadChunkRejectsIndexOutOfRange() throws Exception {
+        final FileUploadSessionEntity session = this.createStoredSession(2 * CHUNK_SIZE);
+
+        assertThatThrownBy(() -> this.service.uploadChunk(USER_KEY, session.getKey(), 2, this.createInput(CHUNK_SIZE, 'a')))
+            .isInstanceOf(ServiceException.class)
+            .extracting("code").isEqualTo(BasicMessageCode.BadRequest);
+    }
+
+    @Test
+    void testUploadChunkRejectsShortChunk() throws Exception {
+        final FileUploadSessionEntity session = this.createStoredSession(2 * CHUNK_SIZE);
+
+        assertThatThrownBy(() -> this.service.uploadChunk(USER_KEY, session.getKey(), 0, this.createInput(CHUNK_SIZE - 1, 'a')))
+            .isInstanceOf(ServiceException.class)
+            .extracting("code").isEqualTo(BasicMessageCode.BadRequest);
+
+        // Partially received chunks are discarded
+        assertThat(this.service.findOne(USER_KEY, session.getKey()).getChunks()).isEmpty();
+        assertThat(this.listSessionDir(session)).isEmpty();
+    }
+
+    @Test
+    void testUploadChunkRejectsLongChunk() throws Exception {
+        final FileUploadSessionEntity session = this.createStoredSession(2 * CHUNK_SIZE);
+
+        assertThatThrownBy(() -> this.service.uploadChunk(USER_KEY, session.getKey(), 0, this.createInput(CHUNK_SIZE + 1, 'a')))
+            .isInstanceOf(MaxUploadSizeExceededException.class);
+
+        assertThat(this.listSessionDir(session)).isEmpty();
+    }
+
+    @Test
+    void testUploadChunkRejectsCompletingSession() throws Exception {
+        final FileUploadSessionEntity session = this.createStoredSession(2 * CHUNK_SIZE);
+        session.setStatus(EnumFileUploadSessionStatus.COMPLETING);
+
+        assertThatThrownBy(() -> this.service.uploadChunk(USER_KEY, session.getKey(), 0, this.createInput(CHUNK_SIZE, 'a')))
+            .isInstanceOf(ServiceException.class)
+            .extracting("code").isEqualTo(BasicMessageCode.BadRequest);
+    }
+
+    @Test
+    void testCompleteStreamsChunksInOrder() throws Exception {
+        final FileUploadSessionEntity session = this.createStoredSession(2 * CHUNK_SIZE + 10);
+        final ByteArrayOutputStream   output  = new ByteArrayOutputStream();
+
+        this.service.uploadChunk(USER_KEY, session.getKey(), 2, this.createInput(10, 'c'));
+        this.service.uploadChunk(USER_KEY, session.getKey(), 1, this.createInput(CHUNK_SIZE, 'b'));
+        this.service.uploadChunk(USER_KEY, session.getKey(), 0, this.createInput(CHUNK_SIZE, 'a'));
+
+        when(this.sessionRepository.setStatus(
+            eq(session.getKey()), eq(EnumFileUploadSessionStatus.UPLOADING), eq(EnumFileUploadSessionStatus.COMPLETING), any()
+        )).thenReturn(1);
+        doAnswer(invocation -> {
+            final InputStream       input   = invocation.getArgument(0);
+            final FileUploadCommand command = invocation.getArgument(1);
+
+            input.transferTo(output);
+
+            assertThat(command.getUserName()).isEqualTo(USER_NAME);
+            assertThat(command.getFileName()).isEqualTo(session.getFileName());
+            assertThat(command.getSize()).isEqualTo(session.getSize());
+            return null;
+        }).when(this.fileManager).uploadFile(any(), any());
+
+        this.service.complete(USER_KEY, USER_NAME, session.getKey());
+
+        final byte[] data = output.toByteArray();
+        assertThat(data).hasSize(2 * CHUNK_SIZE + 10);
+        assertThat(data[0]).isEqualTo((byte) 'a');
+        assertThat(data[CHUNK_SIZE]).isEqualTo((byte) 'b');
+        assertThat(data[2 * CHUNK_SIZE]).isEqualTo((byte) 'c');
+
+        verify(this.sessionRepository).deleteByKey(session.getKey());
+        assertThat(Files.exists(this.getSessionDir(session))).isFalse();
+    }
+
+    @Test
+    void testCompleteRejectsMissingChunks() throws Exception {
+        final FileUploadSessionEntity session = this.createStoredSession(2 * CHUNK_SIZE);
+
+        this.service.uploadChunk(USER_KEY, session.getKey(), 1, this.createInput(CHUNK_SIZE, 'b'));
+
+        assertThatThrownBy(() -> this.service.complete(USER_KEY, USER_NAME, session.getKey()))
+            .isInstanceOf(ServiceException.class)
+            .extracting("code").isEqualTo(FileSystemMessageCode.FILE_IS_MISSING);
+
+        verify(this.fileManager, never()).uploadFile(any(), any());
+    }
+
+    @Test
+    void testCompleteRejectsSessionAlreadyCompleting() throws Exception {
+        final FileUploadSessionEntity session = this.createStoredSession(CHUNK_SIZE);
+
+        this.service.uploadChunk(USER_KEY, session.getKey(), 0, this.createInput(CHUNK_SIZE, 'a'));
+
+        when(this.sessionRepository.setStatus(
+            eq(session.getKey()), eq(EnumFileUploadSessionStatus.UPLOADING), eq(EnumFileUploadSessionStatus.COMPLETING), any()
+        )).thenReturn(0);
+
+        assertThatThrownBy(() -> this.service.complete(USER_KEY, USER_NAME, session.getKey()))
+            .isInstanceOf(ServiceException.class)
+            .extracting("code").isEqualTo(BasicMessageCode.BadRequest);
+
+        verify(this.fileManager, never()).uploadFile(any(), any());
+    }
+
+    @Test
+    void testCompleteFailureReleasesSession() throws Exception {
+        final FileUploadSessionEntity session = this.createStoredSession(CHUNK_SIZE);
+
+        this.service.uploadChunk(USER_KEY, session.getKey(), 0, this.createInput(CHUNK_SIZE, 'a'));
+
+        when(this.sessionRepository.setStatus(
+            eq(session.getKey()), eq(EnumFileUploadSessionStatus.UPLOADING), eq(EnumFileUploadSessionStatus.COMPLETING), any()
+        )).thenReturn(1);
+        doThrow(new RuntimeException("failure")).when(this.fileManager).uploadFile(any(), any());
+
+        assertThatThrownBy(() -> this.service.complete(USER_KEY, USER_NAME, session.getKey()))
+            .isInstanceOf(ServiceException.class)
+            .extracting("code").isEqualTo(BasicMessageCode.InternalServerError);
+
+        // The session is released and the chunks are kept for retrying
+        verify(this.sessionRepository).setStatus(
+            eq(session.getKey()), eq(EnumFileUploadSessionStatus.COMPLETING), eq(EnumFileUploadSessionStatus.UPLOADING), any()
+        );
+        verify(this.sessionRepository, never()).deleteByKey(session.getKey());
+        assertThat(this.listSessionDir(session)).hasSize(1);
+    }
+
+    @Test
+    void testDeleteExpiredSessions() throws Exception {
+        final FileUploadSessionEntity session = this.createStoredSession(CHUNK_SIZE);
+
+        this.service.uploadChunk(USER_KEY, session.getKey(), 0, this.createInput(CHUNK_SIZE, 'a'));
+
+        when(this.sessionRepository.findAllUpdatedBefore(any())).thenReturn(List.of(session));
+
+        this.service.deleteExpiredSessions();
+
+        verify(this.sessionRepository).deleteByKey(session.getKey());
+        assertThat(Files.exists(this.getSessionDir(session))).isFalse();
+    }
+
+    private FileUploadSessionCommandDto createCommand(long size, Long chunkSize) {
+        final FileUploadSessionCommandDto command = new FileUploadSessionCommandDto();
+
+        command.setUserKey(USER_KEY);
+        command.setUserName(USER_NAME);
+        command.setFileName("data.zip");
+        command.setSize(size);
+        command.setChunkSize(chunkSize);
+
+        return command;
+    }
+
+    private FileUploadSessionEntity createSession(long size) {
+        final ZonedDateTime           now     = ZonedDateTime.now();
+        final FileUploadSessionEntity session = new FileUploadSessionEntity();
+
+        session.setChunkSize(CHUNK_SIZE);
+        session.setCreatedAt(now);
+        session.setFileName("data.zip");
+        session.setPath("/");
+        session.setSize(size);
+        session.setStatus(EnumFileUploadSessionStatus.UPLOADING);
+        session.setUpdatedAt(now);
+
+        return session;
+    }
+
+    /**
+     * Creates a session that is returned by the repository and its chunk
+     * directory
+     */
+    private FileUploadSessionEntity createStoredSession(long size) throws IOException {
+        final FileUploadSessionEntity session = this.createSession(size);
+
+        Files.createDirectories(this.getSessionDir(session));
+
+        when(this.sessionRepository.findOneByKey(USER_KEY, session.getKey())).thenReturn(Optional.of(session));
+
+        return session;
+    }
+
+    private Path getSessionDir(FileUploadSessionEntity session) {
+        return this.tempDir.resolve("uploads").resolve(session.getKey().toString());
+    }
+
+    private List<Path> listSessionDir(FileUploadSessionEntity session) throws IOException {
+        try (var files = Files.list(this.getSessionDir(session))) {
+            return files.toList();
+        }
+    }
+
+    private InputStream createInput(int size, char value) {
+        final byte[] data = new byte[size];
+        Arrays.fill(data, (byte) value);
+
+        return new ByteArrayInputStream(data);
+    }
+
+}
@@ -0,0 +1,262 @@
+package eu.opertusmundi.web.unit.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import eu.opertusmundi.common.model.PageResultDto;
+import eu.opertusmundi.common.model.message.EnumMessageView;
+import eu.opertusmundi.common.model.message.client.ClientMessageCollectionResponse;
+import eu.opertusmundi.common.model.message.client.ClientMessageDto;
+import eu.opertusmundi.common.model.message.client.ClientNotificationDto;
+import eu.opertusmundi.common.service.messaging.MessageService;
+import eu.opertusmundi.web.model.message.MessageStreamCountersDto;
+import eu.opertusmundi.web.service.DefaultMessageStreamService;
+import eu.opertusmundi.web.service.MessageContactService;
+
+public class DefaultMessageStreamServiceTests {
+
+    private static final UUID USER_KEY = UUID.randomUUID();
+
+    private MessageService messageService;
+
+    private DefaultMessageStreamService service;
+
+    @BeforeEach
+    void setUp() {
+        this.messageService = mock(MessageService.class);
+        this.service        = this.createService(new SyncTaskExecutor());
+
+        this.setNotifications(Collections.emptyList(), 0);
+        this.setMessages(Collections.emptyList(), 0);
+    }
+
+    @Test
+    void testCountersAreSentOnSubscribe() throws Exception {
+        this.setNotifications(Collections.emptyList(), 3);
+        this.setMessages(Collections.emptyList(), 2);
+
+        final SseEmitter emitter = this.service.subscribe(USER_KEY);
+
+        assertThat(data(emitter)).containsExactly(MessageStreamCountersDto.of(3, 2));
+    }
+
+    @Test
+    void testNewItemsAndCountersAreSent() throws Exception {
+        final SseEmitter emitter = this.service.subscribe(USER_KEY);
+
+        final ClientNotificationDto notification = notification(ZonedDateTime.now().plusSeconds(1));
+        final ClientMessageDto      message      = message(ZonedDateTime.now().plusSeconds(1));
+        final ClientNotificationDto read         = notification(ZonedDateTime.now().minusDays(1));
+
+        this.setNotifications(List.of(notification, read), 2);
+        this.setMessages(List.of(message), 1);
+
+        this.service.notifyNewMessage(USER_KEY);
+
+        final List<Object> data = data(emitter);
+
+        assertThat(data).contains(List.of(notification), MessageStreamCountersDto.of(2, 1));
+        assertThat(data).anyMatch(d -> d instanceof ClientMessageCollectionResponse);
+    }
+
+    @Test
+    void testRefreshIsSentIfNewItemsAreTruncated() throws Exception {
+        final SseEmitter emitter = this.service.subscribe(USER_KEY);
+
+        final List<ClientNotificationDto> notifications = IntStream.range(0, 50)
+            .mapToObj(i -> notification(ZonedDateTime.now().plusSeconds(1)))
+            .collect(Collectors.toList());
+
+        this.setNotifications(notifications, 60);
+
+        this.service.notifyNewMessage(USER_KEY);
+
+        assertThat(text(emitter)).contains("event:refresh");
+        assertThat(data(emitter)).contains("notifications");
+        assertThat(data(emitter)).doesNotContain(notifications);
+    }
+
+    @Test
+    void testReadIsPushedWithoutWaitingForPoll() throws Exception {
+        final SseEmitter emitter = this.service.subscribe(USER_KEY);
+
+        this.setNotifications(Collections.emptyList(), 1);
+
+        this.service.refreshCounters(USER_KEY);
+
+        assertThat(data(emitter)).containsExactly(MessageStreamCountersDto.of(0, 0), MessageStreamCountersDto.of(1, 0));
+    }
+
+    @Test
+    void testIdleSubscriberIsCheckedLessFrequently() throws Exception {
+        this.service.subscribe(USER_KEY);
+
+        // One request for the counters; the fallback check is not due yet
+        this.service.poll();
+        this.verifyChecks(1);
+
+        Thread.sleep(1100);
+
+        // The fallback check finds no changes and doubles the interval
+        this.service.poll();
+        this.service.poll();
+        this.verifyChecks(2);
+
+        // User activity triggers a check immediately
+        this.service.refreshCounters(USER_KEY);
+        this.verifyChecks(3);
+    }
+
+    @Test
+    void testChecksAreExecutedByTheExecutor() throws Exception {
+        final List<Runnable>              tasks   = new ArrayList<>();
+        final DefaultMessageStreamService service = this.createService(tasks::add);
+
+        service.subscribe(USER_KEY);
+        service.notifyNewMessage(USER_KEY);
+        service.refreshCounters(USER_KEY);
+
+        // Only the counters of the new connection are sent by the request
+        // thread; concurrent requests result in a single queued check
+        this.verifyChecks(1);
+        assertThat(tasks).hasSize(1);
+
+        tasks.get(0).run();
+
+        this.verifyChecks(2);
+    }
+
+    @Test
+    void testRejectedCheckIsSubmittedByNextPoll() throws Exception {
+        final List<Runnable>              tasks    = new ArrayList<>();
+        final boolean[]                   rejected = {true};
+        final DefaultMessageStreamService service  = this.createService(task -> {
+            if (rejected[0]) {
+                throw new RejectedExecutionException();
+            }
+            tasks.add(task);
+        });
+
+        service.subscribe(USER_KEY);
+        service.notifyNewMessage(USER_KEY);
+
+        rejected[0] = false;
+        service.poll();
+
+        assertThat(tasks).hasSize(1);
+    }
+
+    @Test
+    void testOldestConnectionIsEvicted() throws Exception {
+        final SseEmitter first  = this.service.subscribe(USER_KEY);
+        final SseEmitter second = this.service.subscribe(USER_KEY);
+
+        assertThat(isComplete(first)).isTrue();
+        assertThat(isComplete(second)).isFalse();
+    }
+
+    @Test
+    void testMaxConnectionsPerNode() throws Exception {
+        this.service.subscribe(UUID.randomUUID());
+        this.service.subscribe(UUID.randomUUID());
+
+        assertThatThrownBy(() -> this.service.subscribe(UUID.randomUUID())).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    private DefaultMessageStreamService createService(TaskExecutor taskExecutor) {
+        final DefaultMessageStreamService service = new DefaultMessageStreamService(
+            this.messageService, mock(MessageContactService.class), taskExecutor
+        );
+
+        ReflectionTestUtils.setField(service, "maxConnections", 2);
+        ReflectionTestUtils.setField(service, "maxConnectionsPerUser", 1);
+        ReflectionTestUtils.setField(service, "timeoutSeconds", 60L);
+        ReflectionTestUtils.setField(service, "pollIntervalSeconds", 1L);
+        ReflectionTestUtils.setField(service, "maxPollIntervalSeconds", 2L);
+
+        return service;
+    }
+
+    private void verifyChecks(int count) {
+        verify(this.messageService, times(count)).findNotifications(eq(USER_KEY), anyInt(), anyInt(), any(), any(), any(), any(), any());
+        verify(this.messageService, times(count)).findMessages(
+            eq(USER_KEY), anyInt(), anyInt(), any(), any(), eq(EnumMessageView.UNREAD), any()
+        );
+    }
+
+    private void setNotifications(List<ClientNotificationDto> items, long count) {
+        when(this.messageService.findNotifications(any(), anyInt(), anyInt(), any(), any(), any(), any(), any()))
+            .thenReturn(PageResultDto.of(0, items.size(), items, count));
+    }
+
+    private void setMessages(List<ClientMessageDto> items, long count) {
+        when(this.messageService.findMessages(any(), anyInt(), anyInt(), any(), any(), any(), any()))
+            .thenReturn(PageResultDto.of(0, items.size(), items, count));
+    }
+
+    private static ClientNotificationDto notification(ZonedDateTime createdAt) {
+        final ClientNotificationDto n = mock(ClientNotificationDto.class);
+        when(n.getCreatedAt()).thenReturn(createdAt);
+        return n;
+    }
+
+    private static ClientMessageDto message(ZonedDateTime createdAt) {
+        final ClientMessageDto m = mock(ClientMessageDto.class);
+        when(m.getCreatedAt()).thenReturn(createdAt);
+        return m;
+    }
+
+    /**
+     * Emitters are not attached to a response; hence, events are buffered by
+     * the emitter
+     */
+    @SuppressWarnings("unchecked")
+    private static List<DataWithMediaType> sent(SseEmitter emitter) {
+        return new ArrayList<>((Set<DataWithMediaType>) ReflectionTestUtils.getField(emitter, "earlySendAttempts"));
+    }
+
+    /**
+     * Event data excluding the text of the event fields
+     */
+    private static List<Object> data(SseEmitter emitter) {
+        return sent(emitter).stream()
+            .map(DataWithMediaType::getData)
+            .filter(d -> !(d instanceof String s) || !s.contains(":"))
+            .filter(d -> !(d instanceof String s) || !s.isBlank())
+            .collect(Collectors.toList());
+    }
+
+    private static String text(SseEmitter emitter) {
+        return sent(emitter).stream().map(d -> d.getData().toString()).collect(Collectors.joining());
+    }
+
+    private static boolean isComplete(SseEmitter emitter) {
+        return (boolean) ReflectionTestUtils.getField(emitter, "complete");
+    }
+
+}
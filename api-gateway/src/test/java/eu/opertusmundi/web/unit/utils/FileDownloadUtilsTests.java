@@ -0,0 +1,308 @@
+package eu.opertusmundi.web.unit.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import eu.opertusmundi.web.utils.FileDownloadUtils;
+
+public class FileDownloadUtilsTests {
+
+    private static final long LAST_MODIFIED = 1600000000000L;
+
+    @TempDir
+    Path tempDir;
+
+    private File file;
+
+    private byte[] data;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.data = new byte[100];
+        for (int i = 0; i < this.data.length; i++) {
+            this.data[i] = (byte) i;
+        }
+        this.file = this.createFile("data.bin", this.data);
+    }
+
+    @Test
+    void testFullResponse() throws Exception {
+        final ResponseEntity<StreamingResponseBody> response = this.download(this.file, null, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(100);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(this.body(response)).isEqualTo(this.data);
+    }
+
+    @Test
+    void testValidatorHeadersAreSetOnce() throws Exception {
+        final MockHttpServletRequest  request         = new MockHttpServletRequest("GET", "/file");
+        final MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        final ResponseEntity<StreamingResponseBody> response = FileDownloadUtils.createResponse(
+            request, servletResponse, this.file, "data.bin", MediaType.APPLICATION_OCTET_STREAM
+        );
+
+        assertThat(servletResponse.getHeaders(HttpHeaders.ETAG)).containsExactly(this.etag(this.file));
+        assertThat(servletResponse.getHeaders(HttpHeaders.LAST_MODIFIED)).hasSize(1);
+        assertThat(response.getHeaders().containsKey(HttpHeaders.ETAG)).isFalse();
+        assertThat(response.getHeaders().containsKey(HttpHeaders.LAST_MODIFIED)).isFalse();
+    }
+
+    @Test
+    void testHeadRequest() throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest("HEAD", "/file");
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-19");
+
+        final ResponseEntity<StreamingResponseBody> response = FileDownloadUtils.createResponse(
+            request, new MockHttpServletResponse(), this.file, "data.bin", MediaType.APPLICATION_OCTET_STREAM
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(10);
+        assertThat(response.getBody()).isNull();
+    }
+
+    @Test
+    void testNotModified() throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/file");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, this.etag(this.file));
+
+        final ResponseEntity<StreamingResponseBody> response = FileDownloadUtils.createResponse(
+            request, new MockHttpServletResponse(), this.file, "data.bin", MediaType.APPLICATION_OCTET_STREAM
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+    }
+
+    @Test
+    void testSingleRange() throws Exception {
+        final ResponseEntity<StreamingResponseBody> response = this.download(this.file, "bytes=10-19", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(10);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 10-19/100");
+        assertThat(this.body(response)).isEqualTo(Arrays.copyOfRange(this.data, 10, 20));
+    }
+
+    @Test
+    void testRangeEndIsTruncated() throws Exception {
+        final ResponseEntity<StreamingResponseBody> response = this.download(this.file, "bytes=90-200", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(10);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 90-99/100");
+        assertThat(this.body(response)).isEqualTo(Arrays.copyOfRange(this.data, 90, 100));
+    }
+
+    @Test
+    void testOpenEndedRange() throws Exception {
+        final ResponseEntity<StreamingResponseBody> response = this.download(this.file, "bytes=99-", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 99-99/100");
+        assertThat(this.body(response)).containsExactly(99);
+    }
+
+    @Test
+    void testSuffixRange() throws Exception {
+        final ResponseEntity<StreamingResponseBody> response = this.download(this.file, "bytes=-10", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(10);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 90-99/100");
+        assertThat(this.body(response)).isEqualTo(Arrays.copyOfRange(this.data, 90, 100));
+    }
+
+    @Test
+    void testSuffixRangeLargerThanFile() throws Exception {
+        final ResponseEntity<StreamingResponseBody> response = this.download(this.file, "bytes=-500", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-99/100");
+        assertThat(this.body(response)).isEqualTo(this.data);
+    }
+
+    @Test
+    void testMultipleRanges() throws Exception {
+        final ResponseEntity<StreamingResponseBody> response = this.download(this.file, "bytes=0-9,20-29", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+
+        final MediaType contentType = response.getHeaders().getContentType();
+        assertThat(contentType).isNotNull();
+        assertThat(contentType.getType()).isEqualTo("multipart");
+        assertThat(contentType.getSubtype()).isEqualTo("byteranges");
+
+        final String boundary = contentType.getParameter("boundary");
+        final byte[] body     = this.body(response);
+        final String text     = new String(body, StandardCharsets.ISO_8859_1);
+
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(body.length);
+        assertThat(text).contains("Content-Range: bytes 0-9/100");
+        assertThat(text).contains("Content-Range: bytes 20-29/100");
+        assertThat(text).endsWith("\r\n--" + boundary + "--\r\n");
+        assertThat(text).contains(new String(Arrays.copyOfRange(this.data, 0, 10), StandardCharsets.ISO_8859_1));
+        assertThat(text).contains(new String(Arrays.copyOfRange(this.data, 20, 30), StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    void testMultipleRangesExceedingFileSize() throws Exception {
+        final ResponseEntity<StreamingResponseBody> response = this.download(this.file, "bytes=0-79,20-99", null);
+
+        this.assertNotSatisfiable(response, 100);
+    }
+
+    @Test
+    void testRangeStartsAtEndOfFile() throws Exception {
+        final ResponseEntity<StreamingResponseBody> response = this.download(this.file, "bytes=100-", null);
+
+        this.assertNotSatisfiable(response, 100);
+    }
+
+    @Test
+    void testRangeStartsAfterEndOfFile() throws Exception {
+        final ResponseEntity<StreamingResponseBody> response = this.download(this.file, "bytes=150-160", null);
+
+        this.assertNotSatisfiable(response, 100);
+    }
+
+    @Test
+    void testMultipleRangesWithUnsatisfiableRange() throws Exception {
+        final ResponseEntity<StreamingResponseBody> response = this.download(this.file, "bytes=0-9,100-109", null);
+
+        this.assertNotSatisfiable(response, 100);
+    }
+
+    @Test
+    void testEmptySuffixRange() throws Exception {
+        final ResponseEntity<StreamingResponseBody> response = this.download(this.file, "bytes=-0", null);
+
+        this.assertNotSatisfiable(response, 100);
+    }
+
+    @Test
+    void testRangeOnEmptyFile() throws Exception {
+        final File empty = this.createFile("empty.bin", new byte[0]);
+
+        this.assertNotSatisfiable(this.download(empty, "bytes=0-", null), 0);
+        this.assertNotSatisfiable(this.download(empty, "bytes=-10", null), 0);
+    }
+
+    @Test
+    void testInvalidRange() throws Exception {
+        final ResponseEntity<StreamingResponseBody> response = this.download(this.file, "bytes=20-10", null);
+
+        this.assertNotSatisfiable(response, 100);
+    }
+
+    @Test
+    void testIfRangeWithMatchingEtag() throws Exception {
+        final ResponseEntity<StreamingResponseBody> response = this.download(this.file, "bytes=10-19", this.etag(this.file));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(this.body(response)).isEqualTo(Arrays.copyOfRange(this.data, 10, 20));
+    }
+
+    @Test
+    void testIfRangeWithDifferentEtag() throws Exception {
+        final ResponseEntity<StreamingResponseBody> response = this.download(this.file, "bytes=10-19", "\"other\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(this.body(response)).isEqualTo(this.data);
+    }
+
+    @Test
+    void testIfRangeWithCurrentDate() throws Exception {
+        final ResponseEntity<StreamingResponseBody> response = this.download(this.file, "bytes=10-19", this.httpDate(LAST_MODIFIED));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(this.body(response)).isEqualTo(Arrays.copyOfRange(this.data, 10, 20));
+    }
+
+    @Test
+    void testIfRangeWithOlderDate() throws Exception {
+        final ResponseEntity<StreamingResponseBody> response = this.download(
+            this.file, "bytes=10-19", this.httpDate(LAST_MODIFIED - 60 * 1000)
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(this.body(response)).isEqualTo(this.data);
+    }
+
+    @Test
+    void testIfRangeDoesNotApplyToUnsatisfiableRange() throws Exception {
+        // A stale If-Range validator ignores the Range header entirely
+        final ResponseEntity<StreamingResponseBody> response = this.download(this.file, "bytes=150-", "\"other\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(this.body(response)).isEqualTo(this.data);
+    }
+
+    private File createFile(String name, byte[] content) throws IOException {
+        final File result = Files.write(this.tempDir.resolve(name), content).toFile();
+        result.setLastModified(LAST_MODIFIED);
+
+        return result;
+    }
+
+    private ResponseEntity<StreamingResponseBody> download(File file, String range, String ifRange) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/file");
+        if (range != null) {
+            request.addHeader(HttpHeaders.RANGE, range);
+        }
+        if (ifRange != null) {
+            request.addHeader(HttpHeaders.IF_RANGE, ifRange);
+        }
+
+        return FileDownloadUtils.createResponse(
+            request, new MockHttpServletResponse(), file, file.getName(), MediaType.APPLICATION_OCTET_STREAM
+        );
+    }
+
+    private void assertNotSatisfiable(ResponseEntity<StreamingResponseBody> response, long length) {
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */" + length);
+        assertThat(response.getBody()).isNull();
+    }
+
+    private byte[] body(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        return output.toByteArray();
+    }
+
+    private String etag(File file) {
+        return String.format("\"%x-%x\"", file.length(), file.lastModified());
+    }
+
+    private String httpDate(long millis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC));
+    }
+
+}
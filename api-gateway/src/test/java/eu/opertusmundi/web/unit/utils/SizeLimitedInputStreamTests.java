@@ -0,0 +1,40 @@
+package eu.opertusmundi.web.unit.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import eu.opertusmundi.web.utils.SizeLimitedInputStream;
+
+public class SizeLimitedInputStreamTests {
+
+    @Test
+    void testReadWithinLimit() throws Exception {
+        final byte[] data = new byte[1024];
+
+        try (final SizeLimitedInputStream input = new SizeLimitedInputStream(new ByteArrayInputStream(data), data.length)) {
+            final long count = IOUtils.copyLarge(input, NullOutputStream.NULL_OUTPUT_STREAM);
+
+            assertThat(count).isEqualTo(data.length);
+            assertThat(input.getCount()).isEqualTo(data.length);
+        }
+    }
+
+    @Test
+    void testReadExceedsLimit() throws Exception {
+        final byte[] data = new byte[1024];
+
+        try (final InputStream input = new SizeLimitedInputStream(new ByteArrayInputStream(data), data.length - 1)) {
+            assertThatThrownBy(() -> IOUtils.copyLarge(input, NullOutputStream.NULL_OUTPUT_STREAM))
+                .isInstanceOf(MaxUploadSizeExceededException.class);
+        }
+    }
+
+}